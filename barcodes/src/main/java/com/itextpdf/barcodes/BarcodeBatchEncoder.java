@@ -0,0 +1,248 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.barcodes;
+
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.colors.Color;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Encodes many 2D barcodes in parallel and turns them into form XObjects that are ready to be placed.
+ * <p>
+ * The payloads are split into one contiguous chunk per thread. Each thread encodes its chunk in order and lends
+ * its own scratch buffers to every barcode, so they are not allocated again for each code.
+ * The form XObjects are then created on the calling thread, since a {@link PdfDocument} is not thread safe.
+ * Their content is the same as that of the form XObjects the barcodes create themselves with the same module size,
+ * e.g. {@link Barcode2D#createFormXObject(Color, PdfDocument)}, and their bounding boxes enclose all the modules.
+ */
+public class BarcodeBatchEncoder {
+
+    /**
+     * Creates the barcodes of a batch.
+     */
+    public interface IBarcodeFactory {
+
+        /**
+         * Creates a barcode with the given payload and the desired settings, e.g. the error correction
+         * level or whether adjacent modules are merged, see {@link MatrixBarcode2D#setMergeModuleRuns(boolean)}.
+         * The method is called on a worker thread, once per payload.
+         *
+         * @param payload the payload
+         * @return the barcode
+         */
+        MatrixBarcode2D createBarcode(String payload);
+    }
+
+    private final IBarcodeFactory barcodeFactory;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Creates a {@link BarcodeBatchEncoder}.
+     *
+     * @param barcodeFactory the factory of the barcodes
+     */
+    public BarcodeBatchEncoder(IBarcodeFactory barcodeFactory) {
+        this.barcodeFactory = barcodeFactory;
+    }
+
+    /**
+     * Sets the number of threads the barcodes are encoded on. By default, it is the number of available processors.
+     *
+     * @param threadCount the number of threads, must be positive
+     * @return this instance
+     */
+    public BarcodeBatchEncoder setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount");
+        }
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * Encodes the payloads and creates a form XObject for each of them with modules of the default size.
+     * If any barcode cannot be encoded, the exception it has thrown is rethrown.
+     *
+     * @param payloads   the payloads
+     * @param foreground the color of the modules. It can be <CODE>null</CODE>
+     * @param document   the document the form XObjects are created for
+     * @return the form XObjects, in the order of the payloads
+     */
+    public List<PdfFormXObject> createFormXObjects(List<String> payloads, Color foreground, PdfDocument document) {
+        return createFormXObjects(payloads, foreground, Barcode2D.DEFAULT_MODULE_SIZE, document);
+    }
+
+    /**
+     * Encodes the payloads and creates a form XObject for each of them with square modules of the given size.
+     * If any barcode cannot be encoded, the exception it has thrown is rethrown.
+     *
+     * @param payloads   the payloads
+     * @param foreground the color of the modules. It can be <CODE>null</CODE>
+     * @param moduleSize the size of the modules
+     * @param document   the document the form XObjects are created for
+     * @return the form XObjects, in the order of the payloads
+     */
+    public List<PdfFormXObject> createFormXObjects(List<String> payloads, Color foreground, float moduleSize, PdfDocument document) {
+        return createFormXObjects(payloads, foreground, moduleSize, moduleSize, document);
+    }
+
+    /**
+     * Encodes the payloads and creates a form XObject for each of them with modules of the given width and height.
+     * If any barcode cannot be encoded, the exception it has thrown is rethrown.
+     *
+     * @param payloads     the payloads
+     * @param foreground   the color of the modules. It can be <CODE>null</CODE>
+     * @param moduleWidth  the width of the modules
+     * @param moduleHeight the height of the modules
+     * @param document     the document the form XObjects are created for
+     * @return the form XObjects, in the order of the payloads
+     */
+    public List<PdfFormXObject> createFormXObjects(List<String> payloads, Color foreground, float moduleWidth,
+                                                   float moduleHeight, PdfDocument document) {
+        List<PdfFormXObject> xObjects = new ArrayList<>(payloads.size());
+        if (payloads.isEmpty()) {
+            return xObjects;
+        }
+        int chunkCount = Math.min(threadCount, payloads.size());
+        ExecutorService executor = Executors.newFixedThreadPool(chunkCount);
+        try {
+            List<Future<EncodedBarcode[]>> results = new ArrayList<>(chunkCount);
+            for (int i = 0; i < chunkCount; i++) {
+                final List<String> chunk = payloads.subList(payloads.size() * i / chunkCount,
+                        payloads.size() * (i + 1) / chunkCount);
+                results.add(executor.submit(new Callable<EncodedBarcode[]>() {
+                    @Override
+                    public EncodedBarcode[] call() {
+                        return encode(chunk);
+                    }
+                }));
+            }
+            for (Future<EncodedBarcode[]> result : results) {
+                for (EncodedBarcode encodedBarcode : waitForChunk(result)) {
+                    xObjects.add(encodedBarcode.createFormXObject(foreground, moduleWidth, moduleHeight, document));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return xObjects;
+    }
+
+    private EncodedBarcode[] encode(List<String> chunk) {
+        EncodedBarcode[] encodedBarcodes = new EncodedBarcode[chunk.size()];
+        MatrixBarcode2D.ScratchBuffers scratchBuffers = new MatrixBarcode2D.ScratchBuffers();
+        for (int i = 0; i < encodedBarcodes.length; i++) {
+            MatrixBarcode2D barcode = barcodeFactory.createBarcode(chunk.get(i));
+            barcode.setScratchBuffers(scratchBuffers);
+            try {
+                // the module bits have to be read first, see MatrixBarcode2D#getModuleBits
+                byte[] bits = barcode.getModuleBits();
+                encodedBarcodes[i] = new EncodedBarcode(bits.clone(), barcode.getModuleColumns(), barcode.getModuleRows(),
+                        barcode.isMergeModuleRuns());
+            } finally {
+                // the barcode must not keep the buffers of this thread
+                barcode.setScratchBuffers(null);
+            }
+        }
+        return encodedBarcodes;
+    }
+
+    private static EncodedBarcode[] waitForChunk(Future<EncodedBarcode[]> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PdfException(cause);
+        }
+    }
+
+    private static class EncodedBarcode {
+        private final byte[] bits;
+        private final int columns;
+        private final int rows;
+        private final boolean mergeModuleRuns;
+
+        EncodedBarcode(byte[] bits, int columns, int rows, boolean mergeModuleRuns) {
+            this.bits = bits;
+            this.columns = columns;
+            this.rows = rows;
+            this.mergeModuleRuns = mergeModuleRuns;
+        }
+
+        PdfFormXObject createFormXObject(Color foreground, float moduleWidth, float moduleHeight, PdfDocument document) {
+            Rectangle rect = new Rectangle(0, 0, columns * moduleWidth, rows * moduleHeight);
+            PdfFormXObject xObject = new PdfFormXObject(rect);
+            PdfCanvas canvas = new PdfCanvas(xObject, document);
+            if (foreground != null) {
+                canvas.setFillColor(foreground);
+            }
+            if (mergeModuleRuns) {
+                MatrixBarcode2D.addMergedModules(canvas, bits, columns, rows, moduleWidth, moduleHeight);
+            } else {
+                MatrixBarcode2D.addModules(canvas, bits, columns, rows, moduleWidth, moduleHeight);
+            }
+            canvas.fill();
+            return xObject;
+        }
+    }
+}
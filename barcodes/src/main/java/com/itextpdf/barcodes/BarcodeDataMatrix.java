@@ -56,7 +56,7 @@ import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import java.io.UnsupportedEncodingException;
 import java.util.Arrays;
 
-public class BarcodeDataMatrix extends Barcode2D {
+public class BarcodeDataMatrix extends MatrixBarcode2D {
 
     /**
      * No error.
@@ -244,6 +244,12 @@ public class BarcodeDataMatrix extends Barcode2D {
         int h = height + 2 * ws;
         int stride = (w + 7) / 8;
 
+        if (mergeModuleRuns) {
+            addMergedModules(canvas, image, w, h, moduleSide, moduleSide);
+            canvas.fill();
+            return getBarcodeSize();
+        }
+
         for (int k = 0; k < h; ++k) {
             int p = k * stride;
             for (int j = 0; j < w; ++j) {
@@ -259,6 +265,24 @@ public class BarcodeDataMatrix extends Barcode2D {
         return getBarcodeSize();
     }
 
+    @Override
+    byte[] getModuleBits() {
+        if (image == null) {
+            throw new IllegalStateException("The barcode is not generated");
+        }
+        return image;
+    }
+
+    @Override
+    int getModuleColumns() {
+        return width + 2 * ws;
+    }
+
+    @Override
+    int getModuleRows() {
+        return height + 2 * ws;
+    }
+
     // AWT related methods (remove this if you port to Android / GAE)
 
     /**
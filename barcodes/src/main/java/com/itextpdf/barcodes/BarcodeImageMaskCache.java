@@ -0,0 +1,169 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.barcodes;
+
+import com.itextpdf.kernel.colors.Color;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps one image mask XObject per distinct barcode, so that a barcode that is drawn many times is written
+ * to the document only once. The image masks are bound to the document they are first drawn in, so use
+ * one cache per document. The cache is not thread safe, just like the document.
+ */
+public class BarcodeImageMaskCache {
+
+    /** The default maximum number of cached image masks. */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final Map<MaskKey, PdfImageXObject> imageMasks;
+
+    /**
+     * Creates a cache with at most {@link #DEFAULT_MAX_SIZE} image masks.
+     */
+    public BarcodeImageMaskCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a cache. When it is full, the least recently used image mask is dropped from the cache;
+     * it stays in the document, but a barcode with the same modules gets a new image mask.
+     *
+     * @param maxSize the maximum number of cached image masks, must be positive
+     */
+    public BarcodeImageMaskCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize");
+        }
+        this.imageMasks = new LinkedHashMap<MaskKey, PdfImageXObject>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MaskKey, PdfImageXObject> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the image mask of the barcode, creating it if no barcode with the same modules was seen before.
+     *
+     * @param barcode the barcode
+     * @return the image mask XObject, see {@link MatrixBarcode2D#createImageMaskXObject()}
+     */
+    public PdfImageXObject getImageMask(MatrixBarcode2D barcode) {
+        byte[] bits = barcode.getModuleBits();
+        int columns = barcode.getModuleColumns();
+        int rows = barcode.getModuleRows();
+        PdfImageXObject imageMask = imageMasks.get(new MaskKey(bits, columns, rows));
+        if (imageMask == null) {
+            // the barcode may change its bits later
+            byte[] maskBits = bits.clone();
+            imageMask = MatrixBarcode2D.createImageMaskXObject(maskBits, columns, rows);
+            imageMasks.put(new MaskKey(maskBits, columns, rows), imageMask);
+        }
+        return imageMask;
+    }
+
+    /**
+     * Places the barcode in a <CODE>PdfCanvas</CODE> as an image mask. The
+     * barcode is always placed at coordinates (0, 0). Use the
+     * translation matrix to move it elsewhere.
+     *
+     * @param canvas       the <CODE>PdfCanvas</CODE> where the barcode will be placed
+     * @param barcode      the barcode
+     * @param foreground   the foreground color. It can be <CODE>null</CODE>
+     * @param moduleWidth  the width of a module
+     * @param moduleHeight the height of a module
+     * @return the dimensions the barcode occupies
+     */
+    public Rectangle placeBarcode(PdfCanvas canvas, MatrixBarcode2D barcode, Color foreground, float moduleWidth, float moduleHeight) {
+        PdfImageXObject imageMask = getImageMask(barcode);
+        if (foreground != null) {
+            canvas.setFillColor(foreground);
+        }
+        Rectangle rect = new Rectangle(0, 0, barcode.getModuleColumns() * moduleWidth, barcode.getModuleRows() * moduleHeight);
+        canvas.addXObject(imageMask, rect);
+        return rect;
+    }
+
+    /**
+     * Gets the number of cached image masks.
+     *
+     * @return the number of cached image masks
+     */
+    public int size() {
+        return imageMasks.size();
+    }
+
+    private static class MaskKey {
+        private final byte[] bits;
+        private final int columns;
+        private final int rows;
+        private final int hash;
+
+        MaskKey(byte[] bits, int columns, int rows) {
+            this.bits = bits;
+            this.columns = columns;
+            this.rows = rows;
+            this.hash = 31 * (31 * Arrays.hashCode(bits) + columns) + rows;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof MaskKey)) {
+                return false;
+            }
+            MaskKey other = (MaskKey) obj;
+            return columns == other.columns && rows == other.rows && Arrays.equals(bits, other.bits);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
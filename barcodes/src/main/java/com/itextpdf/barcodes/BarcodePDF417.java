@@ -55,7 +55,7 @@ import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import java.util.ArrayList;
 import java.util.List;
 
-public class BarcodePDF417 extends Barcode2D {
+public class BarcodePDF417 extends MatrixBarcode2D {
 
     /**
      * Auto-size is made based on <CODE>aspectRatio</CODE> and <CODE>yHeight</CODE>.
@@ -609,6 +609,9 @@ public class BarcodePDF417 extends Barcode2D {
      */
     private int[] codewords = new int[MAX_DATA_CODEWORDS + 2];
 
+    // the scratch buffers of the batch encoder, if the barcode is encoded by one
+    private ScratchBuffers scratchBuffers;
+
     /**
      * Holds value of property lenCodewords.
      */
@@ -704,6 +707,11 @@ public class BarcodePDF417 extends Barcode2D {
         if (foreground != null) {
             canvas.setFillColor(foreground);
         }
+        if (mergeModuleRuns) {
+            addMergedModules(canvas, outBits, bitColumns, codeRows, moduleWidth, moduleHeight);
+            canvas.fill();
+            return getBarcodeSize();
+        }
         for (int k = 0; k < codeRows; ++k) {
             int p = k * stride;
             for (int j = 0; j < bitColumns; ++j) {
@@ -719,6 +727,27 @@ public class BarcodePDF417 extends Barcode2D {
         return getBarcodeSize();
     }
 
+    @Override
+    byte[] getModuleBits() {
+        paintCode();
+        return outBits;
+    }
+
+    @Override
+    void setScratchBuffers(ScratchBuffers scratchBuffers) {
+        this.scratchBuffers = scratchBuffers;
+    }
+
+    @Override
+    int getModuleColumns() {
+        return bitColumns;
+    }
+
+    @Override
+    int getModuleRows() {
+        return codeRows;
+    }
+
     /**
      * Paints the barcode. If no exception was thrown a valid barcode is available.
      */
@@ -1573,7 +1602,9 @@ public class BarcodePDF417 extends Barcode2D {
     }
 
     private void textCompaction(byte[] input, int start, int length) {
-        int[] dest = new int[ABSOLUTE_MAX_TEXT_SIZE * 2];
+        // every element is written before it is read, so a shared buffer need not be cleared
+        int[] dest = scratchBuffers != null ? scratchBuffers.getTextCompactionBuffer(ABSOLUTE_MAX_TEXT_SIZE * 2)
+                : new int[ABSOLUTE_MAX_TEXT_SIZE * 2];
         int mode = ALPHA;
         int ptr = 0;
         int fullBytes = 0;
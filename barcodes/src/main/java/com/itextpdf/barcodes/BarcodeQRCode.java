@@ -59,7 +59,7 @@ import java.util.Map;
 /**
  * A QRCode implementation based on the zxing code.
  */
-public class BarcodeQRCode extends Barcode2D {
+public class BarcodeQRCode extends MatrixBarcode2D {
     ByteMatrix bm;
     /**
      * modifiers to change the way the barcode is create.
@@ -183,6 +183,12 @@ public class BarcodeQRCode extends Barcode2D {
             canvas.setFillColor(foreground);
         }
 
+        if (mergeModuleRuns) {
+            addMergedModules(canvas, getModuleBits(), width, height, moduleSide, moduleSide);
+            canvas.fill();
+            return getBarcodeSize(moduleSide);
+        }
+
         for (int y = 0; y < height; ++y) {
             byte[] line = mt[y];
             for (int x = 0; x < width; ++x) {
@@ -250,6 +256,34 @@ public class BarcodeQRCode extends Barcode2D {
         return img;
     }
 
+    @Override
+    byte[] getModuleBits() {
+        int width = bm.getWidth();
+        int height = bm.getHeight();
+        int stride = (width + 7) / 8;
+        byte[] b = new byte[stride * height];
+        byte[][] mt = bm.getArray();
+        for (int y = 0; y < height; ++y) {
+            byte[] line = mt[y];
+            for (int x = 0; x < width; ++x) {
+                if (line[x] == 0) {
+                    b[stride * y + x / 8] |= (byte) (0x80 >> (x % 8));
+                }
+            }
+        }
+        return b;
+    }
+
+    @Override
+    int getModuleColumns() {
+        return bm.getWidth();
+    }
+
+    @Override
+    int getModuleRows() {
+        return bm.getHeight();
+    }
+
     private byte[] getBitMatrix() {
         int width = bm.getWidth();
         int height = bm.getHeight();
@@ -0,0 +1,231 @@
+/*
+
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.barcodes;
+
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfBoolean;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+
+/**
+ * A 2D barcode that consists of a matrix of square or rectangular modules, i.e. {@link BarcodeQRCode},
+ * {@link BarcodeDataMatrix} or {@link BarcodePDF417}. The matrix of modules can be drawn as an image mask,
+ * see {@link BarcodeImageMaskCache}, and encoded in parallel, see {@link BarcodeBatchEncoder}.
+ */
+public abstract class MatrixBarcode2D extends Barcode2D {
+
+    /**
+     * If true, adjacent dark modules are merged into as few rectangles as possible when the barcode is placed.
+     */
+    protected boolean mergeModuleRuns = false;
+
+    MatrixBarcode2D() {
+    }
+
+    /**
+     * Checks whether adjacent dark modules are merged into as few rectangles as possible when the barcode is placed.
+     *
+     * @return true if the modules are merged, false if every dark module is drawn as its own rectangle
+     */
+    public boolean isMergeModuleRuns() {
+        return mergeModuleRuns;
+    }
+
+    /**
+     * Sets whether adjacent dark modules are merged when the barcode is placed. Each horizontal run of dark
+     * modules becomes one rectangle, and identical runs in consecutive rows are joined into one rectangle,
+     * which keeps the content stream of dense codes much smaller. The painted area is the same.
+     *
+     * @param mergeModuleRuns true to merge the modules, false to draw every dark module as its own rectangle
+     */
+    public void setMergeModuleRuns(boolean mergeModuleRuns) {
+        this.mergeModuleRuns = mergeModuleRuns;
+    }
+
+    /**
+     * Creates an image mask with one sample per module of the barcode. When the image mask is drawn,
+     * the dark modules are painted with the current fill color and the light modules are left untouched.
+     * Draw it scaled to {@link #getBarcodeSize()} multiplied by the module size, e.g. with
+     * {@link PdfCanvas#addXObject(com.itextpdf.kernel.pdf.xobject.PdfXObject, Rectangle)}.
+     * The same image mask can be drawn any number of times in the document it is first added to,
+     * see {@link BarcodeImageMaskCache}.
+     *
+     * @return the image mask XObject
+     */
+    public PdfImageXObject createImageMaskXObject() {
+        return createImageMaskXObject(getModuleBits(), getModuleColumns(), getModuleRows());
+    }
+
+    /**
+     * Gets the modules of the barcode, one bit per module, row by row from the top, each row padded to whole bytes.
+     * A set bit is a dark module. It is called before {@link #getModuleColumns()} and {@link #getModuleRows()},
+     * so the barcode may be painted here.
+     */
+    abstract byte[] getModuleBits();
+
+    abstract int getModuleColumns();
+
+    abstract int getModuleRows();
+
+    /**
+     * Sets the scratch buffers the barcode is encoded with instead of allocating its own ones.
+     *
+     * @param scratchBuffers the scratch buffers, or {@code null} to allocate them for each encoding
+     */
+    void setScratchBuffers(ScratchBuffers scratchBuffers) {
+    }
+
+    static PdfImageXObject createImageMaskXObject(byte[] bits, int columns, int rows) {
+        PdfStream stream = new PdfStream(bits);
+        stream.put(PdfName.Type, PdfName.XObject);
+        stream.put(PdfName.Subtype, PdfName.Image);
+        stream.put(PdfName.Width, new PdfNumber(columns));
+        stream.put(PdfName.Height, new PdfNumber(rows));
+        stream.put(PdfName.ImageMask, PdfBoolean.TRUE);
+        // a set bit is a dark module, which is the opposite of the default decoding of image masks
+        stream.put(PdfName.Decode, new PdfArray(new float[] {1, 0}));
+        return new PdfImageXObject(stream);
+    }
+
+    /**
+     * Adds every dark module to the current path as its own rectangle.
+     */
+    static void addModules(PdfCanvas canvas, byte[] bits, int columns, int rows, float moduleWidth, float moduleHeight) {
+        int stride = (columns + 7) / 8;
+        for (int k = 0; k < rows; ++k) {
+            for (int j = 0; j < columns; ++j) {
+                if (isSet(bits, k * stride, j)) {
+                    canvas.rectangle(j * moduleWidth, (rows - k - 1) * moduleHeight, moduleWidth, moduleHeight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the dark modules to the current path, merging horizontal runs and identical runs of consecutive rows
+     * into single rectangles.
+     */
+    static void addMergedModules(PdfCanvas canvas, byte[] bits, int columns, int rows, float moduleWidth, float moduleHeight) {
+        int stride = (columns + 7) / 8;
+        // the runs of the previous row that may still be extended: start column, end column and first row
+        int[] openStart = new int[(columns + 1) / 2];
+        int[] openEnd = new int[openStart.length];
+        int[] openFirstRow = new int[openStart.length];
+        int openCount = 0;
+        int[] rowStart = new int[openStart.length];
+        int[] rowEnd = new int[openStart.length];
+        int[] rowFirstRow = new int[openStart.length];
+        for (int k = 0; k <= rows; ++k) {
+            int rowCount = 0;
+            int open = 0;
+            int j = 0;
+            while (k < rows && j < columns) {
+                if (!isSet(bits, k * stride, j)) {
+                    ++j;
+                    continue;
+                }
+                int start = j;
+                while (j < columns && isSet(bits, k * stride, j)) {
+                    ++j;
+                }
+                // the open runs are sorted, so the ones that end before this run can no longer be extended
+                while (open < openCount && openEnd[open] <= start) {
+                    addRun(canvas, openStart[open], openEnd[open], openFirstRow[open], k - 1, rows, moduleWidth, moduleHeight);
+                    ++open;
+                }
+                int firstRow = k;
+                if (open < openCount && openStart[open] == start && openEnd[open] == j) {
+                    firstRow = openFirstRow[open];
+                    ++open;
+                }
+                rowStart[rowCount] = start;
+                rowEnd[rowCount] = j;
+                rowFirstRow[rowCount] = firstRow;
+                ++rowCount;
+            }
+            for (; open < openCount; ++open) {
+                addRun(canvas, openStart[open], openEnd[open], openFirstRow[open], k - 1, rows, moduleWidth, moduleHeight);
+            }
+            int[] swap = openStart;
+            openStart = rowStart;
+            rowStart = swap;
+            swap = openEnd;
+            openEnd = rowEnd;
+            rowEnd = swap;
+            swap = openFirstRow;
+            openFirstRow = rowFirstRow;
+            rowFirstRow = swap;
+            openCount = rowCount;
+        }
+    }
+
+    private static boolean isSet(byte[] bits, int rowOffset, int column) {
+        return (bits[rowOffset + column / 8] & (0x80 >> (column % 8))) != 0;
+    }
+
+    private static void addRun(PdfCanvas canvas, int start, int end, int firstRow, int lastRow, int rows,
+                               float moduleWidth, float moduleHeight) {
+        canvas.rectangle(start * moduleWidth, (rows - lastRow - 1) * moduleHeight,
+                (end - start) * moduleWidth, (lastRow - firstRow + 1) * moduleHeight);
+    }
+
+    /**
+     * The scratch buffers of one thread of {@link BarcodeBatchEncoder}, which are used by the barcodes
+     * it encodes one after another.
+     */
+    static final class ScratchBuffers {
+        private int[] textCompactionBuffer;
+
+        int[] getTextCompactionBuffer(int size) {
+            if (textCompactionBuffer == null || textCompactionBuffer.length < size) {
+                textCompactionBuffer = new int[size];
+            }
+            return textCompactionBuffer;
+        }
+    }
+}
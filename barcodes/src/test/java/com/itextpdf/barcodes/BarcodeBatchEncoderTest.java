@@ -0,0 +1,201 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.barcodes;
+
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+@Category(IntegrationTest.class)
+public class BarcodeBatchEncoderTest extends ExtendedITextTest {
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @Test
+    public void qrCodeBatchTest() {
+        assertSameAsSingleBarcodes(new BarcodeBatchEncoder.IBarcodeFactory() {
+            @Override
+            public MatrixBarcode2D createBarcode(String payload) {
+                return new BarcodeQRCode(payload);
+            }
+        });
+    }
+
+    @Test
+    public void dataMatrixBatchTest() {
+        assertSameAsSingleBarcodes(new BarcodeBatchEncoder.IBarcodeFactory() {
+            @Override
+            public MatrixBarcode2D createBarcode(String payload) {
+                BarcodeDataMatrix barcode = new BarcodeDataMatrix();
+                barcode.setCode(payload);
+                return barcode;
+            }
+        });
+    }
+
+    @Test
+    public void pdf417BatchTest() {
+        assertSameAsSingleBarcodes(new BarcodeBatchEncoder.IBarcodeFactory() {
+            @Override
+            public MatrixBarcode2D createBarcode(String payload) {
+                BarcodePDF417 barcode = new BarcodePDF417();
+                barcode.setCode(payload);
+                return barcode;
+            }
+        });
+    }
+
+    @Test
+    public void mergedModulesBatchTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        BarcodeBatchEncoder encoder = new BarcodeBatchEncoder(new BarcodeBatchEncoder.IBarcodeFactory() {
+            @Override
+            public MatrixBarcode2D createBarcode(String payload) {
+                BarcodeQRCode barcode = new BarcodeQRCode(payload);
+                barcode.setMergeModuleRuns(true);
+                return barcode;
+            }
+        });
+        BarcodeQRCode single = new BarcodeQRCode("Shipping label 42");
+        single.setMergeModuleRuns(true);
+
+        PdfFormXObject xObject = encoder.createFormXObjects(Collections.singletonList("Shipping label 42"), null, document).get(0);
+        Assert.assertArrayEquals(single.createFormXObject(document).getPdfObject().getBytes(),
+                xObject.getPdfObject().getBytes());
+        document.addNewPage();
+        document.close();
+    }
+
+    @Test
+    public void moduleSizeBatchTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        BarcodeBatchEncoder qrCodeEncoder = new BarcodeBatchEncoder(new BarcodeBatchEncoder.IBarcodeFactory() {
+            @Override
+            public MatrixBarcode2D createBarcode(String payload) {
+                return new BarcodeQRCode(payload);
+            }
+        });
+        PdfFormXObject qrCode = qrCodeEncoder.createFormXObjects(Collections.singletonList("Shipping label 42"), null, 2.5f, document).get(0);
+        PdfFormXObject expectedQrCode = new BarcodeQRCode("Shipping label 42").createFormXObject(null, 2.5f, document);
+        Assert.assertArrayEquals(expectedQrCode.getBBox().toFloatArray(), qrCode.getBBox().toFloatArray(), 0);
+        Assert.assertArrayEquals(expectedQrCode.getPdfObject().getBytes(), qrCode.getPdfObject().getBytes());
+
+        BarcodeBatchEncoder pdf417Encoder = new BarcodeBatchEncoder(new BarcodeBatchEncoder.IBarcodeFactory() {
+            @Override
+            public MatrixBarcode2D createBarcode(String payload) {
+                BarcodePDF417 barcode = new BarcodePDF417();
+                barcode.setCode(payload);
+                return barcode;
+            }
+        });
+        PdfFormXObject pdf417 = pdf417Encoder.createFormXObjects(Collections.singletonList("Shipping label 42"), null, 2, 3, document).get(0);
+        BarcodePDF417 expectedPdf417 = new BarcodePDF417();
+        expectedPdf417.setCode("Shipping label 42");
+        Assert.assertArrayEquals(expectedPdf417.createFormXObject(null, 2, 3, document).getPdfObject().getBytes(),
+                pdf417.getPdfObject().getBytes());
+        Rectangle size = expectedPdf417.getBarcodeSize();
+        Assert.assertArrayEquals(new float[] {0, 0, size.getWidth() * 2, size.getHeight() * 3}, pdf417.getBBox().toFloatArray(), 0);
+        document.addNewPage();
+        document.close();
+    }
+
+    @Test
+    public void failingBarcodeTest() {
+        junitExpectedException.expect(IllegalArgumentException.class);
+
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        BarcodeBatchEncoder encoder = new BarcodeBatchEncoder(new BarcodeBatchEncoder.IBarcodeFactory() {
+            @Override
+            public MatrixBarcode2D createBarcode(String payload) {
+                return new BarcodeQRCode(payload);
+            }
+        });
+        encoder.setThreadCount(2).createFormXObjects(createPayloads(4, ""), null, document);
+    }
+
+    @Test
+    public void invalidThreadCountTest() {
+        junitExpectedException.expect(IllegalArgumentException.class);
+        new BarcodeBatchEncoder(null).setThreadCount(0);
+    }
+
+    private static void assertSameAsSingleBarcodes(BarcodeBatchEncoder.IBarcodeFactory factory) {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        List<String> payloads = createPayloads(25, "Shipping label ");
+        List<PdfFormXObject> xObjects = new BarcodeBatchEncoder(factory).setThreadCount(3)
+                .createFormXObjects(payloads, ColorConstants.BLACK, document);
+
+        Assert.assertEquals(payloads.size(), xObjects.size());
+        for (int i = 0; i < payloads.size(); i++) {
+            PdfFormXObject expected = factory.createBarcode(payloads.get(i)).createFormXObject(ColorConstants.BLACK, document);
+            Assert.assertArrayEquals(expected.getBBox().toFloatArray(), xObjects.get(i).getBBox().toFloatArray(), 0);
+            Assert.assertArrayEquals(expected.getPdfObject().getBytes(), xObjects.get(i).getPdfObject().getBytes());
+        }
+        document.addNewPage();
+        document.close();
+    }
+
+    private static List<String> createPayloads(int count, String prefix) {
+        List<String> payloads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            payloads.add(prefix.isEmpty() ? "" : prefix + i);
+        }
+        return payloads;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.barcodes;
+
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(IntegrationTest.class)
+public class BarcodeModuleRunsTest extends ExtendedITextTest {
+
+    private static final Pattern RECTANGLE = Pattern.compile("(-?[\\d.]+) (-?[\\d.]+) (-?[\\d.]+) (-?[\\d.]+) re");
+
+    @Test
+    public void qrCodeMergedModulesTest() {
+        assertMergedModulesPaintSameArea(new BarcodeQRCode("some specific text 239214 hello world"));
+    }
+
+    @Test
+    public void dataMatrixMergedModulesTest() {
+        BarcodeDataMatrix barcode = new BarcodeDataMatrix();
+        barcode.setWs(2);
+        barcode.setCode("AbcdFFghijklmnopqrstuWXSQ");
+        assertMergedModulesPaintSameArea(barcode);
+    }
+
+    @Test
+    public void pdf417MergedModulesTest() {
+        BarcodePDF417 barcode = new BarcodePDF417();
+        barcode.setCode("Call me Ishmael. Some years ago--never mind how long precisely --having little or no money in my purse,"
+                + " and nothing particular to interest me on shore, I thought I would sail about a little and see the watery part of the world.");
+        assertMergedModulesPaintSameArea(barcode);
+    }
+
+    @Test
+    public void imageMaskCacheTest() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfCanvas canvas = new PdfCanvas(document.addNewPage());
+        BarcodeImageMaskCache cache = new BarcodeImageMaskCache();
+
+        BarcodeQRCode barcode = new BarcodeQRCode("label 1");
+        PdfImageXObject imageMask = cache.getImageMask(barcode);
+        Assert.assertSame(imageMask, cache.getImageMask(new BarcodeQRCode("label 1")));
+        Assert.assertNotSame(imageMask, cache.getImageMask(new BarcodeQRCode("label 2")));
+        Assert.assertEquals(2, cache.size());
+
+        Rectangle rect = cache.placeBarcode(canvas, barcode, ColorConstants.BLACK, 2, 2);
+        Assert.assertEquals(barcode.getBarcodeSize(2).getWidth(), rect.getWidth(), 0);
+        Assert.assertEquals(barcode.getBarcodeSize(2).getHeight(), rect.getHeight(), 0);
+        Assert.assertTrue(imageMask.getPdfObject().getAsBool(PdfName.ImageMask));
+        Assert.assertEquals((int) barcode.getBarcodeSize().getWidth(), (int) imageMask.getWidth());
+        document.close();
+    }
+
+    @Test
+    public void imageMaskCacheMaxSizeTest() {
+        BarcodeImageMaskCache cache = new BarcodeImageMaskCache(1);
+        PdfImageXObject imageMask = cache.getImageMask(new BarcodeQRCode("label 1"));
+        cache.getImageMask(new BarcodeQRCode("label 2"));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertNotSame(imageMask, cache.getImageMask(new BarcodeQRCode("label 1")));
+    }
+
+    private static void assertMergedModulesPaintSameArea(MatrixBarcode2D barcode) {
+        barcode.getModuleBits();
+        int columns = barcode.getModuleColumns();
+        int rows = barcode.getModuleRows();
+        String modules = placeBarcode(barcode);
+        barcode.setMergeModuleRuns(true);
+        String mergedModules = placeBarcode(barcode);
+
+        Assert.assertTrue(countRectangles(mergedModules) * 2 < countRectangles(modules));
+        Assert.assertTrue(Arrays.deepEquals(paint(modules, columns, rows), paint(mergedModules, columns, rows)));
+    }
+
+    private static String placeBarcode(MatrixBarcode2D barcode) {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfPage page = document.addNewPage();
+        barcode.placeBarcode(new PdfCanvas(page), ColorConstants.BLACK);
+        String content = new String(page.getContentBytes());
+        document.close();
+        return content;
+    }
+
+    private static int countRectangles(String content) {
+        int count = 0;
+        Matcher matcher = RECTANGLE.matcher(content);
+        while (matcher.find()) {
+            ++count;
+        }
+        return count;
+    }
+
+    private static int[][] paint(String content, int columns, int rows) {
+        int[][] modules = new int[rows][columns];
+        Matcher matcher = RECTANGLE.matcher(content);
+        while (matcher.find()) {
+            int x = Math.round(Float.parseFloat(matcher.group(1)));
+            int y = Math.round(Float.parseFloat(matcher.group(2)));
+            int width = Math.round(Float.parseFloat(matcher.group(3)));
+            int height = Math.round(Float.parseFloat(matcher.group(4)));
+            for (int row = y; row < y + height; ++row) {
+                for (int column = x; column < x + width; ++column) {
+                    // rectangles must not overlap, so every module is painted at most once
+                    ++modules[row][column];
+                }
+            }
+        }
+        return modules;
+    }
+}
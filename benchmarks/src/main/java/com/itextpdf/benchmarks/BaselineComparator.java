@@ -0,0 +1,184 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares the results of two benchmark runs stored in the JMH CSV format ({@code -rf csv}),
+ * typically the baseline of the previous release against the current build.
+ * <p>
+ * Only the primary results are compared; secondary results, e.g. the cache counters or the results of profilers,
+ * are informational. A benchmark regresses when its score got worse by more than the threshold: lower for
+ * the throughput mode, higher for the time based modes. The process exits with status 1 if there are regressions.
+ * <p>
+ * Usage: {@code BaselineComparator <baseline.csv> <current.csv> [threshold percent, default 10]}
+ */
+public final class BaselineComparator {
+
+    private static final double DEFAULT_THRESHOLD = 10;
+
+    private BaselineComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparator <baseline.csv> <current.csv> [threshold percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+        int regressions = compare(readResults(args[0]), readResults(args[1]), threshold, System.out);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Prints the comparison of the benchmarks present in both runs.
+     *
+     * @param baseline  the baseline results, keyed by benchmark and parameters
+     * @param current   the current results, keyed by benchmark and parameters
+     * @param threshold the allowed change of a score in percent
+     * @param out       the stream to print the comparison to
+     * @return the number of regressed benchmarks
+     */
+    static int compare(Map<String, Result> baseline, Map<String, Result> current, double threshold, PrintStream out) {
+        int regressions = 0;
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            Result after = entry.getValue();
+            if (before == null) {
+                out.println(String.format(Locale.US, "%-100s %14s %14.3f %s", entry.getKey(), "-", after.score, after.unit));
+                continue;
+            }
+            double change = before.score == 0 ? 0 : (after.score - before.score) / before.score * 100;
+            boolean regressed = "thrpt".equals(after.mode) ? change < -threshold : change > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            out.println(String.format(Locale.US, "%-100s %14.3f %14.3f %s %+8.1f%%%s", entry.getKey(), before.score,
+                    after.score, after.unit, change, regressed ? "  REGRESSION" : ""));
+        }
+        out.println(regressions + " regression(s) over " + threshold + "%");
+        return regressions;
+    }
+
+    static Map<String, Result> readResults(String path) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(path), "UTF-8"));
+        try {
+            List<String> header = parseCsvLine(reader.readLine());
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                List<String> values = parseCsvLine(line);
+                String benchmark = values.get(0);
+                // secondary results are named <benchmark>:<result>
+                if (benchmark.indexOf(':') >= 0) {
+                    continue;
+                }
+                StringBuilder key = new StringBuilder(benchmark);
+                String separator = " (";
+                for (int i = 7; i < header.size() && i < values.size(); i++) {
+                    // the parameters of the other benchmarks in the same file are empty
+                    if (!values.get(i).isEmpty()) {
+                        key.append(separator).append(header.get(i).replace("Param: ", "")).append('=').append(values.get(i));
+                        separator = ", ";
+                    }
+                }
+                if (!" (".equals(separator)) {
+                    key.append(')');
+                }
+                results.put(key.toString(), new Result(values.get(1), Double.parseDouble(values.get(4)), values.get(6)));
+            }
+        } finally {
+            reader.close();
+        }
+        return results;
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = !quoted;
+                }
+            } else if (c == ',' && !quoted) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    static final class Result {
+        final String mode;
+        final double score;
+        final String unit;
+
+        Result(String mode, double score, String unit) {
+            this.mode = mode;
+            this.score = score;
+            this.unit = unit;
+        }
+    }
+}
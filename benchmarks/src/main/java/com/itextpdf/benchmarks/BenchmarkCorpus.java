@@ -0,0 +1,166 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks;
+
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+/**
+ * Generates the inputs of the benchmarks, so that they can be run without any external files.
+ * All the generators are deterministic: the same arguments always produce the same corpus,
+ * which keeps results of different runs and releases comparable.
+ */
+public final class BenchmarkCorpus {
+
+    private static final long SEED = 20180817L;
+
+    private static final String[] WORDS = {
+            "document", "portable", "format", "rendering", "content", "stream", "object", "reference",
+            "dictionary", "hyphenation", "justification", "typography", "paragraph", "table", "column",
+            "signature", "certificate", "encryption", "compression", "extraction", "layout", "renderer",
+            "glyph", "font", "subset", "page", "annotation", "outline", "structure", "accessibility",
+            "the", "a", "of", "and", "to", "in", "is", "for", "with", "on", "by", "as", "at", "from"
+    };
+
+    private BenchmarkCorpus() {
+    }
+
+    /**
+     * Generates pseudo-random English-like text.
+     *
+     * @param wordCount the number of words to generate
+     * @param seed      the seed of the generator, so that different parts of a document can differ
+     * @return the generated text
+     */
+    public static String generateText(int wordCount, long seed) {
+        Random random = new Random(SEED + seed);
+        StringBuilder text = new StringBuilder(wordCount * 8);
+        for (int i = 0; i < wordCount; i++) {
+            if (i > 0) {
+                text.append(i % 17 == 0 ? ". " : " ");
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.append('.').toString();
+    }
+
+    /**
+     * Creates a text-only document laid out with the standard Helvetica font.
+     *
+     * @param paragraphCount the number of paragraphs, about six of them fit on a page
+     * @return the bytes of the created document
+     */
+    public static byte[] createTextDocument(int paragraphCount) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document(new PdfDocument(new PdfWriter(baos)));
+        for (int i = 0; i < paragraphCount; i++) {
+            document.add(new Paragraph(generateText(120, i)));
+        }
+        document.close();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Creates an uncompressed content stream which mixes text showing, path construction and graphics state operators
+     * in about the same proportion as the content generated by the layout module.
+     *
+     * @param blockCount the number of text blocks in the stream
+     * @return the bytes of the content stream
+     */
+    public static byte[] createContentStream(int blockCount) {
+        Random random = new Random(SEED);
+        StringBuilder content = new StringBuilder(blockCount * 160);
+        for (int i = 0; i < blockCount; i++) {
+            content.append("q\n0.2 0.4 0.6 rg\n")
+                    .append(random.nextInt(500)).append(' ').append(random.nextInt(800)).append(" 120.5 14.25 re\nf\nQ\n")
+                    .append("BT\n/F1 12 Tf\n36 ").append(800 - i % 50 * 15).append(" Td\n")
+                    .append('(').append(WORDS[random.nextInt(WORDS.length)]).append(") Tj\n")
+                    .append("[(").append(WORDS[random.nextInt(WORDS.length)]).append(") -250 (")
+                    .append(WORDS[random.nextInt(WORDS.length)]).append(")] TJ\nET\n");
+        }
+        return content.toString().getBytes();
+    }
+
+    /**
+     * Creates data which compresses about as well as typical page content does.
+     *
+     * @param size the size of the data in bytes
+     * @return the generated data
+     */
+    public static byte[] createCompressibleData(int size) {
+        byte[] content = createContentStream(size / 100 + 1);
+        byte[] data = new byte[size];
+        Random random = new Random(SEED);
+        for (int i = 0; i < size; i++) {
+            // every 16th byte is noise, the rest repeats the content stream
+            data[i] = i % 16 == 0 ? (byte) random.nextInt(256) : content[i % content.length];
+        }
+        return data;
+    }
+
+    /**
+     * Reads the TrueType font bundled with the benchmarks.
+     *
+     * @return the bytes of the font program
+     * @throws IOException if the font cannot be read
+     */
+    public static byte[] loadFont() throws IOException {
+        InputStream stream = BenchmarkCorpus.class.getResourceAsStream("fonts/NotoSans-Regular.ttf");
+        if (stream == null) {
+            throw new IOException("The benchmark font is missing, the benchmarks have to be built with Maven.");
+        }
+        try {
+            return StreamUtil.inputStreamToArray(stream);
+        } finally {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks.barcodes;
+
+import com.itextpdf.barcodes.BarcodeBatchEncoder;
+import com.itextpdf.barcodes.BarcodeDataMatrix;
+import com.itextpdf.barcodes.BarcodePDF417;
+import com.itextpdf.barcodes.BarcodeQRCode;
+import com.itextpdf.barcodes.MatrixBarcode2D;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of the form XObjects of a batch of shipping-label barcodes, one symbology at a time: one barcode
+ * after the other on the calling thread, as done before, versus {@link BarcodeBatchEncoder}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BarcodeBatchBenchmark {
+
+    @Param({"qrcode", "datamatrix", "pdf417"})
+    public String symbology;
+
+    @Param({"1000"})
+    public int barcodes;
+
+    private BarcodeBatchEncoder.IBarcodeFactory factory;
+    private List<String> payloads;
+
+    @Setup
+    public void setUp() {
+        factory = createFactory(symbology);
+        payloads = new ArrayList<>(barcodes);
+        for (int i = 0; i < barcodes; i++) {
+            payloads.add("SHIP-" + (100000000 + i) + "|DEST:ANTWERPEN 2000 BE|WEIGHT:" + (i % 50) + "KG|REF:ORDER-" + i * 7);
+        }
+    }
+
+    @Benchmark
+    public int createOneByOne() {
+        PdfDocument document = createDocument();
+        int count = 0;
+        for (String payload : payloads) {
+            PdfFormXObject xObject = factory.createBarcode(payload).createFormXObject(document);
+            count += xObject.getPdfObject().getBytes().length;
+        }
+        document.close();
+        return count;
+    }
+
+    @Benchmark
+    public int createBatch() {
+        PdfDocument document = createDocument();
+        int count = 0;
+        for (PdfFormXObject xObject : new BarcodeBatchEncoder(factory).createFormXObjects(payloads, null, document)) {
+            count += xObject.getPdfObject().getBytes().length;
+        }
+        document.close();
+        return count;
+    }
+
+    private static PdfDocument createDocument() {
+        PdfDocument document = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        document.addNewPage();
+        return document;
+    }
+
+    private static BarcodeBatchEncoder.IBarcodeFactory createFactory(String symbology) {
+        if ("qrcode".equals(symbology)) {
+            return new BarcodeBatchEncoder.IBarcodeFactory() {
+                @Override
+                public MatrixBarcode2D createBarcode(String payload) {
+                    return new BarcodeQRCode(payload);
+                }
+            };
+        }
+        if ("datamatrix".equals(symbology)) {
+            return new BarcodeBatchEncoder.IBarcodeFactory() {
+                @Override
+                public MatrixBarcode2D createBarcode(String payload) {
+                    BarcodeDataMatrix barcode = new BarcodeDataMatrix();
+                    barcode.setCode(payload);
+                    return barcode;
+                }
+            };
+        }
+        if ("pdf417".equals(symbology)) {
+            return new BarcodeBatchEncoder.IBarcodeFactory() {
+                @Override
+                public MatrixBarcode2D createBarcode(String payload) {
+                    BarcodePDF417 barcode = new BarcodePDF417();
+                    barcode.setCode(payload);
+                    return barcode;
+                }
+            };
+        }
+        throw new IllegalArgumentException(symbology);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks.kernel;
+
+import com.itextpdf.benchmarks.BenchmarkCorpus;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.utils.CompareTool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Comparison of documents with {@link CompareTool#compareByStructure(String, String)}, once against an identical
+ * document, where every page is skipped by its fingerprint, and once against a document with one changed operator
+ * on every page, where every content stream is parsed and diffed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompareByStructureBenchmark {
+
+    @Param({"60", "600"})
+    public int paragraphs;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private File cmpFile;
+    private File identicalFile;
+    private File changedFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] documentBytes = BenchmarkCorpus.createTextDocument(paragraphs);
+        cmpFile = writeTempFile("cmp", documentBytes);
+        identicalFile = writeTempFile("identical", documentBytes);
+        changedFile = File.createTempFile("changed", ".pdf");
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(documentBytes)), new PdfWriter(changedFile));
+        for (int i = 1; i <= pdfDocument.getNumberOfPages(); i++) {
+            new PdfCanvas(pdfDocument.getPage(i)).rectangle(10, 10, 20, 20).stroke();
+        }
+        pdfDocument.close();
+    }
+
+    @TearDown
+    public void tearDown() {
+        cmpFile.delete();
+        identicalFile.delete();
+        changedFile.delete();
+    }
+
+    @Benchmark
+    public boolean compareIdentical() throws IOException {
+        return new CompareTool().setStructureCompareThreadCount(threads)
+                .compareByStructure(identicalFile.getPath(), cmpFile.getPath()).isOk();
+    }
+
+    @Benchmark
+    public boolean compareChanged() throws IOException {
+        return new CompareTool().setStructureCompareThreadCount(threads).setCompareByContentErrorsLimit(Integer.MAX_VALUE)
+                .compareByStructure(changedFile.getPath(), cmpFile.getPath()).isOk();
+    }
+
+    private static File writeTempFile(String prefix, byte[] bytes) throws IOException {
+        File file = File.createTempFile(prefix, ".pdf");
+        OutputStream os = new FileOutputStream(file);
+        try {
+            os.write(bytes);
+        } finally {
+            os.close();
+        }
+        return file;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks.kernel;
+
+import com.itextpdf.benchmarks.BenchmarkCorpus;
+import com.itextpdf.kernel.pdf.EncryptionConstants;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.ReaderProperties;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encryption of a whole document on writing and its decryption on reading.
+ * The unencrypted variant shows how much of the time is spent in the ciphers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EncryptionBenchmark {
+
+    private static final byte[] USER_PASSWORD = "user".getBytes();
+    private static final byte[] OWNER_PASSWORD = "owner".getBytes();
+
+    @Param({"NONE", "AES_128", "AES_256"})
+    public String encryption;
+
+    private byte[] documentBytes;
+    private byte[] encryptedBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        documentBytes = BenchmarkCorpus.createTextDocument(200);
+        encryptedBytes = encrypt();
+    }
+
+    @Benchmark
+    public byte[] encrypt() throws IOException {
+        WriterProperties properties = new WriterProperties();
+        if (!"NONE".equals(encryption)) {
+            int algorithm = "AES_128".equals(encryption)
+                    ? EncryptionConstants.ENCRYPTION_AES_128 : EncryptionConstants.ENCRYPTION_AES_256;
+            properties.setStandardEncryption(USER_PASSWORD, OWNER_PASSWORD, EncryptionConstants.ALLOW_PRINTING, algorithm);
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(documentBytes.length);
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(documentBytes)),
+                new PdfWriter(baos, properties));
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+
+    @Benchmark
+    public void decrypt(Blackhole blackhole) throws IOException {
+        ReaderProperties properties = new ReaderProperties().setPassword(USER_PASSWORD);
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(encryptedBytes), properties));
+        for (int i = 1; i < pdfDocument.getNumberOfPdfObjects(); i++) {
+            PdfObject object = pdfDocument.getPdfObject(i);
+            if (object instanceof PdfStream) {
+                blackhole.consume(((PdfStream) object).getBytes());
+            }
+        }
+        pdfDocument.close();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks.kernel;
+
+import com.itextpdf.benchmarks.BenchmarkCorpus;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfOutputStream;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfString;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing of documents: {@link PdfOutputStream}, {@link PdfWriter} and the time spent in closing a document.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfWritingBenchmark {
+
+    private String[] lines;
+
+    @Setup
+    public void setUp() {
+        lines = new String[50];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = BenchmarkCorpus.generateText(12, i);
+        }
+    }
+
+    @Benchmark
+    public int writePrimitiveObjects() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfOutputStream output = new PdfOutputStream(baos);
+        PdfArray array = new PdfArray();
+        for (int i = 0; i < 64; i++) {
+            array.add(new PdfNumber(i * 1.25));
+            array.add(new PdfString(lines[i % lines.length]));
+            array.add(new PdfName("Name" + i));
+        }
+        for (int i = 0; i < 100; i++) {
+            output.write(array);
+        }
+        return baos.size();
+    }
+
+    @Benchmark
+    public int writePages() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        for (int i = 0; i < 50; i++) {
+            PdfPage page = pdfDocument.addNewPage();
+            PdfCanvas canvas = new PdfCanvas(page);
+            canvas.beginText().setFontAndSize(font, 10).moveText(36, 800);
+            for (String line : lines) {
+                canvas.showText(line).moveText(0, -15);
+            }
+            canvas.endText().release();
+            page.flush();
+        }
+        pdfDocument.close();
+        return baos.size();
+    }
+
+    @Benchmark
+    public int closeWithManyObjects(ObjectCount objectCount) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        PdfArray holder = new PdfArray();
+        for (int i = 0; i < objectCount.objects; i++) {
+            PdfDictionary dictionary = new PdfDictionary();
+            dictionary.put(PdfName.Count, new PdfNumber(i));
+            holder.add(dictionary.makeIndirect(pdfDocument).getIndirectReference());
+        }
+        pdfDocument.addNewPage().getPdfObject().put(new PdfName("Objects"), holder);
+        pdfDocument.close();
+        return baos.size();
+    }
+
+    @State(Scope.Benchmark)
+    public static class ObjectCount {
+
+        /**
+         * The number of indirect objects written by {@link PdfWritingBenchmark#closeWithManyObjects(ObjectCount)}.
+         * The cost of closing a document should grow with the number of objects waiting to be flushed only.
+         */
+        @Param({"10000", "100000"})
+        public int objects;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks.kernel;
+
+import com.itextpdf.kernel.xmp.XMPConst;
+import com.itextpdf.kernel.xmp.XMPException;
+import com.itextpdf.kernel.xmp.XMPMeta;
+import com.itextpdf.kernel.xmp.XMPMetaFactory;
+import com.itextpdf.kernel.xmp.XMPPropertySelection;
+import com.itextpdf.kernel.xmp.options.ParseOptions;
+import com.itextpdf.kernel.xmp.options.PropertyOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of XMP packets with the DOM based and the streaming parser, and extraction of selected properties.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XmpParsingBenchmark {
+
+    private static final String CUSTOM_NS = "http://example.com/benchmark/";
+
+    @Param({"10", "1000"})
+    public int customProperties;
+
+    private byte[] packet;
+    private ParseOptions domOptions;
+    private ParseOptions streamingOptions;
+    private XMPPropertySelection selection;
+
+    @Setup
+    public void setUp() throws XMPException {
+        XMPMetaFactory.getSchemaRegistry().registerNamespace(CUSTOM_NS, "bench");
+        XMPMeta xmp = XMPMetaFactory.create();
+        xmp.setLocalizedText(XMPConst.NS_DC, "title", XMPConst.X_DEFAULT, XMPConst.X_DEFAULT, "Benchmark");
+        xmp.appendArrayItem(XMPConst.NS_DC, "creator", new PropertyOptions().setArrayOrdered(true), "iText", null);
+        xmp.setProperty(XMPConst.NS_PDF, "Producer", "iText");
+        xmp.setPropertyInteger(XMPConst.NS_PDFA_ID, "part", 1);
+        xmp.setProperty(XMPConst.NS_PDFA_ID, "conformance", "B");
+        for (int i = 0; i < customProperties; i++) {
+            xmp.setProperty(CUSTOM_NS, "property" + i, "value of property " + i);
+            xmp.appendArrayItem(CUSTOM_NS, "list", new PropertyOptions().setArray(true), "item " + i, null);
+        }
+        packet = XMPMetaFactory.serializeToBuffer(xmp, null);
+        domOptions = new ParseOptions();
+        streamingOptions = new ParseOptions().setUseStreamingParser(true);
+        selection = new XMPPropertySelection()
+                .addProperty(XMPConst.NS_DC, "title")
+                .addProperty(XMPConst.NS_PDFA_ID, "part")
+                .addProperty(XMPConst.NS_PDFA_ID, "conformance");
+    }
+
+    @Benchmark
+    public XMPMeta parseDom() throws XMPException {
+        return XMPMetaFactory.parseFromBuffer(packet, domOptions);
+    }
+
+    @Benchmark
+    public XMPMeta parseStreaming() throws XMPException {
+        return XMPMetaFactory.parseFromBuffer(packet, streamingOptions);
+    }
+
+    @Benchmark
+    public XMPMeta parseSelected() throws XMPException {
+        return XMPMetaFactory.parseFromBuffer(packet, null, selection);
+    }
+}
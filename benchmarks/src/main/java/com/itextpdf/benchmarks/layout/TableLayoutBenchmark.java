@@ -0,0 +1,150 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks.layout;
+
+import com.itextpdf.benchmarks.BenchmarkCorpus;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.property.UnitValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layout of tables: plain tables, tables with auto layout which contain nested tables (and so depend on the min/max
+ * widths of their content), and large tables which are flushed row by row while they are being filled.
+ * <p>
+ * The heap of {@link #layoutLargeTableFlushedRowByRow()} should not grow with the number of rows,
+ * which can be watched with the {@code -prof gc} profiler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TableLayoutBenchmark {
+
+    private static final int COLUMNS = 5;
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private String[] texts;
+
+    @Setup
+    public void setUp() {
+        texts = new String[64];
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = BenchmarkCorpus.generateText(1 + i % 6, i);
+        }
+    }
+
+    @Benchmark
+    public int layoutTable() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document(new PdfDocument(new PdfWriter(baos)));
+        Table table = new Table(UnitValue.createPercentArray(COLUMNS)).useAllAvailableWidth();
+        for (int i = 0; i < rows * COLUMNS; i++) {
+            table.addCell(texts[i % texts.length]);
+        }
+        document.add(table);
+        document.close();
+        return baos.size();
+    }
+
+    @Benchmark
+    public int layoutNestedTables() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document(new PdfDocument(new PdfWriter(baos)));
+        Table table = new Table(COLUMNS);
+        for (int i = 0; i < rows / 10 * COLUMNS; i++) {
+            table.addCell(new Cell().add(createNestedTable(3, i)));
+        }
+        document.add(table);
+        document.close();
+        return baos.size();
+    }
+
+    @Benchmark
+    public int layoutLargeTableFlushedRowByRow() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document(new PdfDocument(new PdfWriter(baos)));
+        Table table = new Table(UnitValue.createPercentArray(COLUMNS), true);
+        document.add(table);
+        for (int i = 0; i < rows * COLUMNS; i++) {
+            table.addCell(texts[i % texts.length]);
+            if (i % (COLUMNS * 10) == COLUMNS * 10 - 1) {
+                table.flush();
+            }
+        }
+        table.complete();
+        document.close();
+        return baos.size();
+    }
+
+    private Table createNestedTable(int depth, int seed) {
+        Table table = new Table(2);
+        table.addCell(texts[seed % texts.length]);
+        if (depth > 1) {
+            table.addCell(new Cell().add(createNestedTable(depth - 1, seed + 1)));
+        } else {
+            table.addCell(texts[(seed + 1) % texts.length]);
+        }
+        return table;
+    }
+}
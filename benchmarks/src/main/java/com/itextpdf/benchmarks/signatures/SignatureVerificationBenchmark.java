@@ -0,0 +1,140 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks.signatures;
+
+import com.itextpdf.benchmarks.BenchmarkCorpus;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.signatures.BouncyCastleDigest;
+import com.itextpdf.signatures.DigestAlgorithms;
+import com.itextpdf.signatures.IExternalSignature;
+import com.itextpdf.signatures.PdfSigner;
+import com.itextpdf.signatures.PrivateKeySignature;
+import com.itextpdf.signatures.SignatureUtil;
+import com.itextpdf.signatures.SignatureVerificationResult;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verification of all the signatures of a document that was signed many times in append mode, each signature
+ * in its own incremental revision. Verifying the signatures one by one hashes the nested byte ranges once per
+ * signature, while {@link SignatureUtil#verifySignatures()} hashes their common prefixes once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SignatureVerificationBenchmark {
+
+    @Param({"5", "30"})
+    public int signatures;
+
+    @Param({"500"})
+    public int paragraphs;
+
+    private byte[] documentBytes;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException, IOException {
+        SigningMaterial material = SigningMaterial.generate(2048);
+        IExternalSignature signature = new PrivateKeySignature(material.getPrivateKey(), DigestAlgorithms.SHA256,
+                BouncyCastleProvider.PROVIDER_NAME);
+        byte[] bytes = BenchmarkCorpus.createTextDocument(paragraphs);
+        for (int i = 1; i <= signatures; i++) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length + 16384);
+            PdfSigner signer = new PdfSigner(new PdfReader(new ByteArrayInputStream(bytes)), baos,
+                    new StampingProperties().useAppendMode());
+            signer.setFieldName("Signature" + i);
+            signer.signDetached(new BouncyCastleDigest(), signature, material.getChain(), null, null, null, 0,
+                    PdfSigner.CryptoStandard.CADES);
+            bytes = baos.toByteArray();
+        }
+        documentBytes = bytes;
+    }
+
+    @Benchmark
+    public int verifyOneByOne() throws IOException, GeneralSecurityException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(documentBytes)));
+        SignatureUtil signatureUtil = new SignatureUtil(pdfDocument);
+        int valid = 0;
+        for (String name : signatureUtil.getSignatureNames()) {
+            if (signatureUtil.verifySignature(name).verify()) {
+                valid++;
+            }
+        }
+        pdfDocument.close();
+        return valid;
+    }
+
+    @Benchmark
+    public int verifyAll() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(documentBytes)));
+        int valid = 0;
+        for (SignatureVerificationResult result : new SignatureUtil(pdfDocument).verifySignatures()) {
+            if (result.isSignatureValid()) {
+                valid++;
+            }
+        }
+        pdfDocument.close();
+        return valid;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.benchmarks.signatures;
+
+import com.itextpdf.benchmarks.BenchmarkCorpus;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.signatures.BouncyCastleDigest;
+import com.itextpdf.signatures.DigestAlgorithms;
+import com.itextpdf.signatures.IExternalDigest;
+import com.itextpdf.signatures.IExternalSignature;
+import com.itextpdf.signatures.PdfSigner;
+import com.itextpdf.signatures.PrivateKeySignature;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing of documents of different sizes with a detached CMS signature. Besides the RSA operation,
+ * the time goes into copying the document and hashing the signed byte ranges, which grows with the document.
+ * The file based variants compare signing through a temporary file with hashing the document while it is
+ * written to the output file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SigningBenchmark {
+
+    @Param({"10", "500"})
+    public int paragraphs;
+
+    private byte[] documentBytes;
+    private SigningMaterial material;
+    private IExternalDigest digest;
+    private IExternalSignature signature;
+    private File outputFile;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException, IOException {
+        documentBytes = BenchmarkCorpus.createTextDocument(paragraphs);
+        material = SigningMaterial.generate(2048);
+        digest = new BouncyCastleDigest();
+        signature = new PrivateKeySignature(material.getPrivateKey(), DigestAlgorithms.SHA256, BouncyCastleProvider.PROVIDER_NAME);
+        outputFile = File.createTempFile("signed", ".pdf");
+    }
+
+    @TearDown
+    public void tearDown() {
+        outputFile.delete();
+    }
+
+    @Benchmark
+    public int signDetached() throws IOException, GeneralSecurityException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(documentBytes.length + 16384);
+        PdfSigner signer = new PdfSigner(new PdfReader(new ByteArrayInputStream(documentBytes)), baos, new StampingProperties());
+        signer.setFieldName("Signature1");
+        signer.signDetached(digest, signature, material.getChain(), null, null, null, 0, PdfSigner.CryptoStandard.CMS);
+        return baos.size();
+    }
+
+    @Benchmark
+    public long signThroughTemporaryFile() throws IOException, GeneralSecurityException {
+        File tempDirectory = outputFile.getParentFile();
+        PdfSigner signer = new PdfSigner(new PdfReader(new ByteArrayInputStream(documentBytes)), new FileOutputStream(outputFile),
+                tempDirectory.getAbsolutePath(), new StampingProperties().useAppendMode());
+        signer.setFieldName("Signature1");
+        signer.signDetached(digest, signature, material.getChain(), null, null, null, 0, PdfSigner.CryptoStandard.CMS);
+        return outputFile.length();
+    }
+
+    @Benchmark
+    public long signWhileWriting() throws IOException, GeneralSecurityException {
+        PdfSigner signer = new PdfSigner(new PdfReader(new ByteArrayInputStream(documentBytes)), outputFile,
+                digest.getMessageDigest(DigestAlgorithms.SHA256), new StampingProperties().useAppendMode());
+        signer.setFieldName("Signature1");
+        signer.signDetached(digest, signature, material.getChain(), null, null, null, 0, PdfSigner.CryptoStandard.CMS);
+        return outputFile.length();
+    }
+}
@@ -0,0 +1,245 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.font;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A bounded cache of font subset results, shared between all documents.
+ * <p>
+ * Entries are keyed by the font program instance, a bit set fingerprint of the used glyphs
+ * and the subsetting mode, so that documents which embed the same font with exactly the same
+ * glyph set reuse the subset bytes instead of rebuilding the font tables. Subset bytes are never
+ * modified after creation, that's why they are shared as is.
+ * <p>
+ * The cache is disabled by default, use {@link #setMaxEntries(int)} to enable it.
+ * Font programs should be created with caching enabled (see {@link FontProgramFactory}),
+ * otherwise each document gets its own font program instance and the cache never hits.
+ */
+public final class FontSubsetCache {
+
+    private static final Object staticLock = new Object();
+
+    private static int maxEntries = 0;
+    private static long hits = 0;
+    private static long misses = 0;
+
+    private static final Map<SubsetKey, byte[]> subsets = new LinkedHashMap<SubsetKey, byte[]>(16, 0.75f, true);
+
+    private FontSubsetCache() {
+    }
+
+    /**
+     * Sets the maximum number of subsets kept in the cache. The least recently used subsets
+     * are evicted first. Zero disables the cache and drops all cached subsets.
+     *
+     * @param entries maximum number of cached subsets.
+     */
+    public static void setMaxEntries(int entries) {
+        if (entries < 0) {
+            throw new IllegalArgumentException("entries");
+        }
+        synchronized (staticLock) {
+            maxEntries = entries;
+            evict();
+        }
+    }
+
+    /**
+     * Gets the maximum number of subsets kept in the cache.
+     *
+     * @return maximum number of cached subsets, zero if the cache is disabled.
+     */
+    public static int getMaxEntries() {
+        synchronized (staticLock) {
+            return maxEntries;
+        }
+    }
+
+    /**
+     * Gets the number of cached subsets.
+     *
+     * @return number of cached subsets.
+     */
+    public static int size() {
+        synchronized (staticLock) {
+            return subsets.size();
+        }
+    }
+
+    /**
+     * Gets the number of lookups that were served from the cache.
+     *
+     * @return number of cache hits.
+     */
+    public static long getHitCount() {
+        synchronized (staticLock) {
+            return hits;
+        }
+    }
+
+    /**
+     * Gets the number of lookups that were not served from the cache while it was enabled.
+     *
+     * @return number of cache misses.
+     */
+    public static long getMissCount() {
+        synchronized (staticLock) {
+            return misses;
+        }
+    }
+
+    /**
+     * Gets the ratio of hits to all lookups done while the cache was enabled.
+     *
+     * @return hit rate in range [0, 1], or 0 if there were no lookups.
+     */
+    public static double getHitRate() {
+        synchronized (staticLock) {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    /**
+     * Drops all cached subsets and resets hit and miss counters.
+     */
+    public static void clear() {
+        synchronized (staticLock) {
+            subsets.clear();
+            hits = 0;
+            misses = 0;
+        }
+    }
+
+    /**
+     * Gets the cached subset of the font program.
+     *
+     * @param fontProgram font program which was subset.
+     * @param glyphs      glyph ids included into the subset.
+     * @param subset      {@code true} if only the tables required for embedding were kept.
+     * @return cached subset bytes, or {@code null} if the cache is disabled or the subset is not cached.
+     */
+    public static byte[] getSubset(FontProgram fontProgram, Set<Integer> glyphs, boolean subset) {
+        synchronized (staticLock) {
+            if (maxEntries == 0) {
+                return null;
+            }
+            byte[] fontBytes = subsets.get(new SubsetKey(fontProgram, glyphs, subset));
+            if (fontBytes != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            return fontBytes;
+        }
+    }
+
+    /**
+     * Puts the subset of the font program into the cache. Does nothing if the cache is disabled.
+     *
+     * @param fontProgram font program which was subset.
+     * @param glyphs      glyph ids included into the subset.
+     * @param subset      {@code true} if only the tables required for embedding were kept.
+     * @param fontBytes   subset bytes, must not be modified afterwards.
+     */
+    public static void putSubset(FontProgram fontProgram, Set<Integer> glyphs, boolean subset, byte[] fontBytes) {
+        if (fontBytes == null) {
+            return;
+        }
+        synchronized (staticLock) {
+            if (maxEntries == 0) {
+                return;
+            }
+            subsets.put(new SubsetKey(fontProgram, glyphs, subset), fontBytes);
+            evict();
+        }
+    }
+
+    private static void evict() {
+        Iterator<SubsetKey> iterator = subsets.keySet().iterator();
+        while (subsets.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static class SubsetKey {
+        private final FontProgram fontProgram;
+        private final BitSet glyphs;
+        private final boolean subset;
+        private final int hashCode;
+
+        SubsetKey(FontProgram fontProgram, Set<Integer> glyphs, boolean subset) {
+            this.fontProgram = fontProgram;
+            this.glyphs = new BitSet();
+            for (int glyph : glyphs) {
+                this.glyphs.set(glyph);
+            }
+            this.subset = subset;
+            int result = System.identityHashCode(fontProgram);
+            result = 31 * result + this.glyphs.hashCode();
+            result = 31 * result + (subset ? 1 : 0);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            SubsetKey that = (SubsetKey) o;
+
+            return fontProgram == that.fontProgram && subset == that.subset && glyphs.equals(that.glyphs);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
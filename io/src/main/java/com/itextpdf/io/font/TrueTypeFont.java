@@ -55,6 +55,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.itextpdf.io.util.MessageFormatUtil;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
@@ -151,7 +152,7 @@ public class TrueTypeFont extends FontProgram {
         }
     }
 
-    public byte[] getFontStreamBytes() {
+    public synchronized byte[] getFontStreamBytes() {
         if (fontStreamBytes != null)
             return fontStreamBytes;
         try {
@@ -203,12 +204,21 @@ public class TrueTypeFont extends FontProgram {
         return gdefTable;
     }
 
-    public byte[] getSubset(Set<Integer> glyphs, boolean subset) {
+    // Cached font programs may be shared by documents processed on different threads,
+    // while the parser reads all the tables through a single positioned stream.
+    public synchronized byte[] getSubset(Set<Integer> glyphs, boolean subset) {
+        byte[] subsetBytes = FontSubsetCache.getSubset(this, glyphs, subset);
+        if (subsetBytes != null) {
+            return subsetBytes;
+        }
         try {
-            return fontParser.getSubset(glyphs, subset);
+            // subsetting adds components of composite glyphs to the set, keep the original one for the cache key
+            subsetBytes = fontParser.getSubset(new HashSet<>(glyphs), subset);
         } catch (java.io.IOException e) {
             throw new IOException(IOException.IoException, e);
         }
+        FontSubsetCache.putSubset(this, glyphs, subset, subsetBytes);
+        return subsetBytes;
     }
 
     protected void readGdefTable() throws java.io.IOException {
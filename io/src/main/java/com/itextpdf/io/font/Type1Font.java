@@ -180,7 +180,7 @@ public class Type1Font extends FontProgram {
         }
     }
 
-    public byte[] getFontStreamBytes() {
+    public synchronized byte[] getFontStreamBytes() {
         if (fontParser.isBuiltInFont())
             return null;
         if (fontStreamBytes != null)
@@ -50,9 +50,13 @@ import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.io.util.UrlUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.Map;
 
@@ -75,6 +79,11 @@ public abstract class ImageData {
 
     protected byte[] data;
 
+    /**
+     * If {@code true}, the image bytes are not kept in memory and are read from {@link #url} when needed.
+     */
+    protected boolean deferred;
+
     protected int imageSize;
 
     protected int bpc = 1;
@@ -208,10 +217,53 @@ public abstract class ImageData {
         this.colorSpace = colorSpace;
     }
 
+    /**
+     * Gets the image bytes. For deferred images the bytes are read from the url on the first call
+     * and are retained afterwards, so that the source is read only once. Writing a deferred image
+     * to a document does not need this method and streams the bytes via {@link #openDataStream()} instead.
+     *
+     * @return the image bytes.
+     */
     public byte[] getData() {
+        if (data == null && deferred) {
+            try {
+                InputStream stream = openDataStream();
+                try {
+                    data = StreamUtil.inputStreamToArray(stream);
+                } finally {
+                    stream.close();
+                }
+            } catch (java.io.IOException e) {
+                throw new IOException(IOException.IoException, e);
+            }
+        }
         return data;
     }
 
+    /**
+     * Checks whether the image bytes are kept out of memory.
+     * Only the image parameters are parsed for such images, the bytes are read from {@link #getUrl()}
+     * when the image is written, see {@link ImageDataFactory#createDeferred(URL)}.
+     *
+     * @return {@code true} if the image bytes are read on demand.
+     */
+    public boolean isDeferred() {
+        return deferred;
+    }
+
+    /**
+     * Opens a stream with the image bytes. The caller is responsible for closing the stream.
+     *
+     * @return a stream with the image bytes.
+     * @throws java.io.IOException if the bytes cannot be read.
+     */
+    public InputStream openDataStream() throws java.io.IOException {
+        if (data != null) {
+            return new ByteArrayInputStream(data);
+        }
+        return new BufferedInputStream(UrlUtil.openStream(url));
+    }
+
     public boolean canBeMask() {
         if (isRawImage()) {
             if (bpc > 0xff)
@@ -320,7 +372,7 @@ public abstract class ImageData {
      */
     public boolean canImageBeInline() {
         Logger logger = LoggerFactory.getLogger(ImageData.class);
-        if (imageSize > 4096) {
+        if (imageSize > 4096 || deferred) {
             logger.warn(LogMessageConstant.IMAGE_SIZE_CANNOT_BE_MORE_4KB);
             return false;
         }
@@ -131,6 +131,46 @@ public final class ImageDataFactory {
         return create(filename, false);
     }
 
+    /**
+     * Create an ImageData instance representing the image from the file located at the specified url,
+     * without keeping the image bytes in memory.
+     * <p>
+     * JPEG and JPEG2000 images are passed to PDF as is, so for them only the image parameters (size,
+     * color space, resolution, etc.) are parsed and the bytes are read from the url again at the
+     * moment the image is written. Such images are marked as {@link ImageData#isDeferred() deferred}.
+     * The file shall not be changed or removed until the image is written to the document.
+     * Other image types need to be decoded and are created the same way as by {@link #create(URL)}.
+     * @param url location of the image
+     * @return The created ImageData object.
+     */
+    public static ImageData createDeferred(URL url) {
+        byte[] imageType = readImageType(url);
+        ImageData image;
+        if (imageTypeIs(imageType, jpeg)) {
+            image = new JpegImageData(url);
+            image.deferred = true;
+            JpegImageHelper.processImage(image);
+        } else if (imageTypeIs(imageType, jpeg2000_1) || imageTypeIs(imageType, jpeg2000_2)) {
+            image = new Jpeg2000ImageData(url);
+            image.deferred = true;
+            Jpeg2000ImageHelper.processImage(image);
+        } else {
+            image = create(url);
+        }
+        return image;
+    }
+
+    /**
+     * Create an ImageData instance representing the image from the specified file,
+     * without keeping the image bytes in memory. See {@link #createDeferred(URL)}.
+     * @param filename filename of the file containing the image
+     * @return The created ImageData object.
+     * @throws MalformedURLException
+     */
+    public static ImageData createDeferred(String filename) throws MalformedURLException {
+        return createDeferred(UrlUtil.toURL(filename));
+    }
+
     /**
      * Create an ImageData instance from the passed parameters.
      *
@@ -90,11 +90,17 @@ final class Jpeg2000ImageHelper {
      */
     private static void processParameters(Jpeg2000ImageData jp2) {
         jp2.parameters = new Jpeg2000ImageData.Parameters();
+        InputStream jpeg2000Stream = null;
         try {
-            if (jp2.getData() == null) {
-                jp2.loadData();
+            if (jp2.isDeferred()) {
+                // only the header boxes are read, the code stream stays on disk
+                jpeg2000Stream = jp2.openDataStream();
+            } else {
+                if (jp2.getData() == null) {
+                    jp2.loadData();
+                }
+                jpeg2000Stream = new ByteArrayInputStream(jp2.getData());
             }
-            InputStream jpeg2000Stream = new ByteArrayInputStream(jp2.getData());
             Jpeg2000Box box = new Jpeg2000Box();
             box.length = cio_read(4, jpeg2000Stream);
             if (box.length == 0x0000000c) {
@@ -169,6 +175,12 @@ final class Jpeg2000ImageHelper {
             }
         } catch (java.io.IOException e) {
             throw new IOException(IOException.Jpeg2000ImageException, e);
+        } finally {
+            if (jpeg2000Stream != null) {
+                try {
+                    jpeg2000Stream.close();
+                } catch (java.io.IOException ignore) { }
+            }
         }
     }
 
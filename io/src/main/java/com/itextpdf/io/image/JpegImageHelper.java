@@ -131,14 +131,20 @@ class JpegImageHelper {
         InputStream jpegStream = null;
         try {
             String errorID;
-            if (image.getData() == null) {
-                image.loadData();
+            if (image.isDeferred()) {
+                // only the markers before the frame header are read, the rest stays on disk
                 errorID = image.getUrl().toString();
+                jpegStream = image.openDataStream();
             } else {
-                errorID = "Byte array";
+                if (image.getData() == null) {
+                    image.loadData();
+                    errorID = image.getUrl().toString();
+                } else {
+                    errorID = "Byte array";
+                }
+                jpegStream = new java.io.ByteArrayInputStream(image.getData());
+                image.imageSize = image.getData().length;
             }
-            jpegStream = new java.io.ByteArrayInputStream(image.getData());
-            image.imageSize = image.getData().length;
             processParameters(jpegStream, errorID, image);
         } catch (java.io.IOException e) {
             throw new IOException(IOException.JpegImageException, e);
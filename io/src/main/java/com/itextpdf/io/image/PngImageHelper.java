@@ -51,12 +51,14 @@ import com.itextpdf.io.colors.IccProfile;
 import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.io.source.ByteArrayOutputStream;
 import com.itextpdf.io.source.ByteBuffer;
+import com.itextpdf.io.source.DeflaterOutputStream;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import com.itextpdf.io.util.MessageFormatUtil;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -80,6 +82,12 @@ class PngImageHelper {
         Map<String, Object> additional = new HashMap<>();
         byte[] imageData;
         byte[] smask;
+        // when rows are streamed, imageData and smask hold a single row and decoded rows go to these streams
+        boolean streamRows;
+        ByteArrayOutputStream imageDataStream;
+        ByteArrayOutputStream smaskStream;
+        DeflaterOutputStream imageDataZip;
+        DeflaterOutputStream smaskZip;
         byte[] trans;
         ByteArrayOutputStream idat = new ByteArrayOutputStream();
         int dpiX;
@@ -250,6 +258,7 @@ class PngImageHelper {
                 } else {
                     RawImageHelper.updateRawImageParameters(png.image, png.width, png.height, components, bpc, png.imageData, null);
                 }
+                png.image.setDeflated(png.streamRows);
             } else {
                 RawImageHelper.updateRawImageParameters(png.image, png.width, png.height, components, bpc, png.idat.toByteArray());
                 png.image.setDeflated(true);
@@ -270,12 +279,14 @@ class PngImageHelper {
                 RawImageData im2 = (RawImageData) ImageDataFactory.createRawImage(null);
                 RawImageHelper.updateRawImageParameters(im2, png.width, png.height, 1, 8, png.smask);
                 im2.makeMask();
+                im2.setDeflated(png.streamRows);
                 png.image.setImageMask(im2);
             }
             if (png.genBWMask) {
                 RawImageData im2 = (RawImageData) ImageDataFactory.createRawImage(null);
                 RawImageHelper.updateRawImageParameters(im2, png.width, png.height, 1, 1, png.smask);
                 im2.makeMask();
+                im2.setDeflated(png.streamRows);
                 png.image.setImageMask(im2);
             }
             png.image.setDpi(png.dpiX, png.dpiY);
@@ -533,45 +544,66 @@ class PngImageHelper {
         return true;
     }
 
-    private static void decodeIdat(PngParameters png) {
+    private static void decodeIdat(PngParameters png) throws java.io.IOException {
         int nbitDepth = png.bitDepth;
         if (nbitDepth == 16)
             nbitDepth = 8;
-        int size = -1;
+        int rowSize = -1;
         png.bytesPerPixel = (png.bitDepth == 16) ? 2 : 1;
         switch (png.colorType) {
             case 0:
-                size = (nbitDepth * png.width + 7) / 8 * png.height;
+                rowSize = (nbitDepth * png.width + 7) / 8;
                 break;
             case 2:
-                size = png.width * 3 * png.height;
+                rowSize = png.width * 3;
                 png.bytesPerPixel *= 3;
                 break;
             case 3:
                 if (png.interlaceMethod == 1)
-                    size = (nbitDepth * png.width + 7) / 8 * png.height;
+                    rowSize = (nbitDepth * png.width + 7) / 8;
                 png.bytesPerPixel = 1;
                 break;
             case 4:
-                size = png.width * png.height;
+                rowSize = png.width;
                 png.bytesPerPixel *= 2;
                 break;
             case 6:
-                size = png.width * 3 * png.height;
+                rowSize = png.width * 3;
                 png.bytesPerPixel *= 4;
                 break;
         }
-        if (size >= 0)
-            png.imageData = new byte[size];
+        int smaskRowSize = -1;
         if (png.palShades)
-            png.smask = new byte[png.width * png.height];
+            smaskRowSize = png.width;
         else if (png.genBWMask)
-            png.smask = new byte[(png.width + 7) / 8 * png.height];
+            smaskRowSize = (png.width + 7) / 8;
+
+        // Rows of interlaced images come in passes, so the whole image has to be kept.
+        // 1-bit gray images are converted to CCITT afterwards, which also needs the raw data.
+        png.streamRows = png.interlaceMethod != 1 && !(png.colorType == 0 && png.bitDepth == 1);
+        int rows = png.streamRows ? 1 : png.height;
+        if (rowSize >= 0) {
+            png.imageData = new byte[rowSize * rows];
+            if (png.streamRows) {
+                png.imageDataStream = new ByteArrayOutputStream();
+                png.imageDataZip = new DeflaterOutputStream(png.imageDataStream);
+            }
+        }
+        if (smaskRowSize >= 0) {
+            png.smask = new byte[smaskRowSize * rows];
+            if (png.streamRows) {
+                png.smaskStream = new ByteArrayOutputStream();
+                png.smaskZip = new DeflaterOutputStream(png.smaskStream);
+            }
+        }
         ByteArrayInputStream bai = new ByteArrayInputStream(png.idat.toByteArray());
         png.dataStream = FilterUtil.getInflaterInputStream(bai);
 
         if (png.interlaceMethod != 1) {
             decodePass(0, 0, 1, 1, png.width, png.height, png);
+            if (png.streamRows) {
+                finishRows(png);
+            }
         } else {
             decodePass(0, 0, 8, 8, (png.width + 7) / 8, (png.height + 7) / 8, png);
             decodePass(4, 0, 8, 8, (png.width + 3) / 8, (png.height + 7) / 8, png);
@@ -585,7 +617,7 @@ class PngImageHelper {
     }
 
     private static void decodePass(int xOffset, int yOffset, int xStep, int yStep,
-                                   int passWidth, int passHeight, PngParameters png) {
+                                   int passWidth, int passHeight, PngParameters png) throws java.io.IOException {
         if ((passWidth == 0) || (passHeight == 0)) {
             return;
         }
@@ -628,7 +660,12 @@ class PngImageHelper {
                     throw new IOException(IOException.UnknownPngFilter);
             }
 
-            processPixels(curr, xOffset, xStep, dstY, passWidth, png);
+            if (png.streamRows) {
+                processPixels(curr, xOffset, xStep, 0, passWidth, png);
+                writeRow(png);
+            } else {
+                processPixels(curr, xOffset, xStep, dstY, passWidth, png);
+            }
 
             // Swap curr and prior
             byte[] tmp = prior;
@@ -637,6 +674,29 @@ class PngImageHelper {
         }
     }
 
+    private static void writeRow(PngParameters png) throws java.io.IOException {
+        // sub-byte pixels are OR-ed into the row buffers, so they have to be cleared for the next row
+        if (png.imageDataZip != null) {
+            png.imageDataZip.write(png.imageData);
+            Arrays.fill(png.imageData, (byte) 0);
+        }
+        if (png.smaskZip != null) {
+            png.smaskZip.write(png.smask);
+            Arrays.fill(png.smask, (byte) 0);
+        }
+    }
+
+    private static void finishRows(PngParameters png) throws java.io.IOException {
+        if (png.imageDataZip != null) {
+            png.imageDataZip.close();
+            png.imageData = png.imageDataStream.toByteArray();
+        }
+        if (png.smaskZip != null) {
+            png.smaskZip.close();
+            png.smask = png.smaskStream.toByteArray();
+        }
+    }
+
     private static void processPixels(byte[] curr, int xOffset, int step, int y, int width, PngParameters png) {
         int srcX, dstX;
 
@@ -0,0 +1,145 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.io.image;
+
+import com.itextpdf.io.util.FilterUtil;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+@Category(UnitTest.class)
+public class PngTest {
+
+    @Test
+    public void rgbaRowStreamingTest() throws IOException {
+        int width = 37;
+        int height = 23;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        byte[] expectedColor = new byte[width * height * 3];
+        byte[] expectedAlpha = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int a = (x * 7 + y) & 0xff;
+                int r = (x * 13) & 0xff;
+                int g = (y * 11) & 0xff;
+                int b = (x + y * 5) & 0xff;
+                image.setRGB(x, y, (a << 24) | (r << 16) | (g << 8) | b);
+                int pos = y * width + x;
+                expectedColor[pos * 3] = (byte) r;
+                expectedColor[pos * 3 + 1] = (byte) g;
+                expectedColor[pos * 3 + 2] = (byte) b;
+                expectedAlpha[pos] = (byte) a;
+            }
+        }
+        ImageData img = ImageDataFactory.create(toPng(image));
+
+        Assert.assertTrue(img.isDeflated());
+        Assert.assertEquals(8, img.getBpc());
+        Assert.assertArrayEquals(expectedColor, FilterUtil.flateDecode(img.getData()));
+        Assert.assertNotNull(img.getImageMask());
+        Assert.assertTrue(img.getImageMask().isDeflated());
+        Assert.assertArrayEquals(expectedAlpha, FilterUtil.flateDecode(img.getImageMask().getData()));
+    }
+
+    @Test
+    public void gray16RowStreamingTest() throws IOException {
+        int width = 19;
+        int height = 11;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_USHORT_GRAY);
+        WritableRaster raster = image.getRaster();
+        byte[] expected = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int v = (x * 3001 + y * 1777) & 0xffff;
+                raster.setSample(x, y, 0, v);
+                expected[y * width + x] = (byte) (v >>> 8);
+            }
+        }
+        ImageData img = ImageDataFactory.create(toPng(image));
+
+        Assert.assertTrue(img.isDeflated());
+        Assert.assertEquals(8, img.getBpc());
+        Assert.assertArrayEquals(expected, FilterUtil.flateDecode(img.getData()));
+        Assert.assertNull(img.getImageMask());
+    }
+
+    @Test
+    public void paletteWithAlphaRowStreamingTest() throws IOException {
+        int width = 21;
+        int height = 9;
+        byte[] reds = {0, (byte) 255, 0, 0};
+        byte[] greens = {0, 0, (byte) 255, 0};
+        byte[] blues = {0, 0, 0, (byte) 255};
+        byte[] alphas = {0, (byte) 128, (byte) 200, (byte) 255};
+        IndexColorModel colorModel = new IndexColorModel(2, 4, reds, greens, blues, alphas);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY, colorModel);
+        WritableRaster raster = image.getRaster();
+        byte[] expectedAlpha = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int index = (x + y) % 4;
+                raster.setSample(x, y, 0, index);
+                expectedAlpha[y * width + x] = alphas[index];
+            }
+        }
+        ImageData img = ImageDataFactory.create(toPng(image));
+
+        Assert.assertNotNull(img.getImageMask());
+        Assert.assertTrue(img.getImageMask().isDeflated());
+        Assert.assertArrayEquals(expectedAlpha, FilterUtil.flateDecode(img.getImageMask().getData()));
+    }
+
+    private static byte[] toPng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Assert.assertTrue(ImageIO.write(image, "png", baos));
+        return baos.toByteArray();
+    }
+}
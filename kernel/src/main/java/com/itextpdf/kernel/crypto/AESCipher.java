@@ -43,6 +43,7 @@
  */
 package com.itextpdf.kernel.crypto;
 
+import com.itextpdf.kernel.PdfException;
 import org.bouncycastle.crypto.BlockCipher;
 import org.bouncycastle.crypto.engines.AESFastEngine;
 import org.bouncycastle.crypto.modes.CBCBlockCipher;
@@ -50,16 +51,61 @@ import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.crypto.params.ParametersWithIV;
 
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
 /**
  * Creates an AES Cipher with CBC and padding PKCS5/7.
+ * <p>
+ * The JCE implementation is used whenever it accepts the key length, so that the JVM AES intrinsics
+ * can be applied. Otherwise (e.g. restricted JCE policy and a 256 bit key) the Bouncy Castle engine is used.
  * @author Paulo Soares
  */
 public class AESCipher {
 
+    private static final String JCE_TRANSFORMATION = "AES/CBC/PKCS5Padding";
+    private static final int maxJceKeyLength = getMaxJceKeyLength();
+
+    private Cipher cipher;
     private PaddedBufferedBlockCipher bp;
-    
+    private AESCipherPool pool;
+    private byte[] buffer;
+    private boolean released;
+
     /** Creates a new instance of AESCipher */
     public AESCipher(boolean forEncryption, byte[] key, byte[] iv) {
+        this(forEncryption, key, iv, null);
+    }
+
+    /**
+     * Creates a new instance of AESCipher, which takes its JCE cipher and work buffer from the pool
+     * and returns them when {@link #doFinal()} or {@link #doFinal(byte[], int)} is called.
+     * A pooled instance cannot be used any more after that.
+     *
+     * @param forEncryption true for encryption, false for decryption
+     * @param key           the key
+     * @param iv            the initialization vector
+     * @param pool          the pool of the document, may be null
+     */
+    public AESCipher(boolean forEncryption, byte[] key, byte[] iv, AESCipherPool pool) {
+        if (key.length * 8 <= maxJceKeyLength) {
+            Cipher jceCipher = null;
+            try {
+                jceCipher = pool != null ? pool.takeCipher(JCE_TRANSFORMATION) : Cipher.getInstance(JCE_TRANSFORMATION);
+                jceCipher.init(forEncryption ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE,
+                        new SecretKeySpec(key, "AES"), new IvParameterSpec(iv));
+                cipher = jceCipher;
+                this.pool = pool;
+                return;
+            } catch (GeneralSecurityException e) {
+                if (jceCipher != null && pool != null) {
+                    pool.returnCipher(jceCipher);
+                }
+            }
+        }
         BlockCipher aes = new AESFastEngine();
         BlockCipher cbc = new CBCBlockCipher(aes);
         bp = new PaddedBufferedBlockCipher(cbc);
@@ -67,35 +113,169 @@ public class AESCipher {
         ParametersWithIV piv = new ParametersWithIV(kp, iv);
         bp.init(forEncryption, piv);
     }
-    
+
     public byte[] update(byte[] inp, int inpOff, int inpLen) {
-        int neededLen = bp.getUpdateOutputSize(inpLen);
-        byte[] outp;
-        if (neededLen > 0) {
-            outp = new byte[neededLen];
-        } else {
-            outp = new byte[0];
+        byte[] outp = getBuffer(getUpdateOutputSize(inpLen));
+        int n = update(inp, inpOff, inpLen, outp, 0);
+        // the work buffer is reused, so the result is the only array allocated per call
+        return Arrays.copyOf(outp, n);
+    }
+
+    /**
+     * Processes the bytes into the given output buffer, without allocating intermediate arrays.
+     *
+     * @param inp    input bytes
+     * @param inpOff offset of the first input byte
+     * @param inpLen number of input bytes
+     * @param outp   output buffer, it shall have at least {@link #getUpdateOutputSize(int)} bytes
+     *               available starting from {@code outOff}
+     * @param outOff offset of the first output byte
+     * @return the number of bytes written to the output buffer
+     */
+    public int update(byte[] inp, int inpOff, int inpLen, byte[] outp, int outOff) {
+        checkNotReleased();
+        if (cipher != null) {
+            try {
+                return cipher.update(inp, inpOff, inpLen, outp, outOff);
+            } catch (GeneralSecurityException e) {
+                throw new PdfException(PdfException.PdfEncryption, e);
+            }
+        }
+        return bp.processBytes(inp, inpOff, inpLen, outp, outOff);
+    }
+
+    /**
+     * Gets the upper bound of the number of bytes produced by {@link #update(byte[], int, int, byte[], int)}.
+     *
+     * @param inpLen number of input bytes
+     * @return maximum number of output bytes
+     */
+    public int getUpdateOutputSize(int inpLen) {
+        checkNotReleased();
+        if (cipher != null) {
+            return cipher.getOutputSize(inpLen);
         }
-        bp.processBytes(inp, inpOff, inpLen, outp, 0);
-        return outp;
+        return Math.max(bp.getUpdateOutputSize(inpLen), 0);
     }
-    
+
     public byte[] doFinal() {
-        int neededLen = bp.getOutputSize(0);
-        byte[] outp = new byte[neededLen];
-        int n;
+        int neededLen = getOutputSize();
+        try {
+            byte[] outp = getBuffer(neededLen);
+            return Arrays.copyOf(outp, finish(outp, 0));
+        } catch (PdfException ex) {
+            return new byte[neededLen];
+        } finally {
+            releaseToPool();
+        }
+    }
+
+    /**
+     * Processes the last bytes and finishes the operation. Unlike a sequence of update and doFinal calls,
+     * this allocates only the resulting array.
+     *
+     * @param inp    input bytes
+     * @param inpOff offset of the first input byte
+     * @param inpLen number of input bytes
+     * @return the output bytes
+     */
+    public byte[] doFinal(byte[] inp, int inpOff, int inpLen) {
+        checkNotReleased();
         try {
-            n = bp.doFinal(outp, 0);
-        } catch (Exception ex) {
-            return outp;
+            byte[] outp = getBuffer(cipher != null ? cipher.getOutputSize(inpLen) : bp.getOutputSize(inpLen));
+            int n = update(inp, inpOff, inpLen, outp, 0);
+            int finalLen = getOutputSize();
+            try {
+                n += finish(outp, n);
+            } catch (PdfException ex) {
+                // like in doFinal(), the data which is not properly padded is replaced with zeros
+                Arrays.fill(outp, n, n + finalLen, (byte) 0);
+                n += finalLen;
+            }
+            return Arrays.copyOf(outp, n);
+        } finally {
+            releaseToPool();
         }
-        if (n != outp.length) {
-            byte[] outp2 = new byte[n];
-            System.arraycopy(outp, 0, outp2, 0, n);
-            return outp2;
+    }
+
+    /**
+     * Finishes the operation into the given output buffer.
+     *
+     * @param outp   output buffer, it shall have at least {@link #getOutputSize()} bytes
+     *               available starting from {@code outOff}
+     * @param outOff offset of the first output byte
+     * @return the number of bytes written to the output buffer
+     * @throws PdfException if the data is not properly padded
+     */
+    public int doFinal(byte[] outp, int outOff) {
+        try {
+            return finish(outp, outOff);
+        } finally {
+            releaseToPool();
         }
-        else
-            return outp;
     }
 
+    /**
+     * Gets the upper bound of the number of bytes produced by {@link #doFinal(byte[], int)}.
+     *
+     * @return maximum number of output bytes
+     */
+    public int getOutputSize() {
+        checkNotReleased();
+        if (cipher != null) {
+            return cipher.getOutputSize(0);
+        }
+        return bp.getOutputSize(0);
+    }
+
+    private int finish(byte[] outp, int outOff) {
+        checkNotReleased();
+        try {
+            if (cipher != null) {
+                return cipher.doFinal(outp, outOff);
+            }
+            return bp.doFinal(outp, outOff);
+        } catch (Exception e) {
+            throw new PdfException(PdfException.PdfEncryption, e);
+        }
+    }
+
+    private byte[] getBuffer(int size) {
+        if (buffer == null || buffer.length < size) {
+            if (buffer != null && pool != null) {
+                pool.returnBuffer(buffer);
+            }
+            buffer = pool != null ? pool.takeBuffer(size) : new byte[size];
+        }
+        return buffer;
+    }
+
+    private void releaseToPool() {
+        // the cipher is initialized again when it is taken from the pool, so its state doesn't matter
+        if (pool != null) {
+            pool.returnCipher(cipher);
+            if (buffer != null) {
+                pool.returnBuffer(buffer);
+            }
+            pool = null;
+            buffer = null;
+            // the cipher may be owned by another instance from now on
+            cipher = null;
+            released = true;
+        }
+    }
+
+    private void checkNotReleased() {
+        if (released) {
+            throw new PdfException(PdfException.ThisInstanceOfAesCipherAlreadyReleased);
+        }
+    }
+
+    private static int getMaxJceKeyLength() {
+        try {
+            return Cipher.getMaxAllowedKeyLength(JCE_TRANSFORMATION);
+        } catch (Exception e) {
+            return 0;
+        }
+    }
 }
@@ -0,0 +1,88 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.crypto;
+
+import javax.crypto.Cipher;
+import java.security.GeneralSecurityException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A pool of JCE AES ciphers and work buffers, shared by all the {@link AESCipher} instances created for the objects
+ * of one document, so that {@link Cipher#getInstance(String)} is called once per document rather than once per stream.
+ * <p>
+ * The encryption of a stream may start before the encryption of another one is finished (e.g. strings of a stream
+ * dictionary are encrypted while the stream is being written), so every {@link AESCipher} takes its own cipher
+ * from the pool and returns it when it is finished.
+ */
+public class AESCipherPool {
+
+    private static final int MAX_POOLED_CIPHERS = 8;
+    private static final int MAX_POOLED_BUFFERS = 4;
+    private static final int MAX_POOLED_BUFFER_SIZE = 256 * 1024;
+
+    private final Deque<Cipher> ciphers = new ArrayDeque<>();
+    private final Deque<byte[]> buffers = new ArrayDeque<>();
+
+    synchronized Cipher takeCipher(String transformation) throws GeneralSecurityException {
+        Cipher cipher = ciphers.pollFirst();
+        return cipher != null ? cipher : Cipher.getInstance(transformation);
+    }
+
+    synchronized void returnCipher(Cipher cipher) {
+        if (ciphers.size() < MAX_POOLED_CIPHERS) {
+            ciphers.addFirst(cipher);
+        }
+    }
+
+    synchronized byte[] takeBuffer(int size) {
+        byte[] buffer = buffers.pollFirst();
+        return buffer != null && buffer.length >= size ? buffer : new byte[size];
+    }
+
+    synchronized void returnBuffer(byte[] buffer) {
+        if (buffers.size() < MAX_POOLED_BUFFERS && buffer.length <= MAX_POOLED_BUFFER_SIZE) {
+            buffers.addFirst(buffer);
+        }
+    }
+}
@@ -49,13 +49,22 @@ public class AesDecryptor implements IDecryptor {
     private boolean initiated;
     private byte[] iv = new byte[16];
     private int ivptr;
+    private AESCipherPool pool;
 
     /**
      * Creates a new instance of AesDecryption
      */
     public AesDecryptor(byte[] key, int off, int len) {
+        this(key, off, len, null);
+    }
+
+    /**
+     * Creates a new instance of AesDecryption, which takes its cipher from the pool of the document.
+     */
+    public AesDecryptor(byte[] key, int off, int len, AESCipherPool pool) {
         this.key = new byte[len];
         System.arraycopy(key, off, this.key, 0, len);
+        this.pool = pool;
     }
 
     public byte[] update(byte[] b, int off, int len) {
@@ -68,7 +77,7 @@ public class AesDecryptor implements IDecryptor {
             len -= left;
             ivptr += left;
             if (ivptr == iv.length) {
-                cipher = new AESCipher(false, key, iv);
+                cipher = new AESCipher(false, key, iv, pool);
                 initiated = true;
                 if (len > 0)
                     return cipher.update(b, off, len);
@@ -77,6 +86,36 @@ public class AesDecryptor implements IDecryptor {
         }
     }
 
+    /**
+     * Decrypts the whole data, i.e. the initialization vector followed by the encrypted bytes, in one step.
+     * Unlike a sequence of update and finish calls, this allocates only the resulting array.
+     *
+     * @param b   the encrypted data
+     * @param off offset of the first byte
+     * @param len number of bytes
+     * @return the decrypted data
+     */
+    public byte[] decrypt(byte[] b, int off, int len) {
+        if (initiated || ivptr > 0 || len < iv.length) {
+            byte[] b1 = update(b, off, len);
+            byte[] b2 = finish();
+            if (b2 == null || b2.length == 0) {
+                return b1 != null ? b1 : new byte[0];
+            }
+            byte[] result = new byte[(b1 != null ? b1.length : 0) + b2.length];
+            if (b1 != null) {
+                System.arraycopy(b1, 0, result, 0, b1.length);
+            }
+            System.arraycopy(b2, 0, result, result.length - b2.length, b2.length);
+            return result;
+        }
+        System.arraycopy(b, off, iv, 0, iv.length);
+        ivptr = iv.length;
+        cipher = new AESCipher(false, key, iv, pool);
+        initiated = true;
+        return cipher.doFinal(b, off + iv.length, len - iv.length);
+    }
+
     public byte[] finish() {
         if (cipher != null) {
             return cipher.doFinal();
@@ -49,16 +49,24 @@ import java.io.IOException;
 public class OutputStreamAesEncryption extends OutputStreamEncryption {
     protected AESCipher cipher;
     private boolean finished;
+    private byte[] buffer = new byte[0];
 
     /**
      * Creates a new instance of OutputStreamCounter
      */
     public OutputStreamAesEncryption(java.io.OutputStream out, byte[] key, int off, int len) {
+        this(out, key, off, len, null);
+    }
+
+    /**
+     * Creates a new instance of OutputStreamAesEncryption, which takes its cipher from the pool of the document.
+     */
+    public OutputStreamAesEncryption(java.io.OutputStream out, byte[] key, int off, int len, AESCipherPool pool) {
         super(out);
         byte[] iv = IVGenerator.getIV();
         byte[] nkey = new byte[len];
         System.arraycopy(key, off, nkey, 0, len);
-        cipher = new AESCipher(true, nkey, iv);
+        cipher = new AESCipher(true, nkey, iv, pool);
         try {
             write(iv);
         } catch (IOException e) {
@@ -99,22 +107,30 @@ public class OutputStreamAesEncryption extends OutputStreamEncryption {
      *                     stream is closed.
      */
     public void write(byte[] b, int off, int len) throws IOException {
-        byte[] b2 = cipher.update(b, off, len);
-        if (b2 == null || b2.length == 0)
-            return;
-        out.write(b2, 0, b2.length);
+        int n = cipher.update(b, off, len, getBuffer(cipher.getUpdateOutputSize(len)), 0);
+        if (n > 0) {
+            out.write(buffer, 0, n);
+        }
     }
 
     public void finish() {
         if (!finished) {
             finished = true;
 
-            byte[] b = cipher.doFinal();
             try {
-                out.write(b, 0, b.length);
+                int n = cipher.doFinal(getBuffer(cipher.getOutputSize()), 0);
+                out.write(buffer, 0, n);
             } catch (IOException e) {
                 throw new PdfException(PdfException.PdfEncryption, e);
             }
         }
     }
+
+    private byte[] getBuffer(int size) {
+        // the same buffer is reused for all chunks, it only grows if a bigger chunk comes
+        if (buffer.length < size) {
+            buffer = new byte[size];
+        }
+        return buffer;
+    }
 }
@@ -44,6 +44,7 @@
 package com.itextpdf.kernel.crypto.securityhandler;
 
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.crypto.AESCipherPool;
 import com.itextpdf.kernel.crypto.IDecryptor;
 import com.itextpdf.kernel.crypto.OutputStreamEncryption;
 
@@ -78,6 +79,8 @@ public abstract class SecurityHandler implements Serializable {
      */
     protected byte[] extra = new byte[5];
 
+    private transient AESCipherPool aesCipherPool;
+
     protected SecurityHandler() {
         safeInitMessageDigest();
     }
@@ -106,6 +109,18 @@ public abstract class SecurityHandler implements Serializable {
 
     public abstract OutputStreamEncryption getEncryptionStream(java.io.OutputStream os);
 
+    /**
+     * Gets the pool of AES ciphers shared by the encryption and decryption of all the objects of the document.
+     *
+     * @return the pool of AES ciphers
+     */
+    protected AESCipherPool getAesCipherPool() {
+        if (aesCipherPool == null) {
+            aesCipherPool = new AESCipherPool();
+        }
+        return aesCipherPool;
+    }
+
     public abstract IDecryptor getDecryptor();
 
     private void safeInitMessageDigest() {
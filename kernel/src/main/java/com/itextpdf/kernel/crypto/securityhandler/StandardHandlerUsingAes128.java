@@ -69,12 +69,12 @@ public class StandardHandlerUsingAes128 extends StandardHandlerUsingStandard128
 
     @Override
     public OutputStreamEncryption getEncryptionStream(OutputStream os) {
-        return new OutputStreamAesEncryption(os, nextObjectKey, 0, nextObjectKeySize);
+        return new OutputStreamAesEncryption(os, nextObjectKey, 0, nextObjectKeySize, getAesCipherPool());
     }
 
     @Override
     public IDecryptor getDecryptor() {
-        return new AesDecryptor(nextObjectKey, 0, nextObjectKeySize);
+        return new AesDecryptor(nextObjectKey, 0, nextObjectKeySize, getAesCipherPool());
     }
 
     @Override
@@ -100,12 +100,12 @@ public class StandardHandlerUsingAes256 extends StandardSecurityHandler {
 
     @Override
     public OutputStreamEncryption getEncryptionStream(OutputStream os) {
-        return new OutputStreamAesEncryption(os, nextObjectKey, 0, nextObjectKeySize);
+        return new OutputStreamAesEncryption(os, nextObjectKey, 0, nextObjectKeySize, getAesCipherPool());
     }
 
     @Override
     public IDecryptor getDecryptor() {
-        return new AesDecryptor(nextObjectKey, 0, nextObjectKeySize);
+        return new AesDecryptor(nextObjectKey, 0, nextObjectKeySize, getAesCipherPool());
     }
 
     private void initKeyAndFillDictionary(PdfDictionary encryptionDictionary, byte[] userPassword, byte[] ownerPassword,
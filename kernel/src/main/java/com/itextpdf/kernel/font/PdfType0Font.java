@@ -50,6 +50,7 @@ import com.itextpdf.io.font.CidFont;
 import com.itextpdf.io.font.CidFontProperties;
 import com.itextpdf.io.font.FontProgram;
 import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.FontSubsetCache;
 import com.itextpdf.io.font.PdfEncodings;
 import com.itextpdf.io.font.TrueTypeFont;
 import com.itextpdf.io.font.cmap.CMapContentParser;
@@ -807,8 +808,13 @@ public class PdfType0Font extends PdfFont {
             if (ttf.isCff()) {
                 byte[] cffBytes = ttf.getFontStreamBytes();
                 if (subset || subsetRanges != null) {
-                    CFFFontSubset cff = new CFFFontSubset(ttf.getFontStreamBytes(), longTag);
-                    cffBytes = cff.Process(cff.getNames()[0]);
+                    byte[] subsetBytes = FontSubsetCache.getSubset(ttf, longTag, true);
+                    if (subsetBytes == null) {
+                        CFFFontSubset cff = new CFFFontSubset(cffBytes, longTag);
+                        subsetBytes = cff.Process(cff.getNames()[0]);
+                        FontSubsetCache.putSubset(ttf, longTag, true, subsetBytes);
+                    }
+                    cffBytes = subsetBytes;
                 }
                 fontStream = getPdfFontStream(cffBytes, new int[]{cffBytes.length});
                 fontStream.put(PdfName.Subtype, new PdfName("CIDFontType0C"));
@@ -55,8 +55,10 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class PdfCatalog extends PdfObjectWrapper<PdfDictionary> {
 
@@ -336,6 +338,22 @@ public class PdfCatalog extends PdfObjectWrapper<PdfDictionary> {
         return pagesWithOutlines;
     }
 
+    /**
+     * This method removes the given outlines from the map of pages with associated outlines.
+     *
+     * @param outlines the outlines which are no longer a part of the outline tree
+     */
+    void removeOutlinesFromPages(Set<PdfOutline> outlines) {
+        Iterator<List<PdfOutline>> iterator = pagesWithOutlines.values().iterator();
+        while (iterator.hasNext()) {
+            List<PdfOutline> pageOutlines = iterator.next();
+            pageOutlines.removeAll(outlines);
+            if (pageOutlines.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
     /**
      * This methods adds new name to the Dests NameTree. It throws an exception, if the name already exists.
      *
@@ -76,6 +76,7 @@ import com.itextpdf.kernel.pdf.filespec.PdfFileSpec;
 import com.itextpdf.kernel.pdf.navigation.PdfDestination;
 import com.itextpdf.kernel.pdf.tagging.PdfStructTreeRoot;
 import com.itextpdf.kernel.pdf.tagutils.TagStructureContext;
+import com.itextpdf.kernel.pdf.xobject.ImageXObjectCache;
 import com.itextpdf.kernel.xmp.PdfConst;
 import com.itextpdf.kernel.xmp.XMPConst;
 import com.itextpdf.kernel.xmp.XMPException;
@@ -192,6 +193,7 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
 
     private Map<PdfIndirectReference, PdfFont> documentFonts = new HashMap<>();
     private PdfFont defaultFont = null;
+    private transient ImageXObjectCache imageXObjectCache;
 
     protected transient TagStructureContext tagStructureContext;
 
@@ -1681,6 +1683,20 @@ public class PdfDocument implements IEventDispatcher, Closeable, Serializable {
         return defaultFont;
     }
 
+    /**
+     * Gets the cache which resolves equal images to a single Image XObject.
+     * The cache is available only if the document is written with
+     * {@link WriterProperties#useImageDeduplication()}. One instance per document.
+     *
+     * @return instance of {@link ImageXObjectCache} or {@code null} if image deduplication is disabled.
+     */
+    public ImageXObjectCache getImageXObjectCache() {
+        if (imageXObjectCache == null && writer != null && writer.properties.imageDeduplication) {
+            imageXObjectCache = new ImageXObjectCache();
+        }
+        return imageXObjectCache;
+    }
+
     /**
      * Adds a {@link PdfFont} instance to this document so that this font is flushed automatically
      * on document close. As a side effect, the underlying font dictionary is made indirect if it wasn't the case yet
@@ -45,6 +45,7 @@ package com.itextpdf.kernel.pdf;
 
 import com.itextpdf.io.util.SystemUtil;
 import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.crypto.AesDecryptor;
 import com.itextpdf.kernel.crypto.IDecryptor;
 import com.itextpdf.kernel.crypto.OutputStreamEncryption;
 import com.itextpdf.kernel.crypto.securityhandler.PubKeySecurityHandler;
@@ -370,19 +371,22 @@ public class PdfEncryption extends PdfObjectWrapper<PdfDictionary> {
     }
 
     public byte[] decryptByteArray(byte[] b) {
-        try {
-            ByteArrayOutputStream ba = new ByteArrayOutputStream();
-            IDecryptor dec = securityHandler.getDecryptor();
-            byte[] b2 = dec.update(b, 0, b.length);
-            if (b2 != null)
-                ba.write(b2);
-            b2 = dec.finish();
-            if (b2 != null)
-                ba.write(b2);
-            return ba.toByteArray();
-        } catch (IOException e) {
-            throw new PdfException(PdfException.PdfEncryption, e);
+        IDecryptor dec = securityHandler.getDecryptor();
+        if (dec instanceof AesDecryptor) {
+            return ((AesDecryptor) dec).decrypt(b, 0, b.length);
+        }
+        byte[] b2 = dec.update(b, 0, b.length);
+        byte[] b3 = dec.finish();
+        // join the parts directly, without an intermediate stream and extra copies of the whole data
+        if (b3 == null || b3.length == 0) {
+            return b2 != null ? b2 : new byte[0];
+        } else if (b2 == null || b2.length == 0) {
+            return b3;
         }
+        byte[] result = new byte[b2.length + b3.length];
+        System.arraycopy(b2, 0, result, 0, b2.length);
+        System.arraycopy(b3, 0, result, b2.length, b3.length);
+        return result;
     }
 
     public boolean isOpenedWithFullPermission() {
@@ -297,9 +297,34 @@ public class PdfIndirectReference extends PdfObject implements Comparable<PdfInd
      * @param state special flag of current object
      */
     protected PdfObject setState(short state) {
+        if (pdfDocument != null && pdfDocument.writer != null) {
+            PdfXrefTable xref = pdfDocument.getXref();
+            if ((state & MUST_BE_FLUSHED) != 0 && !checkState(MUST_BE_FLUSHED)) {
+                xref.addWaitingToFlush(this);
+            }
+            if ((state & FLUSHED) != 0) {
+                xref.removeModifiedNotFlushed(this);
+            } else if ((state & MODIFIED) != 0 && !checkState(MODIFIED) && !checkState(FLUSHED)
+                    && pdfDocument.properties.appendMode) {
+                xref.addModifiedNotFlushed(this);
+            }
+        }
         return super.setState(state);
     }
 
+    @Override
+    protected PdfObject clearState(short state) {
+        if (pdfDocument != null && pdfDocument.writer != null) {
+            if ((state & MUST_BE_FLUSHED) != 0 && checkState(MUST_BE_FLUSHED)) {
+                pdfDocument.getXref().removeWaitingToFlush(this);
+            }
+            if ((state & MODIFIED) != 0 && checkState(MODIFIED)) {
+                pdfDocument.getXref().removeModifiedNotFlushed(this);
+            }
+        }
+        return super.clearState(state);
+    }
+
     void setObjStreamNumber(int objectStreamNumber) {
         this.objectStreamNumber = objectStreamNumber;
     }
@@ -50,7 +50,9 @@ import com.itextpdf.kernel.pdf.navigation.PdfDestination;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Document outline object
@@ -174,6 +176,22 @@ public class PdfOutline implements Serializable {
         return children;
     }
 
+    /**
+     * Flushes all the descendants of this outline and removes them from the outline tree kept in memory,
+     * so that they can be garbage collected. The outline itself stays in the tree and is written as usual,
+     * however its flushed descendants can neither be accessed nor modified afterwards, and no new children
+     * shall be added to it.
+     */
+    public void flushDescendants() {
+        if (children.isEmpty()) {
+            return;
+        }
+        Set<PdfOutline> flushedOutlines = new HashSet<>();
+        flushDescendants(this, flushedOutlines);
+        children.clear();
+        pdfDoc.getCatalog().removeOutlinesFromPages(flushedOutlines);
+    }
+
     /**
      * Gets parent outline.
      *
@@ -300,6 +318,15 @@ public class PdfOutline implements Serializable {
     }
 
 
+    private static void flushDescendants(PdfOutline outline, Set<PdfOutline> flushedOutlines) {
+        for (PdfOutline child : outline.children) {
+            flushDescendants(child, flushedOutlines);
+            child.content.flush();
+            child.children.clear();
+            flushedOutlines.add(child);
+        }
+    }
+
     /**
      * Clear list of children.
      */
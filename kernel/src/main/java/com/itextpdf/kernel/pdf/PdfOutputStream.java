@@ -293,25 +293,34 @@ public class PdfOutputStream extends OutputStream<PdfOutputStream> {
             boolean allowCompression = !pdfStream.containsKey(PdfName.Filter) && isNotMetadataPdfStream(pdfStream);
 
             if (pdfStream.getInputStream() != null) {
+                boolean compress = toCompress && (allowCompression || userDefinedCompression);
+                if (compress) {
+                    updateCompressionFilter(pdfStream);
+                }
+                // the dictionary shall be written before the encryption stream is created, since the latter
+                // may write the initialization vector straight away
+                this.write((PdfDictionary) pdfStream);
+                writeBytes(PdfOutputStream.stream);
+                long beginStreamContent = getCurrentPos();
                 java.io.OutputStream fout = this;
                 DeflaterOutputStream def = null;
                 OutputStreamEncryption ose = null;
                 if (crypto != null && !crypto.isEmbeddedFilesOnly()) {
                     fout = ose = crypto.getEncryptionStream(fout);
                 }
-                if (toCompress && (allowCompression || userDefinedCompression)) {
-                    updateCompressionFilter(pdfStream);
+                if (compress) {
                     fout = def = new DeflaterOutputStream(fout, pdfStream.getCompressionLevel(), 0x8000);
                 }
-                this.write((PdfDictionary) pdfStream);
-                writeBytes(PdfOutputStream.stream);
-                long beginStreamContent = getCurrentPos();
                 byte[] buf = new byte[4192];
-                while (true) {
-                    int n = pdfStream.getInputStream().read(buf);
-                    if (n <= 0)
-                        break;
-                    fout.write(buf, 0, n);
+                try {
+                    while (true) {
+                        int n = pdfStream.getInputStream().read(buf);
+                        if (n <= 0)
+                            break;
+                        fout.write(buf, 0, n);
+                    }
+                } finally {
+                    pdfStream.releaseInputStream();
                 }
                 if (def != null) {
                     def.finish();
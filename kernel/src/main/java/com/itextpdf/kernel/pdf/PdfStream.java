@@ -391,6 +391,13 @@ public class PdfStream extends PdfDictionary {
         return inputStream;
     }
 
+    /**
+     * Called once the content of {@link #getInputStream()} has been written to the output document,
+     * or the writing has failed. The stream passed by the user is not closed, it remains owned by the user.
+     */
+    protected void releaseInputStream() {
+    }
+
     private void writeObject(ObjectOutputStream out) throws IOException {
         if (inputStream == null || inputStream instanceof Serializable) {
             out.defaultWriteObject();
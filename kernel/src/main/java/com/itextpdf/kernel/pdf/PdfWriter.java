@@ -84,9 +84,11 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
     /**
      * Is used to avoid duplications on object copying.
      * It stores hashes of the indirect reference from the source document and the corresponding
-     * indirect references of the copied objects from the new document.
+     * indirect references of the copied objects from the new document. The entries are grouped
+     * by the id of the source document, so that the objects copied from a single document
+     * could be flushed without visiting the objects copied from the other ones.
      */
-    private Map<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedObjects = new LinkedHashMap<>();
+    private Map<Long, Map<PdfDocument.IndirectRefDescription, PdfIndirectReference>> copiedObjects = new HashMap<>();
 
     /**
      * Is used in smart mode to serialize and store serialized objects content.
@@ -346,7 +348,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         if (tryToFindDuplicate) {
             copiedObjectKey = new PdfDocument.IndirectRefDescription(indirectReference);
 
-            PdfIndirectReference copiedIndirectReference = copiedObjects.get(copiedObjectKey);
+            PdfIndirectReference copiedIndirectReference = getCopiedObject(copiedObjectKey);
             if (copiedIndirectReference != null)
                 return copiedIndirectReference.getRefersTo();
         }
@@ -356,7 +358,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             serializedContent = smartModeSerializer.serializeObject(obj);
             PdfIndirectReference objectRef = smartModeSerializer.getSavedSerializedObject(serializedContent);
             if (objectRef != null) {
-                copiedObjects.put(copiedObjectKey, objectRef);
+                putCopiedObject(copiedObjectKey, objectRef);
                 return objectRef.refersTo;
             }
         }
@@ -370,7 +372,7 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
             if (serializedContent != null) {
                 smartModeSerializer.saveSerializedObject(serializedContent, indRef);
             }
-            copiedObjects.put(copiedObjectKey, indRef);
+            putCopiedObject(copiedObjectKey, indRef);
         }
         newObject.copyContent(obj, documentTo);
 
@@ -412,17 +414,18 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
         boolean needFlush = true;
         while (needFlush) {
             needFlush = false;
-            for (int i = 1; i < xref.size(); i++) {
-                PdfIndirectReference indirectReference = xref.get(i);
-                if (indirectReference != null && !indirectReference.isFree()
-                        && indirectReference.checkState(PdfObject.MUST_BE_FLUSHED)
-                        && !forbiddenToFlush.contains(indirectReference)) {
+            // only references in MUST_BE_FLUSHED state are visited, flushing an object removes its reference
+            // from the waiting ones, while newly marked references are picked up in the same or the next pass
+            PdfIndirectReference indirectReference = xref.getNextWaitingToFlush(1);
+            while (indirectReference != null) {
+                if (!indirectReference.isFree() && !forbiddenToFlush.contains(indirectReference)) {
                     PdfObject obj = indirectReference.getRefersTo(false);
                     if (obj != null) {
                         obj.flush();
                         needFlush = true;
                     }
                 }
+                indirectReference = xref.getNextWaitingToFlush(indirectReference.getObjNumber() + 1);
             }
         }
         if (objectStream != null && objectStream.getSize() > 0) {
@@ -437,19 +440,17 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      */
     protected void flushModifiedWaitingObjects(Set<PdfIndirectReference> forbiddenToFlush) {
         PdfXrefTable xref = document.getXref();
-        for (int i = 1; i < xref.size(); i++) {
-            PdfIndirectReference indirectReference = xref.get(i);
-            if (null != indirectReference && !indirectReference.isFree() && !forbiddenToFlush.contains(indirectReference)) {
-                boolean isModified = indirectReference.checkState(PdfObject.MODIFIED);
-                if (isModified) {
-                    PdfObject obj = indirectReference.getRefersTo(false);
-                    if (obj != null) {
-                        if (!obj.equals(objectStream)) {
-                            obj.flush();
-                        }
+        PdfIndirectReference indirectReference = xref.getNextModifiedNotFlushed(1);
+        while (indirectReference != null) {
+            if (!indirectReference.isFree() && !forbiddenToFlush.contains(indirectReference)) {
+                PdfObject obj = indirectReference.getRefersTo(false);
+                if (obj != null) {
+                    if (!obj.equals(objectStream)) {
+                        obj.flush();
                     }
                 }
             }
+            indirectReference = xref.getNextModifiedNotFlushed(indirectReference.getObjNumber() + 1);
         }
         if (objectStream != null && objectStream.getSize() > 0) {
             objectStream.flush();
@@ -463,18 +464,37 @@ public class PdfWriter extends PdfOutputStream implements Serializable {
      * @param docId id of the source document
      */
     void flushCopiedObjects(long docId) {
+        Map<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedFromDocument = copiedObjects.get(docId);
+        if (copiedFromDocument == null) {
+            return;
+        }
         List<PdfDocument.IndirectRefDescription> remove = new ArrayList<>();
-        for (Map.Entry<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedObject : copiedObjects.entrySet()) {
-            if (copiedObject.getKey().docId == docId) {
-                if (copiedObject.getValue().refersTo != null) {
-                    copiedObject.getValue().refersTo.flush();
-                    remove.add(copiedObject.getKey());
-                }
+        for (Map.Entry<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedObject : copiedFromDocument.entrySet()) {
+            if (copiedObject.getValue().refersTo != null) {
+                copiedObject.getValue().refersTo.flush();
+                remove.add(copiedObject.getKey());
             }
         }
         for (PdfDocument.IndirectRefDescription ird : remove) {
-            copiedObjects.remove(ird);
+            copiedFromDocument.remove(ird);
+        }
+        if (copiedFromDocument.isEmpty()) {
+            copiedObjects.remove(docId);
+        }
+    }
+
+    private PdfIndirectReference getCopiedObject(PdfDocument.IndirectRefDescription copiedObjectKey) {
+        Map<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedFromDocument = copiedObjects.get(copiedObjectKey.docId);
+        return copiedFromDocument != null ? copiedFromDocument.get(copiedObjectKey) : null;
+    }
+
+    private void putCopiedObject(PdfDocument.IndirectRefDescription copiedObjectKey, PdfIndirectReference copiedObject) {
+        Map<PdfDocument.IndirectRefDescription, PdfIndirectReference> copiedFromDocument = copiedObjects.get(copiedObjectKey.docId);
+        if (copiedFromDocument == null) {
+            copiedFromDocument = new LinkedHashMap<>();
+            copiedObjects.put(copiedObjectKey.docId, copiedFromDocument);
         }
+        copiedFromDocument.put(copiedObjectKey, copiedObject);
     }
 
     private void markArrayContentToFlush(PdfArray array) {
@@ -80,6 +80,18 @@ class PdfXrefTable implements Serializable {
      */
     private final TreeMap<Integer, PdfIndirectReference> freeReferencesLinkedList;
 
+    /**
+     * References in {@link PdfObject#MUST_BE_FLUSHED} state, keyed by obj number, so that waiting objects
+     * could be flushed without sweeping the whole table.
+     */
+    private final TreeMap<Integer, PdfIndirectReference> waitingToFlush;
+
+    /**
+     * References in {@link PdfObject#MODIFIED} state which are not flushed yet, keyed by obj number.
+     * Filled in append mode only.
+     */
+    private final TreeMap<Integer, PdfIndirectReference> modifiedNotFlushed;
+
     public PdfXrefTable() {
         this(INITIAL_CAPACITY);
     }
@@ -90,6 +102,8 @@ class PdfXrefTable implements Serializable {
         }
         xref = new PdfIndirectReference[capacity];
         freeReferencesLinkedList = new TreeMap<>();
+        waitingToFlush = new TreeMap<>();
+        modifiedNotFlushed = new TreeMap<>();
         add((PdfIndirectReference) new PdfIndirectReference(null, 0, MAX_GENERATION, 0).setState(PdfObject.FREE));
     }
 
@@ -354,6 +368,8 @@ class PdfXrefTable implements Serializable {
                 writeString("\n%%EOF\n");
         xref = null;
         freeReferencesLinkedList.clear();
+        waitingToFlush.clear();
+        modifiedNotFlushed.clear();
     }
 
     void clear() {
@@ -364,6 +380,52 @@ class PdfXrefTable implements Serializable {
             xref[i] = null;
         }
         count = 1;
+        waitingToFlush.clear();
+        modifiedNotFlushed.clear();
+    }
+
+    void addWaitingToFlush(PdfIndirectReference reference) {
+        waitingToFlush.put(reference.getObjNumber(), reference);
+    }
+
+    void removeWaitingToFlush(PdfIndirectReference reference) {
+        if (waitingToFlush.get(reference.getObjNumber()) == reference) {
+            waitingToFlush.remove(reference.getObjNumber());
+        }
+    }
+
+    /**
+     * Gets the reference in {@link PdfObject#MUST_BE_FLUSHED} state with the least obj number
+     * greater than or equal to the given one.
+     *
+     * @param objNr the least obj number to look for
+     * @return the waiting reference, or {@code null} if there are no more such references
+     */
+    PdfIndirectReference getNextWaitingToFlush(int objNr) {
+        Map.Entry<Integer, PdfIndirectReference> entry = waitingToFlush.ceilingEntry(objNr);
+        return entry != null ? entry.getValue() : null;
+    }
+
+    void addModifiedNotFlushed(PdfIndirectReference reference) {
+        modifiedNotFlushed.put(reference.getObjNumber(), reference);
+    }
+
+    void removeModifiedNotFlushed(PdfIndirectReference reference) {
+        if (modifiedNotFlushed.get(reference.getObjNumber()) == reference) {
+            modifiedNotFlushed.remove(reference.getObjNumber());
+        }
+    }
+
+    /**
+     * Gets the modified and not yet flushed reference with the least obj number
+     * greater than or equal to the given one. Available in append mode only.
+     *
+     * @param objNr the least obj number to look for
+     * @return the modified reference, or {@code null} if there are no more such references
+     */
+    PdfIndirectReference getNextModifiedNotFlushed(int objNr) {
+        Map.Entry<Integer, PdfIndirectReference> entry = modifiedNotFlushed.ceilingEntry(objNr);
+        return entry != null ? entry.getValue() : null;
     }
 
     private List<Integer> createSections(PdfDocument document, boolean dropObjectsFromObjectStream) {
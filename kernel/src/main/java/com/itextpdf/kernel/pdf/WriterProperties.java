@@ -62,6 +62,7 @@ public class WriterProperties implements Serializable {
      * and reused if there's an object with the same content later.
      */
     protected boolean smartMode;
+    protected boolean imageDeduplication;
     protected boolean debugMode;
     protected boolean addXmpMetadata;
     protected boolean addUAXmpMetadata;
@@ -79,6 +80,7 @@ public class WriterProperties implements Serializable {
 
     public WriterProperties() {
         smartMode = false;
+        imageDeduplication = false;
         debugMode = false;
         addUAXmpMetadata = false;
         compressionLevel = CompressionConstants.DEFAULT_COMPRESSION;
@@ -113,6 +115,22 @@ public class WriterProperties implements Serializable {
         return this;
     }
 
+    /**
+     * Enables image deduplication.
+     * <br>
+     * When enabled, images added to the document from {@link com.itextpdf.io.image.ImageData}
+     * are looked up by their content in a per-document cache before an Image XObject is created,
+     * so that an image added several times is written only once.
+     * Unlike smart mode, duplicates are detected before their streams are built.
+     *
+     * @return this {@code WriterProperties} instance
+     * @see com.itextpdf.kernel.pdf.xobject.ImageXObjectCache
+     */
+    public WriterProperties useImageDeduplication() {
+        this.imageDeduplication = true;
+        return this;
+    }
+
     /**
      * If true, default XMPMetadata based on {@link PdfDocumentInfo} will be added.
      * For PDF 2.0 documents, metadata will be added in any case.
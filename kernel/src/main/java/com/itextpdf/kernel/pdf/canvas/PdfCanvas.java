@@ -82,6 +82,7 @@ import com.itextpdf.kernel.pdf.layer.IPdfOCG;
 import com.itextpdf.kernel.pdf.layer.PdfLayer;
 import com.itextpdf.kernel.pdf.layer.PdfLayerMembership;
 import com.itextpdf.kernel.pdf.tagutils.TagReference;
+import com.itextpdf.kernel.pdf.xobject.ImageXObjectCache;
 import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
 import com.itextpdf.kernel.pdf.xobject.PdfXObject;
@@ -1878,7 +1879,7 @@ public class PdfCanvas implements Serializable {
             addXObject(xObject, a, b, c, d, e, f);
             return xObject;
         } else {
-            PdfImageXObject imageXObject = new PdfImageXObject(image);
+            PdfImageXObject imageXObject = createImageXObject(image, asInline);
             if (asInline && image.canImageBeInline()) {
                 addInlineImage(imageXObject, a, b, c, d, e, f);
                 return null;
@@ -1917,7 +1918,7 @@ public class PdfCanvas implements Serializable {
             addXObject(xObject, image.getWidth(), 0, 0, image.getHeight(), x, y);
             return xObject;
         } else {
-            PdfImageXObject imageXObject = new PdfImageXObject(image);
+            PdfImageXObject imageXObject = createImageXObject(image, asInline);
             if (asInline && image.canImageBeInline()) {
                 addInlineImage(imageXObject, image.getWidth(), 0, 0, image.getHeight(), x, y);
                 return null;
@@ -1946,7 +1947,7 @@ public class PdfCanvas implements Serializable {
             addImage(xObject, width, 0, 0, width, x, y);
             return xObject;
         } else {
-            PdfImageXObject imageXObject = new PdfImageXObject(image);
+            PdfImageXObject imageXObject = createImageXObject(image, asInline);
             if (asInline && image.canImageBeInline()) {
                 addInlineImage(imageXObject, width, 0, 0, width / image.getWidth() * image.getHeight(), x, y);
                 return null;
@@ -2415,6 +2416,12 @@ public class PdfCanvas implements Serializable {
         return addImage(image, height / image.getHeight() * image.getWidth(), 0, 0, height, x, y);
     }
 
+    private PdfImageXObject createImageXObject(ImageData image, boolean asInline) {
+        // in-line images are not shared, so only XObjects are taken from the document cache
+        ImageXObjectCache cache = asInline || document == null ? null : document.getImageXObjectCache();
+        return cache != null ? cache.getImageXObject(image) : new PdfImageXObject(image);
+    }
+
     private static PdfStream getPageStream(PdfPage page) {
         PdfStream stream = page.getLastContentStream();
         return stream == null || stream.getOutputStream() == null || stream.containsKey(PdfName.Filter) ? page.newContentStreamAfter() : stream;
@@ -0,0 +1,140 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.xobject;
+
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Image stream whose content is not kept in memory, but is read from the deferred {@link ImageData} source
+ * at the moment the stream is written to the output document.
+ */
+class DeferredImagePdfStream extends PdfStream {
+
+    private static final long serialVersionUID = -1476359282016235837L;
+
+    private final transient ImageData image;
+    private transient InputStream dataStream;
+    private boolean dataReplaced = false;
+
+    DeferredImagePdfStream(ImageData image) {
+        super();
+        this.image = image;
+    }
+
+    @Override
+    public PdfObject makeIndirect(PdfDocument document, PdfIndirectReference reference) {
+        super.makeIndirect(document, reference);
+        if (!dataReplaced && document != null && get(PdfName.Length, false) == null) {
+            put(PdfName.Length, new PdfNumber(-1).makeIndirect(document));
+        }
+        return this;
+    }
+
+    @Override
+    public byte[] getBytes(boolean decoded) {
+        if (dataReplaced) {
+            return super.getBytes(decoded);
+        }
+        if (isFlushed()) {
+            throw new PdfException(PdfException.CannotOperateWithFlushedPdfStream);
+        }
+        byte[] bytes = image.getData();
+        if (decoded && containsKey(PdfName.Filter)) {
+            bytes = PdfReader.decodeBytes(bytes, this);
+        }
+        return bytes;
+    }
+
+    @Override
+    public void setData(byte[] bytes, boolean append) {
+        if (!dataReplaced) {
+            byte[] original = append ? getBytes(true) : null;
+            dataReplaced = true;
+            // Length is only needed as an indirect object while the content is streamed from the source
+            remove(PdfName.Length);
+            if (original != null) {
+                super.setData(original, false);
+            }
+        }
+        super.setData(bytes, append);
+    }
+
+    @Override
+    protected InputStream getInputStream() {
+        if (dataReplaced) {
+            return null;
+        }
+        if (dataStream == null) {
+            try {
+                dataStream = image.openDataStream();
+            } catch (IOException e) {
+                throw new PdfException(PdfException.IoException, e);
+            }
+        }
+        return dataStream;
+    }
+
+    @Override
+    protected void releaseInputStream() {
+        if (dataStream != null) {
+            try {
+                dataStream.close();
+            } catch (IOException e) {
+                throw new PdfException(PdfException.IoException, e);
+            } finally {
+                dataStream = null;
+            }
+        }
+    }
+}
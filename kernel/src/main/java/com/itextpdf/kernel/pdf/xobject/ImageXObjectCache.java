@@ -0,0 +1,281 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf.xobject;
+
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageType;
+import com.itextpdf.io.image.RawImageData;
+import com.itextpdf.io.image.RawImageHelper;
+import com.itextpdf.kernel.PdfException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+/**
+ * Per-document cache of {@link PdfImageXObject} instances created from {@link ImageData}.
+ * <p>
+ * Images are identified by a digest of their raw bytes together with all the parameters
+ * which end up in the image dictionary, so adding the same image several times
+ * (e.g. a logo on every page) results in a single Image XObject in the document.
+ * The cache is only created for documents written with
+ * {@link com.itextpdf.kernel.pdf.WriterProperties#useImageDeduplication()}.
+ */
+public final class ImageXObjectCache {
+
+    private static final int DATA_BUFFER_SIZE = 8192;
+
+    private final Map<ImageKey, PdfImageXObject> images = new HashMap<>();
+    // the digest is computed once per image resource, the same ImageData is often added many times
+    private final Map<ImageData, ImageKey> keys = new WeakHashMap<>();
+    private MessageDigest md5;
+
+    private long hitCount;
+    private long missCount;
+    private long bytesSaved;
+
+    /**
+     * Creates an empty cache.
+     */
+    public ImageXObjectCache() {
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (Exception e) {
+            throw new PdfException(e);
+        }
+    }
+
+    /**
+     * Gets an Image XObject for the given image. If an equal image has already been requested
+     * from this cache, the previously created XObject is returned, otherwise a new one is created.
+     * The content key of an {@link ImageData} instance is calculated on its first request only,
+     * so the image shall not be modified after it has been passed to this method.
+     *
+     * @param image the image to get XObject for
+     * @return cached or newly created {@link PdfImageXObject}
+     */
+    public PdfImageXObject getImageXObject(ImageData image) {
+        ImageKey key = keys.get(image);
+        if (key == null) {
+            if (image.getOriginalType() == ImageType.RAW) {
+                // attributes of raw images are finalized on XObject creation, so do it before calculating the key
+                RawImageHelper.updateImageAttributes((RawImageData) image, null);
+            }
+            key = createKey(image);
+            keys.put(image, key);
+        }
+        PdfImageXObject imageXObject = images.get(key);
+        if (imageXObject != null) {
+            hitCount++;
+            bytesSaved += key.dataLength;
+        } else {
+            missCount++;
+            imageXObject = new PdfImageXObject(image);
+            images.put(key, imageXObject);
+        }
+        return imageXObject;
+    }
+
+    /**
+     * Gets the number of requests resolved to an already created Image XObject.
+     *
+     * @return the number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of requests for which a new Image XObject was created.
+     *
+     * @return the number of cache misses
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the total size of the image data which was not written to the document thanks to cache hits.
+     *
+     * @return the number of saved bytes
+     */
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+
+    /**
+     * Gets the number of distinct images in the cache.
+     *
+     * @return the number of cached Image XObjects
+     */
+    public int size() {
+        return images.size();
+    }
+
+    private ImageKey createKey(ImageData image) {
+        md5.reset();
+        updateDescription(image);
+        int dataLength = updateData(image);
+        return new ImageKey(md5.digest(), dataLength);
+    }
+
+    /**
+     * Adds the image bytes to the digest. The bytes of a deferred image are streamed from its source,
+     * so that they are not loaded into the {@link ImageData} instance.
+     *
+     * @param image the image
+     * @return the number of image bytes
+     */
+    private int updateData(ImageData image) {
+        if (!image.isDeferred()) {
+            byte[] data = image.getData();
+            md5.update(data);
+            return data.length;
+        }
+        try {
+            InputStream stream = image.openDataStream();
+            try {
+                byte[] buffer = new byte[DATA_BUFFER_SIZE];
+                int dataLength = 0;
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    md5.update(buffer, 0, read);
+                    dataLength += read;
+                }
+                return dataLength;
+            } finally {
+                stream.close();
+            }
+        } catch (IOException e) {
+            throw new PdfException(PdfException.IoException, e);
+        }
+    }
+
+    private void updateDescription(ImageData image) {
+        update(image.getOriginalType());
+        update(image.getWidth());
+        update(image.getHeight());
+        update(image.getBpc());
+        update(image.getColorSpace());
+        update(image.getColorTransform());
+        update(image.getFilter());
+        update(image.getDecodeParms());
+        update(image.getImageAttributes());
+        update(image.getDecode());
+        update(image.getTransparency());
+        update(image.isMask());
+        update(image.isSoftMask());
+        update(image.isInverted());
+        update(image.isInterpolation());
+        update(image.isDeflated());
+        if (image instanceof RawImageData) {
+            update(((RawImageData) image).getTypeCcitt());
+        }
+        update(image.getProfile() != null ? image.getProfile().getData() : null);
+        ImageData imageMask = image.getImageMask();
+        if (imageMask != null) {
+            update("$M");
+            updateDescription(imageMask);
+            update("$B");
+            updateData(imageMask);
+        }
+    }
+
+    private void update(Object value) {
+        if (value == null) {
+            md5.update((byte) 0);
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            update("$B" + bytes.length);
+            md5.update(bytes);
+        } else if (value instanceof int[]) {
+            update("$I" + Arrays.toString((int[]) value));
+        } else if (value instanceof float[]) {
+            update("$F" + Arrays.toString((float[]) value));
+        } else if (value instanceof Object[]) {
+            Object[] objects = (Object[]) value;
+            update("$A" + objects.length);
+            for (Object obj : objects) {
+                update(obj);
+            }
+        } else if (value instanceof Map) {
+            // the order of the entries does not influence the resultant dictionary
+            Map<?, ?> sorted = new TreeMap<>((Map<?, ?>) value);
+            update("$D" + sorted.size());
+            for (Map.Entry<?, ?> entry : sorted.entrySet()) {
+                update(entry.getKey());
+                update(entry.getValue());
+            }
+        } else {
+            md5.update((value.getClass().getSimpleName() + ':' + value + ';').getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static class ImageKey {
+        private final byte[] digest;
+        private final int hash;
+        private final int dataLength;
+
+        ImageKey(byte[] digest, int dataLength) {
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+            this.dataLength = dataLength;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ImageKey && hash == ((ImageKey) obj).hash && Arrays.equals(digest, ((ImageKey) obj).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
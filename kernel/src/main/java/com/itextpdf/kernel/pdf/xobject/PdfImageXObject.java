@@ -325,7 +325,11 @@ public class PdfImageXObject extends PdfXObject {
         if (image.getOriginalType() == ImageType.RAW) {
             RawImageHelper.updateImageAttributes((RawImageData) image, null);
         }
-        stream = new PdfStream(image.getData());
+        if (image.isDeferred()) {
+            stream = new DeferredImagePdfStream(image);
+        } else {
+            stream = new PdfStream(image.getData());
+        }
         String filter = image.getFilter();
         if (filter != null && filter.equals("JPXDecode") && image.getColorSpace() <= 0) {
             stream.setCompressionLevel(CompressionConstants.NO_COMPRESSION);
@@ -45,10 +45,14 @@ package com.itextpdf.kernel.utils;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
 import com.itextpdf.io.util.FileUtil;
 import com.itextpdf.io.util.MessageFormatUtil;
 import com.itextpdf.io.util.SystemUtil;
 import com.itextpdf.io.util.UrlUtil;
+import com.itextpdf.kernel.PdfException;
 import com.itextpdf.kernel.counter.event.IMetaInfo;
 import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.DocumentProperties;
@@ -61,6 +65,7 @@ import com.itextpdf.kernel.pdf.PdfIndirectReference;
 import com.itextpdf.kernel.pdf.PdfName;
 import com.itextpdf.kernel.pdf.PdfNumber;
 import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.PdfString;
@@ -70,6 +75,7 @@ import com.itextpdf.kernel.pdf.StampingProperties;
 import com.itextpdf.kernel.pdf.annot.PdfAnnotation;
 import com.itextpdf.kernel.pdf.annot.PdfLinkAnnotation;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
 import com.itextpdf.kernel.xmp.PdfConst;
 import com.itextpdf.kernel.xmp.XMPConst;
 import com.itextpdf.kernel.xmp.XMPMeta;
@@ -103,6 +109,11 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * This class provides means to compare two PDF files both by content and visually
@@ -163,6 +174,8 @@ public class CompareTool {
     private boolean useCachedPagesForComparison = true;
     private IMetaInfo metaInfo;
 
+    private int structureCompareThreadCount = Runtime.getRuntime().availableProcessors();
+
     /**
      * Creates an instance of the CompareTool.
      */
@@ -219,6 +232,81 @@ public class CompareTool {
         return compareResult;
     }
 
+    /**
+     * Compares two PDF documents page by page without rendering them, so unlike
+     * {@link #compareByContent(String, String, String, String)} it needs neither Ghostscript nor ImageMagick.
+     * <br><br>
+     * First a fingerprint of every page and of all the objects reachable from it is computed in both documents,
+     * and the pages with the same fingerprints are skipped. The other pages are compared like in compareByContent,
+     * except for their content streams: those are parsed and compared operator by operator, so that content streams
+     * which only differ in their formatting are equal, and the report tells the first operator that differs.
+     * The catalogs and, if enabled, the encryption dictionaries of the documents are compared like in compareByContent.
+     * <br><br>
+     * The pages are compared on several threads, see {@link #setStructureCompareThreadCount(int)}. Each thread opens
+     * the documents itself, since a {@link PdfDocument} is not thread safe.
+     * <br><br>
+     * For more explanations about what is outDoc and cmpDoc see last paragraph of the {@link CompareTool}
+     * class description.
+     * @param outPdf the absolute path to the output file, which is to be compared to cmp-file.
+     * @param cmpPdf the absolute path to the cmp-file, which is to be compared to output file.
+     * @return the report of comparison of two files in the form of the custom class instance.
+     * See {@link CompareResult} for more info.
+     * @throws IOException if a document cannot be read
+     */
+    public CompareResult compareByStructure(String outPdf, String cmpPdf) throws IOException {
+        PdfDocument outDocument = openDocument(outPdf, getOutReaderProperties());
+        PdfDocument cmpDocument;
+        try {
+            cmpDocument = openDocument(cmpPdf, getCmpReaderProperties());
+        } catch (IOException e) {
+            outDocument.close();
+            throw e;
+        }
+        try {
+            CompareResult compareResult = new CompareResult(compareByContentErrorsLimit);
+            ObjectPath catalogPath = new ObjectPath(cmpDocument.getCatalog().getPdfObject().getIndirectReference(),
+                    outDocument.getCatalog().getPdfObject().getIndirectReference());
+            if (outDocument.getNumberOfPages() != cmpDocument.getNumberOfPages()) {
+                compareResult.addError(catalogPath, "Documents have different numbers of pages.");
+            }
+
+            int pageCount = Math.min(outDocument.getNumberOfPages(), cmpDocument.getNumberOfPages());
+            for (CompareResult pagesResult : comparePagesByStructure(outPdf, cmpPdf, pageCount)) {
+                for (Map.Entry<ObjectPath, String> difference : pagesResult.getDifferences().entrySet()) {
+                    compareResult.addError(difference.getKey(), difference.getValue());
+                }
+            }
+
+            // the page references are collected again for this pair of documents when they are needed
+            outPagesRef = null;
+            cmpPagesRef = null;
+            Set<PdfName> ignoredCatalogEntries = new LinkedHashSet<>(Arrays.asList(PdfName.Pages, PdfName.Metadata));
+            compareDictionariesExtended(outDocument.getCatalog().getPdfObject(), cmpDocument.getCatalog().getPdfObject(),
+                    catalogPath, compareResult, ignoredCatalogEntries);
+            if (encryptionCompareEnabled) {
+                compareDocumentsEncryption(outDocument, cmpDocument, compareResult);
+            }
+            return compareResult;
+        } finally {
+            outDocument.close();
+            cmpDocument.close();
+        }
+    }
+
+    /**
+     * Sets the number of threads the pages are compared on by {@link #compareByStructure(String, String)}.
+     * By default, it is the number of available processors.
+     * @param threadCount the number of threads, must be positive.
+     * @return this CompareTool instance.
+     */
+    public CompareTool setStructureCompareThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount");
+        }
+        this.structureCompareThreadCount = threadCount;
+        return this;
+    }
+
     /**
      * Disables the default logic of pages comparison.
      * This option makes sense only for {@link CompareTool#compareByCatalog(PdfDocument, PdfDocument)} method.
@@ -1092,6 +1180,252 @@ public class CompareTool {
         }
     }
 
+    private PdfDocument openDocument(String pdf, ReaderProperties properties) throws IOException {
+        try {
+            return new PdfDocument(new PdfReader(pdf, properties), new DocumentProperties().setEventCountingMetaInfo(metaInfo));
+        } catch (IOException e) {
+            throw new IOException("File \"" + pdf + "\" not found", e);
+        }
+    }
+
+    private List<CompareResult> comparePagesByStructure(final String outPdf, final String cmpPdf, int pageCount) throws IOException {
+        List<CompareResult> results = new ArrayList<>();
+        int chunkCount = Math.min(structureCompareThreadCount, pageCount);
+        if (chunkCount <= 1) {
+            if (pageCount > 0) {
+                results.add(createStructureCompareWorker().comparePageRangeByStructure(outPdf, cmpPdf, 1, pageCount));
+            }
+            return results;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(chunkCount);
+        try {
+            List<Future<CompareResult>> futures = new ArrayList<>(chunkCount);
+            for (int i = 0; i < chunkCount; i++) {
+                final int startPage = pageCount * i / chunkCount + 1;
+                final int endPage = pageCount * (i + 1) / chunkCount;
+                final CompareTool worker = createStructureCompareWorker();
+                futures.add(executor.submit(new Callable<CompareResult>() {
+                    @Override
+                    public CompareResult call() throws IOException {
+                        return worker.comparePageRangeByStructure(outPdf, cmpPdf, startPage, endPage);
+                    }
+                }));
+            }
+            for (Future<CompareResult> future : futures) {
+                results.add(waitForPageRange(future));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    private CompareTool createStructureCompareWorker() {
+        CompareTool worker = new CompareTool();
+        worker.compareByContentErrorsLimit = compareByContentErrorsLimit;
+        worker.useCachedPagesForComparison = useCachedPagesForComparison;
+        worker.outProps = getOutReaderProperties();
+        worker.cmpProps = getCmpReaderProperties();
+        worker.metaInfo = metaInfo;
+        return worker;
+    }
+
+    private CompareResult comparePageRangeByStructure(String outPdf, String cmpPdf, int startPage, int endPage) throws IOException {
+        PdfDocument outDocument = openDocument(outPdf, getOutReaderProperties());
+        PdfDocument cmpDocument;
+        try {
+            cmpDocument = openDocument(cmpPdf, getCmpReaderProperties());
+        } catch (IOException e) {
+            outDocument.close();
+            throw e;
+        }
+        try {
+            CompareResult compareResult = new CompareResult(compareByContentErrorsLimit);
+            for (int i = startPage; i <= endPage && !compareResult.isMessageLimitReached(); i++) {
+                comparePageByStructure(outDocument.getPage(i), cmpDocument.getPage(i), compareResult);
+            }
+            return compareResult;
+        } finally {
+            outDocument.close();
+            cmpDocument.close();
+        }
+    }
+
+    private void comparePageByStructure(PdfPage outPage, PdfPage cmpPage, CompareResult compareResult) {
+        byte[] outFingerprint = PageFingerprint.compute(outPage, useCachedPagesForComparison);
+        if (outFingerprint != null && Arrays.equals(outFingerprint, PageFingerprint.compute(cmpPage, useCachedPagesForComparison))) {
+            return;
+        }
+        ObjectPath currentPath = new ObjectPath(cmpPage.getPdfObject().getIndirectReference(), outPage.getPdfObject().getIndirectReference());
+        Set<PdfName> excludedKeys = new LinkedHashSet<>(Arrays.asList(PdfName.Contents));
+        compareDictionariesExtended(outPage.getPdfObject(), cmpPage.getPdfObject(), currentPath, compareResult, excludedKeys);
+        if (!compareResult.isMessageLimitReached()) {
+            currentPath.pushDictItemToPath(PdfName.Contents);
+            compareContentStreamOperators(outPage, cmpPage, currentPath, compareResult);
+            currentPath.pop();
+        }
+    }
+
+    /**
+     * Compares the content streams byte by byte, which is done for content that cannot be parsed.
+     */
+    private boolean compareUnparsedContents(PdfPage outPage, PdfPage cmpPage, ObjectPath currentPath, CompareResult compareResult) {
+        return compareObjects(outPage.getPdfObject().get(PdfName.Contents, false),
+                cmpPage.getPdfObject().get(PdfName.Contents, false), currentPath, compareResult);
+    }
+
+    private boolean compareContentStreamOperators(PdfPage outPage, PdfPage cmpPage, ObjectPath currentPath, CompareResult compareResult) {
+        List<List<PdfObject>> outOperators;
+        List<List<PdfObject>> cmpOperators;
+        try {
+            outOperators = parseContentStreamOperators(outPage);
+            cmpOperators = parseContentStreamOperators(cmpPage);
+        } catch (IOException e) {
+            return compareUnparsedContents(outPage, cmpPage, currentPath, compareResult);
+        } catch (com.itextpdf.io.IOException e) {
+            return compareUnparsedContents(outPage, cmpPage, currentPath, compareResult);
+        } catch (PdfException e) {
+            return compareUnparsedContents(outPage, cmpPage, currentPath, compareResult);
+        }
+
+        int minSize = Math.min(outOperators.size(), cmpOperators.size());
+        int prefix = 0;
+        while (prefix < minSize && compareOperands(outOperators.get(prefix), cmpOperators.get(prefix))) {
+            prefix++;
+        }
+        if (prefix == outOperators.size() && prefix == cmpOperators.size()) {
+            return true;
+        }
+        int suffix = 0;
+        while (suffix < minSize - prefix && compareOperands(outOperators.get(outOperators.size() - 1 - suffix),
+                cmpOperators.get(cmpOperators.size() - 1 - suffix))) {
+            suffix++;
+        }
+        String expected = prefix < cmpOperators.size() ? formatOperator(cmpOperators.get(prefix)) : "end of content";
+        String found = prefix < outOperators.size() ? formatOperator(outOperators.get(prefix)) : "end of content";
+        compareResult.addError(currentPath, MessageFormatUtil.format("Content stream operators are different. Expected: {0} operators. Found: {1} operators.\n" +
+                        "First difference is encountered at operator {2}. Expected: {3}. Found: {4}.\n" +
+                        "Different operators: {5} expected, {6} found.",
+                cmpOperators.size(), outOperators.size(), prefix, expected, found,
+                cmpOperators.size() - prefix - suffix, outOperators.size() - prefix - suffix));
+        return false;
+    }
+
+    private static List<List<PdfObject>> parseContentStreamOperators(PdfPage page) throws IOException {
+        PdfTokenizer tokenizer = new PdfTokenizer(new RandomAccessFileOrArray(
+                new RandomAccessSourceFactory().createSource(page.getContentBytes())));
+        PdfCanvasParser parser = new PdfCanvasParser(tokenizer, page.getResources());
+        List<List<PdfObject>> operators = new ArrayList<>();
+        List<PdfObject> operands = new ArrayList<>();
+        try {
+            while (parser.parse(operands).size() > 0) {
+                operators.add(new ArrayList<>(operands));
+            }
+        } finally {
+            tokenizer.close();
+        }
+        return operators;
+    }
+
+    private static boolean compareOperands(List<PdfObject> outOperands, List<PdfObject> cmpOperands) {
+        if (outOperands.size() != cmpOperands.size()) {
+            return false;
+        }
+        for (int i = 0; i < outOperands.size(); i++) {
+            if (!compareOperand(outOperands.get(i), cmpOperands.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean compareOperand(PdfObject outOperand, PdfObject cmpOperand) {
+        if (outOperand == null || cmpOperand == null) {
+            return outOperand == cmpOperand;
+        }
+        if (outOperand.getType() != cmpOperand.getType()) {
+            return false;
+        }
+        switch (cmpOperand.getType()) {
+            case PdfObject.NUMBER:
+                return ((PdfNumber) outOperand).getValue() == ((PdfNumber) cmpOperand).getValue();
+            case PdfObject.STRING:
+                return Arrays.equals(convertPdfStringToBytes((PdfString) outOperand), convertPdfStringToBytes((PdfString) cmpOperand));
+            case PdfObject.ARRAY:
+                PdfArray outArray = (PdfArray) outOperand;
+                PdfArray cmpArray = (PdfArray) cmpOperand;
+                if (outArray.size() != cmpArray.size()) {
+                    return false;
+                }
+                for (int i = 0; i < cmpArray.size(); i++) {
+                    if (!compareOperand(outArray.get(i, false), cmpArray.get(i, false))) {
+                        return false;
+                    }
+                }
+                return true;
+            case PdfObject.STREAM:
+                // inline images
+                if (!Arrays.equals(((PdfStream) outOperand).getBytes(false), ((PdfStream) cmpOperand).getBytes(false))) {
+                    return false;
+                }
+                // fall through to compare the image dictionaries
+            case PdfObject.DICTIONARY:
+                PdfDictionary outDict = (PdfDictionary) outOperand;
+                PdfDictionary cmpDict = (PdfDictionary) cmpOperand;
+                if (!outDict.keySet().equals(cmpDict.keySet())) {
+                    return false;
+                }
+                for (PdfName key : cmpDict.keySet()) {
+                    if (!compareOperand(outDict.get(key, false), cmpDict.get(key, false))) {
+                        return false;
+                    }
+                }
+                return true;
+            default:
+                // names, booleans, null and the operators themselves
+                return outOperand.equals(cmpOperand) || outOperand.toString().equals(cmpOperand.toString());
+        }
+    }
+
+    private static String formatOperator(List<PdfObject> operands) {
+        StringBuilder sb = new StringBuilder();
+        for (PdfObject operand : operands) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            if (operand.isStream()) {
+                sb.append("<inline image>");
+            } else if (operand.isString()) {
+                sb.append('(').append(operand.toString()).append(')');
+            } else {
+                sb.append(operand.toString());
+            }
+        }
+        String operator = sb.toString().replaceAll("\\r|\\n", " ");
+        return operator.length() > 100 ? operator.substring(0, 100) + "..." : operator;
+    }
+
+    private static CompareResult waitForPageRange(Future<CompareResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PdfException(cause);
+        }
+    }
+
     private void compareDocumentsEncryption(PdfDocument outDocument, PdfDocument cmpDocument, CompareResult compareResult) throws IOException {
         PdfDictionary outEncrypt = outDocument.getTrailer().getAsDictionary(PdfName.Encrypt);
         PdfDictionary cmpEncrypt = cmpDocument.getTrailer().getAsDictionary(PdfName.Encrypt);
@@ -1542,7 +1876,7 @@ public class CompareTool {
         return firstDifferenceOffset;
     }
 
-    private byte[] convertPdfStringToBytes(PdfString pdfString) {
+    static byte[] convertPdfStringToBytes(PdfString pdfString) {
         byte[] bytes;
         String value = pdfString.getValue();
         String encoding = pdfString.getEncoding();
@@ -0,0 +1,234 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.utils;
+
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfBoolean;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfNumber;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfString;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Computes a digest of a page and of all the objects reachable from it, in the form in which {@link CompareTool}
+ * compares them: the entries that are not compared, like /Parent, are left out, Flate encoded streams are decoded,
+ * the subset prefixes of font names are ignored and other pages are identified by their page numbers.
+ * Two pages with the same fingerprint are equal for {@link CompareTool#compareByStructure(String, String)},
+ * pages with different fingerprints still have to be compared.
+ */
+final class PageFingerprint {
+
+    private final MessageDigest digest;
+    private final PdfDocument document;
+    private final boolean pagesByNumber;
+    private final Map<PdfObject, Integer> visitedObjects = new IdentityHashMap<>();
+    private boolean comparable = true;
+
+    private PageFingerprint(PdfDocument document, boolean pagesByNumber) {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new PdfException(e);
+        }
+        this.document = document;
+        this.pagesByNumber = pagesByNumber;
+    }
+
+    /**
+     * Computes the fingerprint of a page.
+     *
+     * @param page          the page
+     * @param pagesByNumber whether references to pages are compared by page number,
+     *                      see {@link CompareTool#disableCachedPagesComparison()}
+     * @return the fingerprint, or null if the page contains objects that cannot be fingerprinted
+     */
+    static byte[] compute(PdfPage page, boolean pagesByNumber) {
+        PageFingerprint fingerprint = new PageFingerprint(page.getDocument(), pagesByNumber);
+        PdfDictionary pageDictionary = page.getPdfObject();
+        fingerprint.visitedObjects.put(pageDictionary, 0);
+        try {
+            fingerprint.addDictionary(pageDictionary);
+        } catch (PdfException e) {
+            return null;
+        } catch (com.itextpdf.io.IOException e) {
+            return null;
+        }
+        return fingerprint.comparable ? fingerprint.digest.digest() : null;
+    }
+
+    private void addObject(PdfObject object) {
+        if (object == null) {
+            digest.update((byte) 'u');
+            return;
+        }
+        if (object.isIndirectReference()) {
+            digest.update((byte) 'R');
+            object = ((PdfIndirectReference) object).getRefersTo(false);
+            if (object == null) {
+                digest.update((byte) 'u');
+                return;
+            }
+            Integer visitedIndex = visitedObjects.get(object);
+            if (visitedIndex != null && !(pagesByNumber && isPage(object))) {
+                // a cycle, or an object that is referenced more than once
+                digest.update((byte) 'V');
+                addInt(visitedIndex);
+                return;
+            }
+            visitedObjects.put(object, visitedObjects.size());
+        }
+        if (isPage(object) && pagesByNumber) {
+            int pageNumber = document.getPageNumber((PdfDictionary) object);
+            if (pageNumber < 1) {
+                comparable = false;
+            }
+            digest.update((byte) 'G');
+            addInt(pageNumber);
+            return;
+        }
+        switch (object.getType()) {
+            case PdfObject.DICTIONARY:
+                addDictionary((PdfDictionary) object);
+                break;
+            case PdfObject.STREAM:
+                addStream((PdfStream) object);
+                break;
+            case PdfObject.ARRAY:
+                PdfArray array = (PdfArray) object;
+                digest.update((byte) 'A');
+                addInt(array.size());
+                for (int i = 0; i < array.size(); i++) {
+                    addObject(array.get(i, false));
+                }
+                break;
+            case PdfObject.NAME:
+                digest.update((byte) 'N');
+                addBytes(((PdfName) object).getValue().getBytes(StandardCharsets.UTF_8));
+                break;
+            case PdfObject.NUMBER:
+                digest.update((byte) 'I');
+                long bits = Double.doubleToLongBits(((PdfNumber) object).getValue());
+                addInt((int) (bits >>> 32));
+                addInt((int) bits);
+                break;
+            case PdfObject.STRING:
+                digest.update((byte) 'S');
+                addBytes(CompareTool.convertPdfStringToBytes((PdfString) object));
+                break;
+            case PdfObject.BOOLEAN:
+                digest.update((byte) (((PdfBoolean) object).getValue() ? 'T' : 'F'));
+                break;
+            case PdfObject.NULL:
+                digest.update((byte) 'n');
+                break;
+            default:
+                // literals are not compared by CompareTool either
+                comparable = false;
+                break;
+        }
+    }
+
+    private void addDictionary(PdfDictionary dictionary) {
+        digest.update((byte) 'D');
+        addEntries(dictionary, false);
+    }
+
+    private void addStream(PdfStream stream) {
+        boolean decoded = PdfName.FlateDecode.equals(stream.get(PdfName.Filter));
+        digest.update((byte) (decoded ? 'Z' : 'B'));
+        addBytes(stream.getBytes(decoded));
+        addEntries(stream, true);
+    }
+
+    private void addEntries(PdfDictionary dictionary, boolean isStream) {
+        for (PdfName key : new TreeSet<>(dictionary.keySet())) {
+            if (key.equals(PdfName.Parent) || key.equals(PdfName.P) || key.equals(PdfName.ModDate)) {
+                continue;
+            }
+            if (isStream && (key.equals(PdfName.Filter) || key.equals(PdfName.Length))) {
+                continue;
+            }
+            digest.update((byte) '/');
+            addBytes(key.getValue().getBytes(StandardCharsets.UTF_8));
+            if (key.equals(PdfName.BaseFont) || key.equals(PdfName.FontName)) {
+                PdfObject fontName = dictionary.get(key);
+                if (fontName != null && fontName.isName() && fontName.toString().indexOf('+') > 0) {
+                    digest.update((byte) '+');
+                    String name = fontName.toString();
+                    addBytes(name.substring(name.indexOf('+')).getBytes(StandardCharsets.UTF_8));
+                    continue;
+                }
+            }
+            addObject(dictionary.get(key, false));
+        }
+    }
+
+    private static boolean isPage(PdfObject object) {
+        return object.isDictionary() && PdfName.Page.equals(((PdfDictionary) object).getAsName(PdfName.Type));
+    }
+
+    private void addBytes(byte[] bytes) {
+        addInt(bytes.length);
+        digest.update(bytes);
+    }
+
+    private void addInt(int value) {
+        digest.update((byte) (value >>> 24));
+        digest.update((byte) (value >>> 16));
+        digest.update((byte) (value >>> 8));
+        digest.update((byte) value);
+    }
+}
@@ -44,6 +44,8 @@
 package com.itextpdf.kernel.utils;
 
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfOutline;
+import com.itextpdf.kernel.pdf.PdfPage;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -55,6 +57,7 @@ public class PdfMerger {
     private boolean closeSrcDocuments;
     private boolean mergeTags;
     private boolean mergeOutlines;
+    private boolean streamingMode;
 
     /**
      * This class is used to merge a number of existing documents into one. By default, if source document
@@ -93,6 +96,20 @@ public class PdfMerger {
         return this;
     }
 
+    /**
+     * If set to <i>true</i> then every source document is finalized right after its pages are merged: merged pages
+     * together with their tags, all the objects copied from the source document and the outline items created
+     * for it (except the top level ones) are flushed to the output and released from memory. This way memory consumption doesn't grow with
+     * the number of merged documents. Note, that merged pages can't be modified or removed afterwards.
+     * Default value - <i>false</i>.
+     * @param streamingMode should be true to flush merged content after each source document.
+     * @return this {@code PdfMerger} instance.
+     */
+    public PdfMerger setStreamingMode(boolean streamingMode) {
+        this.streamingMode = streamingMode;
+        return this;
+    }
+
     /**
      * This method merges pages from the source document to the current one.
      * <br><br>
@@ -128,7 +145,11 @@ public class PdfMerger {
             pdfDocument.initializeOutlines();
         }
 
-        from.copyPagesTo(pages, pdfDocument);
+        int topLevelOutlinesCount = streamingMode ? getTopLevelOutlinesCount() : 0;
+        List<PdfPage> mergedPages = from.copyPagesTo(pages, pdfDocument);
+        if (streamingMode) {
+            flushMergedContent(from, mergedPages, topLevelOutlinesCount);
+        }
         if (closeSrcDocuments) {
             from.close();
         }
@@ -143,4 +164,22 @@ public class PdfMerger {
     public void close() {
         pdfDocument.close();
     }
+
+    private int getTopLevelOutlinesCount() {
+        return pdfDocument.hasOutlines() ? pdfDocument.getOutlines(false).getAllChildren().size() : 0;
+    }
+
+    private void flushMergedContent(PdfDocument from, List<PdfPage> mergedPages, int topLevelOutlinesCount) {
+        for (PdfPage page : mergedPages) {
+            page.flush();
+        }
+        pdfDocument.flushCopiedObjects(from);
+        if (pdfDocument.hasOutlines()) {
+            // top level items are kept as they will be linked with the items of the next source documents
+            List<PdfOutline> topLevelOutlines = pdfDocument.getOutlines(false).getAllChildren();
+            for (int i = topLevelOutlinesCount; i < topLevelOutlines.size(); i++) {
+                topLevelOutlines.get(i).flushDescendants();
+            }
+        }
+    }
 }
@@ -169,6 +169,23 @@ public final class XMPMetaFactory {
         return XMPMetaParser.parse(buffer, options);
     }
 
+    /**
+     * Extracts selected top-level properties from a byte-buffer. The packet is parsed as a stream and
+     * the properties that are not selected are skipped without creating nodes for them, which is
+     * cheaper than parsing the whole packet when only a few properties are needed.
+     *
+     * @param buffer    a String contain an XMP-file.
+     * @param options   Options controlling the parsing.
+     * @param selection the top-level properties to extract.
+     * @return Returns the <code>XMPMeta</code>-object that contains the selected properties.
+     * @throws XMPException If the file is not well-formed XML or if the parsing fails.
+     * @see XMPMetaFactory#parseFromBuffer(byte[], ParseOptions)
+     */
+    public static XMPMeta parseFromBuffer(byte[] buffer, ParseOptions options,
+                                          XMPPropertySelection selection) throws XMPException {
+        return XMPMetaParser.parse(buffer, options, selection);
+    }
+
     /**
      * Serializes an <code>XMPMeta</code>-object as RDF into an <code>OutputStream</code>
      * with default options.
@@ -1272,7 +1272,7 @@ public class ParseRDF implements XMPError, XMPConst
 	 * @param node an XML node 
 	 * @return Returns the term ID.
 	 */
-	private static int getRDFTermKind(Node node)
+	static int getRDFTermKind(Node node)
 	{
 		String localName = node.getLocalName();
 		String namespace = node.getNamespaceURI();
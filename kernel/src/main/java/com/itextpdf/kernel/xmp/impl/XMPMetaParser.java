@@ -34,6 +34,7 @@ import com.itextpdf.kernel.xmp.XMPConst;
 import com.itextpdf.kernel.xmp.XMPError;
 import com.itextpdf.kernel.xmp.XMPException;
 import com.itextpdf.kernel.xmp.XMPMeta;
+import com.itextpdf.kernel.xmp.XMPPropertySelection;
 import com.itextpdf.kernel.xmp.options.ParseOptions;
 
 import java.io.IOException;
@@ -91,11 +92,30 @@ public class XMPMetaParser
 	 * @throws XMPException Thrown if parsing or normalisation fails.
 	 */
 	public static XMPMeta parse(Object input, ParseOptions options) throws XMPException
+	{
+		return parse(input, options, null);
+	}
+
+
+	/**
+	 * Parses the input source into an XMP metadata object, including
+	 * de-aliasing and normalisation. Only the selected top-level properties are extracted,
+	 * the XML is read with a StAX parser and the other properties are skipped.
+	 * 
+	 * @param input the input can be an <code>InputStream</code>, a <code>String</code> or 
+	 * 			a byte buffer containing the XMP packet.
+	 * @param options the parse options
+	 * @param selection the top-level properties to extract, <code>null</code> for all
+	 * @return Returns the resulting XMP metadata object
+	 * @throws XMPException Thrown if parsing or normalisation fails.
+	 */
+	public static XMPMeta parse(Object input, ParseOptions options, XMPPropertySelection selection)
+			throws XMPException
 	{
 		ParameterAsserts.assertNotNull(input);
 		options = options != null ? options : new ParseOptions();
 
-		Document document = parseXml(input, options);
+		Document document = parseXml(input, options, selection);
 
 		boolean xmpmetaRequired = options.getRequireXMPMeta();
 		Object[] result = new Object[3];
@@ -138,23 +158,24 @@ public class XMPMetaParser
 	 * @param input the input can be an <code>InputStream</code>, a <code>String</code> or 
 	 * 			a byte buffer containing the XMP packet.
 	 * @param options the parsing options
+	 * @param selection the top-level properties to keep, <code>null</code> for all
 	 * @return Returns the parsed XML document or an exception.
 	 * @throws XMPException Thrown if the parsing fails for different reasons
 	 */
-	private static Document parseXml(Object input, ParseOptions options)
-			throws XMPException
+	private static Document parseXml(Object input, ParseOptions options,
+			XMPPropertySelection selection) throws XMPException
 	{
 		if (input instanceof InputStream)
 		{
-			return parseXmlFromInputStream((InputStream) input, options);
+			return parseXmlFromInputStream((InputStream) input, options, selection);
 		}
 		else if (input instanceof byte[])
 		{
-			return parseXmlFromBytebuffer(new ByteBuffer((byte[]) input), options);
+			return parseXmlFromBytebuffer(new ByteBuffer((byte[]) input), options, selection);
 		} 
 		else
 		{
-			return parseXmlFromString((String) input, options);
+			return parseXmlFromString((String) input, options, selection);
 		}
 	}
 	
@@ -165,15 +186,16 @@ public class XMPMetaParser
 	 *  
 	 * @param stream an <code>InputStream</code>
 	 * @param options the parsing options
+	 * @param selection the top-level properties to keep, <code>null</code> for all
 	 * @return Returns an XML DOM-Document.
 	 * @throws XMPException Thrown when the parsing fails.
 	 */
-	private static Document parseXmlFromInputStream(InputStream stream, ParseOptions options)
-			throws XMPException
+	private static Document parseXmlFromInputStream(InputStream stream, ParseOptions options,
+			XMPPropertySelection selection) throws XMPException
 	{
 		if (!options.getAcceptLatin1()  &&  !options.getFixControlChars())
 		{
-			return parseInputSource(new InputSource(stream));
+			return parseInputSource(new InputSource(stream), options, selection);
 		}
 		else
 		{
@@ -181,7 +203,7 @@ public class XMPMetaParser
 			try
 			{
 				ByteBuffer buffer = new ByteBuffer(stream);
-				return parseXmlFromBytebuffer(buffer, options);
+				return parseXmlFromBytebuffer(buffer, options, selection);
 			}
 			catch (IOException e)
 			{
@@ -198,16 +220,17 @@ public class XMPMetaParser
 	 * 
 	 * @param buffer a byte buffer containing the XMP packet
 	 * @param options the parsing options
+	 * @param selection the top-level properties to keep, <code>null</code> for all
 	 * @return Returns an XML DOM-Document.
 	 * @throws XMPException Thrown when the parsing fails.
 	 */
-	private static Document parseXmlFromBytebuffer(ByteBuffer buffer, ParseOptions options)
-		throws XMPException
+	private static Document parseXmlFromBytebuffer(ByteBuffer buffer, ParseOptions options,
+		XMPPropertySelection selection) throws XMPException
 	{
 		InputSource source = new InputSource(buffer.getByteStream());
 		try
 		{
-			return parseInputSource(source);
+			return parseInputSource(source, options, selection);
 		}
 		catch (XMPException e)
 		{
@@ -227,7 +250,7 @@ public class XMPMetaParser
 						Reader fixReader = new FixASCIIControlsReader(
 							new InputStreamReader(
 								buffer.getByteStream(), encoding));
-						return parseInputSource(new InputSource(fixReader));
+						return parseInputSource(new InputSource(fixReader), options, selection);
 					}
 					catch (UnsupportedEncodingException e1)
 					{
@@ -237,7 +260,7 @@ public class XMPMetaParser
 					}
 				}
 				source = new InputSource(buffer.getByteStream());
-				return parseInputSource(source);
+				return parseInputSource(source, options, selection);
 			}
 			else
 			{
@@ -253,23 +276,24 @@ public class XMPMetaParser
 	 *  
 	 * @param input a <code>String</code> containing the XMP packet
 	 * @param options the parsing options
+	 * @param selection the top-level properties to keep, <code>null</code> for all
 	 * @return Returns an XML DOM-Document.
 	 * @throws XMPException Thrown when the parsing fails.
 	 */
-	private static Document parseXmlFromString(String input, ParseOptions options)
-			throws XMPException
+	private static Document parseXmlFromString(String input, ParseOptions options,
+			XMPPropertySelection selection) throws XMPException
 	{
 		InputSource source = new InputSource(new StringReader(input));
 		try
 		{
-			return parseInputSource(source);
+			return parseInputSource(source, options, selection);
 		}
 		catch (XMPException e)
 		{
 			if (e.getErrorCode() == XMPError.BADXML  &&  options.getFixControlChars())
 			{
 				source = new InputSource(new FixASCIIControlsReader(new StringReader(input)));
-				return parseInputSource(source);
+				return parseInputSource(source, options, selection);
 			}
 			else
 			{
@@ -280,13 +304,21 @@ public class XMPMetaParser
 
 	
 	/**
-	 * Runs the XML-Parser. 
+	 * Runs the XML-Parser. The StAX parser is used if it is requested by the options
+	 * or if only selected properties shall be kept.
 	 * @param source an <code>InputSource</code>
+	 * @param options the parsing options
+	 * @param selection the top-level properties to keep, <code>null</code> for all
 	 * @return Returns an XML DOM-Document.
 	 * @throws XMPException Wraps parsing and I/O-exceptions into an XMPException.
 	 */
-	private static Document parseInputSource(InputSource source) throws XMPException
+	private static Document parseInputSource(InputSource source, ParseOptions options,
+			XMPPropertySelection selection) throws XMPException
 	{
+		if (options.getUseStreamingParser()  ||  selection != null)
+		{
+			return XMPMetaStreamParser.parse(source, selection);
+		}
 		try
 		{
 			DocumentBuilder builder = factory.newDocumentBuilder();
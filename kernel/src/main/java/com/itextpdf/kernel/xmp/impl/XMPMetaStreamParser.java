@@ -0,0 +1,418 @@
+//Copyright (c) 2006, Adobe Systems Incorporated
+//All rights reserved.
+//
+//        Redistribution and use in source and binary forms, with or without
+//        modification, are permitted provided that the following conditions are met:
+//        1. Redistributions of source code must retain the above copyright
+//        notice, this list of conditions and the following disclaimer.
+//        2. Redistributions in binary form must reproduce the above copyright
+//        notice, this list of conditions and the following disclaimer in the
+//        documentation and/or other materials provided with the distribution.
+//        3. All advertising materials mentioning features or use of this software
+//        must display the following acknowledgement:
+//        This product includes software developed by the Adobe Systems Incorporated.
+//        4. Neither the name of the Adobe Systems Incorporated nor the
+//        names of its contributors may be used to endorse or promote products
+//        derived from this software without specific prior written permission.
+//
+//        THIS SOFTWARE IS PROVIDED BY ADOBE SYSTEMS INCORPORATED ''AS IS'' AND ANY
+//        EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+//        WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+//        DISCLAIMED. IN NO EVENT SHALL ADOBE SYSTEMS INCORPORATED BE LIABLE FOR ANY
+//        DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+//        (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+//        LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+//        ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+//        (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+//        SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+//
+//        http://www.adobe.com/devnet/xmp/library/eula-xmp-library-java.html
+
+package com.itextpdf.kernel.xmp.impl;
+
+import com.itextpdf.kernel.xmp.XMPConst;
+import com.itextpdf.kernel.xmp.XMPError;
+import com.itextpdf.kernel.xmp.XMPException;
+import com.itextpdf.kernel.xmp.XMPMetaFactory;
+import com.itextpdf.kernel.xmp.XMPPropertySelection;
+import com.itextpdf.kernel.xmp.XMPSchemaRegistry;
+import com.itextpdf.kernel.xmp.properties.XMPAliasInfo;
+
+import java.io.IOException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.Text;
+import org.xml.sax.InputSource;
+
+
+/**
+ * Builds the XML DOM-Document for <code>XMPMetaParser</code> from the events of a StAX parser
+ * instead of a DOM parser. The document is the same as the one of the DOM parser,
+ * except that comments and the DTD are not kept.
+ * <p>
+ * Optionally only selected top-level properties are kept: the property elements of the
+ * node elements of an rdf:RDF-element and the property attributes of these node elements
+ * are skipped without creating any nodes, if they are not selected.
+ */
+class XMPMetaStreamParser implements XMPConst
+{
+	/** the level of the node elements below the rdf:RDF-element */
+	private static final int NODE_ELEMENT_LEVEL = 1;
+	/** the level of the top-level property elements below the rdf:RDF-element */
+	private static final int PROPERTY_ELEMENT_LEVEL = 2;
+	/** the StAX Parser Factory, options are set */
+	private static XMLInputFactory factory = createXMLInputFactory();
+	/** creates the empty documents that are filled */
+	private static DocumentBuilderFactory documentFactory = DocumentBuilderFactory.newInstance();
+
+	/** the XML event source */
+	private final XMLStreamReader reader;
+	/** the top-level properties to keep, <code>null</code> for all */
+	private final XMPPropertySelection selection;
+	/** the document that is built */
+	private final Document document;
+
+
+	/**
+	 * Hidden constructor.
+	 *
+	 * @param reader the XML event source
+	 * @param selection the top-level properties to keep, <code>null</code> for all
+	 * @param document the document that is built
+	 */
+	private XMPMetaStreamParser(XMLStreamReader reader, XMPPropertySelection selection,
+		Document document)
+	{
+		this.reader = reader;
+		this.selection = selection;
+		this.document = document;
+	}
+
+
+	/**
+	 * Runs the StAX parser and builds an XML DOM-Document from its events.
+	 *
+	 * @param source an <code>InputSource</code> with a byte or a character stream
+	 * @param selection the top-level properties to keep, <code>null</code> for all
+	 * @return Returns an XML DOM-Document.
+	 * @throws XMPException Wraps parsing and I/O-exceptions into an XMPException.
+	 */
+	static Document parse(InputSource source, XMPPropertySelection selection)
+		throws XMPException
+	{
+		XMLStreamReader reader = null;
+		try
+		{
+			Document document = documentFactory.newDocumentBuilder().newDocument();
+			reader = source.getByteStream() != null
+				? factory.createXMLStreamReader(source.getByteStream())
+				: factory.createXMLStreamReader(source.getCharacterStream());
+			new XMPMetaStreamParser(reader, selection, document).readContent(document, -1);
+			return document;
+		}
+		catch (XMLStreamException e)
+		{
+			if (e.getNestedException() instanceof IOException)
+			{
+				throw new XMPException("Error reading the XML-file", XMPError.BADSTREAM, e);
+			}
+			throw new XMPException("XML parsing failure", XMPError.BADXML, e);
+		}
+		catch (ParserConfigurationException e)
+		{
+			throw new XMPException("XML Parser not correctly configured",
+					XMPError.UNKNOWN, e);
+		}
+		finally
+		{
+			if (reader != null)
+			{
+				try
+				{
+					reader.close();
+				}
+				catch (XMLStreamException e)
+				{
+					// the underlying source is not closed by the XML reader
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Reads the content of the current element or of the document and appends it to a node.
+	 *
+	 * @param parent the node the content is appended to
+	 * @param level the level of the node below the closest rdf:RDF-element
+	 * 			or -1 if that is not of interest
+	 * @throws XMLStreamException Thrown if the XML is not well-formed.
+	 */
+	private void readContent(Node parent, int level) throws XMLStreamException
+	{
+		while (reader.hasNext())
+		{
+			int event = reader.next();
+			switch (event)
+			{
+				case XMLStreamConstants.START_ELEMENT:
+					readElement(parent, level);
+					break;
+				case XMLStreamConstants.END_ELEMENT:
+					return;
+				case XMLStreamConstants.CHARACTERS:
+				case XMLStreamConstants.SPACE:
+					appendText(parent);
+					break;
+				case XMLStreamConstants.CDATA:
+					parent.appendChild(document.createCDATASection(reader.getText()));
+					break;
+				case XMLStreamConstants.PROCESSING_INSTRUCTION:
+					String data = reader.getPIData();
+					parent.appendChild(document.createProcessingInstruction(
+						reader.getPITarget(), data != null ? data : ""));
+					break;
+				default:
+					// comments are ignored like by the DOM parser, the DTD is not needed
+					break;
+			}
+		}
+	}
+
+
+	/**
+	 * Reads the element at the current start event and appends it to a node,
+	 * unless it is a top-level property that is not selected.
+	 *
+	 * @param parent the node the element is appended to
+	 * @param parentLevel the level of the parent below the closest rdf:RDF-element
+	 * 			or -1 if that is not of interest
+	 * @throws XMLStreamException Thrown if the XML is not well-formed.
+	 */
+	private void readElement(Node parent, int parentLevel) throws XMLStreamException
+	{
+		String namespace = namespaceOf(reader.getNamespaceURI());
+		String localName = reader.getLocalName();
+		int level;
+		if (NS_RDF.equals(namespace)  &&  "RDF".equals(localName))
+		{
+			level = 0;
+		}
+		else
+		{
+			level = parentLevel >= 0  &&  parentLevel < PROPERTY_ELEMENT_LEVEL ? parentLevel + 1 : -1;
+		}
+
+		if (level == PROPERTY_ELEMENT_LEVEL  &&  !isSelected(namespace, localName))
+		{
+			// the skipped content is still checked to be well-formed
+			skipToEnd();
+			return;
+		}
+
+		Element element = document.createElementNS(namespace,
+			qualifiedName(reader.getPrefix(), localName));
+		for (int i = 0; i < reader.getNamespaceCount(); i++)
+		{
+			String prefix = reader.getNamespacePrefix(i);
+			String uri = reader.getNamespaceURI(i);
+			element.setAttributeNS(XMLConstants.XMLNS_ATTRIBUTE_NS_URI,
+				prefix != null  &&  prefix.length() > 0 ? "xmlns:" + prefix : "xmlns",
+				uri != null ? uri : "");
+		}
+		for (int i = 0; i < reader.getAttributeCount(); i++)
+		{
+			element.setAttributeNS(namespaceOf(reader.getAttributeNamespace(i)),
+				qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)),
+				reader.getAttributeValue(i));
+		}
+		if (level == NODE_ELEMENT_LEVEL  &&  selection != null)
+		{
+			removeUnselectedProperties(element);
+		}
+		parent.appendChild(element);
+		readContent(element, level);
+	}
+
+
+	/**
+	 * Removes the property attributes of a node element that are not selected.
+	 *
+	 * @param element a node element
+	 */
+	private void removeUnselectedProperties(Element element)
+	{
+		NamedNodeMap attributes = element.getAttributes();
+		for (int i = attributes.getLength() - 1; i >= 0; i--)
+		{
+			Attr attribute = (Attr) attributes.item(i);
+			if (!XMLConstants.XMLNS_ATTRIBUTE_NS_URI.equals(attribute.getNamespaceURI())  &&
+				ParseRDF.getRDFTermKind(attribute) == ParseRDF.RDFTERM_OTHER  &&
+				!isSelected(attribute.getNamespaceURI(), attribute.getLocalName()))
+			{
+				element.removeAttributeNode(attribute);
+			}
+		}
+	}
+
+
+	/**
+	 * Appends the text of the current event to a node, adjacent text is joined like in the DOM.
+	 *
+	 * @param parent the node the text is appended to
+	 */
+	private void appendText(Node parent)
+	{
+		if (parent.getNodeType() == Node.DOCUMENT_NODE)
+		{
+			// whitespace outside of the root element
+			return;
+		}
+		Node last = parent.getLastChild();
+		if (last != null  &&  last.getNodeType() == Node.TEXT_NODE)
+		{
+			((Text) last).appendData(reader.getText());
+		}
+		else
+		{
+			parent.appendChild(document.createTextNode(reader.getText()));
+		}
+	}
+
+
+	/**
+	 * Checks if a top-level property is kept. Properties that are not in
+	 * a namespace are not selected. An alias is selected if its actual property is.
+	 *
+	 * @param namespace the namespace URI of the property element or attribute
+	 * @param localName the local name of the property element or attribute
+	 * @return Returns <code>true</code> if the property is kept.
+	 */
+	private boolean isSelected(String namespace, String localName)
+	{
+		if (selection == null)
+		{
+			return true;
+		}
+		if (namespace == null)
+		{
+			return false;
+		}
+		if (NS_DC_DEPRECATED.equals(namespace))
+		{
+			namespace = NS_DC;
+		}
+		if (selection.contains(namespace, localName))
+		{
+			return true;
+		}
+		XMPSchemaRegistry registry = XMPMetaFactory.getSchemaRegistry();
+		String prefix = registry.getNamespacePrefix(namespace);
+		if (prefix != null)
+		{
+			XMPAliasInfo aliasInfo = registry.findAlias(prefix + localName);
+			return aliasInfo != null  &&
+				selection.contains(aliasInfo.getNamespace(), aliasInfo.getPropName());
+		}
+		return false;
+	}
+
+
+	/**
+	 * Skips the rest of the current element, including its end event.
+	 *
+	 * @throws XMLStreamException Thrown if the XML is not well-formed.
+	 */
+	private void skipToEnd() throws XMLStreamException
+	{
+		int depth = 0;
+		while (reader.hasNext())
+		{
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT)
+			{
+				depth++;
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT)
+			{
+				if (depth == 0)
+				{
+					return;
+				}
+				depth--;
+			}
+		}
+	}
+
+
+	/**
+	 * @param prefix a prefix as reported by the StAX parser
+	 * @param localName a local name
+	 * @return Returns the qualified name.
+	 */
+	private static String qualifiedName(String prefix, String localName)
+	{
+		return prefix != null  &&  prefix.length() > 0 ? prefix + ':' + localName : localName;
+	}
+
+
+	/**
+	 * @param namespace a namespace URI as reported by the StAX parser
+	 * @return Returns the namespace URI or <code>null</code> for no namespace, like DOM.
+	 */
+	private static String namespaceOf(String namespace)
+	{
+		return namespace != null  &&  namespace.length() > 0 ? namespace : null;
+	}
+
+
+	/**
+	 * @return Creates, configures and returns the StAX parser factory for
+	 *         the Metadata Parser.
+	 */
+	private static XMLInputFactory createXMLInputFactory()
+	{
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+
+		// do not load external DTDs, the DTD is only read for the entity declarations
+		setOptionalProperty(factory,
+			"http://java.sun.com/xml/stream/properties/ignore-external-dtd");
+		// report CDATA sections separately, like the DOM parser
+		setOptionalProperty(factory,
+			"http://java.sun.com/xml/stream/properties/report-cdata-event");
+		return factory;
+	}
+
+
+	/**
+	 * Enables a property that is specific to the StAX parser of the JDK.
+	 *
+	 * @param factory the StAX parser factory
+	 * @param name the name of the property
+	 */
+	private static void setOptionalProperty(XMLInputFactory factory, String name)
+	{
+		try
+		{
+			factory.setProperty(name, Boolean.TRUE);
+		}
+		catch (IllegalArgumentException e)
+		{
+			// Ignore in case the configured StAX parser does not implement the property.
+		}
+	}
+}
@@ -50,6 +50,8 @@ public final class ParseOptions extends Options
 	public static final int ACCEPT_LATIN_1 = 0x0010;
 	/** Do not carry run the XMPNormalizer on a packet, leave it as it is. */
 	public static final int OMIT_NORMALIZATION = 0x0020;
+	/** Read the XML with a StAX parser instead of a DOM parser. */
+	public static final int USE_STREAMING_PARSER = 0x0040;
 
 	
 	/**
@@ -149,6 +151,26 @@ public final class ParseOptions extends Options
 		return getOption(OMIT_NORMALIZATION);
 	}
 
+
+	/**
+	 * @param value the value to set
+	 * @return Returns the instance to call more set-methods.
+	 */
+	public ParseOptions setUseStreamingParser(boolean value)
+	{
+		setOption(USE_STREAMING_PARSER, value);
+		return this;
+	}
+
+
+	/**
+	 * @return Returns the option "use streaming parser".
+	 */
+	public boolean getUseStreamingParser()
+	{
+		return getOption(USE_STREAMING_PARSER);
+	}
+
 	
 	/**
 	 * @param value the value to set
@@ -173,6 +195,7 @@ public final class ParseOptions extends Options
 			case FIX_CONTROL_CHARS:		return "FIX_CONTROL_CHARS";
 			case ACCEPT_LATIN_1:		return "ACCEPT_LATIN_1";
 			case OMIT_NORMALIZATION:	return "OMIT_NORMALIZATION";
+			case USE_STREAMING_PARSER:	return "USE_STREAMING_PARSER";
 			default: 					return null;
 		}
 	}
@@ -188,6 +211,7 @@ public final class ParseOptions extends Options
 			STRICT_ALIASING |
 			FIX_CONTROL_CHARS |
 			ACCEPT_LATIN_1 |
-			OMIT_NORMALIZATION;
+			OMIT_NORMALIZATION |
+			USE_STREAMING_PARSER;
 	}
 }
\ No newline at end of file
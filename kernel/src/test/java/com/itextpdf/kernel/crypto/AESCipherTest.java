@@ -0,0 +1,238 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.crypto;
+
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import org.bouncycastle.crypto.engines.AESFastEngine;
+import org.bouncycastle.crypto.modes.CBCBlockCipher;
+import org.bouncycastle.crypto.paddings.PaddedBufferedBlockCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+
+@Category(UnitTest.class)
+public class AESCipherTest extends ExtendedITextTest {
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @Test
+    public void chunkedEncryptionAes128Test() throws Exception {
+        chunkedEncryptionTest(16);
+    }
+
+    @Test
+    public void chunkedEncryptionAes256Test() throws Exception {
+        chunkedEncryptionTest(32);
+    }
+
+    @Test
+    public void decryptorRoundTripTest() throws IOException {
+        byte[] key = createBytes(32, 7);
+        byte[] data = createBytes(10000, 3);
+
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        OutputStreamAesEncryption encryption = new OutputStreamAesEncryption(encrypted, key);
+        encryption.write(data);
+        encryption.finish();
+
+        byte[] encryptedBytes = encrypted.toByteArray();
+        AesDecryptor decryptor = new AesDecryptor(key, 0, key.length);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        // feed the decryptor in uneven chunks, the first one is shorter than the initialization vector
+        int[] chunks = {5, 100, 33, encryptedBytes.length - 138};
+        int off = 0;
+        for (int len : chunks) {
+            byte[] b = decryptor.update(encryptedBytes, off, len);
+            if (b != null) {
+                decrypted.write(b);
+            }
+            off += len;
+        }
+        decrypted.write(decryptor.finish());
+        Assert.assertArrayEquals(data, decrypted.toByteArray());
+    }
+
+    @Test
+    public void badPaddingIsIgnoredTest() {
+        byte[] key = createBytes(16, 1);
+        byte[] iv = createBytes(16, 2);
+        AESCipher cipher = new AESCipher(false, key, iv);
+        cipher.update(createBytes(32, 5), 0, 32);
+        Assert.assertNotNull(cipher.doFinal());
+    }
+
+    @Test
+    public void pooledNestedEncryptionTest() throws IOException {
+        AESCipherPool pool = new AESCipherPool();
+        byte[] key = createBytes(16, 5);
+        byte[] outerData = createBytes(5000, 3);
+        byte[] innerData = createBytes(40, 9);
+
+        ByteArrayOutputStream outer = new ByteArrayOutputStream();
+        OutputStreamAesEncryption outerEncryption = new OutputStreamAesEncryption(outer, key, 0, key.length, pool);
+        outerEncryption.write(outerData, 0, 1000);
+        // another object is encrypted before the first one is finished
+        ByteArrayOutputStream inner = new ByteArrayOutputStream();
+        OutputStreamAesEncryption innerEncryption = new OutputStreamAesEncryption(inner, key, 0, key.length, pool);
+        innerEncryption.write(innerData);
+        innerEncryption.finish();
+        outerEncryption.write(outerData, 1000, outerData.length - 1000);
+        outerEncryption.finish();
+
+        byte[] outerBytes = outer.toByteArray();
+        Assert.assertArrayEquals(outerData, new AesDecryptor(key, 0, key.length, pool).decrypt(outerBytes, 0, outerBytes.length));
+        byte[] innerBytes = inner.toByteArray();
+        Assert.assertArrayEquals(innerData, new AesDecryptor(key, 0, key.length, pool).decrypt(innerBytes, 0, innerBytes.length));
+    }
+
+    @Test
+    public void pooledCipherIsReusedTest() throws Exception {
+        AESCipherPool pool = new AESCipherPool();
+        javax.crypto.Cipher pooled = pool.takeCipher("AES/CBC/PKCS5Padding");
+        pool.returnCipher(pooled);
+
+        AESCipher cipher = new AESCipher(true, createBytes(16, 1), createBytes(16, 2), pool);
+        cipher.update(createBytes(100, 3), 0, 100);
+        // the pooled cipher is in use now
+        javax.crypto.Cipher other = pool.takeCipher("AES/CBC/PKCS5Padding");
+        Assert.assertNotSame(pooled, other);
+        cipher.doFinal();
+        Assert.assertSame(pooled, pool.takeCipher("AES/CBC/PKCS5Padding"));
+    }
+
+    @Test
+    public void releasedCipherCannotBeUsedTest() {
+        AESCipherPool pool = new AESCipherPool();
+        AESCipher cipher = new AESCipher(true, createBytes(16, 1), createBytes(16, 2), pool);
+        cipher.update(createBytes(100, 3), 0, 100);
+        cipher.doFinal();
+        // the pooled cipher is handed out to another instance now
+        new AESCipher(true, createBytes(16, 4), createBytes(16, 5), pool);
+
+        junitExpectedException.expect(PdfException.class);
+        junitExpectedException.expectMessage(PdfException.ThisInstanceOfAesCipherAlreadyReleased);
+        cipher.update(createBytes(16, 3), 0, 16);
+    }
+
+    @Test
+    public void cipherIsReturnedToPoolIfInitializationFailsTest() throws Exception {
+        AESCipherPool pool = new AESCipherPool();
+        javax.crypto.Cipher pooled = pool.takeCipher("AES/CBC/PKCS5Padding");
+        pool.returnCipher(pooled);
+        try {
+            // the initialization vector is too short for both the JCE and the Bouncy Castle cipher
+            new AESCipher(true, createBytes(16, 1), createBytes(8, 2), pool);
+            Assert.fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException expected) {
+        }
+        Assert.assertSame(pooled, pool.takeCipher("AES/CBC/PKCS5Padding"));
+    }
+
+    @Test
+    public void oneStepDecryptionTest() throws IOException {
+        byte[] key = createBytes(32, 7);
+        for (int length : new int[] {0, 1, 15, 16, 17, 1000}) {
+            byte[] data = createBytes(length, 3);
+            ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+            OutputStreamAesEncryption encryption = new OutputStreamAesEncryption(encrypted, key);
+            encryption.write(data);
+            encryption.finish();
+            byte[] encryptedBytes = encrypted.toByteArray();
+            Assert.assertArrayEquals(data, new AesDecryptor(key, 0, key.length, new AESCipherPool()).decrypt(encryptedBytes, 0, encryptedBytes.length));
+        }
+        // data shorter than the initialization vector
+        Assert.assertEquals(0, new AesDecryptor(key, 0, key.length).decrypt(new byte[10], 0, 10).length);
+    }
+
+    private static void chunkedEncryptionTest(int keyLength) throws Exception {
+        byte[] key = createBytes(keyLength, 11);
+        byte[] iv = createBytes(16, 13);
+        byte[] data = createBytes(100000, 17);
+
+        ByteArrayOutputStream encrypted = new ByteArrayOutputStream();
+        AESCipher cipher = new AESCipher(true, key, iv);
+        byte[] buffer = new byte[0];
+        int chunk = 4192;
+        for (int off = 0; off < data.length; off += chunk) {
+            int len = Math.min(chunk, data.length - off);
+            if (buffer.length < cipher.getUpdateOutputSize(len)) {
+                buffer = new byte[cipher.getUpdateOutputSize(len)];
+            }
+            encrypted.write(buffer, 0, cipher.update(data, off, len, buffer, 0));
+        }
+        buffer = new byte[cipher.getOutputSize()];
+        encrypted.write(buffer, 0, cipher.doFinal(buffer, 0));
+
+        PaddedBufferedBlockCipher reference = new PaddedBufferedBlockCipher(new CBCBlockCipher(new AESFastEngine()));
+        reference.init(true, new ParametersWithIV(new KeyParameter(key), iv));
+        byte[] expected = new byte[reference.getOutputSize(data.length)];
+        int n = reference.processBytes(data, 0, data.length, expected, 0);
+        reference.doFinal(expected, n);
+
+        Assert.assertArrayEquals(expected, encrypted.toByteArray());
+
+        AESCipher decipher = new AESCipher(false, key, iv);
+        ByteArrayOutputStream decrypted = new ByteArrayOutputStream();
+        decrypted.write(decipher.update(expected, 0, expected.length));
+        decrypted.write(decipher.doFinal());
+        Assert.assertArrayEquals(data, decrypted.toByteArray());
+    }
+
+    private static byte[] createBytes(int length, int seed) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i * seed + seed);
+        }
+        return bytes;
+    }
+}
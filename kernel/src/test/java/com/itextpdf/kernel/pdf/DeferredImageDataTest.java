@@ -0,0 +1,212 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.LogMessage;
+import com.itextpdf.test.annotations.LogMessages;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+@Category(IntegrationTest.class)
+public class DeferredImageDataTest extends ExtendedITextTest {
+
+    public static final String destinationFolder = "./target/test/com/itextpdf/kernel/pdf/DeferredImageDataTest/";
+    public static final String sourceFolder = "./src/test/resources/com/itextpdf/kernel/pdf/DeferredImageDataTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        createOrClearDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    @LogMessages(messages = {@LogMessage(messageTemplate = LogMessageConstant.IMAGE_SIZE_CANNOT_BE_MORE_4KB)})
+    public void deferredJpegIsNotReadUntilWrittenTest() throws IOException {
+        ImageData image = ImageDataFactory.createDeferred(sourceFolder + "image.jpg");
+        Assert.assertTrue(image.isDeferred());
+        Assert.assertFalse(image.canImageBeInline());
+        Assert.assertTrue(image.getWidth() > 0);
+        Assert.assertTrue(image.getHeight() > 0);
+
+        byte[] expected = Files.readAllBytes(Paths.get(sourceFolder + "image.jpg"));
+        Assert.assertArrayEquals(expected, image.getData());
+        // the bytes are read from the source only once
+        Assert.assertSame(image.getData(), image.getData());
+    }
+
+    @Test
+    public void deferredJpegWrittenAsIsTest() throws IOException {
+        String outFileName = destinationFolder + "deferredJpegWrittenAsIs.pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outFileName));
+        ImageData image = ImageDataFactory.createDeferred(sourceFolder + "image.jpg");
+        new PdfCanvas(pdfDocument.addNewPage()).addImage(image, 36, 36, 200, false);
+        pdfDocument.close();
+
+        byte[] expected = Files.readAllBytes(Paths.get(sourceFolder + "image.jpg"));
+        PdfDocument resultDocument = new PdfDocument(new PdfReader(outFileName));
+        PdfImageXObject imageXObject = getFirstImage(resultDocument);
+        Assert.assertEquals(PdfName.DCTDecode, imageXObject.getPdfObject().getAsName(PdfName.Filter));
+        Assert.assertEquals(expected.length, imageXObject.getPdfObject().getAsNumber(PdfName.Length).intValue());
+        Assert.assertArrayEquals(expected, imageXObject.getImageBytes(false));
+        resultDocument.close();
+    }
+
+    @Test
+    public void deferredJpegInEncryptedDocumentTest() throws IOException {
+        byte[] password = "password".getBytes();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos, new WriterProperties()
+                .setStandardEncryption(password, password, EncryptionConstants.ALLOW_PRINTING,
+                        EncryptionConstants.ENCRYPTION_AES_128)));
+        ImageData image = ImageDataFactory.createDeferred(sourceFolder + "image.jpg");
+        new PdfCanvas(pdfDocument.addNewPage()).addImage(image, 36, 36, 200, false);
+        pdfDocument.close();
+
+        byte[] expected = Files.readAllBytes(Paths.get(sourceFolder + "image.jpg"));
+        PdfDocument resultDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray()),
+                new ReaderProperties().setPassword(password)));
+        Assert.assertArrayEquals(expected, getFirstImage(resultDocument).getImageBytes(false));
+        resultDocument.close();
+    }
+
+    @Test
+    public void deferredImageBytesBeforeFlushTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfImageXObject imageXObject = new PdfImageXObject(ImageDataFactory.createDeferred(sourceFolder + "image.jpg"));
+        byte[] expected = Files.readAllBytes(Paths.get(sourceFolder + "image.jpg"));
+        Assert.assertArrayEquals(expected, imageXObject.getPdfObject().getBytes(false));
+        new PdfCanvas(pdfDocument.addNewPage()).addXObject(imageXObject, 36, 36, 200);
+        pdfDocument.close();
+    }
+
+    @Test
+    public void deferredImageStreamClosedOnWriteFailureTest() throws IOException {
+        final byte[] imageBytes = Files.readAllBytes(Paths.get(sourceFolder + "image.jpg"));
+        final List<TrackedInputStream> openedStreams = new ArrayList<>();
+        final boolean[] failing = {false};
+        URL url = new URL(null, "tracked:image.jpg", new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL u) {
+                return new URLConnection(u) {
+                    @Override
+                    public void connect() {
+                    }
+
+                    @Override
+                    public InputStream getInputStream() {
+                        TrackedInputStream stream = new TrackedInputStream(imageBytes, failing[0]);
+                        openedStreams.add(stream);
+                        return stream;
+                    }
+                };
+            }
+        });
+        ImageData image = ImageDataFactory.createDeferred(url);
+        failing[0] = true;
+
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        PdfImageXObject imageXObject = new PdfImageXObject(image);
+        imageXObject.makeIndirect(pdfDocument);
+        try {
+            imageXObject.flush();
+            Assert.fail("The failing image stream shall not be written");
+        } catch (PdfException expected) {
+        }
+        Assert.assertTrue(openedStreams.get(openedStreams.size() - 1).failing);
+        for (TrackedInputStream stream : openedStreams) {
+            Assert.assertTrue(stream.closed);
+        }
+    }
+
+    private static PdfImageXObject getFirstImage(PdfDocument document) {
+        PdfDictionary xObjects = document.getFirstPage().getResources().getResource(PdfName.XObject);
+        PdfName name = xObjects.keySet().iterator().next();
+        return new PdfImageXObject(xObjects.getAsStream(name));
+    }
+
+    private static class TrackedInputStream extends FilterInputStream {
+        private final boolean failing;
+        private boolean closed;
+
+        TrackedInputStream(byte[] bytes, boolean failing) {
+            super(new ByteArrayInputStream(bytes));
+            this.failing = failing;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (failing) {
+                throw new IOException("broken source");
+            }
+            return super.read(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
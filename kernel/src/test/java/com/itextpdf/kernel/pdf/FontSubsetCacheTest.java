@@ -0,0 +1,150 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.FontSubsetCache;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.source.ByteArrayOutputStream;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+@Category(IntegrationTest.class)
+public class FontSubsetCacheTest extends ExtendedITextTest {
+    public static final String fontsFolder = "./src/test/resources/com/itextpdf/kernel/pdf/fonts/";
+
+    @Before
+    public void enableCache() {
+        FontSubsetCache.clear();
+        FontSubsetCache.setMaxEntries(16);
+    }
+
+    @After
+    public void disableCache() {
+        FontSubsetCache.setMaxEntries(0);
+        FontSubsetCache.clear();
+    }
+
+    @Test
+    public void repeatedTrueTypeSubsetTest() throws IOException {
+        FontProgram fontProgram = FontProgramFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf");
+        repeatedInvoicesTest(fontProgram);
+    }
+
+    @Test
+    public void repeatedCffSubsetTest() throws IOException {
+        FontProgram fontProgram = FontProgramFactory.createFont(fontsFolder + "Puritan2.otf");
+        repeatedInvoicesTest(fontProgram);
+    }
+
+    @Test
+    public void differentGlyphsMissTest() throws IOException {
+        FontProgram fontProgram = FontProgramFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf");
+        createInvoice(fontProgram, "Invoice 1");
+        createInvoice(fontProgram, "Invoice 2");
+        Assert.assertEquals(0, FontSubsetCache.getHitCount());
+        Assert.assertEquals(2, FontSubsetCache.getMissCount());
+        Assert.assertEquals(2, FontSubsetCache.size());
+    }
+
+    @Test
+    public void cacheIsBoundedTest() throws IOException {
+        FontSubsetCache.setMaxEntries(2);
+        FontProgram fontProgram = FontProgramFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf");
+        for (int i = 1; i <= 5; i++) {
+            createInvoice(fontProgram, "Invoice " + i);
+        }
+        Assert.assertEquals(2, FontSubsetCache.size());
+    }
+
+    @Test
+    public void disabledCacheTest() throws IOException {
+        FontSubsetCache.setMaxEntries(0);
+        FontProgram fontProgram = FontProgramFactory.createFont(fontsFolder + "NotoSerif-Regular.ttf");
+        createInvoice(fontProgram, "Invoice 1");
+        createInvoice(fontProgram, "Invoice 1");
+        Assert.assertEquals(0, FontSubsetCache.size());
+        Assert.assertEquals(0, FontSubsetCache.getHitCount());
+        Assert.assertEquals(0, FontSubsetCache.getMissCount());
+    }
+
+    private void repeatedInvoicesTest(FontProgram fontProgram) throws IOException {
+        int invoices = 10;
+        for (int i = 0; i < invoices; i++) {
+            byte[] pdf = createInvoice(fontProgram, "Invoice 1");
+            PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(pdf)));
+            Assert.assertEquals("Invoice 1", PdfTextExtractor.getTextFromPage(pdfDocument.getFirstPage()));
+            pdfDocument.close();
+        }
+        Assert.assertEquals(invoices - 1, FontSubsetCache.getHitCount());
+        Assert.assertEquals(1, FontSubsetCache.getMissCount());
+        Assert.assertEquals(0.9, FontSubsetCache.getHitRate(), 1e-6);
+    }
+
+    private static byte[] createInvoice(FontProgram fontProgram, String text) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        PdfFont font = PdfFontFactory.createFont(fontProgram, PdfEncodings.IDENTITY_H);
+        new PdfCanvas(pdfDocument.addNewPage())
+                .beginText()
+                .setFontAndSize(font, 12)
+                .moveText(36, 700)
+                .showText(text)
+                .endText();
+        pdfDocument.close();
+        return baos.toByteArray();
+    }
+}
@@ -0,0 +1,176 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.pdf;
+
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.ImageXObjectCache;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+import com.itextpdf.kernel.pdf.xobject.PdfXObject;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+
+@Category(IntegrationTest.class)
+public class ImageXObjectCacheTest extends ExtendedITextTest {
+
+    public static final String destinationFolder = "./target/test/com/itextpdf/kernel/pdf/ImageXObjectCacheTest/";
+    public static final String sourceFolder = "./src/test/resources/com/itextpdf/kernel/pdf/ImageXObjectCacheTest/";
+
+    @BeforeClass
+    public static void beforeClass() {
+        createOrClearDestinationFolder(destinationFolder);
+    }
+
+    @Test
+    public void cacheIsDisabledByDefaultTest() {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        Assert.assertNull(pdfDocument.getImageXObjectCache());
+        pdfDocument.addNewPage();
+        pdfDocument.close();
+    }
+
+    @Test
+    public void sameImageOnEveryPageTest() throws IOException {
+        String outFileName = destinationFolder + "sameImageOnEveryPage.pdf";
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(outFileName, new WriterProperties().useImageDeduplication()));
+        int dataLength = 0;
+        for (int i = 0; i < 5; i++) {
+            // a new ImageData instance each time, so that only the content is the same
+            ImageData image = ImageDataFactory.create(sourceFolder + "image.jpg");
+            dataLength = image.getData().length;
+            new PdfCanvas(pdfDocument.addNewPage()).addImage(image, 36, 36, 200, false);
+        }
+        ImageXObjectCache cache = pdfDocument.getImageXObjectCache();
+        Assert.assertEquals(4, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(4L * dataLength, cache.getBytesSaved());
+        pdfDocument.close();
+
+        Assert.assertEquals(1, countImageXObjects(outFileName));
+    }
+
+    @Test
+    public void differentImagesAreNotSharedTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream(), new WriterProperties().useImageDeduplication()));
+        PdfCanvas canvas = new PdfCanvas(pdfDocument.addNewPage());
+        PdfXObject jpeg = canvas.addImage(ImageDataFactory.create(sourceFolder + "image.jpg"), 36, 36, 200, false);
+        PdfXObject png = canvas.addImage(ImageDataFactory.create(sourceFolder + "image.png"), 36, 300, 200, false);
+        ImageData interpolated = ImageDataFactory.create(sourceFolder + "image.jpg");
+        interpolated.setInterpolation(true);
+        PdfXObject interpolatedJpeg = canvas.addImage(interpolated, 300, 36, 200, false);
+        PdfXObject pngAgain = canvas.addImage(ImageDataFactory.create(sourceFolder + "image.png"), 300, 300, 200, false);
+
+        Assert.assertNotSame(jpeg, png);
+        Assert.assertNotSame(jpeg, interpolatedJpeg);
+        Assert.assertSame(png, pngAgain);
+        Assert.assertEquals(3, pdfDocument.getImageXObjectCache().size());
+        Assert.assertEquals(1, pdfDocument.getImageXObjectCache().getHitCount());
+        pdfDocument.close();
+    }
+
+    @Test
+    public void deferredImageBytesAreNotRetainedTest() throws IOException {
+        final byte[] imageBytes = Files.readAllBytes(Paths.get(sourceFolder + "image.jpg"));
+        final int[] openedStreams = {0};
+        URL url = new URL(null, "counting:image.jpg", new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL u) {
+                return new URLConnection(u) {
+                    @Override
+                    public void connect() {
+                    }
+
+                    @Override
+                    public InputStream getInputStream() {
+                        openedStreams[0]++;
+                        return new ByteArrayInputStream(imageBytes);
+                    }
+                };
+            }
+        });
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream(), new WriterProperties().useImageDeduplication()));
+        ImageXObjectCache cache = pdfDocument.getImageXObjectCache();
+        ImageData image = ImageDataFactory.createDeferred(url);
+        PdfImageXObject imageXObject = cache.getImageXObject(image);
+        Assert.assertSame(imageXObject, cache.getImageXObject(ImageDataFactory.createDeferred(url)));
+        Assert.assertEquals(imageBytes.length, cache.getBytesSaved());
+
+        // the key is calculated from the streamed bytes, so the image still reads them from its source on request
+        int openedForKeys = openedStreams[0];
+        Assert.assertArrayEquals(imageBytes, image.getData());
+        Assert.assertEquals(openedForKeys + 1, openedStreams[0]);
+        new PdfCanvas(pdfDocument.addNewPage()).addXObject(imageXObject, 36, 36, 200);
+        pdfDocument.close();
+    }
+
+    private static int countImageXObjects(String fileName) throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(fileName));
+        Set<PdfIndirectReference> images = new HashSet<>();
+        for (int i = 1; i <= pdfDocument.getNumberOfPages(); i++) {
+            PdfDictionary xObjects = pdfDocument.getPage(i).getResources().getResource(PdfName.XObject);
+            for (PdfName name : xObjects.keySet()) {
+                images.add((PdfIndirectReference) xObjects.get(name, false));
+            }
+        }
+        pdfDocument.close();
+        return images.size();
+    }
+}
@@ -49,6 +49,8 @@ import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Arrays;
 import org.junit.Assert;
@@ -253,4 +255,43 @@ public class PdfCopyTest extends ExtendedITextTest {
         assertNull(new CompareTool().compareByContent(dest, cmp, destinationFolder, "diff_"));
     }
 
+
+    @Test
+    public void flushCopiedObjectsOfSingleSourceTest() throws IOException {
+        PdfDocument source1 = createSourceDocumentWithSharedResource();
+        PdfDocument source2 = createSourceDocumentWithSharedResource();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+
+        PdfPage copied1 = source1.getPage(1).copyTo(pdfDoc);
+        PdfPage copied2 = source2.getPage(1).copyTo(pdfDoc);
+        pdfDoc.addPage(copied1);
+        pdfDoc.addPage(copied2);
+        PdfObject resource1 = copied1.getPdfObject().get(new PdfName("Shared"));
+        PdfObject resource2 = copied2.getPdfObject().get(new PdfName("Shared"));
+
+        pdfDoc.flushCopiedObjects(source1);
+        Assert.assertTrue(resource1.isFlushed());
+        Assert.assertFalse(resource2.isFlushed());
+
+        // objects copied from the second document are still known, so they are not duplicated
+        PdfPage copiedAgain = source2.getPage(2).copyTo(pdfDoc);
+        Assert.assertSame(resource2, copiedAgain.getPdfObject().get(new PdfName("Shared")));
+
+        pdfDoc.addPage(copiedAgain);
+        pdfDoc.close();
+        source1.close();
+        source2.close();
+    }
+
+    private static PdfDocument createSourceDocumentWithSharedResource() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(baos));
+        PdfDictionary shared = (PdfDictionary) new PdfDictionary().makeIndirect(pdfDoc);
+        shared.put(PdfName.Name, new PdfString("shared"));
+        for (int i = 0; i < 2; i++) {
+            pdfDoc.addNewPage().getPdfObject().put(new PdfName("Shared"), shared);
+        }
+        pdfDoc.close();
+        return new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+    }
 }
@@ -626,4 +626,60 @@ public class PdfWriterTest extends ExtendedITextTest {
         Assert.assertArrayEquals("Stream by InputStream", streamContent.getBytes(), pdfStream.getBytes());
         document.close();
     }
+
+    @Test
+    public void flushWaitingObjectsChainTest() throws IOException {
+        String filename = destinationFolder + "flushWaitingObjectsChain.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(filename));
+        pdfDoc.addNewPage();
+        int chainLength = 500;
+        PdfDictionary[] chain = new PdfDictionary[chainLength];
+        for (int i = 0; i < chainLength; i++) {
+            chain[i] = (PdfDictionary) new PdfDictionary().makeIndirect(pdfDoc);
+            chain[i].put(PdfName.Index, new PdfNumber(i));
+        }
+        // each object refers to the one with a smaller number, so every flush marks an object
+        // which has already been passed by the current sweep
+        for (int i = 1; i < chainLength; i++) {
+            chain[i].put(PdfName.Prev, chain[i - 1]);
+        }
+        pdfDoc.getCatalog().getPdfObject().put(new PdfName("Chain"), chain[chainLength - 1]);
+        chain[chainLength - 1].flush();
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        PdfDictionary item = resultDoc.getCatalog().getPdfObject().getAsDictionary(new PdfName("Chain"));
+        for (int i = chainLength - 1; i >= 0; i--) {
+            Assert.assertNotNull(item);
+            Assert.assertEquals(i, item.getAsNumber(PdfName.Index).intValue());
+            item = item.getAsDictionary(PdfName.Prev);
+        }
+        Assert.assertNull(item);
+        resultDoc.close();
+    }
+
+    @Test
+    public void flushModifiedWaitingObjectsInAppendModeTest() throws IOException {
+        String srcFilename = destinationFolder + "flushModifiedWaitingObjectsSrc.pdf";
+        String filename = destinationFolder + "flushModifiedWaitingObjects.pdf";
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(srcFilename));
+        for (int i = 0; i < 10; i++) {
+            pdfDoc.addNewPage();
+        }
+        pdfDoc.close();
+
+        pdfDoc = new PdfDocument(new PdfReader(srcFilename), new PdfWriter(filename), new StampingProperties().useAppendMode());
+        for (int i = 1; i <= pdfDoc.getNumberOfPages(); i += 2) {
+            PdfPage page = pdfDoc.getPage(i);
+            page.getPdfObject().put(PdfName.Rotate, new PdfNumber(90));
+            page.setModified();
+        }
+        pdfDoc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(filename));
+        for (int i = 1; i <= resultDoc.getNumberOfPages(); i++) {
+            Assert.assertEquals(i % 2 == 1 ? 90 : 0, resultDoc.getPage(i).getRotation());
+        }
+        resultDoc.close();
+    }
 }
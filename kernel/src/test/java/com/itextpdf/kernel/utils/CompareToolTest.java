@@ -42,6 +42,8 @@
  */
 package com.itextpdf.kernel.utils;
 
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.Assert;
@@ -52,6 +54,7 @@ import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 @Category(IntegrationTest.class)
 public class CompareToolTest extends ExtendedITextTest {
@@ -138,4 +141,79 @@ public class CompareToolTest extends ExtendedITextTest {
         Assert.assertEquals(replacedExpected, new CompareTool().convertProducerLine(initial));
     }
 
+    @Test
+    public void compareByStructureEqualDocumentsTest() throws IOException {
+        String outPdf = destinationFolder + "structureEqual.pdf";
+        String cmpPdf = destinationFolder + "cmp_structureEqual.pdf";
+        createDocumentWithContents(outPdf, "BT /F1 12 Tf 36 700 Td (Hello) Tj ET", "0 0 100 100 re f");
+        createDocumentWithContents(cmpPdf, "BT /F1 12 Tf 36 700 Td (Hello) Tj ET", "0 0 100 100 re f");
+        Assert.assertTrue(new CompareTool().compareByStructure(outPdf, cmpPdf).isOk());
+    }
+
+    @Test
+    public void compareByStructureDifferentFormattingTest() throws IOException {
+        String outPdf = destinationFolder + "structureFormatting.pdf";
+        String cmpPdf = destinationFolder + "cmp_structureFormatting.pdf";
+        createDocumentWithContents(outPdf, "BT\n/F1  12.0 Tf\n36 700 Td\n(Hello)Tj\nET\n");
+        createDocumentWithContents(cmpPdf, "BT /F1 12 Tf 36 700 Td (Hello) Tj ET");
+        Assert.assertTrue(new CompareTool().compareByStructure(outPdf, cmpPdf).isOk());
+    }
+
+    @Test
+    public void compareByStructureDifferentOperatorsTest() throws IOException {
+        String outPdf = destinationFolder + "structureOperators.pdf";
+        String cmpPdf = destinationFolder + "cmp_structureOperators.pdf";
+        createDocumentWithContents(outPdf, "BT /F1 12 Tf 36 700 Td (Hello) Tj ET");
+        createDocumentWithContents(cmpPdf, "BT /F1 12 Tf 36 700 Td (World) Tj ET");
+        CompareTool.CompareResult result = new CompareTool().compareByStructure(outPdf, cmpPdf);
+        Assert.assertEquals(1, result.getErrorCount());
+        String report = result.getReport();
+        Assert.assertTrue(report, report.contains("First difference is encountered at operator 3. Expected: (World) Tj. Found: (Hello) Tj."));
+    }
+
+    @Test
+    public void compareByStructureDifferentNumberOfPagesTest() throws IOException {
+        String outPdf = destinationFolder + "structurePageCount.pdf";
+        String cmpPdf = destinationFolder + "cmp_structurePageCount.pdf";
+        createDocumentWithContents(outPdf, "0 0 100 100 re f");
+        createDocumentWithContents(cmpPdf, "0 0 100 100 re f", "0 0 100 100 re f");
+        CompareTool.CompareResult result = new CompareTool().compareByStructure(outPdf, cmpPdf);
+        Assert.assertFalse(result.isOk());
+        Assert.assertTrue(result.getReport().contains("Documents have different numbers of pages."));
+    }
+
+    @Test
+    public void compareByStructureParallelTest() throws IOException {
+        String outPdf = destinationFolder + "structureParallel.pdf";
+        String cmpPdf = destinationFolder + "cmp_structureParallel.pdf";
+        String[] outContents = new String[10];
+        String[] cmpContents = new String[10];
+        for (int i = 0; i < outContents.length; i++) {
+            outContents[i] = "0 0 " + (i + 10) + " 100 re f";
+            cmpContents[i] = outContents[i];
+        }
+        cmpContents[7] = "0 0 100 100 re S";
+        createDocumentWithContents(outPdf, outContents);
+        createDocumentWithContents(cmpPdf, cmpContents);
+        CompareTool.CompareResult result = new CompareTool().setStructureCompareThreadCount(4).compareByStructure(outPdf, cmpPdf);
+        Assert.assertEquals(1, result.getErrorCount());
+        Assert.assertTrue(result.getReport().contains("Expected: 0 0 100 100 re. Found: 0 0 17 100 re."));
+    }
+
+    @Test
+    public void compareByStructureSimplePdfTest() throws IOException {
+        String outPdf = sourceFolder + "simple_pdf.pdf";
+        String cmpPdf = sourceFolder + "cmp_simple_pdf.pdf";
+        Assert.assertFalse(new CompareTool().compareByStructure(outPdf, cmpPdf).isOk());
+        Assert.assertTrue(new CompareTool().setStructureCompareThreadCount(2).compareByStructure(outPdf, outPdf).isOk());
+    }
+
+    private static void createDocumentWithContents(String filename, String... pageContents) throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(filename));
+        for (String pageContent : pageContents) {
+            pdfDocument.addNewPage().getFirstContentStream().setData(pageContent.getBytes(StandardCharsets.ISO_8859_1));
+        }
+        pdfDocument.close();
+    }
+
 }
@@ -44,6 +44,7 @@ package com.itextpdf.kernel.utils;
 
 import com.itextpdf.io.LogMessageConstant;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfOutline;
 import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.test.ExtendedITextTest;
@@ -268,4 +269,120 @@ public class PdfMergerTest extends ExtendedITextTest {
             Assert.fail(errorMessage);
         }
     }
+
+    @Test
+    public void mergeDocumentInStreamingModeTest01() throws IOException, InterruptedException {
+        String resultFile = destinationFolder + "mergedInStreamingModeResult01.pdf";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(resultFile));
+        PdfMerger merger = new PdfMerger(pdfDoc).setCloseSourceDocuments(true).setStreamingMode(true);
+        for (String filename : new String[] {"doc1.pdf", "doc2.pdf", "doc3.pdf"}) {
+            merger.merge(new PdfDocument(new PdfReader(sourceFolder + filename)), 1, 1);
+            Assert.assertTrue(pdfDoc.getLastPage().isFlushed());
+        }
+        merger.close();
+
+        CompareTool compareTool = new CompareTool();
+        String errorMessage = compareTool.compareByContent(resultFile, sourceFolder + "cmp_mergedResult02.pdf", destinationFolder, "diff_");
+        if (errorMessage != null) {
+            Assert.fail(errorMessage);
+        }
+    }
+
+    @Test
+    @LogMessages(messages = @LogMessage(messageTemplate = LogMessageConstant.SOURCE_DOCUMENT_HAS_ACROFORM_DICTIONARY, count = 2))
+    public void mergeOutlinedDocumentsInStreamingModeTest01() throws IOException {
+        String filename = sourceFolder + "pdf_open_parameters.pdf";
+        String filename1 = sourceFolder + "iphone_user_guide.pdf";
+        String resultFile = destinationFolder + "mergedInStreamingModeResult03.pdf";
+        String cmpFile = destinationFolder + "mergedInStreamingModeCmp03.pdf";
+
+        PdfDocument cmpDoc = new PdfDocument(new PdfWriter(cmpFile));
+        new PdfMerger(cmpDoc, false, true).setCloseSourceDocuments(true)
+                .merge(new PdfDocument(new PdfReader(filename)), 1, 8)
+                .merge(new PdfDocument(new PdfReader(filename1)), 1, 20)
+                .close();
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(resultFile));
+        PdfMerger merger = new PdfMerger(pdfDoc, false, true).setCloseSourceDocuments(true).setStreamingMode(true);
+        merger.merge(new PdfDocument(new PdfReader(filename)), 1, 8);
+        merger.merge(new PdfDocument(new PdfReader(filename1)), 1, 20);
+        // the flushed outline items are not kept in memory, only the top level ones remain
+        List<PdfOutline> topLevelOutlines = pdfDoc.getOutlines(false).getAllChildren();
+        Assert.assertFalse(topLevelOutlines.isEmpty());
+        for (PdfOutline outline : topLevelOutlines) {
+            Assert.assertTrue(outline.getAllChildren().isEmpty());
+        }
+        for (int i = 1; i <= pdfDoc.getNumberOfPages(); i++) {
+            Assert.assertNull(pdfDoc.getPage(i).getOutlines(false));
+        }
+        merger.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(resultFile));
+        cmpDoc = new PdfDocument(new PdfReader(cmpFile));
+        Assert.assertEquals(cmpDoc.getNumberOfPages(), resultDoc.getNumberOfPages());
+        Assert.assertEquals(getOutlineTitles(cmpDoc.getOutlines(false)), getOutlineTitles(resultDoc.getOutlines(false)));
+        resultDoc.close();
+        cmpDoc.close();
+    }
+
+    @Test
+    @LogMessages(messages = {
+            @LogMessage(messageTemplate = LogMessageConstant.SOURCE_DOCUMENT_HAS_ACROFORM_DICTIONARY),
+            @LogMessage(messageTemplate = LogMessageConstant.CREATED_ROOT_TAG_HAS_MAPPING, count = 2)
+    })
+    public void mergeTaggedDocumentInStreamingModeTest01() throws IOException, InterruptedException, ParserConfigurationException, SAXException {
+        String filename = sourceFolder + "pdf_open_parameters.pdf";
+        String filename1 = sourceFolder + "iphone_user_guide.pdf";
+        String resultFile = destinationFolder + "mergedInStreamingModeResult04.pdf";
+
+        PdfDocument pdfDoc3 = new PdfDocument(new PdfWriter(resultFile));
+        pdfDoc3.setTagged();
+
+        PdfMerger merger = new PdfMerger(pdfDoc3).setCloseSourceDocuments(true).setStreamingMode(true);
+        List<Integer> pages = new ArrayList<>();
+        pages.add(3);
+        pages.add(2);
+        pages.add(1);
+        merger.merge(new PdfDocument(new PdfReader(filename)), pages);
+
+        List<Integer> pages1 = new ArrayList<>();
+        pages1.add(5);
+        pages1.add(9);
+        pages1.add(4);
+        pages1.add(3);
+        merger.merge(new PdfDocument(new PdfReader(filename1)), pages1);
+
+        merger.close();
+
+        // pages are flushed in the course of merging, so their struct parents indices differ from the ones
+        // in the cmp file, while content and tag structure are the same
+        CompareTool compareTool = new CompareTool();
+        String tagStructErrorMessage = compareTool.compareTagStructures(resultFile, sourceFolder + "cmp_mergedResult04.pdf");
+        if (tagStructErrorMessage != null) {
+            Assert.fail(tagStructErrorMessage);
+        }
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(resultFile));
+        PdfDocument cmpDoc = new PdfDocument(new PdfReader(sourceFolder + "cmp_mergedResult04.pdf"));
+        Assert.assertEquals(cmpDoc.getNumberOfPages(), resultDoc.getNumberOfPages());
+        for (int i = 1; i <= cmpDoc.getNumberOfPages(); i++) {
+            Assert.assertArrayEquals(cmpDoc.getPage(i).getContentBytes(), resultDoc.getPage(i).getContentBytes());
+        }
+        resultDoc.close();
+        cmpDoc.close();
+    }
+
+    private static List<String> getOutlineTitles(PdfOutline outline) {
+        List<String> titles = new ArrayList<>();
+        collectOutlineTitles(outline, "", titles);
+        return titles;
+    }
+
+    private static void collectOutlineTitles(PdfOutline outline, String path, List<String> titles) {
+        for (PdfOutline child : outline.getAllChildren()) {
+            String childPath = path + "/" + child.getTitle();
+            titles.add(childPath);
+            collectOutlineTitles(child, childPath, titles);
+        }
+    }
 }
@@ -0,0 +1,230 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.kernel.xmp;
+
+import com.itextpdf.kernel.xmp.options.ParseOptions;
+import com.itextpdf.kernel.xmp.options.SerializeOptions;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(UnitTest.class)
+public class XMPStreamingParserTest extends ExtendedITextTest {
+
+    private static final String RDF_START = "<rdf:RDF xmlns:rdf='http://www.w3.org/1999/02/22-rdf-syntax-ns#'>";
+    private static final String RDF_END = "</rdf:RDF>";
+    private static final String DESCRIPTION_START = "<rdf:Description rdf:about='' "
+            + "xmlns:dc='http://purl.org/dc/elements/1.1/' xmlns:pdf='http://ns.adobe.com/pdf/1.3/' "
+            + "xmlns:xmp='http://ns.adobe.com/xap/1.0/' xmlns:pdfaid='http://www.aiim.org/pdfa/ns/id/' "
+            + "xmlns:ex='http://example.com/ns/'>";
+    private static final String DESCRIPTION_END = "</rdf:Description>";
+
+    private static final String PACKET = "<?xpacket begin='﻿' id='W5M0MpCehiHzreSzNTczkc9d'?>"
+            + "<x:xmpmeta xmlns:x='adobe:ns:meta/'>" + RDF_START + DESCRIPTION_START
+            + "<dc:title><rdf:Alt><rdf:li xml:lang='x-default'>Title</rdf:li>"
+            + "<rdf:li xml:lang='de'>Titel</rdf:li></rdf:Alt></dc:title>"
+            + "<dc:creator><rdf:Seq><rdf:li>First</rdf:li><rdf:li>Second</rdf:li></rdf:Seq></dc:creator>"
+            + "<dc:subject><rdf:Bag><rdf:li>a</rdf:li><rdf:li>b</rdf:li></rdf:Bag></dc:subject>"
+            + "<pdf:Producer>iText</pdf:Producer>"
+            + "<pdfaid:part>1</pdfaid:part><pdfaid:conformance>B</pdfaid:conformance>"
+            + "<xmp:CreatorTool xml:lang='en'><!-- comment -->Tool</xmp:CreatorTool>"
+            + "<ex:resource rdf:resource='http://example.com/'/>"
+            + "<ex:empty/>"
+            + "<ex:attrs ex:a='1' ex:b='2' xml:lang='en'/>"
+            + "<ex:struct rdf:parseType='Resource'><ex:field>value</ex:field></ex:struct>"
+            + "<ex:typed><ex:Type><ex:field>value</ex:field></ex:Type></ex:typed>"
+            + "<ex:qualified><rdf:Description><rdf:value>v</rdf:value><ex:qual>q</ex:qual>"
+            + "</rdf:Description></ex:qualified>"
+            + "<ex:space>  </ex:space>"
+            + "<ex:entity>a &amp; b</ex:entity>"
+            + DESCRIPTION_END
+            + "<rdf:Description rdf:about='' xmlns:ex='http://example.com/ns/' ex:attribute='value'/>"
+            + RDF_END + "</x:xmpmeta><?xpacket end='w'?>";
+
+    @Test
+    public void sameTreeAsDomParserTest() throws XMPException {
+        assertSameResult(PACKET);
+        assertSameResult(RDF_START + DESCRIPTION_START + "<dc:format>application/pdf</dc:format>"
+                + DESCRIPTION_END + RDF_END);
+        assertSameResult("<root><other/><x:xmpmeta xmlns:x='adobe:ns:meta/'>" + RDF_START
+                + "<rdf:Description rdf:about='' xmlns:ex='http://example.com/ns/' ex:a='1'/>"
+                + RDF_END + "</x:xmpmeta></root>");
+    }
+
+    @Test
+    public void packetHeaderTest() throws XMPException {
+        XMPMeta meta = parse(PACKET, true);
+        Assert.assertEquals("begin='﻿' id='W5M0MpCehiHzreSzNTczkc9d'", meta.getPacketHeader());
+        Assert.assertEquals("Title", meta.getLocalizedText(XMPConst.NS_DC, "title", null, "x-default").getValue());
+        Assert.assertEquals("a & b", meta.getPropertyString("http://example.com/ns/", "entity"));
+    }
+
+    @Test
+    public void xmpmetaRequiredTest() throws XMPException {
+        String bareRdf = RDF_START + DESCRIPTION_START + "<pdfaid:part>1</pdfaid:part>" + DESCRIPTION_END + RDF_END;
+        ParseOptions options = new ParseOptions().setUseStreamingParser(true).setRequireXMPMeta(true);
+        XMPMeta meta = XMPMetaFactory.parseFromString(bareRdf, options);
+        Assert.assertFalse(meta.doesPropertyExist(XMPConst.NS_PDFA_ID, "part"));
+        assertSameResult("<root>" + bareRdf + "</root>");
+    }
+
+    @Test
+    public void noRootNodeTest() throws XMPException {
+        XMPMeta meta = parse("<root><child/></root>", true);
+        Assert.assertFalse(meta.iterator().hasNext());
+    }
+
+    @Test
+    public void inputStreamTest() throws XMPException {
+        XMPMeta meta = XMPMetaFactory.parse(new ByteArrayInputStream(PACKET.getBytes(StandardCharsets.UTF_8)),
+                new ParseOptions().setUseStreamingParser(true));
+        Assert.assertEquals("1", meta.getPropertyString(XMPConst.NS_PDFA_ID, "part"));
+    }
+
+    @Test
+    public void controlCharsTest() throws XMPException {
+        String packet = RDF_START + DESCRIPTION_START + "<dc:format>a\u0001b</dc:format>" + DESCRIPTION_END + RDF_END;
+        assertSameResult(packet);
+        XMPMeta meta = parse(packet, true);
+        Assert.assertEquals("a b", meta.getPropertyString(XMPConst.NS_DC, "format"));
+    }
+
+    @Test
+    public void invalidRdfTest() throws XMPException {
+        String[] packets = {
+                "<x:xmpmeta xmlns:x='adobe:ns:meta/' xmlns:rdf='http://www.w3.org/1999/02/22-rdf-syntax-ns#'>"
+                        + "<rdf:RDF/></x:xmpmeta>",
+                RDF_START + "text" + RDF_END,
+                RDF_START + "<ex:Typed xmlns:ex='http://example.com/ns/'/>" + RDF_END,
+                RDF_START + DESCRIPTION_START + "text" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<rdf:Description/>" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<ex:p>text<ex:child/></ex:p>" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<ex:p><rdf:Bag/><rdf:Bag/></ex:p>" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<ex:p><?pi data?></ex:p>" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<ex:p><![CDATA[text]]></ex:p>" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<ex:p rdf:datatype='t'><ex:child/></ex:p>" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<ex:p rdf:resource='r'> </ex:p>" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<ex:p rdf:parseType='Literal'/>" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<ex:p rdf:parseType='Collection'/>" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<ex:p rdf:parseType='Other'/>" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<ex:p rdf:resource='r' rdf:nodeID='n'/>" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<rdf:li>a</rdf:li>" + DESCRIPTION_END + RDF_END,
+                RDF_START + DESCRIPTION_START + "<p>a</p>" + DESCRIPTION_END + RDF_END,
+                RDF_START + "<rdf:Description rdf:about='a'/><rdf:Description rdf:about='b'/>" + RDF_END,
+                RDF_START + DESCRIPTION_START + "<ex:p>a</ex:p>" + RDF_END,
+        };
+        for (String packet : packets) {
+            String domResult = result(packet, false);
+            Assert.assertTrue(packet, domResult.startsWith("XMPException"));
+            Assert.assertEquals(packet, domResult, result(packet, true));
+        }
+    }
+
+    @Test
+    public void selectedPropertiesTest() throws XMPException {
+        XMPPropertySelection selection = new XMPPropertySelection()
+                .addProperty(XMPConst.NS_DC, "title")
+                .addProperty(XMPConst.NS_PDFA_ID, "part")
+                .addProperty("http://example.com/ns/", "attribute");
+        XMPMeta meta = XMPMetaFactory.parseFromBuffer(PACKET.getBytes(StandardCharsets.UTF_8), null, selection);
+
+        Assert.assertEquals("Titel", meta.getLocalizedText(XMPConst.NS_DC, "title", null, "de").getValue());
+        Assert.assertEquals("1", meta.getPropertyString(XMPConst.NS_PDFA_ID, "part"));
+        Assert.assertEquals("value", meta.getPropertyString("http://example.com/ns/", "attribute"));
+        Assert.assertFalse(meta.doesPropertyExist(XMPConst.NS_DC, "creator"));
+        Assert.assertFalse(meta.doesPropertyExist(XMPConst.NS_PDFA_ID, "conformance"));
+        Assert.assertFalse(meta.doesPropertyExist(XMPConst.NS_PDF, "Producer"));
+        Assert.assertFalse(meta.doesPropertyExist("http://example.com/ns/", "struct"));
+    }
+
+    @Test
+    public void selectedAliasTest() throws XMPException {
+        // pdf:Author is an alias of dc:creator
+        String packet = RDF_START + DESCRIPTION_START + "<pdf:Author>Author</pdf:Author><pdf:Producer>iText</pdf:Producer>"
+                + DESCRIPTION_END + RDF_END;
+        XMPPropertySelection selection = new XMPPropertySelection().addProperty(XMPConst.NS_DC, "creator");
+        XMPMeta meta = XMPMetaFactory.parseFromBuffer(packet.getBytes(StandardCharsets.UTF_8), null, selection);
+
+        Assert.assertEquals("Author", meta.getArrayItem(XMPConst.NS_DC, "creator", 1).getValue());
+        Assert.assertFalse(meta.doesPropertyExist(XMPConst.NS_PDF, "Producer"));
+    }
+
+    @Test
+    public void skippedPropertiesAreCheckedForWellFormednessTest() throws XMPException {
+        String packet = RDF_START + DESCRIPTION_START + "<pdf:Producer>iText</pdf:Producerx>" + DESCRIPTION_END + RDF_END;
+        XMPPropertySelection selection = new XMPPropertySelection().addProperty(XMPConst.NS_PDFA_ID, "part");
+        try {
+            XMPMetaFactory.parseFromBuffer(packet.getBytes(StandardCharsets.UTF_8), null, selection);
+            Assert.fail("XMPException expected");
+        } catch (XMPException e) {
+            Assert.assertEquals(XMPError.BADXML, e.getErrorCode());
+        }
+    }
+
+    private static void assertSameResult(String packet) {
+        String domResult = result(packet, false);
+        Assert.assertFalse(domResult, domResult.startsWith("XMPException"));
+        Assert.assertEquals(domResult, result(packet, true));
+    }
+
+    private static String result(String packet, boolean streaming) {
+        try {
+            XMPMeta meta = parse(packet, streaming);
+            return XMPMetaFactory.serializeToString(meta, new SerializeOptions().setOmitPacketWrapper(true))
+                    + "\n" + meta.getPacketHeader() + "\n" + meta.getObjectName();
+        } catch (XMPException e) {
+            return "XMPException " + e.getErrorCode() + ": " + e.getMessage();
+        }
+    }
+
+    private static XMPMeta parse(String packet, boolean streaming) throws XMPException {
+        return XMPMetaFactory.parseFromBuffer(packet.getBytes(StandardCharsets.UTF_8),
+                new ParseOptions().setUseStreamingParser(streaming));
+    }
+}
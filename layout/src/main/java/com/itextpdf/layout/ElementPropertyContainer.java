@@ -56,6 +56,7 @@ import com.itextpdf.layout.property.BorderRadius;
 import com.itextpdf.layout.property.FontKerning;
 import com.itextpdf.layout.property.HorizontalAlignment;
 import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.property.PropertyMap;
 import com.itextpdf.layout.property.TextAlignment;
 import com.itextpdf.layout.property.TransparentColor;
 import com.itextpdf.layout.property.Underline;
@@ -63,7 +64,6 @@ import com.itextpdf.layout.property.UnitValue;
 import com.itextpdf.layout.splitting.ISplitCharacters;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -75,11 +75,11 @@ import java.util.Map;
  */
 public abstract class ElementPropertyContainer<T extends IPropertyContainer> implements IPropertyContainer {
 
-    protected Map<Integer, Object> properties = new HashMap<>();
+    protected Map<Integer, Object> properties = new PropertyMap();
 
     @Override
     public void setProperty(int property, Object value) {
-        properties.put(property, value);
+        putOwnProperty(property, value);
     }
 
     @Override
@@ -89,12 +89,12 @@ public abstract class ElementPropertyContainer<T extends IPropertyContainer> imp
 
     @Override
     public boolean hasOwnProperty(int property) {
-        return properties.containsKey(property);
+        return containsOwnProperty(property);
     }
 
     @Override
     public void deleteOwnProperty(int property) {
-        properties.remove(property);
+        removeOwnProperty(property);
     }
 
     @Override
@@ -104,7 +104,7 @@ public abstract class ElementPropertyContainer<T extends IPropertyContainer> imp
 
     @Override
     public <T1> T1 getOwnProperty(int property) {
-        return (T1) properties.<T1>get(property);
+        return (T1) getOwnPropertyValue(property);
     }
 
     @Override
@@ -766,4 +766,30 @@ public abstract class ElementPropertyContainer<T extends IPropertyContainer> imp
         setProperty(Property.OPACITY, opacity);
         return (T) (Object) this;
     }
+
+    boolean containsOwnProperty(int property) {
+        return properties instanceof PropertyMap
+                ? ((PropertyMap) properties).containsProperty(property) : properties.containsKey(property);
+    }
+
+    Object getOwnPropertyValue(int property) {
+        return properties instanceof PropertyMap
+                ? ((PropertyMap) properties).getProperty(property) : properties.get(property);
+    }
+
+    void putOwnProperty(int property, Object value) {
+        if (properties instanceof PropertyMap) {
+            ((PropertyMap) properties).setProperty(property, value);
+        } else {
+            properties.put(property, value);
+        }
+    }
+
+    void removeOwnProperty(int property) {
+        if (properties instanceof PropertyMap) {
+            ((PropertyMap) properties).removeProperty(property);
+        } else {
+            properties.remove(property);
+        }
+    }
 }
@@ -0,0 +1,212 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout;
+
+import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.util.MessageFormatUtil;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.canvas.CanvasArtifact;
+import com.itextpdf.kernel.pdf.tagging.StandardRoles;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.element.IBlockElement;
+import com.itextpdf.layout.element.Image;
+import com.itextpdf.layout.layout.LayoutArea;
+import com.itextpdf.layout.layout.LayoutContext;
+import com.itextpdf.layout.layout.LayoutResult;
+import com.itextpdf.layout.renderer.DrawContext;
+import com.itextpdf.layout.renderer.IRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Lays out static blocks, such as page headers, footers or repeated disclaimers, only once and keeps
+ * the result as a {@link PdfFormXObject}, which may then be placed on any number of pages without
+ * repeating text layout and font selection.
+ * <p>
+ * The form is placed with {@link com.itextpdf.kernel.pdf.canvas.PdfCanvas#addXObject(PdfFormXObject, float, float)}
+ * from page event handlers, or added to the flow of a {@link Document} or {@link Canvas} as an {@link Image}
+ * obtained with {@link #getImage(IBlockElement, float)}. Parts that differ from page to page, such as page numbers,
+ * are to be laid out separately next to the cached block.
+ * <p>
+ * Cached blocks are looked up by element identity and width, so an element should not be modified after it has
+ * been laid out by this cache, unless it is {@link #remove(IBlockElement) removed} from the cache first.
+ * The forms belong to the document the cache was created for.
+ * <p>
+ * A form may be shown on any number of pages, so its content can't be a part of the structure tree of a tagged
+ * document. In a tagged document the cached blocks are therefore marked as artifacts, just like other repeated
+ * pagination content; blocks which belong to the logical structure of the document are to be added to it directly.
+ */
+public class FormXObjectLayoutCache {
+
+    /**
+     * The maximum height of the block, which is the largest page dimension allowed by the PDF specification.
+     */
+    private static final float MAX_HEIGHT = 14400;
+
+    private final PdfDocument pdfDocument;
+    private final Map<CacheKey, PdfFormXObject> cache = new HashMap<>();
+
+    /**
+     * Creates a cache of blocks laid out for the given document.
+     *
+     * @param pdfDocument the document the forms are created in
+     */
+    public FormXObjectLayoutCache(PdfDocument pdfDocument) {
+        this.pdfDocument = pdfDocument;
+    }
+
+    /**
+     * Gets the form with the element laid out in the given width, laying the element out on the first request.
+     * The bounding box of the form starts at the origin and is as high as the laid out element, including its margins.
+     *
+     * @param element the block to be laid out
+     * @param width   the available width
+     * @return the form containing the laid out element
+     */
+    public PdfFormXObject getFormXObject(IBlockElement element, float width) {
+        CacheKey key = new CacheKey(element, width);
+        PdfFormXObject formXObject = cache.get(key);
+        if (formXObject == null) {
+            formXObject = layoutToFormXObject(element, width);
+            cache.put(key, formXObject);
+        }
+        return formXObject;
+    }
+
+    /**
+     * Gets an {@link Image} which shows the element laid out in the given width, so that the cached block
+     * can be added to the flow of a document. A new {@link Image} is returned on each call,
+     * while the form behind it is shared. In a tagged document the image is an artifact.
+     *
+     * @param element the block to be laid out
+     * @param width   the available width
+     * @return the image of the laid out element
+     */
+    public Image getImage(IBlockElement element, float width) {
+        Image image = new Image(getFormXObject(element, width));
+        if (pdfDocument.isTagged()) {
+            image.getAccessibilityProperties().setRole(StandardRoles.ARTIFACT);
+        }
+        return image;
+    }
+
+    /**
+     * Removes all the forms of the element from the cache, so that it is laid out again on the next request.
+     *
+     * @param element the element to be removed
+     */
+    public void remove(IBlockElement element) {
+        for (Iterator<CacheKey> iterator = cache.keySet().iterator(); iterator.hasNext(); ) {
+            if (iterator.next().element == element) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of laid out blocks in the cache.
+     *
+     * @return the number of cached forms
+     */
+    public int size() {
+        return cache.size();
+    }
+
+    private PdfFormXObject layoutToFormXObject(IBlockElement element, float width) {
+        PdfFormXObject formXObject = new PdfFormXObject(new Rectangle(width, MAX_HEIGHT));
+        Canvas canvas = new Canvas(formXObject, pdfDocument);
+        IRenderer renderer = element.createRendererSubTree().setParent(canvas.getRenderer());
+        LayoutResult result = renderer.layout(new LayoutContext(new LayoutArea(1, new Rectangle(width, MAX_HEIGHT))));
+        if (result.getStatus() != LayoutResult.FULL) {
+            Logger logger = LoggerFactory.getLogger(FormXObjectLayoutCache.class);
+            logger.warn(MessageFormatUtil.format(LogMessageConstant.ELEMENT_DOES_NOT_FIT_AREA, ""));
+            renderer = result.getSplitRenderer();
+        }
+        if (renderer == null) {
+            formXObject.setBBox(new PdfArray(new Rectangle(width, 0)));
+            return formXObject;
+        }
+        Rectangle occupiedArea = renderer.getOccupiedArea().getBBox();
+        renderer.move(-occupiedArea.getX(), -occupiedArea.getY());
+        formXObject.setBBox(new PdfArray(new Rectangle(occupiedArea.getWidth(), occupiedArea.getHeight())));
+        boolean tagged = pdfDocument.isTagged();
+        if (tagged) {
+            canvas.getPdfCanvas().openTag(new CanvasArtifact());
+        }
+        renderer.draw(new DrawContext(pdfDocument, canvas.getPdfCanvas(), false));
+        if (tagged) {
+            canvas.getPdfCanvas().closeTag();
+        }
+        return formXObject;
+    }
+
+    private static final class CacheKey {
+        private final IBlockElement element;
+        private final float width;
+
+        CacheKey(IBlockElement element, float width) {
+            this.element = element;
+            this.width = width;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return element == other.element && Float.compare(width, other.width) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(element) + Float.floatToIntBits(width);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout;
+
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.utils.PdfMerger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lays out independent sections of a document in parallel and stitches them into a single {@link PdfDocument}.
+ * <p>
+ * Every section is laid out on its own thread into a separate in-memory document, starting on a new page, and
+ * the resulting pages are appended to the target document in the order in which the sections were added, so
+ * that the page numbers of the target document are the same as if the sections had been laid out one by one.
+ * A section doesn't know on which page of the target document it starts, so page numbers and other content that
+ * depends on the position of a page in the whole document are to be added by an {@link IPageHandler}, which is
+ * called for every page of the sections once all of them are appended.
+ * <p>
+ * Since a {@link PdfFont} belongs to a single document, the fonts, as well as font providers
+ * and any other document-bound resources, should be created in {@link ISection#addContent(Document)}.
+ * The font programs they are created from are cached and shared between the sections. To embed a font used
+ * by many sections only once, pass a font created from the same program to {@link #addSharedFont(PdfFont)}.
+ * <p>
+ * A {@link Document} working on the target document keeps laying out content from its own current page, so content
+ * that should follow the sections is to be preceded by an {@link com.itextpdf.layout.element.AreaBreak} of
+ * {@link com.itextpdf.layout.property.AreaBreakType#LAST_PAGE} type.
+ */
+public class ParallelSectionLayout {
+
+    /**
+     * The content of an independent section of a document.
+     */
+    public interface ISection {
+
+        /**
+         * Adds the content of the section to the given document.
+         * The method is called on a worker thread, with a document dedicated to this section.
+         *
+         * @param document the document to add the section content to
+         */
+        void addContent(Document document);
+    }
+
+    /**
+     * Processes the pages of the sections once they are appended to the target document,
+     * e.g. adds page numbers or running headers.
+     */
+    public interface IPageHandler {
+
+        /**
+         * Processes a page of a section. The method is called on the thread which has called {@link #layout()},
+         * after all the sections are appended, so the number of pages in the target document is known.
+         *
+         * @param page         the page of the target document
+         * @param pageNumber   the number of the page in the target document, starting with 1
+         * @param sectionIndex the zero-based index of the section the page belongs to
+         */
+        void handlePage(PdfPage page, int pageNumber, int sectionIndex);
+    }
+
+    private final PdfDocument pdfDocument;
+    private final List<ISection> sections = new ArrayList<>();
+    private final List<Integer> sectionStartPages = new ArrayList<>();
+    private final SectionFontMerger fontMerger;
+    private IPageHandler pageHandler;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Creates a {@link ParallelSectionLayout} which appends the laid out sections to the given document.
+     *
+     * @param pdfDocument the document to append the sections to. Its default page size and tagging
+     *                    are also used for the sections
+     */
+    public ParallelSectionLayout(PdfDocument pdfDocument) {
+        this.pdfDocument = pdfDocument;
+        this.fontMerger = new SectionFontMerger(pdfDocument);
+    }
+
+    /**
+     * Sets the number of threads the sections are laid out on. By default, it is the number of available processors.
+     *
+     * @param threadCount the number of threads, must be positive
+     * @return this instance
+     */
+    public ParallelSectionLayout setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount");
+        }
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * Sets the handler which processes the pages of the sections once all of them are appended to the target
+     * document, see {@link IPageHandler}.
+     *
+     * @param pageHandler the page handler, or {@code null} if pages are not to be processed
+     * @return this instance
+     */
+    public ParallelSectionLayout setPageHandler(IPageHandler pageHandler) {
+        this.pageHandler = pageHandler;
+        return this;
+    }
+
+    /**
+     * Makes the sections share a single embedded subset of a font. The sections keep creating their own fonts
+     * from the same font program, e.g. with {@code PdfFontFactory.createFont(fontPath, PdfEncodings.IDENTITY_H)};
+     * once a section is appended to the target document, the subsets of the font program it has embedded are
+     * replaced with the given font, which then embeds the glyphs used by all the sections.
+     *
+     * @param font an Identity-H encoded font with TrueType outlines, created for the target document
+     * @return this instance
+     */
+    public ParallelSectionLayout addSharedFont(PdfFont font) {
+        if (!SectionFontMerger.canBeShared(font)) {
+            throw new IllegalArgumentException("font");
+        }
+        fontMerger.addSharedFont(font);
+        return this;
+    }
+
+    /**
+     * Adds a section to be laid out. Sections are appended to the target document in the order they are added.
+     *
+     * @param section the section
+     * @return this instance
+     */
+    public ParallelSectionLayout addSection(ISection section) {
+        sections.add(section);
+        return this;
+    }
+
+    /**
+     * Lays out all the added sections and appends their pages to the target document.
+     * At most twice as many sections as there are threads are laid out ahead of the section being appended,
+     * so the memory taken by the laid out sections doesn't grow with the number of sections.
+     * If any section fails, the exception it has thrown is rethrown and the remaining sections are cancelled;
+     * the sections that precede it have already been appended to the target document by then.
+     *
+     * @throws IOException if the laid out section cannot be read back
+     */
+    public void layout() throws IOException {
+        if (sections.isEmpty()) {
+            return;
+        }
+        final boolean tagged = pdfDocument.isTagged();
+        final PageSize pageSize = pdfDocument.getDefaultPageSize();
+        List<ISection> sectionsToLayout = new ArrayList<>(sections);
+        sections.clear();
+        int firstSectionIndex = sectionStartPages.size();
+        int maxSectionsInFlight = 2 * threadCount;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, sectionsToLayout.size()));
+        try {
+            Deque<Future<byte[]>> results = new ArrayDeque<>();
+            int submitted = 0;
+            PdfMerger merger = new PdfMerger(pdfDocument);
+            for (int i = 0; i < sectionsToLayout.size(); i++) {
+                while (submitted < sectionsToLayout.size() && submitted - i < maxSectionsInFlight) {
+                    results.add(submitSection(executor, sectionsToLayout.get(submitted++), pageSize, tagged));
+                }
+                byte[] sectionBytes = waitForSection(results.poll());
+                PdfDocument sectionDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(sectionBytes)));
+                sectionStartPages.add(pdfDocument.getNumberOfPages() + 1);
+                merger.merge(sectionDocument, 1, sectionDocument.getNumberOfPages());
+                sectionDocument.close();
+                if (!fontMerger.isEmpty()) {
+                    fontMerger.mergeFonts(getSectionPages(sectionStartPages.size() - 1));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        if (pageHandler != null) {
+            for (int sectionIndex = firstSectionIndex; sectionIndex < sectionStartPages.size(); sectionIndex++) {
+                for (PdfPage page : getSectionPages(sectionIndex)) {
+                    pageHandler.handlePage(page, pdfDocument.getPageNumber(page), sectionIndex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of the page of the target document on which the section starts.
+     *
+     * @param sectionIndex the zero-based index of the section among all the sections laid out by this instance
+     * @return the page number, starting with 1
+     */
+    public int getSectionStartPage(int sectionIndex) {
+        return (int) sectionStartPages.get(sectionIndex);
+    }
+
+    private List<PdfPage> getSectionPages(int sectionIndex) {
+        int endPage = sectionIndex + 1 < sectionStartPages.size()
+                ? (int) sectionStartPages.get(sectionIndex + 1) - 1
+                : pdfDocument.getNumberOfPages();
+        List<PdfPage> pages = new ArrayList<>();
+        for (int pageNumber = (int) sectionStartPages.get(sectionIndex); pageNumber <= endPage; pageNumber++) {
+            pages.add(pdfDocument.getPage(pageNumber));
+        }
+        return pages;
+    }
+
+    private static Future<byte[]> submitSection(ExecutorService executor, final ISection section, final PageSize pageSize,
+            final boolean tagged) {
+        return executor.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() {
+                return layoutSection(section, pageSize, tagged);
+            }
+        });
+    }
+
+    private static byte[] layoutSection(ISection section, PageSize pageSize, boolean tagged) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument sectionDocument = new PdfDocument(new PdfWriter(baos));
+        if (tagged) {
+            sectionDocument.setTagged();
+        }
+        Document document = new Document(sectionDocument, pageSize);
+        section.addContent(document);
+        document.close();
+        return baos.toByteArray();
+    }
+
+    private static byte[] waitForSection(Future<byte[]> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PdfException(cause);
+        }
+    }
+}
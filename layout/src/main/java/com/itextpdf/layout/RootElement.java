@@ -156,7 +156,7 @@ public abstract class RootElement<T extends IPropertyContainer> extends ElementP
 
     @Override
     public boolean hasOwnProperty(int property) {
-        return properties.containsKey(property);
+        return containsOwnProperty(property);
     }
 
     @Override
@@ -166,7 +166,7 @@ public abstract class RootElement<T extends IPropertyContainer> extends ElementP
 
     @Override
     public <T1> T1 getOwnProperty(int property) {
-        return (T1) properties.<T1>get(property);
+        return (T1) getOwnPropertyValue(property);
     }
 
     @Override
@@ -208,12 +208,12 @@ public abstract class RootElement<T extends IPropertyContainer> extends ElementP
 
     @Override
     public void deleteOwnProperty(int property) {
-        properties.remove(property);
+        removeOwnProperty(property);
     }
 
     @Override
     public void setProperty(int property, Object value) {
-        properties.put(property, value);
+        putOwnProperty(property, value);
     }
 
     /**
@@ -0,0 +1,300 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout;
+
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.TrueTypeFont;
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.io.source.PdfTokenizer;
+import com.itextpdf.io.source.RandomAccessFileOrArray;
+import com.itextpdf.io.source.RandomAccessSourceFactory;
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfType0Font;
+import com.itextpdf.kernel.pdf.PdfArray;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfResources;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.PdfString;
+import com.itextpdf.kernel.pdf.canvas.parser.util.PdfCanvasParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces the font subsets embedded by the sections of a {@link ParallelSectionLayout} with fonts of the
+ * target document, so that a font program used by several sections is embedded only once.
+ * <p>
+ * Only Identity-H encoded Type0 fonts with TrueType outlines are merged: the codes in their content streams
+ * are glyph ids of the font program, which stay the same no matter which subset the glyphs end up in.
+ */
+class SectionFontMerger {
+
+    private static final int SUBSET_PREFIX_LENGTH = 7;
+
+    private final PdfDocument pdfDocument;
+    private final Map<String, PdfFont> sharedFonts = new HashMap<>();
+
+    SectionFontMerger(PdfDocument pdfDocument) {
+        this.pdfDocument = pdfDocument;
+    }
+
+    static boolean canBeShared(PdfFont font) {
+        return font instanceof PdfType0Font && font.getFontProgram() instanceof TrueTypeFont
+                && !((TrueTypeFont) font.getFontProgram()).isCff()
+                && PdfEncodings.IDENTITY_H.equals(((PdfType0Font) font).getCmap().getCmapName());
+    }
+
+    void addSharedFont(PdfFont font) {
+        sharedFonts.put(font.getFontProgram().getFontNames().getFontName(), font);
+    }
+
+    boolean isEmpty() {
+        return sharedFonts.isEmpty();
+    }
+
+    /**
+     * Replaces the section fonts used on the given pages with the shared fonts and frees the replaced font objects.
+     *
+     * @param pages the pages of a section which has just been appended to the target document
+     */
+    void mergeFonts(List<PdfPage> pages) {
+        Map<PdfDictionary, PdfFont> replacements = new HashMap<>();
+        Map<PdfDictionary, Map<PdfName, PdfFont>> replacedResources = new HashMap<>();
+        for (PdfPage page : pages) {
+            PdfDictionary resources = page.getPdfObject().getAsDictionary(PdfName.Resources);
+            Map<PdfName, PdfFont> replacedFonts = replaceFonts(resources, replacements, replacedResources);
+            if (!replacedFonts.isEmpty()) {
+                addUsedGlyphs(page.getContentBytes(), resources, replacedFonts);
+            }
+            PdfArray annots = page.getPdfObject().getAsArray(PdfName.Annots);
+            if (annots != null) {
+                for (int i = 0; i < annots.size(); i++) {
+                    PdfDictionary annot = annots.getAsDictionary(i);
+                    PdfDictionary appearance = annot != null ? annot.getAsDictionary(PdfName.AP) : null;
+                    if (appearance != null) {
+                        replaceFontsInXObjects(appearance, replacements, replacedResources);
+                    }
+                }
+            }
+        }
+        for (Map.Entry<PdfDictionary, PdfFont> replacement : replacements.entrySet()) {
+            if (replacement.getValue() != null) {
+                freeFont(replacement.getKey());
+            }
+        }
+    }
+
+    /**
+     * Replaces the section fonts of the given resources with the shared fonts.
+     *
+     * @return the shared fonts put into the resources, by their resource names
+     */
+    private Map<PdfName, PdfFont> replaceFonts(PdfDictionary resources, Map<PdfDictionary, PdfFont> replacements,
+            Map<PdfDictionary, Map<PdfName, PdfFont>> replacedResources) {
+        if (resources == null) {
+            return Collections.<PdfName, PdfFont>emptyMap();
+        }
+        Map<PdfName, PdfFont> replacedFonts = replacedResources.get(resources);
+        if (replacedFonts != null) {
+            return replacedFonts;
+        }
+        replacedFonts = new HashMap<>();
+        replacedResources.put(resources, replacedFonts);
+        PdfDictionary fonts = resources.getAsDictionary(PdfName.Font);
+        if (fonts != null) {
+            for (PdfName name : new ArrayList<>(fonts.keySet())) {
+                PdfDictionary font = fonts.getAsDictionary(name);
+                PdfFont sharedFont = font != null ? getSharedFont(font, replacements) : null;
+                if (sharedFont != null) {
+                    fonts.put(name, sharedFont.getPdfObject());
+                    replacedFonts.put(name, sharedFont);
+                }
+            }
+        }
+        PdfDictionary xObjects = resources.getAsDictionary(PdfName.XObject);
+        if (xObjects != null) {
+            replaceFontsInXObjects(xObjects, replacements, replacedResources);
+        }
+        PdfDictionary patterns = resources.getAsDictionary(PdfName.Pattern);
+        if (patterns != null) {
+            replaceFontsInXObjects(patterns, replacements, replacedResources);
+        }
+        return replacedFonts;
+    }
+
+    private void replaceFontsInXObjects(PdfDictionary container, Map<PdfDictionary, PdfFont> replacements,
+            Map<PdfDictionary, Map<PdfName, PdfFont>> replacedResources) {
+        for (PdfName name : container.keySet()) {
+            PdfObject object = container.get(name);
+            if (object != null && object.isStream()) {
+                PdfStream stream = (PdfStream) object;
+                PdfDictionary resources = stream.getAsDictionary(PdfName.Resources);
+                Map<PdfName, PdfFont> replacedFonts = replaceFonts(resources, replacements, replacedResources);
+                if (!replacedFonts.isEmpty()) {
+                    addUsedGlyphs(stream.getBytes(), resources, replacedFonts);
+                }
+            } else if (object != null && object.isDictionary()) {
+                // appearance sub-dictionaries, e.g. the states of a check box
+                replaceFontsInXObjects((PdfDictionary) object, replacements, replacedResources);
+            }
+        }
+    }
+
+    private PdfFont getSharedFont(PdfDictionary font, Map<PdfDictionary, PdfFont> replacements) {
+        if (replacements.containsKey(font)) {
+            return replacements.get(font);
+        }
+        PdfFont sharedFont = null;
+        PdfArray descendantFonts = font.getAsArray(PdfName.DescendantFonts);
+        PdfName baseFont = font.getAsName(PdfName.BaseFont);
+        if (PdfName.Type0.equals(font.getAsName(PdfName.Subtype)) && new PdfName(PdfEncodings.IDENTITY_H).equals(font.getAsName(PdfName.Encoding))
+                && baseFont != null && descendantFonts != null && descendantFonts.size() == 1) {
+            PdfDictionary cidFont = descendantFonts.getAsDictionary(0);
+            String fontName = baseFont.getValue();
+            if (fontName.length() > SUBSET_PREFIX_LENGTH && fontName.charAt(SUBSET_PREFIX_LENGTH - 1) == '+') {
+                fontName = fontName.substring(SUBSET_PREFIX_LENGTH);
+            }
+            sharedFont = sharedFonts.get(fontName);
+            if (sharedFont != null && cidFont != null && PdfName.CIDFontType2.equals(cidFont.getAsName(PdfName.Subtype))) {
+                pdfDocument.addFont(sharedFont);
+            } else {
+                sharedFont = null;
+            }
+        }
+        replacements.put(font, sharedFont);
+        return sharedFont;
+    }
+
+    /**
+     * Adds the glyphs shown with the replaced fonts in the given content stream to the subsets of the shared fonts.
+     * Neither /W, which omits the glyphs of the default width, nor the ToUnicode CMap, which omits the glyphs
+     * without Unicode values, of the section font lists all the glyphs the section uses, so the shown strings are
+     * read instead. A form XObject which doesn't set its own font is expected not to show text.
+     */
+    private static void addUsedGlyphs(byte[] content, PdfDictionary resources, Map<PdfName, PdfFont> replacedFonts) {
+        PdfTokenizer tokenizer = new PdfTokenizer(new RandomAccessFileOrArray(new RandomAccessSourceFactory().createSource(content)));
+        PdfCanvasParser parser = new PdfCanvasParser(tokenizer, new PdfResources(resources));
+        List<PdfObject> operands = new ArrayList<>();
+        List<PdfFont> fontStack = new ArrayList<>();
+        PdfFont currentFont = null;
+        try {
+            while (parser.parse(operands).size() > 0) {
+                String operator = operands.get(operands.size() - 1).toString();
+                if ("q".equals(operator)) {
+                    fontStack.add(currentFont);
+                } else if ("Q".equals(operator)) {
+                    currentFont = fontStack.isEmpty() ? null : fontStack.remove(fontStack.size() - 1);
+                } else if ("Tf".equals(operator)) {
+                    currentFont = operands.size() == 3 ? replacedFonts.get(operands.get(0)) : null;
+                } else if (currentFont != null) {
+                    if ("Tj".equals(operator) || "'".equals(operator)) {
+                        addUsedGlyphs(currentFont, operands.get(0));
+                    } else if ("\"".equals(operator)) {
+                        addUsedGlyphs(currentFont, operands.get(2));
+                    } else if ("TJ".equals(operator) && operands.get(0).isArray()) {
+                        for (PdfObject item : (PdfArray) operands.get(0)) {
+                            addUsedGlyphs(currentFont, item);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new PdfException(PdfException.CannotParseContentStream, e);
+        } finally {
+            try {
+                tokenizer.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private static void addUsedGlyphs(PdfFont sharedFont, PdfObject text) {
+        if (text == null || !text.isString()) {
+            return;
+        }
+        // Identity-H codes are two byte glyph ids
+        byte[] codes = ((PdfString) text).getValueBytes();
+        for (int i = 0; i + 1 < codes.length; i += 2) {
+            Glyph glyph = sharedFont.getFontProgram().getGlyphByCode(((codes[i] & 0xff) << 8) | (codes[i + 1] & 0xff));
+            if (glyph != null) {
+                sharedFont.convertToBytes(glyph);
+            }
+        }
+    }
+
+    private static void freeFont(PdfDictionary font) {
+        PdfArray descendantFonts = font.getAsArray(PdfName.DescendantFonts);
+        if (descendantFonts != null) {
+            PdfDictionary cidFont = descendantFonts.getAsDictionary(0);
+            PdfDictionary fontDescriptor = cidFont.getAsDictionary(PdfName.FontDescriptor);
+            if (fontDescriptor != null) {
+                free(fontDescriptor.get(PdfName.FontFile2, false));
+                free(fontDescriptor.get(PdfName.CIDSet, false));
+                free(fontDescriptor);
+            }
+            free(cidFont.get(PdfName.CIDToGIDMap, false));
+            free(cidFont);
+            free(descendantFonts);
+        }
+        free(font.get(PdfName.ToUnicode, false));
+        free(font);
+    }
+
+    private static void free(PdfObject object) {
+        PdfIndirectReference reference = object == null ? null
+                : object.isIndirectReference() ? (PdfIndirectReference) object : object.getIndirectReference();
+        if (reference != null && !reference.isFree()) {
+            reference.setFree();
+        }
+    }
+}
@@ -69,6 +69,7 @@ import org.slf4j.LoggerFactory;
 public class Image extends AbstractElement<Image> implements ILeafElement, IAccessibleElement {
 
     protected PdfXObject xObject;
+    protected ImageData imageData;
     protected DefaultAccessibilityProperties tagProperties;
 
     /**
@@ -157,7 +158,7 @@ public class Image extends AbstractElement<Image> implements ILeafElement, IAcce
      * @param img an internal representation of the {@link com.itextpdf.io.image.ImageData image resource}
      */
     public Image(ImageData img) {
-        this(new PdfImageXObject(checkImageType(img)));
+        this.imageData = checkImageType(img);
         setProperty(Property.FLUSH_ON_DRAW, true);
     }
 
@@ -170,8 +171,10 @@ public class Image extends AbstractElement<Image> implements ILeafElement, IAcce
      * @param bottom a float value representing the vertical offset of the lower left corner of the image
      */
     public Image(ImageData img, float left, float bottom) {
-        this(new PdfImageXObject(checkImageType(img)), left, bottom);
-        setProperty(Property.FLUSH_ON_DRAW, true);
+        this(img);
+        setProperty(Property.LEFT, left);
+        setProperty(Property.BOTTOM, bottom);
+        setProperty(Property.POSITION, LayoutPosition.FIXED);
     }
 
     /**
@@ -184,19 +187,36 @@ public class Image extends AbstractElement<Image> implements ILeafElement, IAcce
      * @param width  a float value
      */
     public Image(ImageData img, float left, float bottom, float width) {
-        this(new PdfImageXObject(checkImageType(img)), left, bottom, width);
-        setProperty(Property.FLUSH_ON_DRAW, true);
+        this(img, left, bottom);
+        setWidth(width);
     }
 
     /**
-     * Gets the XObject contained in this image object
+     * Gets the XObject contained in this image object. For images created from {@link ImageData}
+     * the XObject is created on the first call, after which the image resource is no longer kept.
      *
      * @return a {@link PdfXObject}
      */
     public PdfXObject getXObject() {
+        if (xObject == null) {
+            xObject = new PdfImageXObject(imageData);
+            imageData = null;
+        }
         return xObject;
     }
 
+    /**
+     * Gets the image resource this image was created from, as long as its XObject has not been created yet.
+     * Renderers use it to take the XObject from the document's {@link com.itextpdf.kernel.pdf.xobject.ImageXObjectCache}
+     * instead of creating a new one.
+     *
+     * @return the {@link ImageData}, or {@code null} if the image was created from an XObject
+     * or if {@link #getXObject()} has already been called
+     */
+    public ImageData getImageData() {
+        return imageData;
+    }
+
     /**
      * Sets the rotation radAngle.
      *
@@ -439,8 +459,8 @@ public class Image extends AbstractElement<Image> implements ILeafElement, IAcce
      * @return this element
      */
     public Image scaleToFit(float fitWidth, float fitHeight) {
-        float horizontalScaling = fitWidth / xObject.getWidth();
-        float verticalScaling = fitHeight / xObject.getHeight();
+        float horizontalScaling = fitWidth / getImageWidth();
+        float verticalScaling = fitHeight / getImageHeight();
         return scale(Math.min(horizontalScaling, verticalScaling), Math.min(horizontalScaling, verticalScaling));
     }
 
@@ -453,8 +473,8 @@ public class Image extends AbstractElement<Image> implements ILeafElement, IAcce
      * @return this element
      */
     public Image scaleAbsolute(float fitWidth, float fitHeight) {
-        float horizontalScaling = fitWidth / xObject.getWidth();
-        float verticalScaling = fitHeight / xObject.getHeight();
+        float horizontalScaling = fitWidth / getImageWidth();
+        float verticalScaling = fitHeight / getImageHeight();
         return scale(horizontalScaling, verticalScaling);
     }
 
@@ -546,7 +566,7 @@ public class Image extends AbstractElement<Image> implements ILeafElement, IAcce
      * @return the original width of the image
      */
     public float getImageWidth() {
-        return xObject.getWidth();
+        return xObject != null ? xObject.getWidth() : imageData.getWidth();
     }
 
     /**
@@ -556,7 +576,7 @@ public class Image extends AbstractElement<Image> implements ILeafElement, IAcce
      * @return the original height of the image
      */
     public float getImageHeight() {
-        return xObject.getHeight();
+        return xObject != null ? xObject.getHeight() : imageData.getHeight();
     }
 
     /**
@@ -714,8 +734,8 @@ public class Image extends AbstractElement<Image> implements ILeafElement, IAcce
      */
     public float getImageScaledWidth() {
         return null == this.<Float>getProperty(Property.HORIZONTAL_SCALING) ?
-                xObject.getWidth() :
-                xObject.getWidth() * (float) this.<Float>getProperty(Property.HORIZONTAL_SCALING);
+                getImageWidth() :
+                getImageWidth() * (float) this.<Float>getProperty(Property.HORIZONTAL_SCALING);
     }
 
     /**
@@ -725,8 +745,8 @@ public class Image extends AbstractElement<Image> implements ILeafElement, IAcce
      */
     public float getImageScaledHeight() {
         return null == this.<Float>getProperty(Property.VERTICAL_SCALING) ?
-                xObject.getHeight() :
-                xObject.getHeight() * (float) this.<Float>getProperty(Property.VERTICAL_SCALING);
+                getImageHeight() :
+                getImageHeight() * (float) this.<Float>getProperty(Property.VERTICAL_SCALING);
     }
 
     @Override
@@ -27,6 +27,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * <p>
@@ -61,6 +63,23 @@ public class HyphenationTree extends TernaryTree implements IPatternConsumer {
      */
     private transient TernaryTree ivalues;
 
+    /**
+     * The maximum number of words whose hyphenation results are memoized.
+     */
+    private static final int MAX_MEMOIZED_WORDS = 4096;
+
+    /**
+     * Marks the words which cannot be hyphenated in the memo, because concurrent maps do not accept null values.
+     */
+    private static final Object NO_HYPHENATION = new Object();
+
+    /**
+     * Memoized results of {@link #hyphenate(String, int, int)}. The same words are hyphenated over and over again
+     * while laying out text, so their results are kept here. The memo is dropped once it reaches
+     * {@link #MAX_MEMOIZED_WORDS} entries, which keeps it bounded without the cost of tracking the usage order.
+     */
+    private transient ConcurrentMap<String, Object> hyphenationMemo = new ConcurrentHashMap<>();
+
     /** Default constructor. */
     public HyphenationTree() {
         stoplist = new HashMap<>(23);
@@ -71,6 +90,7 @@ public class HyphenationTree extends TernaryTree implements IPatternConsumer {
 
     private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
         ois.defaultReadObject();
+        hyphenationMemo = new ConcurrentHashMap<>();
     }
 
     /**
@@ -152,6 +172,8 @@ public class HyphenationTree extends TernaryTree implements IPatternConsumer {
 
         // get rid of the auxiliary map
         ivalues = null;
+        // the results memoized so far might have been calculated with other patterns
+        hyphenationMemo.clear();
     }
 
     /**
@@ -303,6 +325,7 @@ public class HyphenationTree extends TernaryTree implements IPatternConsumer {
 
     /**
      * Hyphenate word and return a Hyphenation object.
+     * The results are memoized, so the same object is returned for the same word and it should not be modified.
      * @param word the word to be hyphenated
      * @param remainCharCount Minimum number of characters allowed
      * before the hyphenation point.
@@ -313,6 +336,20 @@ public class HyphenationTree extends TernaryTree implements IPatternConsumer {
      */
     public Hyphenation hyphenate(String word, int remainCharCount,
                                  int pushCharCount) {
+        String memoKey = remainCharCount + "," + pushCharCount + "," + word;
+        Object memoized = hyphenationMemo.get(memoKey);
+        if (memoized != null) {
+            return memoized == NO_HYPHENATION ? null : (Hyphenation) memoized;
+        }
+        Hyphenation hyphenation = hyphenateWord(word, remainCharCount, pushCharCount);
+        if (hyphenationMemo.size() >= MAX_MEMOIZED_WORDS) {
+            hyphenationMemo.clear();
+        }
+        hyphenationMemo.put(memoKey, hyphenation == null ? NO_HYPHENATION : hyphenation);
+        return hyphenation;
+    }
+
+    private Hyphenation hyphenateWord(String word, int remainCharCount, int pushCharCount) {
         char[] w = word.toCharArray();
         if (isMultiPartWord(w, w.length)) {
             List<char[]> words = splitOnNonCharacters(w);
@@ -46,9 +46,9 @@ public final class Hyphenator {
      */
     private static Logger log = LoggerFactory.getLogger(Hyphenator.class);
 
-    private static HyphenationTreeCache hTreeCache;
+    private static volatile HyphenationTreeCache hTreeCache;
 
-    private static List<String> additionalHyphenationFileDirectories;
+    private static volatile List<String> additionalHyphenationFileDirectories;
 
     protected String lang;
     protected String country;
@@ -92,10 +92,11 @@ public final class Hyphenator {
      */
     public static void registerAdditionalHyphenationFileDirectory(String directory) {
         synchronized (staticLock) {
-            if (additionalHyphenationFileDirectories == null) {
-                additionalHyphenationFileDirectories = new ArrayList<>();
-            }
-            additionalHyphenationFileDirectories.add(directory);
+            // the list is replaced instead of modified, so that it can be iterated without locking
+            List<String> directories = additionalHyphenationFileDirectories == null
+                    ? new ArrayList<String>() : new ArrayList<>(additionalHyphenationFileDirectories);
+            directories.add(directory);
+            additionalHyphenationFileDirectories = directories;
         }
     }
 
@@ -105,12 +106,16 @@ public final class Hyphenator {
      * @return the default (static) hyphenation tree cache
      */
     public static HyphenationTreeCache getHyphenationTreeCache() {
-        synchronized (staticLock) {
-            if (hTreeCache == null) {
-                hTreeCache = new HyphenationTreeCache();
+        HyphenationTreeCache cache = hTreeCache;
+        if (cache == null) {
+            synchronized (staticLock) {
+                if (hTreeCache == null) {
+                    hTreeCache = new HyphenationTreeCache();
+                }
+                cache = hTreeCache;
             }
         }
-        return hTreeCache;
+        return cache;
     }
 
     /**
@@ -192,18 +197,36 @@ public final class Hyphenator {
 
         HyphenationTree hTree;
         // first try to find it in the cache
-        hTree = getHyphenationTreeCache().getHyphenationTree(lang, country);
+        hTree = cache.getHyphenationTree(lang, country);
         if (hTree != null) {
             return hTree;
         }
 
+        // only loading is done under the lock, so that concurrent layouts don't parse the same patterns twice
+        synchronized (staticLock) {
+            hTree = cache.getHyphenationTree(lang, country);
+            if (hTree == null) {
+                hTree = loadHyphenationTree(llccKey, lang, country, hyphPathNames);
+                // put it into the pattern cache
+                if (hTree != null) {
+                    cache.cache(llccKey, hTree);
+                }
+            }
+        }
+
+        return hTree;
+    }
+
+    private static HyphenationTree loadHyphenationTree(String llccKey, String lang, String country, Map<String, String> hyphPathNames) {
+        HyphenationTree hTree = null;
         String key = HyphenationTreeCache.constructUserKey(lang, country, hyphPathNames);
         if (key == null) {
             key = llccKey;
         }
 
-        if (additionalHyphenationFileDirectories != null) {
-            for (String dir : additionalHyphenationFileDirectories) {
+        List<String> directories = additionalHyphenationFileDirectories;
+        if (directories != null) {
+            for (String dir : directories) {
                 hTree = getHyphenationTree(dir, key);
                 if (hTree != null) {
                     break;
@@ -219,11 +242,6 @@ public final class Hyphenator {
             }
         }
 
-        // put it into the pattern cache
-        if (hTree != null) {
-            cache.cache(llccKey, hTree);
-        }
-
         return hTree;
     }
 
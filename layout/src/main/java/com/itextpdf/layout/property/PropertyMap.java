@@ -0,0 +1,337 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.property;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A {@link Map} of layout properties which stores the values of {@link Property} keys in an array indexed
+ * directly by the property id. It avoids hashing and entry allocation on every property access,
+ * which makes a difference on the hot property resolution path of renderers and elements.
+ * Keys outside of the range of ids known to {@link Property} are kept in an ordinary {@link HashMap}.
+ * Just as {@link HashMap}, this map permits {@code null} values.
+ */
+public final class PropertyMap extends AbstractMap<Integer, Object> {
+
+    /**
+     * Keys below this bound are stored in the array; it covers all ids currently defined in {@link Property}
+     * and leaves room for a few more.
+     */
+    private static final int MAX_ARRAY_KEY = 255;
+
+    /**
+     * Marks a key that is explicitly mapped to {@code null}, as opposed to an absent key.
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] values = EMPTY;
+    private int arraySize;
+    private Map<Integer, Object> otherProperties;
+    private transient Set<Map.Entry<Integer, Object>> entrySet;
+
+    /**
+     * Creates an empty property map.
+     */
+    public PropertyMap() {
+    }
+
+    /**
+     * Creates a property map with the same mappings as the given map.
+     *
+     * @param properties the map whose mappings are to be placed in this map
+     */
+    public PropertyMap(Map<Integer, ?> properties) {
+        putAll(properties);
+    }
+
+    /**
+     * Checks whether the property is present in this map, without boxing the key.
+     *
+     * @param property the property key
+     * @return {@code true} if the property is present in this map, even if it is mapped to {@code null}
+     */
+    public boolean containsProperty(int property) {
+        if (isArrayKey(property)) {
+            return property < values.length && values[property] != null;
+        }
+        return otherProperties != null && otherProperties.containsKey(property);
+    }
+
+    /**
+     * Gets the value of the property, without boxing the key.
+     *
+     * @param property the property key
+     * @return the value of the property, or {@code null} if it is absent or mapped to {@code null}
+     */
+    public Object getProperty(int property) {
+        if (isArrayKey(property)) {
+            return property < values.length ? unmask(values[property]) : null;
+        }
+        return otherProperties != null ? otherProperties.get(property) : null;
+    }
+
+    /**
+     * Sets the value of the property, without boxing the key.
+     *
+     * @param property the property key
+     * @param value    the new value, may be {@code null}
+     * @return the previous value of the property, or {@code null} if there was none
+     */
+    public Object setProperty(int property, Object value) {
+        if (isArrayKey(property)) {
+            if (property >= values.length) {
+                Object[] newValues = new Object[Math.min(MAX_ARRAY_KEY + 1, Math.max(property + 1, values.length * 2))];
+                System.arraycopy(values, 0, newValues, 0, values.length);
+                values = newValues;
+            }
+            Object previous = values[property];
+            values[property] = value == null ? NULL_VALUE : value;
+            if (previous == null) {
+                arraySize++;
+            }
+            return unmask(previous);
+        }
+        if (otherProperties == null) {
+            otherProperties = new HashMap<>();
+        }
+        return otherProperties.put(property, value);
+    }
+
+    /**
+     * Removes the property, without boxing the key.
+     *
+     * @param property the property key
+     * @return the previous value of the property, or {@code null} if there was none
+     */
+    public Object removeProperty(int property) {
+        if (isArrayKey(property)) {
+            if (property >= values.length) {
+                return null;
+            }
+            Object previous = values[property];
+            if (previous != null) {
+                values[property] = null;
+                arraySize--;
+            }
+            return unmask(previous);
+        }
+        return otherProperties != null ? otherProperties.remove(property) : null;
+    }
+
+    @Override
+    public int size() {
+        return arraySize + (otherProperties != null ? otherProperties.size() : 0);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsProperty((int) (Integer) key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        return key instanceof Integer ? getProperty((int) (Integer) key) : null;
+    }
+
+    @Override
+    public Object put(Integer key, Object value) {
+        return setProperty((int) key, value);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        return key instanceof Integer ? removeProperty((int) (Integer) key) : null;
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ?> m) {
+        for (Map.Entry<? extends Integer, ?> entry : m.entrySet()) {
+            setProperty((int) entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        values = EMPTY;
+        arraySize = 0;
+        otherProperties = null;
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private static boolean isArrayKey(int property) {
+        return property >= 0 && property <= MAX_ARRAY_KEY;
+    }
+
+    private static Object unmask(Object value) {
+        return value == NULL_VALUE ? null : value;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<Integer, Object>> {
+        @Override
+        public Iterator<Map.Entry<Integer, Object>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return PropertyMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            PropertyMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<Integer, Object>> {
+        private int next = -1;
+        private int current = -1;
+        private Iterator<Map.Entry<Integer, Object>> otherIterator;
+
+        EntryIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length || otherIterator != null && otherIterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<Integer, Object> next() {
+            if (next < values.length) {
+                current = next;
+                advance();
+                return new ArrayEntry(current);
+            }
+            current = -1;
+            if (otherIterator != null) {
+                return otherIterator.next();
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public void remove() {
+            if (current >= 0) {
+                if (values[current] == null) {
+                    throw new IllegalStateException();
+                }
+                values[current] = null;
+                arraySize--;
+            } else if (otherIterator != null) {
+                otherIterator.remove();
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+
+        private void advance() {
+            do {
+                next++;
+            } while (next < values.length && values[next] == null);
+            if (next >= values.length && otherIterator == null && otherProperties != null) {
+                otherIterator = otherProperties.entrySet().iterator();
+            }
+        }
+    }
+
+    private final class ArrayEntry implements Map.Entry<Integer, Object> {
+        private final int key;
+
+        ArrayEntry(int key) {
+            this.key = key;
+        }
+
+        @Override
+        public Integer getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return unmask(values[key]);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object previous = values[key];
+            values[key] = value == null ? NULL_VALUE : value;
+            if (previous == null) {
+                arraySize++;
+            }
+            return unmask(previous);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Object value = getValue();
+            return Integer.valueOf(key).equals(e.getKey()) && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            Object value = getValue();
+            return key ^ (value == null ? 0 : value.hashCode());
+        }
+    }
+}
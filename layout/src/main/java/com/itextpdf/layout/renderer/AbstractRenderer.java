@@ -84,6 +84,7 @@ import com.itextpdf.layout.property.BoxSizingPropertyValue;
 import com.itextpdf.layout.property.HorizontalAlignment;
 import com.itextpdf.layout.property.OverflowPropertyValue;
 import com.itextpdf.layout.property.Property;
+import com.itextpdf.layout.property.PropertyMap;
 import com.itextpdf.layout.property.Transform;
 import com.itextpdf.layout.property.TransparentColor;
 import com.itextpdf.layout.property.UnitValue;
@@ -93,7 +94,6 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -121,9 +121,14 @@ public abstract class AbstractRenderer implements IRenderer {
     protected boolean flushed = false;
     protected LayoutArea occupiedArea;
     protected IRenderer parent;
-    protected Map<Integer, Object> properties = new HashMap<>();
+    protected Map<Integer, Object> properties = new PropertyMap();
     protected boolean isLastRendererForModelElement = true;
 
+    /**
+     * Memoized result of {@link #getMinMaxWidth()}, dropped whenever properties or content of this renderer change.
+     */
+    private MinMaxWidth cachedMinMaxWidth;
+
     /**
      * Creates a renderer.
      */
@@ -160,6 +165,7 @@ public abstract class AbstractRenderer implements IRenderer {
         Integer positioning = renderer.<Integer>getProperty(Property.POSITION);
         if (positioning == null || positioning == LayoutPosition.RELATIVE || positioning == LayoutPosition.STATIC) {
             childRenderers.add(renderer);
+            clearMinMaxWidthCache();
         } else if (positioning == LayoutPosition.FIXED) {
             AbstractRenderer root = this;
             while (root.parent instanceof AbstractRenderer) {
@@ -240,7 +246,7 @@ public abstract class AbstractRenderer implements IRenderer {
      */
     @Override
     public boolean hasOwnProperty(int property) {
-        return properties.containsKey(property);
+        return containsOwnProperty(property);
     }
 
     /**
@@ -259,7 +265,8 @@ public abstract class AbstractRenderer implements IRenderer {
      */
     @Override
     public void deleteOwnProperty(int property) {
-        properties.remove(property);
+        removeOwnProperty(property);
+        onPropertyChanged(property);
     }
 
     /**
@@ -269,13 +276,14 @@ public abstract class AbstractRenderer implements IRenderer {
      * @param property the property key to be deleted
      */
     public void deleteProperty(int property) {
-        if (properties.containsKey(property)) {
-            properties.remove(property);
+        if (containsOwnProperty(property)) {
+            removeOwnProperty(property);
         } else {
             if (modelElement != null) {
                 modelElement.deleteOwnProperty(property);
             }
         }
+        onPropertyChanged(property);
     }
 
     /**
@@ -284,7 +292,7 @@ public abstract class AbstractRenderer implements IRenderer {
     @Override
     public <T1> T1 getProperty(int key) {
         Object property;
-        if ((property = properties.get(key)) != null || properties.containsKey(key)) {
+        if ((property = getOwnPropertyValue(key)) != null || containsOwnProperty(key)) {
             return (T1) property;
         }
         if (modelElement != null && ((property = modelElement.<T1>getProperty(key)) != null || modelElement.hasProperty(key))) {
@@ -306,7 +314,7 @@ public abstract class AbstractRenderer implements IRenderer {
      */
     @Override
     public <T1> T1 getOwnProperty(int property) {
-        return (T1) properties.get(property);
+        return (T1) getOwnPropertyValue(property);
     }
 
     /**
@@ -323,7 +331,8 @@ public abstract class AbstractRenderer implements IRenderer {
      */
     @Override
     public void setProperty(int property, Object value) {
-        properties.put(property, value);
+        putOwnProperty(property, value);
+        onPropertyChanged(property);
     }
 
     /**
@@ -968,7 +977,12 @@ public abstract class AbstractRenderer implements IRenderer {
      */
     @Override
     public IRenderer setParent(IRenderer parent) {
-        this.parent = parent;
+        if (this.parent != parent) {
+            this.parent = parent;
+            // Inherited properties are now resolved against another parent
+            clearMinMaxWidthCache();
+            clearDescendantsMinMaxWidthCache();
+        }
         return this;
     }
 
@@ -1474,6 +1488,8 @@ public abstract class AbstractRenderer implements IRenderer {
 
     protected void addAllProperties(Map<Integer, Object> properties) {
         this.properties.putAll(properties);
+        clearMinMaxWidthCache();
+        clearDescendantsMinMaxWidthCache();
     }
 
     /**
@@ -1818,6 +1834,64 @@ public abstract class AbstractRenderer implements IRenderer {
         return MinMaxWidthUtils.countDefaultMinMaxWidth(this);
     }
 
+    /**
+     * Gets the min/max width of this renderer, calculating it with {@link #getMinMaxWidth()} only if
+     * nothing that affects it has changed since the previous call. The returned instance is a copy and
+     * may be freely modified by the caller.
+     *
+     * @return the min/max width of this renderer
+     */
+    MinMaxWidth retrieveMinMaxWidth() {
+        if (cachedMinMaxWidth == null) {
+            MinMaxWidth minMaxWidth = getMinMaxWidth();
+            if (minMaxWidth == null) {
+                return null;
+            }
+            cachedMinMaxWidth = new MinMaxWidth(minMaxWidth.getChildrenMinWidth(), minMaxWidth.getChildrenMaxWidth(), minMaxWidth.getAdditionalWidth());
+            return minMaxWidth;
+        }
+        return new MinMaxWidth(cachedMinMaxWidth.getChildrenMinWidth(), cachedMinMaxWidth.getChildrenMaxWidth(), cachedMinMaxWidth.getAdditionalWidth());
+    }
+
+    /**
+     * Drops the memoized min/max width of this renderer and of all its ancestors, since their widths are
+     * calculated from the widths of their children.
+     */
+    void clearMinMaxWidthCache() {
+        IRenderer renderer = this;
+        while (renderer instanceof AbstractRenderer) {
+            ((AbstractRenderer) renderer).cachedMinMaxWidth = null;
+            renderer = renderer.getParent();
+        }
+    }
+
+    private void onPropertyChanged(int property) {
+        clearMinMaxWidthCache();
+        if (Property.isPropertyInherited(property)) {
+            clearDescendantsMinMaxWidthCache();
+        }
+    }
+
+    /**
+     * Drops the memoized min/max width of all descendants of this renderer. Called when a change in this
+     * renderer may affect the properties its children inherit.
+     */
+    void clearDescendantsMinMaxWidthCache() {
+        for (IRenderer child : childRenderers) {
+            if (child instanceof AbstractRenderer) {
+                ((AbstractRenderer) child).clearSubtreeMinMaxWidthCache();
+            }
+        }
+    }
+
+    /**
+     * Drops the memoized min/max width of this renderer and of all its descendants.
+     */
+    void clearSubtreeMinMaxWidthCache() {
+        cachedMinMaxWidth = null;
+        clearDescendantsMinMaxWidthCache();
+    }
+
     protected boolean setMinMaxWidthBasedOnFixedWidth(MinMaxWidth minMaxWidth) {
         // retrieve returns max width, if there is no width.
         if (hasAbsoluteUnitValue(Property.WIDTH)) {
@@ -2259,7 +2333,7 @@ public abstract class AbstractRenderer implements IRenderer {
 
         if (left == null && right == null && !renderer.hasProperty(Property.WIDTH)) {
             // Other, non-block renderers won't occupy full width anyway
-            MinMaxWidth minMaxWidth = renderer instanceof BlockRenderer ? ((BlockRenderer) renderer).getMinMaxWidth() : null;
+            MinMaxWidth minMaxWidth = renderer instanceof BlockRenderer ? ((BlockRenderer) renderer).retrieveMinMaxWidth() : null;
             if (minMaxWidth != null && minMaxWidth.getMaxWidth() < fullBbox.getWidth()) {
                 fullBbox.setWidth(minMaxWidth.getMaxWidth() + AbstractRenderer.EPS);
             }
@@ -2287,6 +2361,32 @@ public abstract class AbstractRenderer implements IRenderer {
      *
      * @return {@link AffineTransform} that transforms the content and places it inside occupied area.
      */
+    private boolean containsOwnProperty(int property) {
+        return properties instanceof PropertyMap
+                ? ((PropertyMap) properties).containsProperty(property) : properties.containsKey(property);
+    }
+
+    private Object getOwnPropertyValue(int property) {
+        return properties instanceof PropertyMap
+                ? ((PropertyMap) properties).getProperty(property) : properties.get(property);
+    }
+
+    private void putOwnProperty(int property, Object value) {
+        if (properties instanceof PropertyMap) {
+            ((PropertyMap) properties).setProperty(property, value);
+        } else {
+            properties.put(property, value);
+        }
+    }
+
+    private void removeOwnProperty(int property) {
+        if (properties instanceof PropertyMap) {
+            ((PropertyMap) properties).removeProperty(property);
+        } else {
+            properties.remove(property);
+        }
+    }
+
     private AffineTransform createTransformationInsideOccupiedArea() {
         Rectangle backgroundArea = applyMargins(occupiedArea.clone().getBBox(), false);
         float x = backgroundArea.getX();
@@ -879,7 +879,7 @@ public abstract class BlockRenderer extends AbstractRenderer {
                     MinMaxWidth childMinMaxWidth;
                     childRenderer.setParent(this);
                     if (childRenderer instanceof AbstractRenderer) {
-                        childMinMaxWidth = ((AbstractRenderer) childRenderer).getMinMaxWidth();
+                        childMinMaxWidth = ((AbstractRenderer) childRenderer).retrieveMinMaxWidth();
                     } else {
                         childMinMaxWidth = MinMaxWidthUtils.countDefaultMinMaxWidth(childRenderer);
                     }
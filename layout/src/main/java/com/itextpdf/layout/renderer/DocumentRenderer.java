@@ -131,10 +131,14 @@ public class DocumentRenderer extends RootRenderer {
             ensureDocumentHasNPages(pageNum, null);
             PdfPage correspondingPage = pdfDocument.getPage(pageNum);
 
-            boolean wrapOldContent = pdfDocument.getReader() != null && pdfDocument.getWriter() != null &&
-                    correspondingPage.getContentStreamCount() > 0 && correspondingPage.getLastContentStream().getLength() > 0 &&
-                    !wrappedContentPage.contains(pageNum) && pdfDocument.getNumberOfPages() >= pageNum;
-            wrappedContentPage.add(pageNum);
+            boolean wrapOldContent = false;
+            // Only pages of an existing document may have content to be wrapped. Tracking them otherwise would
+            // keep one entry per drawn renderer, which adds up for large elements flushed row by row.
+            if (pdfDocument.getReader() != null && pdfDocument.getWriter() != null && !wrappedContentPage.contains(pageNum)) {
+                wrapOldContent = correspondingPage.getContentStreamCount() > 0 && correspondingPage.getLastContentStream().getLength() > 0
+                        && pdfDocument.getNumberOfPages() >= pageNum;
+                wrappedContentPage.add(pageNum);
+            }
 
             if (pdfDocument.isTagged()) {
                 pdfDocument.getTagStructureContext().getAutoTaggingPointer().setPageForTagging(correspondingPage);
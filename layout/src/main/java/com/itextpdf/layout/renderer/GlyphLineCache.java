@@ -0,0 +1,197 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout.renderer;
+
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.kernel.font.PdfFont;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded least-recently-used cache of the glyph lines produced for short text runs.
+ * <p>
+ * Converting text to glyphs, and in case of font provider based fonts also selecting the fonts, is repeated
+ * for every occurrence of the same run of text, e.g. for table cells, headers or labels. This cache keeps
+ * the results per root renderer so that subsequent occurrences only have to copy the glyph lines.
+ * Cached glyph lines are never handed out directly, because renderers modify their glyph lines
+ * while applying typography features and splitting. The glyphs themselves are shared: like the glyphs
+ * of a font, they are never modified in place but replaced by modified copies.
+ * <p>
+ * The cache can be disabled with {@link RootRenderer#setGlyphLineCacheEnabled(boolean)}.
+ * <p>
+ * OpenType features are applied later on a renderer's own copy, so they are not part of the cached state.
+ */
+class GlyphLineCache {
+
+    /**
+     * The maximum length of the text for which glyph lines are cached.
+     * Longer texts are rarely repeated verbatim and would only push useful entries out.
+     */
+    static final int MAX_TEXT_LENGTH = 128;
+
+    private static final int DEFAULT_CAPACITY = 2048;
+
+    private final Map<Object, Object> entries;
+
+    private long hits;
+    private long misses;
+
+    GlyphLineCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    GlyphLineCache(final int capacity) {
+        this.entries = new LinkedHashMap<Object, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Gets the glyph line for the text rendered with the specified font, converting the text on the first request.
+     *
+     * @param text the text to be converted
+     * @param font the font to convert the text with
+     * @return a glyph line which the caller is free to modify
+     */
+    GlyphLine getGlyphLine(String text, PdfFont font) {
+        if (!isCacheable(text)) {
+            return font.createGlyphLine(text);
+        }
+        Object key = Arrays.asList(text, font);
+        GlyphLine cached = (GlyphLine) lookup(key);
+        if (cached == null) {
+            cached = font.createGlyphLine(text);
+            entries.put(key, copyOf(cached));
+            return cached;
+        }
+        return copyOf(cached);
+    }
+
+    /**
+     * Gets the runs the text has been split into while resolving its fonts.
+     *
+     * @param key the key describing the text and everything the font resolution depends on
+     * @return copies of the cached runs, or {@code null} if the runs are not cached
+     */
+    @SuppressWarnings("unchecked")
+    List<FontRun> getFontRuns(Object key) {
+        List<FontRun> cached = (List<FontRun>) lookup(key);
+        if (cached == null) {
+            return null;
+        }
+        List<FontRun> result = new ArrayList<>(cached.size());
+        for (FontRun run : cached) {
+            result.add(new FontRun(copyOf(run.getGlyphLine()), run.getFont()));
+        }
+        return result;
+    }
+
+    /**
+     * Stores the runs the text has been split into while resolving its fonts.
+     *
+     * @param key  the key describing the text and everything the font resolution depends on
+     * @param runs the resolved runs; the cache stores its own copies of them
+     */
+    void putFontRuns(Object key, List<FontRun> runs) {
+        List<FontRun> copies = new ArrayList<>(runs.size());
+        for (FontRun run : runs) {
+            copies.add(new FontRun(copyOf(run.getGlyphLine()), run.getFont()));
+        }
+        entries.put(key, copies);
+    }
+
+    long getHitCount() {
+        return hits;
+    }
+
+    long getMissCount() {
+        return misses;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    static boolean isCacheable(String text) {
+        return text != null && !text.isEmpty() && text.length() <= MAX_TEXT_LENGTH;
+    }
+
+    private Object lookup(Object key) {
+        Object value = entries.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    private static GlyphLine copyOf(GlyphLine line) {
+        return line.copy(line.start, line.end);
+    }
+
+    static final class FontRun {
+        private final GlyphLine glyphLine;
+        private final PdfFont font;
+
+        FontRun(GlyphLine glyphLine, PdfFont font) {
+            this.glyphLine = glyphLine;
+            this.font = font;
+        }
+
+        GlyphLine getGlyphLine() {
+            return glyphLine;
+        }
+
+        PdfFont getFont() {
+            return font;
+        }
+    }
+}
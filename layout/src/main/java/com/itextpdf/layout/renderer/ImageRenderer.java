@@ -50,8 +50,8 @@ import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.canvas.CanvasArtifact;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.kernel.pdf.tagutils.TagTreePointer;
+import com.itextpdf.kernel.pdf.xobject.ImageXObjectCache;
 import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
-import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
 import com.itextpdf.kernel.pdf.xobject.PdfXObject;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.element.Image;
@@ -104,11 +104,11 @@ public class ImageRenderer extends AbstractRenderer implements ILeafElementRende
 
         AffineTransform t = new AffineTransform();
         Image modelElement = (Image) (getModelElement());
-        PdfXObject xObject = modelElement.getXObject();
+        boolean isFormXObject = isFormXObject();
         imageWidth = modelElement.getImageWidth();
         imageHeight = modelElement.getImageHeight();
 
-        calculateImageDimensions(layoutBox, t, xObject);
+        calculateImageDimensions(layoutBox, t, isFormXObject);
 
         OverflowPropertyValue overflowX = null != parent
                 ? parent.<OverflowPropertyValue>getProperty(Property.OVERFLOW_X)
@@ -164,7 +164,7 @@ public class ImageRenderer extends AbstractRenderer implements ILeafElementRende
         initialOccupiedAreaBBox.moveDown(imageItselfScaledHeight);
         initialOccupiedAreaBBox.setHeight(imageItselfScaledHeight);
         initialOccupiedAreaBBox.setWidth(imageItselfScaledWidth);
-        if (xObject instanceof PdfFormXObject) {
+        if (isFormXObject) {
             t.scale(scaleCoef, scaleCoef);
         }
 
@@ -302,7 +302,7 @@ public class ImageRenderer extends AbstractRenderer implements ILeafElementRende
             }
         }
 
-        PdfXObject xObject = ((Image) (getModelElement())).getXObject();
+        PdfXObject xObject = resolveXObject(drawContext);
         beginElementOpacityApplying(drawContext);
         canvas.addXObject(xObject, matrix[0], matrix[1], matrix[2], matrix[3], (float) fixedXPosition + deltaX, (float) fixedYPosition);
 
@@ -386,7 +386,21 @@ public class ImageRenderer extends AbstractRenderer implements ILeafElementRende
         return this;
     }
 
-    private void calculateImageDimensions(Rectangle layoutBox, AffineTransform t, PdfXObject xObject) {
+    private PdfXObject resolveXObject(DrawContext drawContext) {
+        Image modelElement = (Image) (getModelElement());
+        ImageXObjectCache cache = modelElement.getImageData() != null && drawContext.getDocument() != null
+                ? drawContext.getDocument().getImageXObjectCache()
+                : null;
+        return cache != null ? cache.getImageXObject(modelElement.getImageData()) : modelElement.getXObject();
+    }
+
+    private boolean isFormXObject() {
+        Image modelElement = (Image) (getModelElement());
+        // images created from ImageData are always image XObjects, their XObject is created only when drawn
+        return modelElement.getImageData() == null && modelElement.getXObject() instanceof PdfFormXObject;
+    }
+
+    private void calculateImageDimensions(Rectangle layoutBox, AffineTransform t, boolean isFormXObject) {
         width = this.<UnitValue>getProperty(Property.WIDTH) != null ? retrieveWidth(layoutBox.getWidth()) : null;
         Float declaredHeight = retrieveHeight();
         height = declaredHeight;
@@ -403,13 +417,13 @@ public class ImageRenderer extends AbstractRenderer implements ILeafElementRende
         Float verticalScaling = this.getPropertyAsFloat(Property.VERTICAL_SCALING, 1f);
 
 
-        if (xObject instanceof PdfFormXObject && width != imageWidth) {
+        if (isFormXObject && width != imageWidth) {
             horizontalScaling *= width / imageWidth;
             verticalScaling *= height / imageHeight;
         }
 
         if (horizontalScaling != 1) {
-            if (xObject instanceof PdfFormXObject) {
+            if (isFormXObject) {
                 t.scale((float) horizontalScaling, 1);
                 width = imageWidth * (float) horizontalScaling;
             } else {
@@ -417,7 +431,7 @@ public class ImageRenderer extends AbstractRenderer implements ILeafElementRende
             }
         }
         if (verticalScaling != 1) {
-            if (xObject instanceof PdfFormXObject) {
+            if (isFormXObject) {
                 t.scale(1, (float) verticalScaling);
                 height = imageHeight * (float) verticalScaling;
             } else {
@@ -453,8 +467,7 @@ public class ImageRenderer extends AbstractRenderer implements ILeafElementRende
 
     private void getMatrix(AffineTransform t, float imageItselfScaledWidth, float imageItselfScaledHeight) {
         t.getMatrix(matrix);
-        PdfXObject xObject = ((Image) (getModelElement())).getXObject();
-        if (xObject instanceof PdfImageXObject) {
+        if (!isFormXObject()) {
             matrix[0] *= imageItselfScaledWidth;
             matrix[1] *= imageItselfScaledWidth;
             matrix[2] *= imageItselfScaledHeight;
@@ -301,7 +301,7 @@ public class LineRenderer extends AbstractRenderer {
             boolean isInlineBlockChild = isInlineBlockChild(childRenderer);
             if (!childWidthWasReplaced) {
                 if (isInlineBlockChild && childRenderer instanceof AbstractRenderer) {
-                    childBlockMinMaxWidth = ((AbstractRenderer) childRenderer).getMinMaxWidth();
+                    childBlockMinMaxWidth = ((AbstractRenderer) childRenderer).retrieveMinMaxWidth();
                     float childMaxWidth = childBlockMinMaxWidth.getMaxWidth() + MIN_MAX_WIDTH_CORRECTION_EPS;
                     float lineFullAvailableWidth = layoutContext.getArea().getBBox().getWidth() - lineLayoutContext.getTextIndent();
                     if (childMaxWidth > bbox.getWidth() && bbox.getWidth() != lineFullAvailableWidth) {
@@ -76,6 +76,8 @@ public abstract class RootRenderer extends AbstractRenderer {
     private List<Rectangle> floatRendererAreas;
     private List<IRenderer> waitingNextPageRenderers = new ArrayList<>();
     private boolean floatOverflowedCompletely = false;
+    private GlyphLineCache glyphLineCache;
+    private boolean glyphLineCacheEnabled = true;
 
     public void addChild(IRenderer renderer) {
         LayoutTaggingHelper taggingHelper = this.<LayoutTaggingHelper>getProperty(Property.TAGGING_HELPER);
@@ -347,6 +349,43 @@ public abstract class RootRenderer extends AbstractRenderer {
         return currentArea;
     }
 
+    /**
+     * Checks whether the text renderers of this root reuse the glyph lines of repeated short texts.
+     *
+     * @return {@code true} if the glyph line cache is enabled, which is the default
+     */
+    public boolean isGlyphLineCacheEnabled() {
+        return glyphLineCacheEnabled;
+    }
+
+    /**
+     * Enables or disables reusing the glyph lines of repeated short texts. Disabling the cache releases the glyph
+     * lines cached so far.
+     *
+     * @param glyphLineCacheEnabled {@code true} to reuse the glyph lines, {@code false} to convert every text anew
+     */
+    public void setGlyphLineCacheEnabled(boolean glyphLineCacheEnabled) {
+        this.glyphLineCacheEnabled = glyphLineCacheEnabled;
+        if (!glyphLineCacheEnabled) {
+            glyphLineCache = null;
+        }
+    }
+
+    /**
+     * Gets the cache of glyph lines shared by the text renderers of this root.
+     *
+     * @return the glyph line cache, created on the first call, or {@code null} if the cache is disabled
+     */
+    GlyphLineCache getGlyphLineCache() {
+        if (!glyphLineCacheEnabled) {
+            return null;
+        }
+        if (glyphLineCache == null) {
+            glyphLineCache = new GlyphLineCache();
+        }
+        return glyphLineCache;
+    }
+
     protected abstract void flushSingleRenderer(IRenderer resultRenderer);
 
     protected abstract LayoutArea updateCurrentArea(LayoutResult overflowResult);
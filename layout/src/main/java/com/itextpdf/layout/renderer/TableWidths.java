@@ -620,7 +620,7 @@ final class TableWidths {
 
         for (CellInfo cell : cells) {
             cell.setParent(tableRenderer);
-            MinMaxWidth minMax = cell.getCell().getMinMaxWidth();
+            MinMaxWidth minMax = cell.getCell().retrieveMinMaxWidth();
             float[] indents = getCellBorderIndents(cell);
             if (BorderCollapsePropertyValue.SEPARATE.equals(tableRenderer.<BorderCollapsePropertyValue>getProperty(Property.BORDER_COLLAPSE))) {
                 minMax.setAdditionalWidth((float) (minMax.getAdditionalWidth() - horizontalBorderSpacing));
@@ -90,6 +90,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
@@ -970,6 +971,7 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
         strToBeConverted = text;
         //strToBeConverted will be null after next method.
         updateFontAndText();
+        clearMinMaxWidthCache();
     }
 
     /**
@@ -986,6 +988,7 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
         this.text.start = leftPos;
         this.text.end = rightPos;
         this.otfFeaturesApplied = false;
+        clearMinMaxWidthCache();
     }
 
     public GlyphLine getText() {
@@ -1066,7 +1069,16 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
     }
 
     private GlyphLine convertToGlyphLine(String text) {
-        return font.createGlyphLine(text);
+        GlyphLineCache cache = retrieveGlyphLineCache();
+        return cache != null ? cache.getGlyphLine(text, font) : font.createGlyphLine(text);
+    }
+
+    private GlyphLineCache retrieveGlyphLineCache() {
+        IRenderer renderer = parent;
+        while (renderer != null && !(renderer instanceof RootRenderer)) {
+            renderer = renderer.getParent();
+        }
+        return renderer != null ? ((RootRenderer) renderer).getGlyphLineCache() : null;
     }
 
     private boolean hasOtfFont() {
@@ -1204,17 +1216,30 @@ public class TextRenderer extends AbstractRenderer implements ILeafElementRender
                 throw new IllegalStateException("Invalid font type. FontProvider and FontSet are empty. Cannot resolve font with string value.");
             }
             FontCharacteristics fc = createFontCharacteristics();
-            FontSelectorStrategy strategy = provider.getStrategy(strToBeConverted,
-                    FontFamilySplitter.splitFontFamily((String) font), fc, fontSet);
             // process empty renderers because they can have borders or paddings with background to be drawn
             if (null == strToBeConverted || strToBeConverted.isEmpty()) {
                 addTo.add(this);
             } else {
-                while (!strategy.endOfText()) {
-                    GlyphLine nextGlyphs = new GlyphLine(strategy.nextGlyphs());
-                    PdfFont currentFont = strategy.getCurrentFont();
-                    TextRenderer textRenderer = createCopy(replaceSpecialWhitespaceGlyphs(nextGlyphs, currentFont), currentFont);
-                    addTo.add(textRenderer);
+                GlyphLineCache cache = GlyphLineCache.isCacheable(strToBeConverted) ? retrieveGlyphLineCache() : null;
+                // font sets are mutable, so their sizes are a part of the key to not reuse runs resolved against older fonts
+                Object key = cache == null ? null : Arrays.asList(strToBeConverted, font, fc, provider,
+                        provider.getFontSet().size(), fontSet, fontSet == null ? 0 : fontSet.size());
+                List<GlyphLineCache.FontRun> runs = cache == null ? null : cache.getFontRuns(key);
+                if (runs == null) {
+                    runs = new ArrayList<>();
+                    FontSelectorStrategy strategy = provider.getStrategy(strToBeConverted,
+                            FontFamilySplitter.splitFontFamily((String) font), fc, fontSet);
+                    while (!strategy.endOfText()) {
+                        GlyphLine nextGlyphs = new GlyphLine(strategy.nextGlyphs());
+                        PdfFont currentFont = strategy.getCurrentFont();
+                        runs.add(new GlyphLineCache.FontRun(replaceSpecialWhitespaceGlyphs(nextGlyphs, currentFont), currentFont));
+                    }
+                    if (cache != null) {
+                        cache.putFontRuns(key, runs);
+                    }
+                }
+                for (GlyphLineCache.FontRun run : runs) {
+                    addTo.add(createCopy(run.getGlyphLine(), run.getFont()));
                 }
             }
             return true;
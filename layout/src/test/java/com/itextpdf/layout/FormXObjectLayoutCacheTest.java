@@ -0,0 +1,188 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout;
+
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.itextpdf.kernel.pdf.tagging.IStructureNode;
+import com.itextpdf.kernel.pdf.tagging.PdfStructElem;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.property.TextAlignment;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(IntegrationTest.class)
+public class FormXObjectLayoutCacheTest extends ExtendedITextTest {
+
+    @Test
+    public void repeatedHeaderTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        Document document = new Document(pdfDocument, PageSize.A5);
+        FormXObjectLayoutCache cache = new FormXObjectLayoutCache(pdfDocument);
+        Paragraph header = new Paragraph("Monthly statement").setMargin(0).setTextAlignment(TextAlignment.CENTER);
+
+        int pageCount = 5;
+        for (int i = 1; i <= pageCount; i++) {
+            PdfPage page = pdfDocument.addNewPage();
+            Rectangle pageSize = page.getPageSize();
+            PdfFormXObject headerXObject = cache.getFormXObject(header, pageSize.getWidth() - 72);
+            new PdfCanvas(page).addXObject(headerXObject, 36, pageSize.getTop() - 36 - headerXObject.getHeight());
+            document.showTextAligned("Page " + i, pageSize.getWidth() / 2, 20, TextAlignment.CENTER);
+        }
+        Assert.assertEquals(1, cache.size());
+        PdfFormXObject headerXObject = cache.getFormXObject(header, PageSize.A5.getWidth() - 72);
+        Assert.assertEquals(PageSize.A5.getWidth() - 72, headerXObject.getWidth(), 1e-4f);
+        Assert.assertTrue(headerXObject.getHeight() > 0 && headerXObject.getHeight() < 30);
+        document.close();
+
+        PdfDocument result = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertEquals(pageCount, result.getNumberOfPages());
+        PdfDictionary firstPageXObjects = result.getPage(1).getResources().getResource(PdfName.XObject);
+        for (int i = 1; i <= pageCount; i++) {
+            String text = PdfTextExtractor.getTextFromPage(result.getPage(i));
+            Assert.assertTrue(text.contains("Monthly statement"));
+            Assert.assertTrue(text.contains("Page " + i));
+            PdfDictionary xObjects = result.getPage(i).getResources().getResource(PdfName.XObject);
+            Assert.assertEquals(1, xObjects.size());
+            // All the pages share the same form
+            Assert.assertEquals(firstPageXObjects.get(firstPageXObjects.keySet().iterator().next()).getIndirectReference(),
+                    xObjects.get(xObjects.keySet().iterator().next()).getIndirectReference());
+        }
+        result.close();
+    }
+
+    @Test
+    public void cachedBlockInFlowTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        Document document = new Document(pdfDocument);
+        FormXObjectLayoutCache cache = new FormXObjectLayoutCache(pdfDocument);
+        Div disclaimer = new Div().add(new Paragraph("This statement is provided for information only."))
+                .add(new Paragraph("Please keep it for your records."));
+
+        for (int i = 0; i < 3; i++) {
+            document.add(new Paragraph("Entry " + i));
+            document.add(cache.getImage(disclaimer, 300));
+        }
+        Assert.assertEquals(1, cache.size());
+        Assert.assertNotSame(cache.getFormXObject(disclaimer, 300), cache.getFormXObject(disclaimer, 200));
+        Assert.assertEquals(2, cache.size());
+        cache.remove(disclaimer);
+        Assert.assertEquals(0, cache.size());
+        document.close();
+
+        PdfDocument result = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        String text = PdfTextExtractor.getTextFromPage(result.getPage(1));
+        Assert.assertEquals(3, text.split("Please keep it for your records.").length);
+        result.close();
+    }
+
+    @Test
+    public void cachedBlocksInTaggedDocumentTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        pdfDocument.setTagged();
+        Document document = new Document(pdfDocument);
+        FormXObjectLayoutCache cache = new FormXObjectLayoutCache(pdfDocument);
+        Paragraph header = new Paragraph("Monthly statement").setMargin(0);
+        Div disclaimer = new Div().add(new Paragraph("This statement is provided for information only."));
+
+        PdfFormXObject headerXObject = cache.getFormXObject(header, 300);
+        for (int i = 0; i < 3; i++) {
+            document.add(new Paragraph("Entry " + i));
+            document.add(cache.getImage(disclaimer, 300));
+        }
+        new PdfCanvas(pdfDocument.getFirstPage()).addXObject(headerXObject, 36, 800);
+        document.close();
+
+        PdfDocument result = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        PdfDictionary xObjects = result.getFirstPage().getResources().getResource(PdfName.XObject);
+        Assert.assertEquals(2, xObjects.size());
+        for (PdfName name : xObjects.keySet()) {
+            // the content of the forms is not a part of the structure tree
+            String formContent = new String(xObjects.getAsStream(name).getBytes(), StandardCharsets.ISO_8859_1).trim();
+            Assert.assertTrue(formContent, formContent.startsWith("/Artifact BMC"));
+            Assert.assertTrue(formContent, formContent.endsWith("EMC"));
+        }
+        String pageContent = new String(result.getFirstPage().getContentBytes(), StandardCharsets.ISO_8859_1);
+        Assert.assertEquals(3, pageContent.split("/Artifact BMC\\s*q\\s*[\\d. ]+cm\\s*/\\w+ Do", -1).length - 1);
+        List<String> roles = new ArrayList<>();
+        collectRoles(result.getStructTreeRoot().getKids(), roles);
+        // only the entries are tagged, neither the cached disclaimers nor their images
+        Assert.assertEquals(3, Collections.frequency(roles, "P"));
+        Assert.assertFalse(roles.contains("Figure"));
+        result.close();
+    }
+
+    private static void collectRoles(List<IStructureNode> nodes, List<String> roles) {
+        for (IStructureNode node : nodes) {
+            if (node instanceof PdfStructElem) {
+                roles.add(node.getRole().getValue());
+                collectRoles(node.getKids(), roles);
+            }
+        }
+    }
+}
@@ -44,12 +44,20 @@ package com.itextpdf.layout;
 
 import com.itextpdf.layout.hyphenation.Hyphenation;
 import com.itextpdf.layout.hyphenation.HyphenationConfig;
+import com.itextpdf.layout.hyphenation.Hyphenator;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 @Category(IntegrationTest.class)
 public class HyphenateResultTest extends ExtendedITextTest {
 
@@ -118,6 +126,53 @@ public class HyphenateResultTest extends ExtendedITextTest {
         testHyphenateResult("en", "123456789", null);
     }
 
+    @Test
+    public void memoizedHyphenationTest() {
+        Hyphenation first = Hyphenator.hyphenate("en", null, "honorificabilitudinitatibus", 3, 3);
+        Hyphenation second = Hyphenator.hyphenate("en", null, "honorificabilitudinitatibus", 3, 3);
+        Assert.assertSame(first, second);
+
+        Hyphenation otherLimits = Hyphenator.hyphenate("en", null, "honorificabilitudinitatibus", 5, 5);
+        Assert.assertNotSame(first, otherLimits);
+        Assert.assertArrayEquals(new int[] {5, 6, 9, 11, 13, 15, 19, 21, 22}, otherLimits.getHyphenationPoints());
+
+        Assert.assertNull(Hyphenator.hyphenate("en", null, "123456789", 3, 3));
+        Assert.assertNull(Hyphenator.hyphenate("en", null, "123456789", 3, 3));
+    }
+
+    @Test
+    public void concurrentHyphenationTest() throws Exception {
+        Hyphenator.clearHyphenationTreeCache();
+        final String[] words = {"honorificabilitudinitatibus", "hyphenation", "concurrency", "typography", "justification"};
+        List<String> expected = new ArrayList<>();
+        for (String word : words) {
+            expected.add(String.valueOf(new HyphenationConfig("en", null, 3, 3).hyphenate(word)));
+        }
+        Hyphenator.clearHyphenationTreeCache();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(new Callable<List<String>>() {
+                    @Override
+                    public List<String> call() {
+                        List<String> results = new ArrayList<>();
+                        for (String word : words) {
+                            results.add(String.valueOf(new HyphenationConfig("en", null, 3, 3).hyphenate(word)));
+                        }
+                        return results;
+                    }
+                }));
+            }
+            for (Future<List<String>> future : futures) {
+                Assert.assertEquals(expected, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private void testHyphenateResult(String lang, String testWorld, int[] expectedHyphenatePoints) {
         String[] parts = lang.split("_");
         lang = parts[0];
@@ -43,16 +43,23 @@
 package com.itextpdf.layout;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.image.ImageData;
 import com.itextpdf.io.image.ImageDataFactory;
 import com.itextpdf.io.util.UrlUtil;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDictionary;
 import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
 import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
+import com.itextpdf.kernel.pdf.xobject.PdfXObject;
 import com.itextpdf.kernel.utils.CompareTool;
 import com.itextpdf.layout.borders.SolidBorder;
 import com.itextpdf.layout.element.AreaBreak;
@@ -77,6 +84,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 @Category(IntegrationTest.class)
@@ -920,4 +928,79 @@ public class ImageTest extends ExtendedITextTest {
 
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
     }
+
+    @Test
+    public void imageDeduplicationTest() throws IOException {
+        String outFileName = destinationFolder + "imageDeduplicationTest.pdf";
+        String imageFileName = sourceFolder + "LOGO_PDF_77.jpg";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(outFileName, new WriterProperties().useImageDeduplication()));
+        Document doc = new Document(pdfDoc);
+        for (int i = 0; i < 3; i++) {
+            if (i > 0) {
+                doc.add(new AreaBreak());
+            }
+            doc.add(new Image(ImageDataFactory.create(imageFileName)));
+        }
+        Assert.assertEquals(2, pdfDoc.getImageXObjectCache().getHitCount());
+        doc.close();
+
+        PdfDocument resultDoc = new PdfDocument(new PdfReader(outFileName));
+        PdfObject firstImage = null;
+        for (int i = 1; i <= resultDoc.getNumberOfPages(); i++) {
+            PdfDictionary xObjects = resultDoc.getPage(i).getResources().getResource(PdfName.XObject);
+            Assert.assertEquals(1, xObjects.size());
+            PdfObject image = xObjects.get(xObjects.keySet().iterator().next(), false);
+            if (firstImage == null) {
+                firstImage = image;
+            }
+            Assert.assertEquals(firstImage, image);
+        }
+        resultDoc.close();
+    }
+
+    @Test
+    public void imageDeduplicationCreatesNoDuplicateXObjectTest() throws IOException {
+        String imageFileName = sourceFolder + "LOGO_PDF_77.jpg";
+
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream(), new WriterProperties().useImageDeduplication()));
+        Document doc = new Document(pdfDoc);
+        XObjectTrackingImage[] images = new XObjectTrackingImage[3];
+        for (int i = 0; i < images.length; i++) {
+            images[i] = new XObjectTrackingImage(ImageDataFactory.create(imageFileName));
+            doc.add(images[i]);
+        }
+        // the only image stream is built by the document cache, the elements never create their own XObjects
+        Assert.assertEquals(1, pdfDoc.getImageXObjectCache().getMissCount());
+        Assert.assertEquals(2, pdfDoc.getImageXObjectCache().getHitCount());
+        for (XObjectTrackingImage image : images) {
+            Assert.assertFalse(image.hasXObject());
+            Assert.assertNotNull(image.getImageData());
+        }
+        doc.close();
+    }
+
+    @Test
+    public void imageDataIsReleasedOnXObjectCreationTest() throws IOException {
+        ImageData imageData = ImageDataFactory.create(sourceFolder + "LOGO_PDF_77.jpg");
+        XObjectTrackingImage image = new XObjectTrackingImage(imageData);
+        Assert.assertFalse(image.hasXObject());
+        Assert.assertEquals(imageData.getWidth(), image.getImageWidth(), 0);
+
+        PdfXObject xObject = image.getXObject();
+        Assert.assertTrue(image.hasXObject());
+        Assert.assertNull(image.getImageData());
+        Assert.assertSame(xObject, image.getXObject());
+        Assert.assertEquals(xObject.getWidth(), image.getImageWidth(), 0);
+    }
+
+    private static class XObjectTrackingImage extends Image {
+        XObjectTrackingImage(ImageData img) {
+            super(img);
+        }
+
+        boolean hasXObject() {
+            return xObject != null;
+        }
+    }
 }
@@ -73,6 +73,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 @Category(IntegrationTest.class)
@@ -1087,4 +1088,37 @@ public class LargeElementTest extends ExtendedITextTest {
 
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, testName + "_diff"));
     }
+
+    @Test
+    public void largeTableFlushedRowByRowTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        Document doc = new Document(pdfDoc);
+        TrackingDocumentRenderer renderer = new TrackingDocumentRenderer(doc);
+        doc.setRenderer(renderer);
+
+        Table table = new Table(UnitValue.createPercentArray(3), true);
+        table.addHeaderCell("Header").addHeaderCell("Header").addHeaderCell("Header");
+        table.addFooterCell("Footer").addFooterCell("Footer").addFooterCell("Footer");
+        doc.add(table);
+        for (int i = 0; i < 500; i++) {
+            table.addCell("Cell " + i).addCell("Cell " + i).addCell("Cell " + i);
+            table.flush();
+            // Only the last flushed row is kept for border resolution
+            Assert.assertTrue(table.getNumberOfRows() <= 1);
+        }
+        table.complete();
+        Assert.assertTrue(pdfDoc.getNumberOfPages() > 1);
+        Assert.assertEquals(0, renderer.getWrappedContentPageCount());
+        doc.close();
+    }
+
+    private static class TrackingDocumentRenderer extends DocumentRenderer {
+        public TrackingDocumentRenderer(Document document) {
+            super(document);
+        }
+
+        int getWrappedContentPageCount() {
+            return wrappedContentPage.size();
+        }
+    }
 }
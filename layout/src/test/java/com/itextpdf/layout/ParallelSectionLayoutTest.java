@@ -0,0 +1,292 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.layout;
+
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDictionary;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfIndirectReference;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfObject;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.property.AreaBreakType;
+import com.itextpdf.layout.property.TextAlignment;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+@Category(IntegrationTest.class)
+public class ParallelSectionLayoutTest extends ExtendedITextTest {
+
+    public static final String fontsFolder = "./src/test/resources/com/itextpdf/layout/fonts/";
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @Test
+    public void sectionsAreStitchedInOrderTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        pdfDocument.setDefaultPageSize(PageSize.A5);
+        Document document = new Document(pdfDocument);
+        document.add(new Paragraph("Cover"));
+
+        ParallelSectionLayout sectionLayout = new ParallelSectionLayout(pdfDocument).setThreadCount(4);
+        int sectionCount = 12;
+        for (int i = 0; i < sectionCount; i++) {
+            sectionLayout.addSection(new StatementSection(i, 1 + i % 3));
+        }
+        sectionLayout.layout();
+
+        int expectedPage = 2;
+        for (int i = 0; i < sectionCount; i++) {
+            Assert.assertEquals(expectedPage, sectionLayout.getSectionStartPage(i));
+            expectedPage += 1 + i % 3;
+        }
+        Assert.assertEquals(expectedPage - 1, pdfDocument.getNumberOfPages());
+        document.add(new AreaBreak(AreaBreakType.LAST_PAGE));
+        document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
+        document.add(new Paragraph("Back cover"));
+        document.close();
+
+        PdfDocument result = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertEquals(expectedPage, result.getNumberOfPages());
+        Assert.assertEquals("Cover", PdfTextExtractor.getTextFromPage(result.getPage(1)));
+        Assert.assertEquals("Back cover", PdfTextExtractor.getTextFromPage(result.getPage(expectedPage)));
+        int page = 2;
+        for (int i = 0; i < sectionCount; i++) {
+            for (int j = 0; j < 1 + i % 3; j++, page++) {
+                Assert.assertEquals(PageSize.A5.getHeight(), result.getPage(page).getPageSize().getHeight(), 1e-4f);
+                Assert.assertTrue(PdfTextExtractor.getTextFromPage(result.getPage(page)).startsWith("Section " + i + ", page " + (j + 1)));
+            }
+        }
+        result.close();
+    }
+
+    @Test
+    public void failedSectionTest() throws IOException {
+        junitExpectedException.expect(IllegalStateException.class);
+        junitExpectedException.expectMessage("Section 3 failed");
+
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        ParallelSectionLayout sectionLayout = new ParallelSectionLayout(pdfDocument).setThreadCount(2);
+        for (int i = 0; i < 6; i++) {
+            final int sectionNumber = i;
+            sectionLayout.addSection(new ParallelSectionLayout.ISection() {
+                @Override
+                public void addContent(Document document) {
+                    if (sectionNumber == 3) {
+                        throw new IllegalStateException("Section 3 failed");
+                    }
+                    document.add(new Paragraph("Section " + sectionNumber));
+                }
+            });
+        }
+        sectionLayout.layout();
+    }
+
+    @Test
+    public void pageNumbersAreGlobalTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+        Document document = new Document(pdfDocument);
+        document.add(new Paragraph("Cover"));
+
+        ParallelSectionLayout sectionLayout = new ParallelSectionLayout(pdfDocument).setThreadCount(3);
+        int sectionCount = 7;
+        for (int i = 0; i < sectionCount; i++) {
+            sectionLayout.addSection(new StatementSection(i, 1 + i % 3));
+        }
+        final List<Integer> pageSections = new ArrayList<>();
+        sectionLayout.setPageHandler(new ParallelSectionLayout.IPageHandler() {
+            @Override
+            public void handlePage(PdfPage page, int pageNumber, int sectionIndex) {
+                Assert.assertEquals(pageSections.size() + 2, pageNumber);
+                pageSections.add(sectionIndex);
+                new Canvas(new PdfCanvas(page), pdfDocument, page.getPageSize())
+                        .showTextAligned("Page " + pageNumber + " of " + pdfDocument.getNumberOfPages(), 36, 36, TextAlignment.LEFT);
+            }
+        });
+        sectionLayout.layout();
+        document.close();
+
+        PdfDocument result = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        int pageCount = result.getNumberOfPages();
+        Assert.assertEquals(pageCount - 1, pageSections.size());
+        for (int page = 2; page <= pageCount; page++) {
+            int sectionIndex = (int) pageSections.get(page - 2);
+            Assert.assertTrue(sectionLayout.getSectionStartPage(sectionIndex) <= page);
+            String text = PdfTextExtractor.getTextFromPage(result.getPage(page));
+            Assert.assertTrue(text, text.startsWith("Section " + sectionIndex + ", page " + (page - sectionLayout.getSectionStartPage(sectionIndex) + 1)));
+            Assert.assertTrue(text, text.endsWith("Page " + page + " of " + pageCount));
+        }
+        result.close();
+    }
+
+    @Test
+    public void sharedTrueTypeFontAcrossThreadsTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+
+        ParallelSectionLayout sectionLayout = new ParallelSectionLayout(pdfDocument).setThreadCount(4)
+                .addSharedFont(PdfFontFactory.createFont(fontsFolder + "FreeSans.ttf", PdfEncodings.IDENTITY_H));
+        final String[] texts = {"Alpha beta gamma", "Quick brown fox", "Jumps over the lazy dog",
+                "\u00C4rger \u00FCber \u00D6l", "Zw\u00F6lf Boxk\u00E4mpfer", "0123456789", "Kilo Lima Mike", "xyzzy"};
+        for (int i = 0; i < texts.length; i++) {
+            final String text = texts[i];
+            sectionLayout.addSection(new ParallelSectionLayout.ISection() {
+                @Override
+                public void addContent(Document document) {
+                    try {
+                        // every section embeds its own subset of the font program shared between the threads
+                        document.setFont(PdfFontFactory.createFont(fontsFolder + "FreeSans.ttf", PdfEncodings.IDENTITY_H));
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                    document.add(new Paragraph(text));
+                }
+            });
+        }
+        sectionLayout.layout();
+        pdfDocument.close();
+
+        PdfDocument result = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertEquals(texts.length, result.getNumberOfPages());
+        Set<PdfIndirectReference> fonts = new HashSet<>();
+        for (int page = 1; page <= texts.length; page++) {
+            PdfDictionary pageFonts = result.getPage(page).getResources().getResource(PdfName.Font);
+            for (PdfName name : pageFonts.keySet()) {
+                fonts.add(pageFonts.get(name, false).getIndirectReference());
+            }
+            Assert.assertEquals(texts[page - 1], PdfTextExtractor.getTextFromPage(result.getPage(page)));
+        }
+        Assert.assertEquals(1, fonts.size());
+        int embeddedFontFiles = 0;
+        for (int i = 1; i < result.getNumberOfPdfObjects(); i++) {
+            PdfObject object = result.getPdfObject(i);
+            if (object instanceof PdfDictionary && ((PdfDictionary) object).containsKey(PdfName.FontFile2)) {
+                embeddedFontFiles++;
+            }
+        }
+        Assert.assertEquals(1, embeddedFontFiles);
+        result.close();
+    }
+
+    @Test
+    public void sharedFontKeepsGlyphsOfDefaultWidthTest() throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        PdfDocument pdfDocument = new PdfDocument(new PdfWriter(baos));
+
+        ParallelSectionLayout sectionLayout = new ParallelSectionLayout(pdfDocument)
+                .addSharedFont(PdfFontFactory.createFont(fontsFolder + "FreeSans.ttf", PdfEncodings.IDENTITY_H));
+        // the em dash of FreeSans is 1000 units wide, so the section font doesn't list it in /W
+        final String text = "one\u2014two";
+        sectionLayout.addSection(new ParallelSectionLayout.ISection() {
+            @Override
+            public void addContent(Document document) {
+                try {
+                    document.setFont(PdfFontFactory.createFont(fontsFolder + "FreeSans.ttf", PdfEncodings.IDENTITY_H));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+                document.add(new Paragraph(text));
+            }
+        });
+        sectionLayout.layout();
+        pdfDocument.close();
+
+        PdfDocument result = new PdfDocument(new PdfReader(new ByteArrayInputStream(baos.toByteArray())));
+        PdfDictionary pageFonts = result.getPage(1).getResources().getResource(PdfName.Font);
+        Assert.assertEquals(1, pageFonts.size());
+        // the ToUnicode CMap of the merged font is written for the same glyphs as its subset
+        PdfFont mergedFont = result.getFont(pageFonts.getAsDictionary(pageFonts.keySet().iterator().next()));
+        Glyph emDash = mergedFont.getFontProgram().getGlyph(0x2014);
+        Assert.assertNotNull(emDash);
+        Assert.assertEquals(1000, emDash.getWidth());
+        Assert.assertEquals(text, PdfTextExtractor.getTextFromPage(result.getPage(1)));
+        result.close();
+    }
+
+    private static class StatementSection implements ParallelSectionLayout.ISection {
+        private final int number;
+        private final int pageCount;
+
+        StatementSection(int number, int pageCount) {
+            this.number = number;
+            this.pageCount = pageCount;
+        }
+
+        @Override
+        public void addContent(Document document) {
+            for (int i = 1; i <= pageCount; i++) {
+                if (i > 1) {
+                    document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
+                }
+                document.add(new Paragraph("Section " + number + ", page " + i));
+            }
+        }
+    }
+}
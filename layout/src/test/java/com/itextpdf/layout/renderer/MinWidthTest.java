@@ -61,12 +61,14 @@ import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.element.Text;
 import com.itextpdf.layout.minmaxwidth.MinMaxWidth;
 import com.itextpdf.layout.minmaxwidth.MinMaxWidthUtils;
+import com.itextpdf.layout.property.Property;
 import com.itextpdf.layout.property.UnitValue;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.LogMessage;
 import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 import org.junit.Assert;
@@ -80,6 +82,8 @@ public class MinWidthTest extends ExtendedITextTest {
     public static final String sourceFolder = "./src/test/resources/com/itextpdf/layout/MinWidthTest/";
     public static final String destinationFolder = "./target/test/com/itextpdf/layout/MinWidthTest/";
 
+    private static final float EPS = 1e-4f;
+
     @BeforeClass
     public static void beforeClass() {
         createDestinationFolder(destinationFolder);
@@ -474,6 +478,52 @@ public class MinWidthTest extends ExtendedITextTest {
         Assert.assertNull(new CompareTool().compareByContent(outFileName, cmpFileName, destinationFolder, "diff"));
     }
 
+    @Test
+    public void memoizedMinMaxWidthTest() {
+        Document doc = new Document(new PdfDocument(new PdfWriter(new ByteArrayOutputStream())));
+        Div div = new Div().add(new Paragraph("Hello. I am a fairly long paragraph."));
+        AbstractRenderer renderer = (AbstractRenderer) div.createRendererSubTree().setParent(doc.getRenderer());
+
+        MinMaxWidth first = renderer.retrieveMinMaxWidth();
+        MinMaxWidth second = renderer.retrieveMinMaxWidth();
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(first.getMinWidth(), second.getMinWidth(), EPS);
+        Assert.assertEquals(first.getMaxWidth(), second.getMaxWidth(), EPS);
+
+        // Modifying the returned instance must not affect the memoized value
+        first.setChildrenMaxWidth(0);
+        Assert.assertEquals(second.getMaxWidth(), renderer.retrieveMinMaxWidth().getMaxWidth(), EPS);
+
+        // An inherited property set on the parent changes the width of its children
+        renderer.setProperty(Property.FONT_SIZE, UnitValue.createPointValue(24));
+        MinMaxWidth enlarged = renderer.retrieveMinMaxWidth();
+        Assert.assertTrue(enlarged.getMaxWidth() > second.getMaxWidth());
+        Assert.assertEquals(renderer.getMinMaxWidth().getMaxWidth(), enlarged.getMaxWidth(), EPS);
+
+        // So does new content
+        ((AbstractRenderer) renderer.getChildRenderers().get(0)).addChild(new TextRenderer(new Text(" And a bit longer.")));
+        Assert.assertTrue(renderer.retrieveMinMaxWidth().getMaxWidth() > enlarged.getMaxWidth());
+        doc.add(div);
+        doc.close();
+    }
+
+    @Test
+    public void nestedTablesMinMaxWidthTest() {
+        Document doc = new Document(new PdfDocument(new PdfWriter(new ByteArrayOutputStream())));
+        int[] measurements = new int[1];
+        Cell innermostCell = new Cell().add(new Paragraph("innermost"));
+        innermostCell.setNextRenderer(new CountingCellRenderer(innermostCell, measurements));
+        Table table = new Table(1).addCell(innermostCell);
+        for (int i = 0; i < 6; i++) {
+            table = new Table(2).addCell(new Cell().add(table)).addCell("level " + i);
+        }
+        doc.add(table);
+        doc.close();
+
+        // Without memoization each enclosing table would measure the innermost cell once again
+        Assert.assertTrue("Innermost cell was measured " + measurements[0] + " times", measurements[0] <= 2);
+    }
+
     private static float toEffectiveWidth(IBlockElement b, float fullWidth) {
         if (b instanceof Table) {
             return fullWidth + ((Table) b).getNumberOfColumns() * MinMaxWidthUtils.getEps();
@@ -490,4 +540,24 @@ public class MinWidthTest extends ExtendedITextTest {
         }
         return result;
     }
+
+    private static class CountingCellRenderer extends CellRenderer {
+        private final int[] measurements;
+
+        CountingCellRenderer(Cell modelElement, int[] measurements) {
+            super(modelElement);
+            this.measurements = measurements;
+        }
+
+        @Override
+        protected MinMaxWidth getMinMaxWidth() {
+            measurements[0]++;
+            return super.getMinMaxWidth();
+        }
+
+        @Override
+        public IRenderer getNextRenderer() {
+            return new CountingCellRenderer((Cell) getModelElement(), measurements);
+        }
+    }
 }
@@ -43,6 +43,11 @@
 package com.itextpdf.layout.renderer;
 
 import com.itextpdf.io.LogMessageConstant;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.io.font.otf.Glyph;
+import com.itextpdf.io.font.otf.GlyphLine;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
@@ -61,6 +66,7 @@ import com.itextpdf.test.annotations.LogMessages;
 import com.itextpdf.test.annotations.type.UnitTest;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -130,4 +136,100 @@ public class TextRendererTest extends ExtendedITextTest {
         doc.add(new Paragraph().add(txt));
         doc.close();
     }
+
+    @Test
+    public void repeatedTextRunsReuseCachedGlyphLinesTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        Document doc = new Document(pdfDoc);
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        for (int i = 0; i < 10; i++) {
+            doc.add(new Paragraph("Repeated label").setFont(font));
+        }
+        GlyphLineCache cache = doc.getRenderer().getGlyphLineCache();
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertTrue(cache.getHitCount() >= 9);
+        doc.close();
+    }
+
+    @Test
+    public void repeatedTextRunsReuseCachedFontRunsTest() {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        pdfDoc.addNewPage();
+        Document doc = new Document(pdfDoc);
+        FontProvider fontProvider = new FontProvider();
+        fontProvider.addStandardPdfFonts();
+        doc.setFontProvider(fontProvider);
+        doc.setFont(StandardFonts.TIMES_ROMAN);
+        float[] widths = new float[2];
+        for (int i = 0; i < widths.length; i++) {
+            Paragraph paragraph = new Paragraph("Repeated label");
+            ParagraphRenderer renderer = (ParagraphRenderer) paragraph.createRendererSubTree().setParent(doc.getRenderer());
+            renderer.layout(new LayoutContext(new LayoutArea(1, new Rectangle(500, 500))));
+            widths[i] = renderer.getLines().get(0).getOccupiedArea().getBBox().getWidth();
+        }
+        GlyphLineCache cache = doc.getRenderer().getGlyphLineCache();
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(widths[0], widths[1], 1e-4f);
+        doc.close();
+    }
+
+    @Test
+    public void glyphLineCacheReturnsIndependentLinesTest() throws IOException {
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        GlyphLineCache cache = new GlyphLineCache();
+        cache.getGlyphLine("abc", font);
+        GlyphLine first = cache.getGlyphLine("abc", font);
+        first.set(0, new Glyph(first.get(1)));
+        first.add(font.getGlyph('d'));
+        GlyphLine second = cache.getGlyphLine("abc", font);
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals("abc", second.toString());
+        // the glyphs are not modified in place, so they are shared with the font
+        Assert.assertSame(font.getGlyph('c'), second.get(2));
+    }
+
+    @Test
+    public void glyphLineCacheCanBeDisabledTest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(new ByteArrayOutputStream()));
+        Document doc = new Document(pdfDoc);
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        doc.add(new Paragraph("Repeated label").setFont(font));
+        Assert.assertTrue(doc.getRenderer().isGlyphLineCacheEnabled());
+        Assert.assertEquals(1, doc.getRenderer().getGlyphLineCache().size());
+
+        doc.getRenderer().setGlyphLineCacheEnabled(false);
+        doc.add(new Paragraph("Repeated label").setFont(font));
+        Assert.assertNull(doc.getRenderer().getGlyphLineCache());
+
+        doc.getRenderer().setGlyphLineCacheEnabled(true);
+        doc.add(new Paragraph("Repeated label").setFont(font));
+        GlyphLineCache cache = doc.getRenderer().getGlyphLineCache();
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(0, cache.getHitCount());
+        doc.close();
+    }
+
+    @Test
+    public void glyphLineCacheIsBoundedTest() throws IOException {
+        PdfFont font = PdfFontFactory.createFont(StandardFonts.HELVETICA);
+        GlyphLineCache cache = new GlyphLineCache(2);
+        cache.getGlyphLine("a", font);
+        cache.getGlyphLine("b", font);
+        cache.getGlyphLine("a", font);
+        cache.getGlyphLine("c", font);
+        Assert.assertEquals(2, cache.size());
+        cache.getGlyphLine("a", font);
+        Assert.assertEquals(2, cache.getHitCount());
+
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i <= GlyphLineCache.MAX_TEXT_LENGTH; i++) {
+            longText.append('x');
+        }
+        cache.getGlyphLine(longText.toString(), font);
+        cache.getGlyphLine(longText.toString(), font);
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(3, cache.getMissCount());
+    }
 }
@@ -219,6 +219,21 @@ public class PdfADocument extends PdfDocument {
         return checker.getConformanceLevel();
     }
 
+    /**
+     * Sets whether the PDF/A checker forgets the objects it has checked as soon as they are flushed.
+     * In this mode the page level checks are finished when a page is flushed along with its resources,
+     * see {@link PdfPage#flush(boolean)}, and the memory consumed by the checker doesn't grow with the number
+     * of flushed pages. See {@link PdfAChecker#setIncrementalValidation(boolean)} for more details.
+     * This method shall be called before any objects are flushed.
+     * Default value - <i>false</i>.
+     *
+     * @param incrementalValidation should be true to forget the checked objects when they are flushed
+     */
+    public void setIncrementalValidation(boolean incrementalValidation) {
+        checkClosingStatus();
+        checker.setIncrementalValidation(incrementalValidation);
+    }
+
     @Override
     protected void addCustomMetadataExtensions(XMPMeta xmpMeta) {
         if (this.isTagged()) {
@@ -258,6 +273,7 @@ public class PdfADocument extends PdfDocument {
         markObjectAsMustBeFlushed(pdfObject);
         if (isClosing || checker.objectIsChecked(pdfObject)) {
             super.flushObject(pdfObject, canBeInObjStm);
+            checker.releaseFlushedObject(pdfObject);
         } else {
             //suppress the call
             //TODO log unsuccessful call
@@ -268,7 +268,7 @@ public class PdfA1Checker extends PdfAChecker {
     protected void checkImage(PdfStream image, PdfDictionary currentColorSpaces) {
         PdfColorSpace colorSpace = null;
         if (isAlreadyChecked(image)) {
-            colorSpace = checkedObjectsColorspace.get(image);
+            colorSpace = getCheckedColorSpace(image);
             checkColorSpace(colorSpace, currentColorSpaces, true, null);
             return;
         }
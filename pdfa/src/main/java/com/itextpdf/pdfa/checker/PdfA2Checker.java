@@ -680,7 +680,7 @@ public class PdfA2Checker extends PdfA1Checker {
     protected void checkImage(PdfStream image, PdfDictionary currentColorSpaces) {
         PdfColorSpace colorSpace = null;
         if (isAlreadyChecked(image)) {
-            colorSpace = checkedObjectsColorspace.get(image);
+            colorSpace = getCheckedColorSpace(image);
             checkColorSpace(colorSpace, currentColorSpaces, true, null);
             return;
         }
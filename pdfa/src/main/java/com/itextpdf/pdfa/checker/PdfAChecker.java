@@ -59,6 +59,7 @@ import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.PdfString;
 import com.itextpdf.kernel.pdf.canvas.CanvasGraphicsState;
+import com.itextpdf.kernel.pdf.colorspace.PdfCieBasedCs;
 import com.itextpdf.kernel.pdf.colorspace.PdfColorSpace;
 
 import java.io.Serializable;
@@ -148,6 +149,8 @@ public abstract class PdfAChecker implements Serializable {
     protected Set<PdfObject> checkedObjects = new HashSet<>();
     protected Map<PdfObject, PdfColorSpace> checkedObjectsColorspace = new HashMap<>();
 
+    private boolean incrementalValidation = false;
+
     protected PdfAChecker(PdfAConformanceLevel conformanceLevel) {
         this.conformanceLevel = conformanceLevel;
     }
@@ -232,6 +235,48 @@ public abstract class PdfAChecker implements Serializable {
         return checkedObjects.contains(object);
     }
 
+    /**
+     * Switches the incremental validation mode on or off. In this mode an object is forgotten by the checker as soon
+     * as it is flushed, see {@link #releaseFlushedObject(PdfObject)}, and every flushed object is considered to be
+     * already checked, since an object can't be flushed before it is checked. Of a flushed image only the color space
+     * is remembered, because it is checked again in the context of every page the image is used on. This way the
+     * memory consumed by the checker doesn't grow with the number of flushed pages.
+     * The mode shall be switched on before any objects are flushed.
+     * Default value - <i>false</i>.
+     *
+     * @param incrementalValidation should be true to forget the checked objects when they are flushed
+     */
+    public void setIncrementalValidation(boolean incrementalValidation) {
+        this.incrementalValidation = incrementalValidation;
+    }
+
+    /**
+     * Checks if the incremental validation mode is on, see {@link #setIncrementalValidation(boolean)}.
+     *
+     * @return true if the checked objects are forgotten when they are flushed
+     */
+    public boolean isIncrementalValidation() {
+        return incrementalValidation;
+    }
+
+    /**
+     * Forgets an object that has just been flushed, if the incremental validation mode is on.
+     * If the object is an image, its color space is kept, unless it is CIE-based and thus doesn't
+     * depend on the context the image is used in.
+     *
+     * @param object the flushed object
+     */
+    public void releaseFlushedObject(PdfObject object) {
+        if (!incrementalValidation) {
+            return;
+        }
+        checkedObjects.remove(object);
+        PdfColorSpace colorSpace = checkedObjectsColorspace.remove(object);
+        if (colorSpace != null && !(colorSpace instanceof PdfCieBasedCs) && object.getIndirectReference() != null) {
+            checkedObjectsColorspace.put(object.getIndirectReference(), colorSpace);
+        }
+    }
+
     /**
      * This method checks compliance of the tag structure elements, such as struct elements
      * or parent tree entries.
@@ -390,13 +435,28 @@ public abstract class PdfAChecker implements Serializable {
     }
 
     protected boolean isAlreadyChecked(PdfDictionary dictionary) {
-        if (checkedObjects.contains(dictionary)) {
+        if (checkedObjects.contains(dictionary) || incrementalValidation && dictionary.isFlushed()) {
             return true;
         }
         checkedObjects.add(dictionary);
         return false;
     }
 
+    /**
+     * Gets the color space an image was checked with, also if the image has been already flushed
+     * in the incremental validation mode.
+     *
+     * @param image the checked image
+     * @return the color space of the image or null if it is unknown
+     */
+    protected PdfColorSpace getCheckedColorSpace(PdfStream image) {
+        PdfColorSpace colorSpace = checkedObjectsColorspace.get(image);
+        if (colorSpace == null && incrementalValidation && image.isFlushed()) {
+            colorSpace = checkedObjectsColorspace.get(image.getIndirectReference());
+        }
+        return colorSpace;
+    }
+
     protected void checkResourcesOfAppearanceStreams(PdfDictionary appearanceStreamsDict) {
         for (PdfObject val : appearanceStreamsDict.values()) {
             if (val instanceof PdfDictionary) {
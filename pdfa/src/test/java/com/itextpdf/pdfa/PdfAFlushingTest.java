@@ -56,14 +56,19 @@ import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfStream;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.colorspace.PdfCieBasedCs;
 import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
 import com.itextpdf.kernel.utils.CompareTool;
+import com.itextpdf.pdfa.checker.PdfA2Checker;
 import com.itextpdf.test.ITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
 
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -81,6 +86,9 @@ public class PdfAFlushingTest extends ITextTest{
         createOrClearDestinationFolder(destinationFolder);
     }
 
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
     @Test
     public void flushingTest01() throws IOException, InterruptedException {
         String outPdf = destinationFolder + "pdfA1b_flushingTest01.pdf";
@@ -182,10 +190,101 @@ public class PdfAFlushingTest extends ITextTest{
         compareResult(outPdf, cmpPdf);
     }
 
+    @Test
+    public void incrementalValidationTest() throws IOException {
+        String outPdf = destinationFolder + "pdfA2b_incrementalValidationTest.pdf";
+
+        InputStream is = new FileInputStream(sourceFolder + "sRGB Color Space Profile.icm");
+        PdfADocument doc = new PdfADocument(new PdfWriter(outPdf), PdfAConformanceLevel.PDF_A_2B, new PdfOutputIntent("Custom", "", "http://www.color.org", "sRGB IEC61966-2.1", is)) {
+            @Override
+            protected void setChecker(PdfAConformanceLevel conformanceLevel) {
+                checker = new CountingPdfA2Checker(conformanceLevel);
+            }
+        };
+        doc.setIncrementalValidation(true);
+        CountingPdfA2Checker checker = (CountingPdfA2Checker) doc.checker;
+
+        PdfImageXObject sharedImage = new PdfImageXObject(ImageDataFactory.create(sourceFolder + "Desert.jpg"));
+        int checkedObjectsAfterFirstPage = 0;
+        for (int i = 0; i < 20; i++) {
+            PdfPage page = doc.addNewPage();
+            PdfCanvas canvas = new PdfCanvas(page);
+            canvas.addXObject(sharedImage, new Rectangle(30, 300, 300, 300));
+            canvas.setFillColorRgb(0.1f, 0.2f, 0.3f).rectangle(30, 30 + i, 100, 100).fill();
+            page.flush(true);
+            if (i == 0) {
+                checkedObjectsAfterFirstPage = checker.getCheckedObjectsCount();
+            } else {
+                assertEquals(checkedObjectsAfterFirstPage, checker.getCheckedObjectsCount());
+            }
+        }
+        doc.close();
+
+        PdfDocument resultDocument = new PdfDocument(new PdfReader(outPdf));
+        assertEquals(20, resultDocument.getNumberOfPages());
+        resultDocument.close();
+    }
+
+    @Test
+    public void incrementalValidationFlushedImageInDefaultColorSpaceContextTest() throws IOException {
+        PdfADocument doc = new PdfADocument(new PdfWriter(new ByteArrayOutputStream()), PdfAConformanceLevel.PDF_A_2B, null);
+        doc.setIncrementalValidation(true);
+
+        PdfImageXObject image = new PdfImageXObject(ImageDataFactory.create(sourceFolder + "Desert.jpg"));
+        for (int i = 0; i < 2; i++) {
+            PdfPage page = doc.addNewPage();
+            PdfCanvas canvas = new PdfCanvas(page);
+            canvas.getResources().setDefaultRgb(createCalRgb());
+            canvas.addXObject(image, new Rectangle(30, 300, 300, 300));
+            page.flush(true);
+        }
+        doc.close();
+    }
+
+    @Test
+    public void incrementalValidationFlushedImageWithoutDefaultColorSpaceTest() throws IOException {
+        junitExpectedException.expect(PdfAConformanceException.class);
+        junitExpectedException.expectMessage(PdfAConformanceException.IF_DEVICE_RGB_CMYK_GRAY_USED_IN_FILE_THAT_FILE_SHALL_CONTAIN_PDFA_OUTPUTINTENT_OR_DEFAULT_RGB_CMYK_GRAY_IN_USAGE_CONTEXT);
+
+        PdfADocument doc = new PdfADocument(new PdfWriter(new ByteArrayOutputStream()), PdfAConformanceLevel.PDF_A_2B, null);
+        doc.setIncrementalValidation(true);
+
+        PdfImageXObject image = new PdfImageXObject(ImageDataFactory.create(sourceFolder + "Desert.jpg"));
+        PdfPage page = doc.addNewPage();
+        PdfCanvas canvas = new PdfCanvas(page);
+        canvas.getResources().setDefaultRgb(createCalRgb());
+        canvas.addXObject(image, new Rectangle(30, 300, 300, 300));
+        page.flush(true);
+
+        // the image is already flushed, but it still shall be checked in the context of the second page
+        page = doc.addNewPage();
+        new PdfCanvas(page).addXObject(image, new Rectangle(30, 300, 300, 300));
+        page.flush(true);
+
+        doc.close();
+    }
+
+    private static PdfCieBasedCs.CalRgb createCalRgb() {
+        float[] whitePoint = {0.9505f, 1f, 1.089f};
+        float[] gamma = {2.2f, 2.2f, 2.2f};
+        float[] matrix = {0.4124f, 0.2126f, 0.0193f, 0.3576f, 0.7152f, 0.1192f, 0.1805f, 0.0722f, 0.9505f};
+        return new PdfCieBasedCs.CalRgb(whitePoint, null, gamma, matrix);
+    }
+
     private void compareResult(String outFile, String cmpFile) throws IOException, InterruptedException {
         String differences = new CompareTool().compareByContent(outFile, cmpFile, destinationFolder, "diff_");
         if (differences != null) {
             fail(differences);
         }
     }
+
+    private static class CountingPdfA2Checker extends PdfA2Checker {
+        CountingPdfA2Checker(PdfAConformanceLevel conformanceLevel) {
+            super(conformanceLevel);
+        }
+
+        int getCheckedObjectsCount() {
+            return checkedObjects.size() + checkedObjectsColorspace.size();
+        }
+    }
 }
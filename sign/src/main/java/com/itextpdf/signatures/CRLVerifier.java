@@ -156,6 +156,8 @@ public class CRLVerifier extends RootStoreVerifier {
             if (crlurl == null)
                 return null;
             LOGGER.info("Getting CRL from " + crlurl);
+            if (certificateStatusCache != null)
+                return certificateStatusCache.fetchCrl(crlurl);
             return (X509CRL) SignUtils.parseCrlFromStream(new URL(crlurl).openStream());
         }
         catch(IOException e) {
@@ -175,12 +177,9 @@ public class CRLVerifier extends RootStoreVerifier {
     public boolean isSignatureValid(X509CRL crl, X509Certificate crlIssuer) {
         // check if the CRL was issued by the issuer
         if (crlIssuer != null) {
-            try {
-                crl.verify(crlIssuer.getPublicKey());
+            if (isCrlSignedBy(crl, crlIssuer))
                 return true;
-            } catch (GeneralSecurityException e) {
-                LOGGER.warn("CRL not issued by the same authority as the certificate that is being checked");
-            }
+            LOGGER.warn("CRL not issued by the same authority as the certificate that is being checked");
         }
         // check the CRL against trusted anchors
         if (rootStore == null)
@@ -188,13 +187,9 @@ public class CRLVerifier extends RootStoreVerifier {
         try {
             // loop over the certificate in the key store
             for (X509Certificate anchor : SignUtils.getCertificates(rootStore)) {
-                try {
-                    // check if the crl was signed by a trusted party (indirect CRLs)
-                    crl.verify(anchor.getPublicKey());
+                // check if the crl was signed by a trusted party (indirect CRLs)
+                if (isCrlSignedBy(crl, anchor))
                     return true;
-                } catch (GeneralSecurityException e) {
-                    continue;
-                }
             }
         }
         catch (GeneralSecurityException e) {
@@ -202,4 +197,15 @@ public class CRLVerifier extends RootStoreVerifier {
         }
         return false;
     }
+
+    private boolean isCrlSignedBy(X509CRL crl, X509Certificate signer) {
+        if (certificateStatusCache != null)
+            return certificateStatusCache.isCrlSignatureValid(crl, signer);
+        try {
+            crl.verify(signer.getPublicKey());
+            return true;
+        } catch (GeneralSecurityException e) {
+            return false;
+        }
+    }
 }
@@ -0,0 +1,374 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures;
+
+import org.bouncycastle.cert.ocsp.BasicOCSPResp;
+import org.bouncycastle.cert.ocsp.OCSPException;
+import org.bouncycastle.cert.ocsp.OCSPResp;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.cert.CRL;
+import java.security.cert.Certificate;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of parsed revocation data and of the results of expensive signature checks made while verifying
+ * certificates: parsed CRLs and OCSP responses, CRLs fetched online, and successful verifications of certificates,
+ * CRLs and OCSP responses against the public keys of their issuers.
+ * <p>
+ * One instance can be shared between many {@link LtvVerifier} and {@link CertificateVerifier} instances, also across
+ * threads, see {@link CertificateVerifier#setCertificateStatusCache(CertificateStatusCache)}. The least recently used
+ * entries are evicted when the cache is full, and every entry expires after the time to live; a CRL fetched online
+ * also expires at its next update. Only successful checks are cached, so a failing check is repeated every time.
+ */
+public class CertificateStatusCache {
+
+    /**
+     * The default maximum number of entries.
+     */
+    public static final int DEFAULT_MAX_SIZE = 4096;
+
+    /**
+     * The default time to live of an entry, one hour.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE = 60L * 60 * 1000;
+
+    private static final Object NO_RESPONSE = new Object();
+
+    private final int maxSize;
+    private final long timeToLive;
+    private final Map<Object, CacheEntry> entries;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Creates a cache with the default maximum size and time to live.
+     */
+    public CertificateStatusCache() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maxSize    the maximum number of entries, must be positive
+     * @param timeToLive the time in milliseconds after which an entry expires, must be positive
+     */
+    public CertificateStatusCache(int maxSize, long timeToLive) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize");
+        }
+        if (timeToLive < 1) {
+            throw new IllegalArgumentException("timeToLive");
+        }
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<Object, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest) {
+                return size() > CertificateStatusCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Parses an encoded CRL, or returns the CRL parsed from the same bytes before.
+     *
+     * @param encoded the DER encoded CRL
+     * @return the CRL
+     * @throws GeneralSecurityException if the CRL cannot be parsed
+     */
+    public X509CRL parseCrl(byte[] encoded) throws GeneralSecurityException {
+        Object key = new CacheKey("crl", fingerprint(encoded));
+        X509CRL crl = (X509CRL) get(key);
+        if (crl == null) {
+            crl = (X509CRL) SignUtils.parseCrlFromStream(new ByteArrayInputStream(encoded));
+            put(key, crl, timeToLive);
+        }
+        return crl;
+    }
+
+    /**
+     * Parses an encoded OCSP response, or returns the response parsed from the same bytes before.
+     *
+     * @param encoded the encoded OCSP response
+     * @return the basic OCSP response, or null if the response status is not successful
+     * @throws IOException if the response cannot be parsed
+     * @throws GeneralSecurityException if the response object cannot be read
+     */
+    public BasicOCSPResp parseOcspResponse(byte[] encoded) throws IOException, GeneralSecurityException {
+        Object key = new CacheKey("ocsp", fingerprint(encoded));
+        Object response = get(key);
+        if (response == null) {
+            OCSPResp ocspResponse = new OCSPResp(encoded);
+            response = NO_RESPONSE;
+            if (ocspResponse.getStatus() == 0) {
+                try {
+                    response = ocspResponse.getResponseObject();
+                } catch (OCSPException e) {
+                    throw new GeneralSecurityException(e.toString());
+                }
+            }
+            put(key, response, timeToLive);
+        }
+        return response == NO_RESPONSE ? null : (BasicOCSPResp) response;
+    }
+
+    /**
+     * Fetches a CRL online, or returns the CRL fetched from the same URL before if it is not yet expired.
+     *
+     * @param url the URL of the CRL
+     * @return the CRL, or null if the url is null
+     * @throws IOException if the CRL cannot be fetched
+     * @throws GeneralSecurityException if the CRL cannot be parsed
+     */
+    public X509CRL fetchCrl(String url) throws IOException, GeneralSecurityException {
+        if (url == null) {
+            return null;
+        }
+        Object key = new CacheKey("crlUrl", url);
+        X509CRL crl = (X509CRL) get(key);
+        if (crl == null) {
+            crl = (X509CRL) CertificateUtil.getCRL(url);
+            long crlTimeToLive = timeToLive;
+            if (crl.getNextUpdate() != null) {
+                crlTimeToLive = Math.min(timeToLive, crl.getNextUpdate().getTime() - getCurrentTimeMillis());
+            }
+            if (crlTimeToLive > 0) {
+                put(key, crl, crlTimeToLive);
+            }
+        }
+        return crl;
+    }
+
+    /**
+     * Verifies that a certificate was signed with the private key that corresponds to the public key of the issuer
+     * certificate, unless this has already been verified.
+     *
+     * @param certificate the certificate to verify
+     * @param issuerCert  the issuer certificate
+     * @throws GeneralSecurityException if the signature of the certificate is not valid
+     */
+    public void verifyCertificate(Certificate certificate, Certificate issuerCert) throws GeneralSecurityException {
+        Object key = new CacheKey("cert", fingerprint(certificate.getEncoded()), fingerprint(issuerCert.getEncoded()));
+        if (get(key) == null) {
+            certificate.verify(issuerCert.getPublicKey());
+            put(key, Boolean.TRUE, timeToLive);
+        }
+    }
+
+    /**
+     * Checks if a CRL was signed by the issuer certificate, unless this has already been checked successfully.
+     *
+     * @param crl        the CRL
+     * @param issuerCert the issuer certificate
+     * @return true if the CRL verifies against the issuer certificate
+     */
+    public boolean isCrlSignatureValid(X509CRL crl, X509Certificate issuerCert) {
+        return isSignatureValid(crl, issuerCert);
+    }
+
+    /**
+     * Checks if an OCSP response was signed by the responder certificate, unless this has already been checked
+     * successfully.
+     *
+     * @param ocspResp      the OCSP response
+     * @param responderCert the responder certificate
+     * @return true if the OCSP response verifies against the responder certificate
+     */
+    public boolean isOcspSignatureValid(BasicOCSPResp ocspResp, Certificate responderCert) {
+        return isSignatureValid(ocspResp, responderCert);
+    }
+
+    /**
+     * Gets the number of lookups that were answered from the cache.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets the number of lookups that were not answered from the cache.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets the number of entries in the cache, including the expired ones that have not been evicted yet.
+     *
+     * @return the number of entries
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all the entries from the cache. The hit and miss counts are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the current time the expiration of the entries is checked against.
+     *
+     * @return the current time in milliseconds
+     */
+    protected long getCurrentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private boolean isSignatureValid(Object signedObject, Certificate signerCert) {
+        Object key = null;
+        try {
+            // the parsed CRLs and OCSP responses are shared through the cache, so they are identified by reference
+            key = new CacheKey("sig", new IdentityKey(signedObject), fingerprint(signerCert.getEncoded()));
+        } catch (GeneralSecurityException ignored) {
+            // the result is just not cached
+        }
+        if (key != null && get(key) != null) {
+            return true;
+        }
+        boolean valid;
+        if (signedObject instanceof CRL) {
+            try {
+                ((X509CRL) signedObject).verify(signerCert.getPublicKey());
+                valid = true;
+            } catch (GeneralSecurityException e) {
+                valid = false;
+            }
+        } else {
+            try {
+                valid = SignUtils.isSignatureValid((BasicOCSPResp) signedObject, signerCert, "BC");
+            } catch (Exception e) {
+                valid = false;
+            }
+        }
+        if (valid && key != null) {
+            put(key, Boolean.TRUE, timeToLive);
+        }
+        return valid;
+    }
+
+    private synchronized Object get(Object key) {
+        CacheEntry entry = entries.get(key);
+        if (entry != null && entry.expirationTime <= getCurrentTimeMillis()) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value;
+    }
+
+    private synchronized void put(Object key, Object value, long entryTimeToLive) {
+        entries.put(key, new CacheEntry(value, getCurrentTimeMillis() + entryTimeToLive));
+    }
+
+    private static ByteBuffer fingerprint(byte[] encoded) throws GeneralSecurityException {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+        return ByteBuffer.wrap(messageDigest.digest(encoded));
+    }
+
+    private static class CacheEntry {
+        private final Object value;
+        private final long expirationTime;
+
+        CacheEntry(Object value, long expirationTime) {
+            this.value = value;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    private static class CacheKey {
+        private final Object[] parts;
+
+        CacheKey(Object... parts) {
+            this.parts = parts;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof CacheKey && Arrays.equals(parts, ((CacheKey) obj).parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(parts);
+        }
+    }
+
+    private static class IdentityKey {
+        private final Object object;
+
+        IdentityKey(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IdentityKey && ((IdentityKey) obj).object == object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
+}
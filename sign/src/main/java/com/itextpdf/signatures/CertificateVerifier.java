@@ -46,6 +46,7 @@ package com.itextpdf.signatures;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
 import java.security.PublicKey;
+import java.security.cert.Certificate;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
 import java.util.Date;
@@ -65,6 +66,9 @@ public class CertificateVerifier {
     /** Indicates if going online to verify a certificate is allowed. */
     protected boolean onlineCheckingAllowed = true;
 
+    /** The cache of parsed revocation data and verification results, or null if nothing is cached. */
+    protected CertificateStatusCache certificateStatusCache;
+
     /**
      * Creates the final CertificateVerifier in a chain of verifiers.
      *
@@ -83,6 +87,16 @@ public class CertificateVerifier {
         this.onlineCheckingAllowed = onlineCheckingAllowed;
     }
 
+    /**
+     * Sets the cache of parsed revocation data and verification results. The same cache may be shared
+     * between many verifiers. By default, nothing is cached.
+     *
+     * @param certificateStatusCache the cache, or null to disable caching
+     */
+    public void setCertificateStatusCache(CertificateStatusCache certificateStatusCache) {
+        this.certificateStatusCache = certificateStatusCache;
+    }
+
     /**
      * Checks the validity of the certificate, and calls the next
      * verifier in the chain, if any.
@@ -100,15 +114,27 @@ public class CertificateVerifier {
             signCert.checkValidity(signDate);
         // Check if the signature is valid
         if (issuerCert != null) {
-            signCert.verify(issuerCert.getPublicKey());
+            verifyCertificateSignature(signCert, issuerCert);
         }
         // Also in case, the certificate is self-signed
         else {
-            signCert.verify(signCert.getPublicKey());
+            verifyCertificateSignature(signCert, signCert);
         }
         List<VerificationOK> result = new ArrayList<>();
         if (verifier != null)
             result.addAll(verifier.verify(signCert, issuerCert, signDate));
         return result;
     }
+
+    /**
+     * Verifies that a certificate was signed with the private key that corresponds to the public key of the issuer
+     * certificate, through the certificate status cache if it is set.
+     */
+    void verifyCertificateSignature(Certificate certificate, Certificate issuerCert) throws GeneralSecurityException {
+        if (certificateStatusCache != null) {
+            certificateStatusCache.verifyCertificate(certificate, issuerCert);
+        } else {
+            certificate.verify(issuerCert.getPublicKey());
+        }
+    }
 }
@@ -0,0 +1,109 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+
+/**
+ * An output stream that feeds every byte written through it into a {@link MessageDigest}
+ * until digesting is stopped. It is used by {@link PdfSigner} to hash the bulk of the document
+ * while it is being written, so that only the part written after the signature dictionary
+ * has to be read back before the signature is computed.
+ */
+final class DigestingOutputStream extends FilterOutputStream {
+
+    private final MessageDigest messageDigest;
+    private long digestedLength;
+    private boolean digesting = true;
+
+    DigestingOutputStream(OutputStream out, MessageDigest messageDigest) {
+        super(out);
+        this.messageDigest = messageDigest;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        if (digesting) {
+            messageDigest.update((byte) b);
+            ++digestedLength;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        if (digesting) {
+            messageDigest.update(b, off, len);
+            digestedLength += len;
+        }
+    }
+
+    /**
+     * Stops feeding the digest. All bytes written afterwards only go to the underlying stream.
+     */
+    void stopDigesting() {
+        digesting = false;
+    }
+
+    /**
+     * Gets the number of leading bytes of the output that were fed into the digest.
+     *
+     * @return the length of the digested prefix
+     */
+    long getDigestedLength() {
+        return digestedLength;
+    }
+
+    /**
+     * Gets the digest that was fed with the written bytes.
+     *
+     * @return the digest
+     */
+    MessageDigest getMessageDigest() {
+        return messageDigest;
+    }
+}
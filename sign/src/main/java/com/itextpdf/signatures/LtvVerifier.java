@@ -228,7 +228,7 @@ public class LtvVerifier extends RootStoreVerifier {
             cert.checkValidity(signDate);
             // check if the previous certificate was issued by this certificate
             if (i > 0)
-                chain[i-1].verify(chain[i].getPublicKey());
+                verifyCertificateSignature(chain[i-1], chain[i]);
         }
         LOGGER.info("All certificates are valid on " + signDate.toString());
     }
@@ -247,14 +247,17 @@ public class LtvVerifier extends RootStoreVerifier {
         // we'll verify agains the rootstore (if present)
         RootStoreVerifier rootStoreVerifier = new RootStoreVerifier(verifier);
         rootStoreVerifier.setRootStore(rootStore);
+        rootStoreVerifier.setCertificateStatusCache(certificateStatusCache);
         // We'll verify against a list of CRLs
         CRLVerifier crlVerifier = new CRLVerifier(rootStoreVerifier, getCRLsFromDSS());
         crlVerifier.setRootStore(rootStore);
         crlVerifier.setOnlineCheckingAllowed(latestRevision || onlineCheckingAllowed);
+        crlVerifier.setCertificateStatusCache(certificateStatusCache);
         // We'll verify against a list of OCSPs
         OCSPVerifier ocspVerifier = new OCSPVerifier(crlVerifier, getOCSPResponsesFromDSS());
         ocspVerifier.setRootStore(rootStore);
         ocspVerifier.setOnlineCheckingAllowed(latestRevision || onlineCheckingAllowed);
+        ocspVerifier.setCertificateStatusCache(certificateStatusCache);
         // We verify the chain
         return ocspVerifier.verify(signCert, issuerCert, signDate);
     }
@@ -305,7 +308,10 @@ public class LtvVerifier extends RootStoreVerifier {
             return crls;
         for (int i = 0; i < crlarray.size(); i++) {
             PdfStream stream = crlarray.getAsStream(i);
-            crls.add((X509CRL) SignUtils.parseCrlFromStream(new ByteArrayInputStream(stream.getBytes())));
+            if (certificateStatusCache != null)
+                crls.add(certificateStatusCache.parseCrl(stream.getBytes()));
+            else
+                crls.add((X509CRL) SignUtils.parseCrlFromStream(new ByteArrayInputStream(stream.getBytes())));
         }
         return crls;
     }
@@ -325,6 +331,12 @@ public class LtvVerifier extends RootStoreVerifier {
             return ocsps;
         for (int i = 0; i < ocsparray.size(); i++) {
             PdfStream stream = ocsparray.getAsStream(i);
+            if (certificateStatusCache != null) {
+                BasicOCSPResp ocspResp = certificateStatusCache.parseOcspResponse(stream.getBytes());
+                if (ocspResp != null)
+                    ocsps.add(ocspResp);
+                continue;
+            }
             OCSPResp ocspResponse = new OCSPResp(stream.getBytes());
             if (ocspResponse.getStatus() == 0)
                 try {
@@ -249,7 +249,7 @@ public class OCSPVerifier extends RootStoreVerifier {
         }
 
         //check "This certificate MUST be issued directly by the CA that issued the certificate in question".
-        responderCert.verify(issuerCert.getPublicKey());
+        verifyCertificateSignature(responderCert, issuerCert);
 
         // validating ocsp signers certificate
         // Check if responders certificate has id-pkix-ocsp-nocheck extension,
@@ -257,13 +257,18 @@ public class OCSPVerifier extends RootStoreVerifier {
         if (responderCert.getExtensionValue(OCSPObjectIdentifiers.id_pkix_ocsp_nocheck.getId()) == null) {
             CRL crl;
             try {
-                crl = CertificateUtil.getCRL(responderCert);
+                if (certificateStatusCache != null) {
+                    crl = certificateStatusCache.fetchCrl(CertificateUtil.getCRLURL(responderCert));
+                } else {
+                    crl = CertificateUtil.getCRL(responderCert);
+                }
             } catch (Exception ignored) {
                 crl = (CRL) null;
             }
             if (crl != null && crl instanceof X509CRL) {
                 CRLVerifier crlVerifier = new CRLVerifier(null, null);
                 crlVerifier.setRootStore(rootStore);
+                crlVerifier.setCertificateStatusCache(certificateStatusCache);
                 crlVerifier.setOnlineCheckingAllowed(onlineCheckingAllowed);
                 crlVerifier.verify((X509CRL)crl, responderCert, issuerCert, DateTimeUtil.getCurrentTimeDate());
                 return;
@@ -281,6 +286,9 @@ public class OCSPVerifier extends RootStoreVerifier {
      * @return	true if the OCSP response verifies against the responder certificate
      */
     public boolean isSignatureValid(BasicOCSPResp ocspResp, Certificate responderCert) {
+        if (certificateStatusCache != null) {
+            return certificateStatusCache.isOcspSignatureValid(ocspResp, responderCert);
+        }
         try {
             return SignUtils.isSignatureValid(ocspResp, responderCert, "BC");
         } catch (Exception e) {
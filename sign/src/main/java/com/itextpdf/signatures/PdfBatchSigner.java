@@ -0,0 +1,313 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures;
+
+import com.itextpdf.kernel.PdfException;
+import com.itextpdf.signatures.PdfSigner.CryptoStandard;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Signs many documents with detached signatures while calling the signing device once per batch of documents
+ * instead of once per document.
+ * <p>
+ * The documents are prepared in parallel: the space for the signature is reserved, the signed byte ranges are hashed
+ * and the authenticated attributes are built. The authenticated attributes of up to {@link #setMaxBatchSize(int)}
+ * documents are then passed to a single {@link IExternalBatchSignature#sign(List)} call, and the resulting
+ * signature containers are embedded in parallel while the next batch is being signed. The preparation is at most
+ * one batch ahead of the signing. Every document gets an ordinary CMS or CAdES signature, so the result is the same
+ * as signing the documents one by one with {@link PdfSigner#signDetached}.
+ * <p>
+ * The digest, CRL, OCSP and TSA clients are called concurrently from several threads.
+ */
+public class PdfBatchSigner {
+
+    private final IExternalDigest externalDigest;
+    private final IExternalBatchSignature externalSignature;
+    private final Certificate[] chain;
+    private final CryptoStandard sigtype;
+    private Collection<ICrlClient> crlList;
+    private IOcspClient ocspClient;
+    private ITSAClient tsaClient;
+    private int estimatedSize;
+    private int maxBatchSize = Integer.MAX_VALUE;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Creates a {@link PdfBatchSigner}.
+     *
+     * @param externalDigest    an implementation that provides the digest
+     * @param externalSignature the interface providing the actual signing of a batch of documents
+     * @param chain             the certificate chain
+     * @param sigtype           Either Signature.CMS or Signature.CADES
+     */
+    public PdfBatchSigner(IExternalDigest externalDigest, IExternalBatchSignature externalSignature, Certificate[] chain, CryptoStandard sigtype) {
+        this.externalDigest = externalDigest;
+        this.externalSignature = externalSignature;
+        this.chain = chain;
+        this.sigtype = sigtype;
+    }
+
+    /**
+     * Sets the CRL list.
+     *
+     * @param crlList the CRL list
+     * @return this instance
+     */
+    public PdfBatchSigner setCrlList(Collection<ICrlClient> crlList) {
+        this.crlList = crlList;
+        return this;
+    }
+
+    /**
+     * Sets the OCSP client.
+     *
+     * @param ocspClient the OCSP client
+     * @return this instance
+     */
+    public PdfBatchSigner setOcspClient(IOcspClient ocspClient) {
+        this.ocspClient = ocspClient;
+        return this;
+    }
+
+    /**
+     * Sets the Timestamp client.
+     *
+     * @param tsaClient the Timestamp client
+     * @return this instance
+     */
+    public PdfBatchSigner setTsaClient(ITSAClient tsaClient) {
+        this.tsaClient = tsaClient;
+        return this;
+    }
+
+    /**
+     * Sets the reserved size for the signature. It will be estimated if 0, which is the default.
+     *
+     * @param estimatedSize the reserved size for the signature
+     * @return this instance
+     */
+    public PdfBatchSigner setEstimatedSize(int estimatedSize) {
+        this.estimatedSize = estimatedSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of documents that are signed with a single {@link IExternalBatchSignature#sign(List)} call.
+     * By default, all the documents are signed at once.
+     *
+     * @param maxBatchSize the maximum number of documents in a batch, must be positive
+     * @return this instance
+     */
+    public PdfBatchSigner setMaxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize");
+        }
+        this.maxBatchSize = maxBatchSize;
+        return this;
+    }
+
+    /**
+     * Sets the number of threads the documents are prepared and completed on.
+     * By default, it is the number of available processors.
+     *
+     * @param threadCount the number of threads, must be positive
+     * @return this instance
+     */
+    public PdfBatchSigner setThreadCount(int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount");
+        }
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    /**
+     * Signs the documents of the given signers using the detached mode, CMS or CAdES equivalent.
+     * The appearance, field name and other properties of each signature are taken from its signer.
+     * <br><br>
+     * NOTE: This method closes the underlying pdf documents. If it fails, the exception of the first failing
+     * document or batch is rethrown. The documents of the batches that have been signed before are still completed,
+     * the signers of the other documents are closed as well and their outputs are not valid.
+     *
+     * @param signers the signers of the documents to be signed, each of them is used only once
+     * @throws IOException
+     * @throws GeneralSecurityException
+     */
+    public void signDetached(List<PdfSigner> signers) throws IOException, GeneralSecurityException {
+        if (signers.isEmpty()) {
+            return;
+        }
+        final String hashAlgorithm = externalSignature.getHashAlgorithm();
+        final String encryptionAlgorithm = externalSignature.getEncryptionAlgorithm();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, signers.size()));
+        List<Future<PdfSigner.PreparedSignature>> allPreparations = new ArrayList<>(signers.size());
+        List<Future<Object>> completions = new ArrayList<>(signers.size());
+        boolean succeeded = false;
+        try {
+            List<Future<PdfSigner.PreparedSignature>> preparations = submitPreparations(executor, signers, 0, hashAlgorithm);
+            allPreparations.addAll(preparations);
+            int batchStart = 0;
+            while (batchStart < signers.size()) {
+                // the next batch is prepared while this one is being signed
+                int nextBatchStart = batchStart + preparations.size();
+                List<Future<PdfSigner.PreparedSignature>> nextPreparations = submitPreparations(executor, signers,
+                        nextBatchStart, hashAlgorithm);
+                allPreparations.addAll(nextPreparations);
+                List<PdfSigner.PreparedSignature> batch = new ArrayList<>(preparations.size());
+                List<byte[]> messages = new ArrayList<>(preparations.size());
+                for (Future<PdfSigner.PreparedSignature> preparation : preparations) {
+                    PdfSigner.PreparedSignature preparedSignature = waitFor(preparation);
+                    batch.add(preparedSignature);
+                    messages.add(preparedSignature.getAuthenticatedAttributes());
+                }
+                List<byte[]> extSignatures = externalSignature.sign(messages);
+                if (extSignatures.size() != messages.size()) {
+                    throw new GeneralSecurityException("The batch signature returned " + extSignatures.size()
+                            + " signatures for " + messages.size() + " messages");
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    final PdfSigner signer = signers.get(batchStart + i);
+                    final PdfSigner.PreparedSignature preparedSignature = batch.get(i);
+                    final byte[] extSignature = extSignatures.get(i);
+                    completions.add(executor.submit(new Callable<Object>() {
+                        @Override
+                        public Object call() throws IOException, GeneralSecurityException {
+                            signer.completeDetached(preparedSignature, extSignature, encryptionAlgorithm);
+                            return null;
+                        }
+                    }));
+                }
+                preparations = nextPreparations;
+                batchStart = nextBatchStart;
+            }
+            for (Future<Object> completion : completions) {
+                waitFor(completion);
+            }
+            succeeded = true;
+        } finally {
+            // the documents of the batches that have been signed already are still completed
+            if (!succeeded && finishTasks(allPreparations, true) && finishTasks(completions, false)) {
+                for (PdfSigner signer : signers) {
+                    signer.closeIncomplete();
+                }
+            }
+            executor.shutdownNow();
+        }
+    }
+
+    private List<Future<PdfSigner.PreparedSignature>> submitPreparations(ExecutorService executor, List<PdfSigner> signers,
+            int batchStart, final String hashAlgorithm) {
+        int batchEnd = batchStart + Math.min(maxBatchSize, signers.size() - batchStart);
+        List<Future<PdfSigner.PreparedSignature>> preparations = new ArrayList<>(batchEnd - batchStart);
+        for (int i = batchStart; i < batchEnd; i++) {
+            final PdfSigner signer = signers.get(i);
+            preparations.add(executor.submit(new Callable<PdfSigner.PreparedSignature>() {
+                @Override
+                public PdfSigner.PreparedSignature call() throws IOException, GeneralSecurityException {
+                    return signer.prepareDetached(externalDigest, hashAlgorithm, chain, crlList, ocspClient, tsaClient,
+                            estimatedSize, sigtype, null);
+                }
+            }));
+        }
+        return preparations;
+    }
+
+    /**
+     * Waits until the tasks have finished after the signing has failed, so that their signers can be closed safely.
+     * The failures of the tasks are ignored, since the first failure has been reported already.
+     *
+     * @param tasks  the submitted tasks
+     * @param cancel whether the tasks that have not started yet are cancelled instead of waited for
+     * @return {@code false} if the current thread has been interrupted while waiting
+     */
+    private static boolean finishTasks(List<? extends Future<?>> tasks, boolean cancel) {
+        for (Future<?> task : tasks) {
+            if (cancel && task.cancel(false)) {
+                continue;
+            }
+            try {
+                waitFor(task);
+            } catch (Exception ignored) {
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> T waitFor(Future<T> result) throws IOException, GeneralSecurityException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PdfException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new PdfException(cause);
+        }
+    }
+}
@@ -737,6 +737,25 @@ public class PdfPKCS7 {
             sig.update(buf, off, len);
     }
 
+    /**
+     * Gets the digest that {@link #update(byte[], int, int)} feeds the signed data into.
+     *
+     * @return the digest, or null if the signed data is fed directly to the signature
+     */
+    MessageDigest getDataDigest() {
+        return rsaData != null || digestAttr != null || isTsp ? messageDigest : null;
+    }
+
+    /**
+     * Replaces the digest that {@link #update(byte[], int, int)} feeds the signed data into, e.g. with a digest
+     * that has already been fed with a part of the signed data. Only applicable if {@link #getDataDigest()} is not null.
+     *
+     * @param dataDigest the digest of the same algorithm
+     */
+    void setDataDigest(MessageDigest dataDigest) {
+        this.messageDigest = dataDigest;
+    }
+
     // adbe.x509.rsa_sha1 (PKCS#1)
 
     /**
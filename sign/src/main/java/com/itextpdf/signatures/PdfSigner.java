@@ -228,6 +228,16 @@ public class PdfSigner {
      */
     protected boolean closed;
 
+    /**
+     * The stream that hashes the output while it is written (can be null).
+     */
+    private DigestingOutputStream digestingOutputStream;
+
+    /**
+     * The file to which the signed document is written directly (can be null).
+     */
+    private File outputFile;
+
     /**
      * Creates a PdfSigner instance. Uses a {@link java.io.ByteArrayOutputStream} instead of a temporary file.
      *
@@ -293,6 +303,36 @@ public class PdfSigner {
         }
 
         originalOS = outputStream;
+        initSigner();
+    }
+
+    /**
+     * Creates a PdfSigner instance that writes the signed document directly to the passed file and hashes
+     * the document while it is being written.
+     * <p>
+     * The signature placeholder is patched in place in the output file, so neither a copy of the whole
+     * document in memory nor a temporary file is needed. Everything written before the signature dictionary,
+     * which in append mode includes the whole original document, is fed to the passed digest on the fly; only
+     * the rest of the output is read back before signing. The digest is used if its algorithm matches the one
+     * of the signature (or of the timestamp digest); otherwise the byte ranges are hashed from the file as usual.
+     *
+     * @param reader        PdfReader that reads the PDF file
+     * @param outputFile    File to which the signed PDF is written
+     * @param messageDigest the digest that is fed with the document bytes while they are written.
+     *                      It must be freshly created and not shared with other signers
+     * @param properties    {@link StampingProperties} for the signing document. Note that encryption will be
+     *                      preserved regardless of what is set in properties.
+     * @throws IOException
+     */
+    public PdfSigner(PdfReader reader, File outputFile, MessageDigest messageDigest, StampingProperties properties) throws IOException {
+        StampingProperties localProps = new StampingProperties(properties).preserveEncryption();
+        this.outputFile = outputFile;
+        this.digestingOutputStream = new DigestingOutputStream(FileUtil.getFileOutputStream(outputFile), messageDigest);
+        document = initDocument(reader, new PdfWriter(digestingOutputStream), localProps);
+        initSigner();
+    }
+
+    private void initSigner() {
         signDate = DateTimeUtil.getCurrentTimeCalendar();
         fieldName = getNewSigFieldName();
         appearance = new PdfSignatureAppearance(document, new Rectangle(0, 0), 1);
@@ -577,6 +617,20 @@ public class PdfSigner {
      */
     public void signDetached(IExternalDigest externalDigest, IExternalSignature externalSignature, Certificate[] chain, Collection<ICrlClient> crlList, IOcspClient ocspClient,
                              ITSAClient tsaClient, int estimatedSize, CryptoStandard sigtype, SignaturePolicyIdentifier signaturePolicy) throws IOException, GeneralSecurityException {
+        PreparedSignature preparedSignature = prepareDetached(externalDigest, externalSignature.getHashAlgorithm(), chain, crlList,
+                ocspClient, tsaClient, estimatedSize, sigtype, signaturePolicy);
+        byte[] extSignature = externalSignature.sign(preparedSignature.getAuthenticatedAttributes());
+        completeDetached(preparedSignature, extSignature, externalSignature.getEncryptionAlgorithm());
+    }
+
+    /**
+     * Reserves the space for a detached signature, pre-closes the document and computes the authenticated
+     * attributes that are to be signed. This is the first half of {@link #signDetached}, the signing itself
+     * and {@link #completeDetached} may be done later, e.g. for many documents at once by {@link PdfBatchSigner}.
+     */
+    PreparedSignature prepareDetached(IExternalDigest externalDigest, String hashAlgorithm, Certificate[] chain, Collection<ICrlClient> crlList,
+                                      IOcspClient ocspClient, ITSAClient tsaClient, int estimatedSize, CryptoStandard sigtype,
+                                      SignaturePolicyIdentifier signaturePolicy) throws IOException, GeneralSecurityException {
         if (closed) {
             throw new PdfException(PdfException.ThisInstanceOfPdfSignerAlreadyClosed);
         }
@@ -608,7 +662,6 @@ public class PdfSigner {
         if (sigtype == CryptoStandard.CADES && !isDocumentPdf2()) {
             addDeveloperExtension(PdfDeveloperExtension.ESIC_1_7_EXTENSIONLEVEL2);
         }
-        String hashAlgorithm = externalSignature.getHashAlgorithm();
         PdfSignature dic = new PdfSignature(PdfName.Adobe_PPKLite, sigtype == CryptoStandard.CADES ? PdfName.ETSI_CAdES_DETACHED : PdfName.Adbe_pkcs7_detached);
         dic.setReason(appearance.getReason());
         dic.setLocation(appearance.getLocation());
@@ -626,18 +679,31 @@ public class PdfSigner {
         if (signaturePolicy != null) {
             sgn.setSignaturePolicy(signaturePolicy);
         }
-        InputStream data = getRangeStream();
-        byte[] hash = DigestAlgorithms.digest(data, SignUtils.getMessageDigest(hashAlgorithm, externalDigest));
+        byte[] hash = finishRangeDigest(hashAlgorithm);
+        if (hash == null) {
+            InputStream data = getRangeStream();
+            hash = DigestAlgorithms.digest(data, SignUtils.getMessageDigest(hashAlgorithm, externalDigest));
+        }
         byte[] ocsp = null;
         if (chain.length >= 2 && ocspClient != null) {
             ocsp = ocspClient.getEncoded((X509Certificate) chain[0], (X509Certificate) chain[1], null);
         }
         byte[] sh = sgn.getAuthenticatedAttributeBytes(hash, ocsp, crlBytes, sigtype);
-        byte[] extSignature = externalSignature.sign(sh);
-        sgn.setExternalDigest(extSignature, null, externalSignature.getEncryptionAlgorithm());
+        return new PreparedSignature(sgn, hash, sh, ocsp, crlBytes, tsaClient, estimatedSize, sigtype);
+    }
+
+    /**
+     * Builds the signature container from the signed authenticated attributes of a signature prepared
+     * by {@link #prepareDetached}, embeds it and closes the signer.
+     */
+    void completeDetached(PreparedSignature preparedSignature, byte[] extSignature, String encryptionAlgorithm) throws IOException, GeneralSecurityException {
+        PdfPKCS7 sgn = preparedSignature.sgn;
+        sgn.setExternalDigest(extSignature, null, encryptionAlgorithm);
 
-        byte[] encodedSig = sgn.getEncodedPKCS7(hash, tsaClient, ocsp, crlBytes, sigtype);
+        byte[] encodedSig = sgn.getEncodedPKCS7(preparedSignature.hash, preparedSignature.tsaClient, preparedSignature.ocsp,
+                preparedSignature.crlBytes, preparedSignature.sigtype);
 
+        int estimatedSize = preparedSignature.estimatedSize;
         if (estimatedSize < encodedSig.length)
             throw new IOException("Not enough space");
 
@@ -651,6 +717,42 @@ public class PdfSigner {
         closed = true;
     }
 
+    /**
+     * Closes the document and releases the output of a signer whose signature will not be completed,
+     * e.g. because another document of the same batch could not be signed. The output is not valid afterwards.
+     * Does nothing if the signer has been closed already.
+     */
+    void closeIncomplete() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!document.isClosed()) {
+            try {
+                document.close();
+            } catch (Exception ignored) {
+            }
+        }
+        if (raf != null) {
+            try {
+                raf.close();
+            } catch (Exception ignored) {
+            }
+        }
+        if (tempFile != null) {
+            try {
+                tempFile.delete();
+            } catch (Exception ignored) {
+            }
+        }
+        if (originalOS != null) {
+            try {
+                originalOS.close();
+            } catch (Exception ignored) {
+            }
+        }
+    }
+
     /**
      * Sign the document using an external container, usually a PKCS7. The signature is fully composed
      * externally, iText will just put the container inside the document.
@@ -728,14 +830,17 @@ public class PdfSigner {
         Map<PdfName, Integer> exc = new HashMap<>();
         exc.put(PdfName.Contents, contentEstimated * 2 + 2);
         preClose(exc);
-        InputStream data = getRangeStream();
         MessageDigest messageDigest = tsa.getMessageDigest();
-        byte[] buf = new byte[4096];
-        int n;
-        while ((n = data.read(buf)) > 0) {
-            messageDigest.update(buf, 0, n);
+        byte[] tsImprint = finishRangeDigest(messageDigest.getAlgorithm());
+        if (tsImprint == null) {
+            InputStream data = getRangeStream();
+            byte[] buf = new byte[4096];
+            int n;
+            while ((n = data.read(buf)) > 0) {
+                messageDigest.update(buf, 0, n);
+            }
+            tsImprint = messageDigest.digest();
         }
-        byte[] tsImprint = messageDigest.digest();
         byte[] tsToken;
         try {
             tsToken = tsa.getTimeStampToken(tsImprint);
@@ -971,6 +1076,11 @@ public class PdfSigner {
             document.getCatalog().put(PdfName.Perms, docmdp);
             document.getCatalog().setModified();
         }
+        if (digestingOutputStream != null) {
+            // the signature dictionary holds the placeholders that are filled later, so digesting stops right before it
+            document.getWriter().flush();
+            digestingOutputStream.stopDigesting();
+        }
         cryptoDictionary.getPdfObject().flush(false);
         document.close();
 
@@ -987,7 +1097,8 @@ public class PdfSigner {
         for (int k = 3; k < range.length - 2; k += 2)
             range[k] -= range[k - 1];
 
-        if (tempFile == null) {
+        File documentFile = tempFile != null ? tempFile : outputFile;
+        if (documentFile == null) {
             bout = temporaryOS.toByteArray();
             range[range.length - 1] = bout.length - range[range.length - 2];
             ByteArrayOutputStream bos = new ByteArrayOutputStream();
@@ -1000,7 +1111,7 @@ public class PdfSigner {
             System.arraycopy(bos.toByteArray(), 0, bout, (int) byteRangePosition, (int) bos.size());
         } else {
             try {
-                raf = FileUtil.getRandomAccessFile(tempFile);
+                raf = FileUtil.getRandomAccessFile(documentFile);
                 long len = raf.length();
                 range[range.length - 1] = len - range[range.length - 2];
                 ByteArrayOutputStream bos = new ByteArrayOutputStream();
@@ -1017,9 +1128,11 @@ public class PdfSigner {
                     raf.close();
                 } catch (Exception ignored) {
                 }
-                try {
-                    tempFile.delete();
-                } catch (Exception ignored) {
+                if (tempFile != null) {
+                    try {
+                        tempFile.delete();
+                    } catch (Exception ignored) {
+                    }
                 }
                 throw e;
             }
@@ -1065,7 +1178,7 @@ public class PdfSigner {
                 os.write(obj);
                 if (bous.size() > lit.getBytesCount())
                     throw new IllegalArgumentException("The key is too big");
-                if (tempFile == null) {
+                if (raf == null) {
                     System.arraycopy(bous.toByteArray(), 0, bout, (int) lit.getPosition(), (int) bous.size());
                 } else {
                     raf.seek(lit.getPosition());
@@ -1074,7 +1187,7 @@ public class PdfSigner {
             }
             if (update.size() != exclusionLocations.size())
                 throw new IllegalArgumentException("The update dictionary has less keys than required");
-            if (tempFile == null) {
+            if (raf == null) {
                 originalOS.write(bout, 0, bout.length);
             } else {
                 if (originalOS != null) {
@@ -1091,10 +1204,10 @@ public class PdfSigner {
                 }
             }
         } finally {
-            if (tempFile != null) {
+            if (raf != null) {
                 raf.close();
 
-                if (originalOS != null) {
+                if (tempFile != null && originalOS != null) {
                     tempFile.delete();
                 }
             }
@@ -1108,6 +1221,46 @@ public class PdfSigner {
         }
     }
 
+    /**
+     * Completes the digest of the signed byte ranges that was started while the document was being written,
+     * reading back only the part of the output that was written after digesting stopped.
+     *
+     * @param hashAlgorithm the digest algorithm that is expected for the signature
+     * @return the digest of the byte ranges, or null if the document wasn't hashed while writing
+     * with the expected algorithm
+     * @throws IOException
+     */
+    private byte[] finishRangeDigest(String hashAlgorithm) throws IOException {
+        if (digestingOutputStream == null) {
+            return null;
+        }
+        MessageDigest messageDigest = digestingOutputStream.getMessageDigest();
+        long digestedLength = digestingOutputStream.getDigestedLength();
+        digestingOutputStream = null;
+        if (!isSameDigestAlgorithm(hashAlgorithm, messageDigest.getAlgorithm()) || digestedLength > range[1]) {
+            return null;
+        }
+        byte[] buf = new byte[8192];
+        for (int k = 0; k < range.length; k += 2) {
+            long position = Math.max(range[k], digestedLength);
+            long length = range[k] + range[k + 1] - position;
+            raf.seek(position);
+            while (length > 0) {
+                int r = raf.read(buf, 0, (int) Math.min((long) buf.length, length));
+                if (r < 0)
+                    throw new EOFException("unexpected eof");
+                messageDigest.update(buf, 0, r);
+                length -= r;
+            }
+        }
+        return messageDigest.digest();
+    }
+
+    private static boolean isSameDigestAlgorithm(String algorithm1, String algorithm2) {
+        String oid = DigestAlgorithms.getAllowedDigest(algorithm1);
+        return oid != null ? oid.equals(DigestAlgorithms.getAllowedDigest(algorithm2)) : algorithm1.equalsIgnoreCase(algorithm2);
+    }
+
     /**
      * Returns the underlying source.
      *
@@ -1292,4 +1445,39 @@ public class PdfSigner {
          */
         void getSignatureDictionary(PdfSignature sig);
     }
+
+    /**
+     * The state of a detached signature between {@link #prepareDetached} and {@link #completeDetached}.
+     */
+    static final class PreparedSignature {
+        private final PdfPKCS7 sgn;
+        private final byte[] hash;
+        private final byte[] authenticatedAttributes;
+        private final byte[] ocsp;
+        private final Collection<byte[]> crlBytes;
+        private final ITSAClient tsaClient;
+        private final int estimatedSize;
+        private final CryptoStandard sigtype;
+
+        PreparedSignature(PdfPKCS7 sgn, byte[] hash, byte[] authenticatedAttributes, byte[] ocsp, Collection<byte[]> crlBytes,
+                          ITSAClient tsaClient, int estimatedSize, CryptoStandard sigtype) {
+            this.sgn = sgn;
+            this.hash = hash;
+            this.authenticatedAttributes = authenticatedAttributes;
+            this.ocsp = ocsp;
+            this.crlBytes = crlBytes;
+            this.tsaClient = tsaClient;
+            this.estimatedSize = estimatedSize;
+            this.sigtype = sigtype;
+        }
+
+        /**
+         * Gets the encoded authenticated attributes, which is the message that is to be signed.
+         *
+         * @return the encoded authenticated attributes
+         */
+        byte[] getAuthenticatedAttributes() {
+            return authenticatedAttributes;
+        }
+    }
 }
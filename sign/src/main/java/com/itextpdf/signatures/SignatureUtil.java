@@ -46,6 +46,7 @@ package com.itextpdf.signatures;
 import com.itextpdf.forms.PdfAcroForm;
 import com.itextpdf.forms.fields.PdfFormField;
 import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.source.IRandomAccessSource;
 import com.itextpdf.io.source.RASInputStream;
 import com.itextpdf.io.source.RandomAccessFileOrArray;
 import com.itextpdf.io.source.RandomAccessSourceFactory;
@@ -60,12 +61,20 @@ import com.itextpdf.kernel.pdf.PdfString;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 /**
@@ -74,6 +83,8 @@ import java.util.Map;
 // TODO: REFACTOR. At this moment this serves as storage for some signature-related methods from iText 5 AcroFields
 public class SignatureUtil {
 
+    private static final int BUFFER_SIZE = 65536;
+
     private PdfDocument document;
     private PdfAcroForm acroForm;
     private Map<String, int[]> sigNames;
@@ -115,6 +126,144 @@ public class SignatureUtil {
         PdfSignature signature = getSignature(name);
         if (signature == null)
             return null;
+        PdfPKCS7 pk = readSignature(signature, provider);
+        updateByteRange(pk, signature);
+        return pk;
+    }
+
+    /**
+     * Verifies all the signatures of the document, see {@link #verifySignatures(String, int)}.
+     *
+     * @return the verification results in the order of {@link #getSignatureNames()}
+     */
+    public List<SignatureVerificationResult> verifySignatures() {
+        return verifySignatures(null);
+    }
+
+    /**
+     * Verifies all the signatures of the document, see {@link #verifySignatures(String, int)}.
+     *
+     * @param provider the provider or null for the default provider
+     * @return the verification results in the order of {@link #getSignatureNames()}
+     */
+    public List<SignatureVerificationResult> verifySignatures(String provider) {
+        return verifySignatures(provider, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Verifies all the signatures of the document concurrently.
+     * <p>
+     * Signatures of incremental revisions cover byte ranges that start at the beginning of the file and are
+     * nested into each other, so their common prefixes are hashed only once per digest algorithm, and only the
+     * part of each revision that follows its /Contents is hashed for each signature separately. The hashing of the
+     * remaining ranges and the verification of the signatures themselves run on several threads.
+     * <p>
+     * A signature that cannot be read or verified does not stop the verification of the others,
+     * the exception is reported by {@link SignatureVerificationResult#getException()} instead.
+     *
+     * @param provider    the provider or null for the default provider
+     * @param threadCount the number of threads the signatures are verified on, must be positive
+     * @return the verification results in the order of {@link #getSignatureNames()}
+     */
+    public List<SignatureVerificationResult> verifySignatures(String provider, int threadCount) {
+        if (threadCount < 1) {
+            throw new IllegalArgumentException("threadCount");
+        }
+        List<String> names = getSignatureNames();
+        int count = names.size();
+        List<SignatureVerificationResult> results = new ArrayList<>(count);
+        if (count == 0) {
+            return results;
+        }
+
+        // The document objects are not thread-safe, so all the signatures are read upfront on this thread
+        PdfPKCS7[] pkcs7s = new PdfPKCS7[count];
+        long[][] byteRanges = new long[count][];
+        Exception[] exceptions = new Exception[count];
+        for (int i = 0; i < count; i++) {
+            try {
+                PdfSignature signature = getSignature(names.get(i));
+                byteRanges[i] = signature.getByteRange().toLongArray();
+                pkcs7s[i] = readSignature(signature, provider);
+            } catch (Exception e) {
+                exceptions[i] = e;
+            }
+        }
+
+        IRandomAccessSource source = document.getReader().getSafeFile().createSourceView();
+        List<Future<Boolean>> verifications = new ArrayList<>(Collections.<Future<Boolean>>nCopies(count, null));
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, count));
+        try {
+            Map<String, List<Integer>> prefixGroups = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                if (pkcs7s[i] == null) {
+                    continue;
+                }
+                MessageDigest dataDigest = pkcs7s[i].getDataDigest();
+                long[] byteRange = byteRanges[i];
+                if (dataDigest != null && byteRange.length >= 4 && byteRange.length % 2 == 0 && byteRange[0] == 0) {
+                    String key = dataDigest.getAlgorithm();
+                    if (!prefixGroups.containsKey(key)) {
+                        prefixGroups.put(key, new ArrayList<Integer>());
+                    }
+                    prefixGroups.get(key).add(i);
+                } else {
+                    verifications.set(i, executor.submit(new SignatureVerificationTask(pkcs7s[i], source, byteRange, 0)));
+                }
+            }
+            for (List<Integer> group : prefixGroups.values()) {
+                hashCommonPrefixes(group, pkcs7s, byteRanges, source, executor, verifications);
+            }
+
+            for (int i = 0; i < count; i++) {
+                String name = names.get(i);
+                boolean valid = false;
+                Exception exception = exceptions[i];
+                if (exception == null) {
+                    try {
+                        valid = (boolean) verifications.get(i).get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new PdfException(e);
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof Error) {
+                            throw (Error) cause;
+                        }
+                        exception = (Exception) cause;
+                    }
+                }
+                results.add(new SignatureVerificationResult(name, getRevision(name), signatureCoversWholeDocument(name),
+                        pkcs7s[i], valid, exception));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    public PdfSignature getSignature(String name) {
+        PdfDictionary sigDict = getSignatureDictionary(name);
+        return sigDict != null ? new PdfSignature(sigDict) : null;
+    }
+
+    /**
+     * Gets the signature dictionary, the one keyed by /V.
+     *
+     * @param name the field name
+     * @return the signature dictionary keyed by /V or <CODE>null</CODE> if the field is not
+     * a signature
+     */
+    public PdfDictionary getSignatureDictionary(String name) {
+        getSignatureNames();
+        if (acroForm == null || !sigNames.containsKey(name))
+            return null;
+        PdfFormField field = acroForm.getField(name);
+        PdfDictionary merged = field.getPdfObject();
+        return merged.getAsDictionary(PdfName.V);
+    }
+
+    private PdfPKCS7 readSignature(PdfSignature signature, String provider) {
         try {
             PdfName sub = signature.getSubFilter();
             PdfString contents = signature.getContents();
@@ -127,7 +276,6 @@ public class SignatureUtil {
             }
             else
                 pk = new PdfPKCS7(PdfEncodings.convertToBytes(contents.getValue(), null), sub, provider);
-            updateByteRange(pk, signature);
             PdfString date = signature.getDate();
             if (date != null)
                 pk.setSignDate(PdfDate.decode(date.toString()));
@@ -146,25 +294,55 @@ public class SignatureUtil {
         }
     }
 
-    public PdfSignature getSignature(String name) {
-        PdfDictionary sigDict = getSignatureDictionary(name);
-        return sigDict != null ? new PdfSignature(sigDict) : null;
+    /* Hashes the ranges from the beginning of the file to the /Contents of the signatures of a group only once,
+       handing a copy of the digest state over to each signature as soon as its own first range is complete */
+    private static void hashCommonPrefixes(List<Integer> group, PdfPKCS7[] pkcs7s, final long[][] byteRanges, IRandomAccessSource source,
+                                           ExecutorService executor, List<Future<Boolean>> verifications) {
+        Collections.sort(group, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Long.compare(byteRanges[o1][1], byteRanges[o2][1]);
+            }
+        });
+        MessageDigest prefixDigest = pkcs7s[group.get(0)].getDataDigest();
+        try {
+            prefixDigest = (MessageDigest) prefixDigest.clone();
+        } catch (CloneNotSupportedException e) {
+            // the digest state cannot be handed over, so every signature hashes its whole byte range
+            for (int i : group) {
+                verifications.set(i, executor.submit(new SignatureVerificationTask(pkcs7s[i], source, byteRanges[i], 0)));
+            }
+            return;
+        }
+        byte[] buf = new byte[BUFFER_SIZE];
+        long position = 0;
+        try {
+            for (int i : group) {
+                long end = byteRanges[i][1];
+                while (position < end) {
+                    int read = readRange(source, position, buf, end - position);
+                    if (read <= 0) {
+                        break;
+                    }
+                    prefixDigest.update(buf, 0, read);
+                    position += read;
+                }
+                pkcs7s[i].setDataDigest((MessageDigest) prefixDigest.clone());
+                verifications.set(i, executor.submit(new SignatureVerificationTask(pkcs7s[i], source, byteRanges[i], 2)));
+            }
+        } catch (IOException e) {
+            throw new PdfException(e);
+        } catch (CloneNotSupportedException e) {
+            throw new PdfException(e);
+        }
     }
 
-    /**
-     * Gets the signature dictionary, the one keyed by /V.
-     *
-     * @param name the field name
-     * @return the signature dictionary keyed by /V or <CODE>null</CODE> if the field is not
-     * a signature
-     */
-    public PdfDictionary getSignatureDictionary(String name) {
-        getSignatureNames();
-        if (acroForm == null || !sigNames.containsKey(name))
-            return null;
-        PdfFormField field = acroForm.getField(name);
-        PdfDictionary merged = field.getPdfObject();
-        return merged.getAsDictionary(PdfName.V);
+    /* Reads a part of the source; the source is shared between the threads verifying the signatures */
+    private static int readRange(IRandomAccessSource source, long position, byte[] buf, long remaining) throws IOException {
+        int length = (int) Math.min((long) buf.length, remaining);
+        synchronized (source) {
+            return source.get(position, buf, 0, length);
+        }
     }
 
     /* Updates the /ByteRange with the provided value */
@@ -363,6 +541,38 @@ public class SignatureUtil {
         }
     }
 
+    private static class SignatureVerificationTask implements Callable<Boolean> {
+        private final PdfPKCS7 pkcs7;
+        private final IRandomAccessSource source;
+        private final long[] byteRange;
+        private final int firstRange;
+
+        SignatureVerificationTask(PdfPKCS7 pkcs7, IRandomAccessSource source, long[] byteRange, int firstRange) {
+            this.pkcs7 = pkcs7;
+            this.source = source;
+            this.byteRange = byteRange;
+            this.firstRange = firstRange;
+        }
+
+        @Override
+        public Boolean call() throws IOException, GeneralSecurityException {
+            byte[] buf = new byte[BUFFER_SIZE];
+            for (int k = firstRange; k + 1 < byteRange.length; k += 2) {
+                long position = byteRange[k];
+                long end = position + byteRange[k + 1];
+                while (position < end) {
+                    int read = readRange(source, position, buf, end - position);
+                    if (read <= 0) {
+                        break;
+                    }
+                    pkcs7.update(buf, 0, read);
+                    position += read;
+                }
+            }
+            return pkcs7.verify();
+        }
+    }
+
     private static class SorterComparator implements Comparator<Object[]> {
         @Override
         public int compare(Object[] o1, Object[] o2) {
@@ -0,0 +1,120 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures;
+
+/**
+ * The result of the verification of a single signature by {@link SignatureUtil#verifySignatures()}.
+ */
+public class SignatureVerificationResult {
+
+    private final String signatureName;
+    private final int revision;
+    private final boolean coversWholeDocument;
+    private final PdfPKCS7 pdfPKCS7;
+    private final boolean signatureValid;
+    private final Exception exception;
+
+    SignatureVerificationResult(String signatureName, int revision, boolean coversWholeDocument, PdfPKCS7 pdfPKCS7,
+                                boolean signatureValid, Exception exception) {
+        this.signatureName = signatureName;
+        this.revision = revision;
+        this.coversWholeDocument = coversWholeDocument;
+        this.pdfPKCS7 = pdfPKCS7;
+        this.signatureValid = signatureValid;
+        this.exception = exception;
+    }
+
+    /**
+     * Gets the name of the signature field.
+     *
+     * @return the signature field name
+     */
+    public String getSignatureName() {
+        return signatureName;
+    }
+
+    /**
+     * Gets the revision of the document the signature covers, see {@link SignatureUtil#getRevision(String)}.
+     *
+     * @return the revision
+     */
+    public int getRevision() {
+        return revision;
+    }
+
+    /**
+     * Checks if the signature covers the entire document, see {@link SignatureUtil#signatureCoversWholeDocument(String)}.
+     *
+     * @return true if the signature covers the entire document
+     */
+    public boolean coversWholeDocument() {
+        return coversWholeDocument;
+    }
+
+    /**
+     * Gets the {@link PdfPKCS7} object the signature was verified with, which can be used for further verification.
+     *
+     * @return the PdfPKCS7 object, or null if the signature could not be read
+     */
+    public PdfPKCS7 getPdfPKCS7() {
+        return pdfPKCS7;
+    }
+
+    /**
+     * Checks if the signature is valid, i.e. if {@link PdfPKCS7#verify()} succeeded.
+     *
+     * @return true if the signature is valid, false if it is invalid or could not be verified
+     */
+    public boolean isSignatureValid() {
+        return signatureValid;
+    }
+
+    /**
+     * Gets the exception that prevented the verification of the signature.
+     *
+     * @return the exception, or null if the signature was verified
+     */
+    public Exception getException() {
+        return exception;
+    }
+}
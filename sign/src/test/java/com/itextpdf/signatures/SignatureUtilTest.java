@@ -42,21 +42,43 @@
  */
 package com.itextpdf.signatures;
 
+import com.itextpdf.io.util.StreamUtil;
+import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.signatures.testutils.Pkcs12FileHelper;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.junit.Assert;
+import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Security;
+import java.security.cert.Certificate;
 import java.util.List;
 
 @Category(IntegrationTest.class)
 public class SignatureUtilTest extends ExtendedITextTest {
 
     private static final String sourceFolder = "./src/test/resources/com/itextpdf/signatures/SignatureUtilTest/";
+    private static final String destinationFolder = "./target/test/com/itextpdf/signatures/SignatureUtilTest/";
+    private static final String keystorePath = "./src/test/resources/com/itextpdf/signatures/sign/SigningTest/test.p12";
+    private static final char[] password = "kspass".toCharArray();
+
+    @BeforeClass
+    public static void before() {
+        Security.addProvider(new BouncyCastleProvider());
+        createOrClearDestinationFolder(destinationFolder);
+    }
 
     @Test
     public void getSignaturesTest01() throws IOException {
@@ -79,4 +101,72 @@ public class SignatureUtilTest extends ExtendedITextTest {
         Assert.assertEquals(0, signatureNames.size());
     }
 
+    @Test
+    public void verifySignaturesTest() throws IOException, GeneralSecurityException {
+        String signedPdf = signThreeTimes("verifySignaturesTest");
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(signedPdf));
+        SignatureUtil signatureUtil = new SignatureUtil(pdfDocument);
+        List<SignatureVerificationResult> results = signatureUtil.verifySignatures(null, 2);
+
+        Assert.assertEquals(3, results.size());
+        for (int i = 0; i < 3; i++) {
+            SignatureVerificationResult result = results.get(i);
+            String name = "Signature" + (i + 1);
+            Assert.assertEquals(name, result.getSignatureName());
+            Assert.assertNull(result.getException());
+            Assert.assertTrue(result.isSignatureValid());
+            Assert.assertEquals(i + 1, result.getRevision());
+            Assert.assertEquals(i == 2, result.coversWholeDocument());
+            Assert.assertArrayEquals(signatureUtil.verifySignature(name).getSigningCertificate().getEncoded(),
+                    result.getPdfPKCS7().getSigningCertificate().getEncoded());
+        }
+        pdfDocument.close();
+    }
+
+    @Test
+    public void verifySignaturesModifiedRevisionTest() throws IOException, GeneralSecurityException {
+        String signedPdf = signThreeTimes("verifySignaturesModifiedRevisionTest");
+        // Change the reason of the last signature, which is covered only by the last signature
+        byte[] bytes = StreamUtil.inputStreamToArray(new FileInputStream(signedPdf));
+        String content = new String(bytes, "ISO-8859-1");
+        int reasonPosition = content.lastIndexOf("(Reason 3)");
+        Assert.assertTrue(reasonPosition > 0);
+        bytes[reasonPosition + "(Reason ".length()] = (byte) '4';
+
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(new ByteArrayInputStream(bytes)));
+        List<SignatureVerificationResult> results = new SignatureUtil(pdfDocument).verifySignatures();
+
+        Assert.assertEquals(3, results.size());
+        Assert.assertTrue(results.get(0).isSignatureValid());
+        Assert.assertTrue(results.get(1).isSignatureValid());
+        Assert.assertFalse(results.get(2).isSignatureValid());
+        Assert.assertNull(results.get(2).getException());
+        pdfDocument.close();
+    }
+
+    @Test
+    public void verifySignaturesNoSignaturesTest() throws IOException {
+        PdfDocument pdfDocument = new PdfDocument(new PdfReader(sourceFolder + "simpleDocument.pdf"));
+        Assert.assertTrue(new SignatureUtil(pdfDocument).verifySignatures().isEmpty());
+        pdfDocument.close();
+    }
+
+    private static String signThreeTimes(String fileNamePrefix) throws IOException, GeneralSecurityException {
+        PrivateKey pk = Pkcs12FileHelper.readFirstKey(keystorePath, password, password);
+        Certificate[] chain = Pkcs12FileHelper.readFirstChain(keystorePath, password);
+        String src = sourceFolder + "simpleDocument.pdf";
+        String dest = null;
+        for (int i = 1; i <= 3; i++) {
+            dest = destinationFolder + fileNamePrefix + i + ".pdf";
+            PdfSigner signer = new PdfSigner(new PdfReader(src), new FileOutputStream(dest), new StampingProperties().useAppendMode());
+            signer.getSignatureAppearance()
+                    .setReason("Reason " + i)
+                    .setPageRect(new Rectangle(36, 700 - 100 * i, 200, 80));
+            signer.setFieldName("Signature" + i);
+            IExternalSignature pks = new PrivateKeySignature(pk, DigestAlgorithms.SHA256, BouncyCastleProvider.PROVIDER_NAME);
+            signer.signDetached(new BouncyCastleDigest(), pks, chain, null, null, null, 0, PdfSigner.CryptoStandard.CADES);
+            src = dest;
+        }
+        return dest;
+    }
 }
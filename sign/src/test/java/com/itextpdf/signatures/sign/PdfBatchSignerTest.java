@@ -0,0 +1,255 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures.sign;
+
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.StampingProperties;
+import com.itextpdf.signatures.BouncyCastleDigest;
+import com.itextpdf.signatures.DigestAlgorithms;
+import com.itextpdf.signatures.ICrlClient;
+import com.itextpdf.signatures.IExternalBatchSignature;
+import com.itextpdf.signatures.PdfBatchSigner;
+import com.itextpdf.signatures.PdfSigner;
+import com.itextpdf.signatures.PrivateKeySignature;
+import com.itextpdf.signatures.SignatureUtil;
+import com.itextpdf.signatures.testutils.Pkcs12FileHelper;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.IntegrationTest;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.Security;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Category(IntegrationTest.class)
+public class PdfBatchSignerTest extends ExtendedITextTest {
+
+    private static final String sourceFolder = "./src/test/resources/com/itextpdf/signatures/sign/SigningTest/";
+    private static final String destinationFolder = "./target/test/com/itextpdf/signatures/sign/PdfBatchSignerTest/";
+    private static final String keystorePath = "./src/test/resources/com/itextpdf/signatures/sign/SigningTest/test.p12";
+    private static final char[] password = "kspass".toCharArray();
+
+    private Certificate[] chain;
+    private PrivateKey pk;
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @BeforeClass
+    public static void before() {
+        Security.addProvider(new BouncyCastleProvider());
+        createOrClearDestinationFolder(destinationFolder);
+    }
+
+    @Before
+    public void init() throws KeyStoreException, IOException, CertificateException, NoSuchAlgorithmException, UnrecoverableKeyException {
+        pk = Pkcs12FileHelper.readFirstKey(keystorePath, password, password);
+        chain = Pkcs12FileHelper.readFirstChain(keystorePath, password);
+    }
+
+    @Test
+    public void batchSigningTest() throws GeneralSecurityException, IOException {
+        int documentCount = 5;
+        List<PdfSigner> signers = createSigners("batchSigningTest", documentCount);
+
+        TestBatchSignature batchSignature = new TestBatchSignature(pk);
+        new PdfBatchSigner(new BouncyCastleDigest(), batchSignature, chain, PdfSigner.CryptoStandard.CADES)
+                .setMaxBatchSize(2)
+                .setThreadCount(3)
+                .signDetached(signers);
+
+        Assert.assertEquals(3, batchSignature.getBatchCount());
+        Assert.assertEquals(documentCount, batchSignature.getMessageCount());
+        for (int i = 0; i < documentCount; i++) {
+            PdfDocument outDocument = new PdfDocument(new PdfReader(destinationFolder + "batchSigningTest" + i + ".pdf"));
+            SignatureUtil signatureUtil = new SignatureUtil(outDocument);
+            Assert.assertTrue(signatureUtil.signatureCoversWholeDocument("Signature1"));
+            Assert.assertTrue(signatureUtil.verifySignature("Signature1").verify());
+            outDocument.close();
+        }
+    }
+
+    @Test
+    public void batchSignatureCountMismatchTest() throws GeneralSecurityException, IOException {
+        junitExpectedException.expect(GeneralSecurityException.class);
+        junitExpectedException.expectMessage("The batch signature returned 1 signatures for 2 messages");
+
+        List<PdfSigner> signers = createSigners("batchSignatureCountMismatchTest", 2);
+
+        TestBatchSignature batchSignature = new TestBatchSignature(pk) {
+            @Override
+            public List<byte[]> sign(List<byte[]> messages) throws GeneralSecurityException {
+                return super.sign(messages.subList(0, 1));
+            }
+        };
+        new PdfBatchSigner(new BouncyCastleDigest(), batchSignature, chain, PdfSigner.CryptoStandard.CMS)
+                .signDetached(signers);
+    }
+
+    @Test
+    public void failedBatchClosesRemainingDocumentsTest() throws GeneralSecurityException, IOException {
+        List<PdfSigner> signers = createSigners("failedBatchClosesRemainingDocumentsTest", 6);
+
+        final AtomicInteger preparedCount = new AtomicInteger();
+        ICrlClient countingCrlClient = new ICrlClient() {
+            @Override
+            public Collection<byte[]> getEncoded(X509Certificate checkCert, String url) {
+                if (checkCert.equals(chain[0])) {
+                    preparedCount.incrementAndGet();
+                }
+                return null;
+            }
+        };
+        final List<Integer> preparedCountsWhenSigning = new ArrayList<>();
+        TestBatchSignature batchSignature = new TestBatchSignature(pk) {
+            @Override
+            public List<byte[]> sign(List<byte[]> messages) throws GeneralSecurityException {
+                preparedCountsWhenSigning.add(preparedCount.get());
+                if (getBatchCount() == 1) {
+                    throw new GeneralSecurityException("signing device failure");
+                }
+                return super.sign(messages);
+            }
+        };
+        try {
+            new PdfBatchSigner(new BouncyCastleDigest(), batchSignature, chain, PdfSigner.CryptoStandard.CMS)
+                    .setCrlList(Collections.singletonList(countingCrlClient))
+                    .setMaxBatchSize(2)
+                    .setThreadCount(2)
+                    .signDetached(signers);
+            Assert.fail("GeneralSecurityException expected");
+        } catch (GeneralSecurityException e) {
+            Assert.assertEquals("signing device failure", e.getMessage());
+        }
+
+        Assert.assertEquals(2, preparedCountsWhenSigning.size());
+        // the preparation is at most one batch ahead, so the third batch is not prepared while the first one is signed
+        Assert.assertTrue(preparedCountsWhenSigning.get(0) <= 4);
+        for (PdfSigner signer : signers) {
+            Assert.assertTrue(signer.getDocument().isClosed());
+        }
+        // the documents of the first batch have been signed before the failure, so they are completed
+        for (int i = 0; i < 2; i++) {
+            PdfDocument outDocument = new PdfDocument(new PdfReader(destinationFolder + "failedBatchClosesRemainingDocumentsTest" + i + ".pdf"));
+            Assert.assertTrue(new SignatureUtil(outDocument).verifySignature("Signature1").verify());
+            outDocument.close();
+        }
+    }
+
+    private static List<PdfSigner> createSigners(String fileNamePrefix, int count) throws IOException {
+        List<PdfSigner> signers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PdfSigner signer = new PdfSigner(new PdfReader(sourceFolder + "simpleDocument.pdf"),
+                    new FileOutputStream(destinationFolder + fileNamePrefix + i + ".pdf"), new StampingProperties().useAppendMode());
+            signer.getSignatureAppearance()
+                    .setReason("Batch " + i)
+                    .setLocation("TestCity")
+                    .setPageRect(new Rectangle(36, 648, 200, 100));
+            signer.setFieldName("Signature1");
+            signers.add(signer);
+        }
+        return signers;
+    }
+
+    // Stands in for a signing device that signs a whole batch of messages in one call
+    private static class TestBatchSignature implements IExternalBatchSignature {
+        private final PrivateKeySignature signature;
+        private int batchCount;
+        private int messageCount;
+
+        TestBatchSignature(PrivateKey pk) {
+            this.signature = new PrivateKeySignature(pk, DigestAlgorithms.SHA256, BouncyCastleProvider.PROVIDER_NAME);
+        }
+
+        @Override
+        public String getHashAlgorithm() {
+            return signature.getHashAlgorithm();
+        }
+
+        @Override
+        public String getEncryptionAlgorithm() {
+            return signature.getEncryptionAlgorithm();
+        }
+
+        @Override
+        public List<byte[]> sign(List<byte[]> messages) throws GeneralSecurityException {
+            batchCount++;
+            messageCount += messages.size();
+            List<byte[]> signatures = new ArrayList<>(messages.size());
+            for (byte[] message : messages) {
+                signatures.add(signature.sign(message));
+            }
+            return signatures;
+        }
+
+        int getBatchCount() {
+            return batchCount;
+        }
+
+        int getMessageCount() {
+            return messageCount;
+        }
+    }
+}
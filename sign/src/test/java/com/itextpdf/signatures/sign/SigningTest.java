@@ -58,6 +58,7 @@ import com.itextpdf.signatures.LtvVerifier;
 import com.itextpdf.signatures.PdfSignatureAppearance;
 import com.itextpdf.signatures.PdfSigner;
 import com.itextpdf.signatures.PrivateKeySignature;
+import com.itextpdf.signatures.SignatureUtil;
 import com.itextpdf.signatures.testutils.Pkcs12FileHelper;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
@@ -70,6 +71,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
 
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -340,6 +342,34 @@ public class SigningTest extends ExtendedITextTest {
         // TODO improve testing, e.g. check ID. For not at least we assert that exception is not thrown
     }
 
+    @Test
+    public void signWhileWritingAppendModeTest() throws GeneralSecurityException, IOException {
+        String src = sourceFolder + "simpleDocument.pdf";
+        String dest = destinationFolder + "signedWhileWritingAppendMode.pdf";
+
+        signWhileWriting(src, dest, DigestAlgorithms.SHA256, DigestAlgorithms.SHA256, true);
+        checkSignedDocument(dest, "Signature1");
+    }
+
+    @Test
+    public void signWhileWritingTest() throws GeneralSecurityException, IOException {
+        String src = sourceFolder + "simpleDocument.pdf";
+        String dest = destinationFolder + "signedWhileWriting.pdf";
+
+        signWhileWriting(src, dest, DigestAlgorithms.SHA256, DigestAlgorithms.SHA256, false);
+        checkSignedDocument(dest, "Signature1");
+    }
+
+    @Test
+    public void signWhileWritingDigestMismatchTest() throws GeneralSecurityException, IOException {
+        String src = sourceFolder + "simpleDocument.pdf";
+        String dest = destinationFolder + "signedWhileWritingDigestMismatch.pdf";
+
+        // the streamed digest doesn't match the signature digest, so the byte ranges are hashed from the file
+        signWhileWriting(src, dest, DigestAlgorithms.SHA1, DigestAlgorithms.SHA256, true);
+        checkSignedDocument(dest, "Signature1");
+    }
+
     protected void sign(String src, String name, String dest,
                         Certificate[] chain, PrivateKey pk,
                         String digestAlgorithm, PdfSigner.CryptoStandard subfilter,
@@ -381,6 +411,32 @@ public class SigningTest extends ExtendedITextTest {
         signer.signDetached(new BouncyCastleDigest(), pks, chain, null, null, null, 0, subfilter);
     }
 
+    private void signWhileWriting(String src, String dest, String streamedDigestAlgorithm, String digestAlgorithm, boolean isAppendMode)
+            throws GeneralSecurityException, IOException {
+        StampingProperties properties = new StampingProperties();
+        if (isAppendMode) {
+            properties.useAppendMode();
+        }
+        PdfSigner signer = new PdfSigner(new PdfReader(src), new File(dest),
+                new BouncyCastleDigest().getMessageDigest(streamedDigestAlgorithm), properties);
+        signer.getSignatureAppearance()
+                .setReason("Test 1")
+                .setLocation("TestCity")
+                .setPageRect(new Rectangle(36, 648, 200, 100));
+        signer.setFieldName("Signature1");
+
+        IExternalSignature pks = new PrivateKeySignature(pk, digestAlgorithm, BouncyCastleProvider.PROVIDER_NAME);
+        signer.signDetached(new BouncyCastleDigest(), pks, chain, null, null, null, 0, PdfSigner.CryptoStandard.CADES);
+    }
+
+    private static void checkSignedDocument(String dest, String signatureName) throws GeneralSecurityException, IOException {
+        PdfDocument outDocument = new PdfDocument(new PdfReader(dest));
+        SignatureUtil signatureUtil = new SignatureUtil(outDocument);
+        Assert.assertTrue(signatureUtil.signatureCoversWholeDocument(signatureName));
+        Assert.assertTrue(signatureUtil.verifySignature(signatureName).verify());
+        outDocument.close();
+    }
+
     private static Map<Integer, List<Rectangle>> getTestMap(Rectangle ignoredArea) {
         Map<Integer, List<Rectangle>> result = new HashMap<Integer, List<Rectangle>>();
         result.put(1, Arrays.asList(ignoredArea));
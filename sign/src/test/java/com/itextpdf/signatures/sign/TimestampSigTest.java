@@ -49,6 +49,7 @@ import com.itextpdf.signatures.testutils.Pkcs12FileHelper;
 import com.itextpdf.signatures.testutils.client.TestTsaClient;
 import com.itextpdf.test.ExtendedITextTest;
 import com.itextpdf.test.annotations.type.IntegrationTest;
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
@@ -98,6 +99,24 @@ public class TimestampSigTest extends ExtendedITextTest {
     }
 
 
+    @Test
+    public void timestampWhileWritingTest() throws IOException, GeneralSecurityException {
+        String tsaCertFileName = certsSrc + "tsCertRsa.p12";
+        String srcFileName = sourceFolder + "helloWorldDoc.pdf";
+        String outFileName = destinationFolder + "timestampWhileWritingTest.pdf";
+
+        Certificate[] tsaChain = Pkcs12FileHelper.readFirstChain(tsaCertFileName, password);
+        PrivateKey tsaPrivateKey = Pkcs12FileHelper.readFirstKey(tsaCertFileName, password, password);
+        TestTsaClient testTsa = new TestTsaClient(Arrays.asList(tsaChain), tsaPrivateKey);
+
+        PdfSigner signer = new PdfSigner(new PdfReader(srcFileName), new File(outFileName), testTsa.getMessageDigest(),
+                new StampingProperties().useAppendMode());
+        signer.timestamp(testTsa, "timestampSig1");
+
+        PadesSigTest.basicCheckSignedDoc(outFileName, "timestampSig1");
+    }
+
+
 //        TimeStampToken tsWrong = new TimeStampResponse(Files.readAllBytes(Paths.get("c:\\Users\\yulian\\Desktop\\myTs"))).getTimeStampToken();
 //
 //        JcaSimpleSignerInfoVerifierBuilder sigVerifBuilder = new JcaSimpleSignerInfoVerifierBuilder();
@@ -0,0 +1,173 @@
+/*
+    This file is part of the iText (R) project.
+    Copyright (c) 1998-2018 iText Group NV
+    Authors: Bruno Lowagie, Paulo Soares, et al.
+
+    This program is free software; you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License version 3
+    as published by the Free Software Foundation with the addition of the
+    following permission added to Section 15 as permitted in Section 7(a):
+    FOR ANY PART OF THE COVERED WORK IN WHICH THE COPYRIGHT IS OWNED BY
+    ITEXT GROUP. ITEXT GROUP DISCLAIMS THE WARRANTY OF NON INFRINGEMENT
+    OF THIRD PARTY RIGHTS
+
+    This program is distributed in the hope that it will be useful, but
+    WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+    or FITNESS FOR A PARTICULAR PURPOSE.
+    See the GNU Affero General Public License for more details.
+    You should have received a copy of the GNU Affero General Public License
+    along with this program; if not, see http://www.gnu.org/licenses or write to
+    the Free Software Foundation, Inc., 51 Franklin Street, Fifth Floor,
+    Boston, MA, 02110-1301 USA, or download the license from the following URL:
+    http://itextpdf.com/terms-of-use/
+
+    The interactive user interfaces in modified source and object code versions
+    of this program must display Appropriate Legal Notices, as required under
+    Section 5 of the GNU Affero General Public License.
+
+    In accordance with Section 7(b) of the GNU Affero General Public License,
+    a covered work must retain the producer line in every PDF that is created
+    or manipulated using iText.
+
+    You can be released from the requirements of the license by purchasing
+    a commercial license. Buying such a license is mandatory as soon as you
+    develop commercial activities involving the iText software without
+    disclosing the source code of your own applications.
+    These activities include: offering paid services to customers as an ASP,
+    serving PDFs on the fly in a web application, shipping iText with a closed
+    source product.
+
+    For more information, please contact iText Software Corp. at this
+    address: sales@itextpdf.com
+ */
+package com.itextpdf.signatures.verify;
+
+import com.itextpdf.io.util.DateTimeUtil;
+import com.itextpdf.signatures.CertificateStatusCache;
+import com.itextpdf.signatures.testutils.Pkcs12FileHelper;
+import com.itextpdf.signatures.testutils.builder.TestCrlBuilder;
+import com.itextpdf.signatures.testutils.client.TestCrlClient;
+import com.itextpdf.test.ExtendedITextTest;
+import com.itextpdf.test.annotations.type.UnitTest;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.Security;
+import java.security.SignatureException;
+import java.security.cert.X509CRL;
+import java.security.cert.X509Certificate;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.ExpectedException;
+
+@Category(UnitTest.class)
+public class CertificateStatusCacheTest extends ExtendedITextTest {
+    private static final String certsSrc = "./src/test/resources/com/itextpdf/signatures/certs/";
+    private static final char[] password = "testpass".toCharArray();
+
+    @Rule
+    public ExpectedException junitExpectedException = ExpectedException.none();
+
+    @BeforeClass
+    public static void before() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    @Test
+    public void parseCrlHitTest() throws Exception {
+        CertificateStatusCache cache = new CertificateStatusCache();
+        byte[] crlBytes = createCrl();
+
+        X509CRL crl = cache.parseCrl(crlBytes);
+        Assert.assertSame(crl, cache.parseCrl(crlBytes.clone()));
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void crlSignatureHitTest() throws Exception {
+        CertificateStatusCache cache = new CertificateStatusCache();
+        X509Certificate caCert = (X509Certificate) Pkcs12FileHelper.readFirstChain(certsSrc + "rootRsa.p12", password)[0];
+        X509Certificate signCert = (X509Certificate) Pkcs12FileHelper.readFirstChain(certsSrc + "signCertRsa01.p12", password)[0];
+        X509CRL crl = cache.parseCrl(createCrl());
+
+        Assert.assertTrue(cache.isCrlSignatureValid(crl, caCert));
+        Assert.assertTrue(cache.isCrlSignatureValid(crl, caCert));
+        Assert.assertFalse(cache.isCrlSignatureValid(crl, signCert));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(3, cache.getMissCount());
+    }
+
+    @Test
+    public void verifyCertificateFailureNotCachedTest() throws Exception {
+        CertificateStatusCache cache = new CertificateStatusCache();
+        X509Certificate caCert = (X509Certificate) Pkcs12FileHelper.readFirstChain(certsSrc + "rootRsa.p12", password)[0];
+        X509Certificate signCert = (X509Certificate) Pkcs12FileHelper.readFirstChain(certsSrc + "signCertRsa01.p12", password)[0];
+
+        cache.verifyCertificate(signCert, caCert);
+        cache.verifyCertificate(signCert, caCert);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.size());
+
+        junitExpectedException.expect(SignatureException.class);
+        cache.verifyCertificate(caCert, signCert);
+    }
+
+    @Test
+    public void expiredEntryTest() throws Exception {
+        TestClockCache cache = new TestClockCache(CertificateStatusCache.DEFAULT_MAX_SIZE, 1000);
+        byte[] crlBytes = createCrl();
+
+        X509CRL crl = cache.parseCrl(crlBytes);
+        cache.currentTime += 999;
+        Assert.assertSame(crl, cache.parseCrl(crlBytes));
+        cache.currentTime += 1;
+        cache.parseCrl(crlBytes);
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    public void maxSizeTest() throws Exception {
+        CertificateStatusCache cache = new CertificateStatusCache(1, CertificateStatusCache.DEFAULT_TIME_TO_LIVE);
+        X509Certificate caCert = (X509Certificate) Pkcs12FileHelper.readFirstChain(certsSrc + "rootRsa.p12", password)[0];
+        byte[] crlBytes = createCrl();
+
+        cache.parseCrl(crlBytes);
+        cache.verifyCertificate(caCert, caCert);
+        Assert.assertEquals(1, cache.size());
+        cache.parseCrl(crlBytes);
+        Assert.assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void invalidMaxSizeTest() {
+        junitExpectedException.expect(IllegalArgumentException.class);
+        new CertificateStatusCache(0, CertificateStatusCache.DEFAULT_TIME_TO_LIVE);
+    }
+
+    private static byte[] createCrl() throws Exception {
+        String caCertFileName = certsSrc + "rootRsa.p12";
+        X509Certificate caCert = (X509Certificate) Pkcs12FileHelper.readFirstChain(caCertFileName, password)[0];
+        PrivateKey caPrivateKey = Pkcs12FileHelper.readFirstKey(caCertFileName, password, password);
+        X509Certificate checkCert = (X509Certificate) Pkcs12FileHelper.readFirstChain(certsSrc + "signCertRsa01.p12", password)[0];
+        TestCrlBuilder crlBuilder = new TestCrlBuilder(caCert, DateTimeUtil.addDaysToDate(DateTimeUtil.getCurrentTimeDate(), -1));
+        return new TestCrlClient(crlBuilder, caPrivateKey).getEncoded(checkCert, null).iterator().next();
+    }
+
+    private static class TestClockCache extends CertificateStatusCache {
+        long currentTime = 1000000;
+
+        TestClockCache(int maxSize, long timeToLive) {
+            super(maxSize, timeToLive);
+        }
+
+        @Override
+        protected long getCurrentTimeMillis() {
+            return currentTime;
+        }
+    }
+}
@@ -44,6 +44,7 @@ package com.itextpdf.signatures.verify;
 
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.signatures.CertificateStatusCache;
 import com.itextpdf.signatures.LtvVerification;
 import com.itextpdf.signatures.LtvVerifier;
 import com.itextpdf.signatures.VerificationOK;
@@ -104,4 +105,21 @@ public class LtvVerifierTest extends ExtendedITextTest {
         Assert.assertEquals(7, verificationMessages.size());
     }
 
+    @Test
+    public void validLtvDocSharedCacheTest() throws IOException, GeneralSecurityException {
+        String ltvTsFileName = sourceFolder + "ltvDoc.pdf";
+
+        CertificateStatusCache cache = new CertificateStatusCache();
+        for (int i = 0; i < 2; i++) {
+            LtvVerifier verifier = new LtvVerifier(new PdfDocument(new PdfReader(ltvTsFileName)));
+            verifier.setCertificateOption(LtvVerification.CertificateOption.WHOLE_CHAIN);
+            verifier.setRootStore(Pkcs12FileHelper.initStore(certsSrc + "rootStore.p12", password));
+            verifier.setCertificateStatusCache(cache);
+            List<VerificationOK> verificationMessages = verifier.verify(null);
+
+            Assert.assertEquals(7, verificationMessages.size());
+        }
+        long missCount = cache.getMissCount();
+        Assert.assertTrue(cache.getHitCount() >= missCount);
+    }
 }